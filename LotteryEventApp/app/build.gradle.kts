@@ -32,6 +32,8 @@ android {
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
+        // java.time (DateFormats, Event) needs API 26 without desugaring
+        isCoreLibraryDesugaringEnabled = true
     }
 }
 
@@ -64,5 +66,6 @@ dependencies {
     implementation("org.osmdroid:osmdroid-android:6.1.14")
     annotationProcessor ("com.github.bumptech.glide:compiler:4.16.0")
     implementation("com.cloudinary:cloudinary-android:2.5.0")
+    coreLibraryDesugaring("com.android.tools:desugar_jdk_libs:2.1.5")
 
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.ijaskz.lotteryeventapp;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+import com.ijaskz.lotteryeventapp.repository.CacheFirstQuery;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares time to first content for My Waiting Lists, on the Firestore emulator: reading
+ * the entrant's entries from the server as the screen used to, against a cache-first load
+ * that shows the entries stored on the device and then syncs.
+ *
+ * <p>Start the emulator first ({@code firebase emulators:start --only firestore}); the
+ * test is skipped if it cannot be reached. Results are logged under the "CacheFirstLoad"
+ * tag as median and p95 latency in milliseconds. The emulator is on the same machine, so
+ * a real network widens the gap.</p>
+ *
+ * <p>For whole-app cold start, the screens report when their first content is drawn:
+ * run {@code adb shell am start -S -W -n com.ijaskz.lotteryeventapp/.LoginActivity}, open
+ * a screen, and read the "Fully drawn" line that ActivityTaskManager logs.</p>
+ */
+@RunWith(AndroidJUnit4.class)
+public class CacheFirstLoadBenchmark {
+
+    private static final String TAG = "CacheFirstLoad";
+    private static final String APP_NAME = "cache-first-load-benchmark";
+    /** The host machine, as seen from the Android emulator. */
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int EMULATOR_PORT = 8080;
+
+    private static final String ENTRANT = "bench_cache_entrant";
+    private static final int EVENTS = 60;
+    private static final int WARMUP = 5;
+    private static final int SAMPLES = 50;
+
+    private FirebaseFirestore db;
+    private boolean seeded;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        FirebaseApp app;
+        try {
+            app = FirebaseApp.getInstance(APP_NAME);
+        } catch (IllegalStateException e) {
+            app = FirebaseApp.initializeApp(context, FirebaseApp.getInstance().getOptions(), APP_NAME);
+            FirebaseFirestore.getInstance(app).useEmulator(EMULATOR_HOST, EMULATOR_PORT);
+        }
+        db = FirebaseFirestore.getInstance(app);
+
+        try {
+            seed();
+            seeded = true;
+        } catch (Exception e) {
+            assumeTrue("Firestore emulator not reachable: " + e, false);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        CacheFirstQuery.resetFullSyncs();
+        if (!seeded) return;
+        List<Task<Void>> deletes = new ArrayList<>();
+        for (int e = 0; e < EVENTS; e++) {
+            deletes.add(db.collection("waiting_list").document(docId(e)).delete());
+        }
+        Tasks.await(Tasks.whenAll(deletes), 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Times both loads with the entries already cached from an earlier session. Full-sync
+     * history is cleared before each cache-first load, as in a new process.
+     */
+    @Test
+    public void cacheFirstShowsContentSooner() throws Exception {
+        Query query = db.collection("waiting_list").whereEqualTo("entrant_id", ENTRANT);
+        // An earlier session read the entries, so they are on disk
+        Tasks.await(query.get(Source.SERVER), 10, TimeUnit.SECONDS);
+
+        List<Long> serverMs = new ArrayList<>();
+        List<Long> cachedMs = new ArrayList<>();
+        List<Long> syncedMs = new ArrayList<>();
+
+        for (int i = 0; i < WARMUP + SAMPLES; i++) {
+            long start = System.nanoTime();
+            int found = Tasks.await(query.get(), 10, TimeUnit.SECONDS).size();
+            long server = System.nanoTime() - start;
+            assertEquals(EVENTS, found);
+
+            CacheFirstQuery.resetFullSyncs();
+            long[] times = new long[2];
+            int[] sizes = new int[2];
+            boolean[] fromCache = new boolean[2];
+            CountDownLatch done = new CountDownLatch(2);
+            long loadStart = System.nanoTime();
+            new CacheFirstQuery(query, "updated_at", "bench/" + ENTRANT)
+                    .load(new CacheFirstQuery.Listener() {
+                        @Override
+                        public void onLoaded(List<DocumentSnapshot> docs, boolean cached) {
+                            int call = 2 - (int) done.getCount();
+                            times[call] = System.nanoTime() - loadStart;
+                            sizes[call] = docs.size();
+                            fromCache[call] = cached;
+                            done.countDown();
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            Log.e(TAG, "load failed", e);
+                        }
+                    });
+            assertTrue("cache-first load did not finish", done.await(10, TimeUnit.SECONDS));
+            assertTrue(fromCache[0]);
+            assertFalse(fromCache[1]);
+            assertEquals(EVENTS, sizes[0]);
+            assertEquals(EVENTS, sizes[1]);
+
+            if (i >= WARMUP) {
+                serverMs.add(TimeUnit.NANOSECONDS.toMillis(server));
+                cachedMs.add(TimeUnit.NANOSECONDS.toMillis(times[0]));
+                syncedMs.add(TimeUnit.NANOSECONDS.toMillis(times[1]));
+            }
+        }
+
+        Log.i(TAG, "server first:      median=" + percentile(serverMs, 50) + "ms p95=" + percentile(serverMs, 95) + "ms");
+        Log.i(TAG, "cache first shown: median=" + percentile(cachedMs, 50) + "ms p95=" + percentile(cachedMs, 95) + "ms");
+        Log.i(TAG, "cache first synced: median=" + percentile(syncedMs, 50) + "ms p95=" + percentile(syncedMs, 95) + "ms");
+        assertTrue("cached content should not show later than a server read",
+                percentile(cachedMs, 50) <= percentile(serverMs, 50));
+    }
+
+    private void seed() throws Exception {
+        WriteBatch batch = db.batch();
+        for (int e = 0; e < EVENTS; e++) {
+            WaitingListEntry entry = new WaitingListEntry(eventId(e), ENTRANT, "Bench", "bench@test.com");
+            batch.set(db.collection("waiting_list").document(docId(e)), entry);
+        }
+        Tasks.await(batch.commit(), 10, TimeUnit.SECONDS);
+    }
+
+    private static String eventId(int e) {
+        return "bench_cache_event_" + e;
+    }
+
+    private static String docId(int e) {
+        return WaitingListEntry.documentId(eventId(e), ENTRANT);
+    }
+
+    private static long percentile(List<Long> samples, int p) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+}
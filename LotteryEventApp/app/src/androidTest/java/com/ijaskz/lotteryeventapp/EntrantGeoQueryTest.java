@@ -0,0 +1,137 @@
+package com.ijaskz.lotteryeventapp;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+import com.ijaskz.lotteryeventapp.map.EntrantClusterLayer;
+import com.ijaskz.lotteryeventapp.util.Geohash;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks on the Firestore emulator that the entrant map reads only the area in view: a
+ * geohash cell's range query returns the event's entrants in that cell and no others, and
+ * a cell's count and average location come from an aggregation without reading entries.
+ *
+ * <p>Start the emulator first ({@code firebase emulators:start --only firestore} from the
+ * LotteryEventApp directory); the test is skipped if it cannot be reached.</p>
+ */
+@RunWith(AndroidJUnit4.class)
+public class EntrantGeoQueryTest {
+
+    private static final String APP_NAME = "entrant-geo-query-test";
+    /** The host machine, as seen from the Android emulator. */
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int EMULATOR_PORT = 8080;
+
+    private static final int EDMONTON = 6;
+    private static final int CALGARY = 30;
+
+    private FirebaseFirestore db;
+    private final String eventId = "geo_event_" + UUID.randomUUID();
+    private final List<String> seededIds = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        FirebaseApp app;
+        try {
+            app = FirebaseApp.getInstance(APP_NAME);
+        } catch (IllegalStateException e) {
+            app = FirebaseApp.initializeApp(context, FirebaseApp.getInstance().getOptions(), APP_NAME);
+            FirebaseFirestore.getInstance(app).useEmulator(EMULATOR_HOST, EMULATOR_PORT);
+        }
+        db = FirebaseFirestore.getInstance(app);
+
+        try {
+            seed();
+        } catch (Exception e) {
+            assumeTrue("Firestore emulator not reachable: " + e, false);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        List<Task<Void>> deletes = new ArrayList<>();
+        for (String id : seededIds) {
+            deletes.add(db.collection("waiting_list").document(id).delete());
+        }
+        Tasks.await(Tasks.whenAll(deletes), 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * A detail cell around downtown Edmonton holds the Edmonton entrants only.
+     */
+    @Test
+    public void regionQuery_readsOnlyEntrantsInCell() throws Exception {
+        String cell = Geohash.encode(53.5461, -113.4938, 5);
+        QuerySnapshot snap = Tasks.await(EntrantClusterLayer.inRegion(event(), cell)
+                .get(Source.SERVER), 10, TimeUnit.SECONDS);
+
+        assertEquals(EDMONTON, snap.size());
+        for (DocumentSnapshot doc : snap.getDocuments()) {
+            assertTrue(doc.getString("geohash").startsWith(cell));
+        }
+    }
+
+    /**
+     * A zoomed-out cell is summarized by the server: count and average location.
+     */
+    @Test
+    public void regionAggregate_countsAndAveragesCell() throws Exception {
+        String cell = Geohash.encode(51.0447, -114.0719, 3);
+        AggregateField.AverageAggregateField avgLat = AggregateField.average("latitude");
+        AggregateQuerySnapshot snap = Tasks.await(EntrantClusterLayer.inRegion(event(), cell)
+                .aggregate(AggregateField.count(), avgLat)
+                .get(AggregateSource.SERVER), 10, TimeUnit.SECONDS);
+
+        assertEquals(CALGARY, snap.getCount());
+        assertEquals(51.0447, snap.get(avgLat), 0.01);
+    }
+
+    private Query event() {
+        return db.collection("waiting_list").whereEqualTo("event_id", eventId);
+    }
+
+    private void seed() throws Exception {
+        WriteBatch batch = db.batch();
+        for (int i = 0; i < EDMONTON + CALGARY; i++) {
+            boolean edmonton = i < EDMONTON;
+            double lat = (edmonton ? 53.5461 : 51.0447) + (i % 3) * 0.001;
+            double lon = (edmonton ? -113.4938 : -114.0719) + (i % 2) * 0.001;
+            WaitingListEntry entry = new WaitingListEntry(eventId, "geo_user_" + i, "User " + i, null);
+            entry.setLatitude(lat);
+            entry.setLongitude(lon);
+            entry.setGeohash(Geohash.encode(lat, lon, Geohash.STORED_PRECISION));
+            String id = WaitingListEntry.documentId(eventId, entry.getEntrant_id());
+            batch.set(db.collection("waiting_list").document(id), entry);
+            seededIds.add(id);
+        }
+        Tasks.await(batch.commit(), 10, TimeUnit.SECONDS);
+    }
+}
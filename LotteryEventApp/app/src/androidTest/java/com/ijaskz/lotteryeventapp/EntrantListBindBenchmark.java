@@ -0,0 +1,151 @@
+package com.ijaskz.lotteryeventapp;
+
+import static org.junit.Assert.*;
+
+import android.app.Instrumentation;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures showing the organizer's entrant list for 10,000 and 100,000 entrants: time from
+ * handing the adapter its rows to the first frame's layout, view holders created, and Java
+ * heap held afterwards.
+ *
+ * <p>For comparison, also inflates the rows for 10,000 entrants into a LinearLayout, as the
+ * list did before it was a RecyclerView; 100,000 is too slow to be worth running that way.
+ * Results are logged under the "EntrantListBind" tag.</p>
+ */
+@RunWith(AndroidJUnit4.class)
+public class EntrantListBindBenchmark {
+
+    private static final String TAG = "EntrantListBind";
+    private static final String[] STATUSES = {"waiting", "waiting", "selected", "accepted", "declined"};
+    /** More view holders than this means rows outside the view were created. */
+    private static final int MAX_HOLDERS = 64;
+
+    /** Counts onCreateViewHolder calls. */
+    private static class CountingAdapter extends EntrantListAdapter {
+        int created;
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            created++;
+            return super.onCreateViewHolder(parent, viewType);
+        }
+    }
+
+    private Instrumentation instrumentation;
+    private ContextThemeWrapper context;
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        context = new ContextThemeWrapper(instrumentation.getTargetContext(), R.style.Theme_LotteryEventApp);
+    }
+
+    @Test
+    public void recyclerView_10k() throws Exception {
+        showInRecyclerView(10_000);
+    }
+
+    @Test
+    public void recyclerView_100k() throws Exception {
+        showInRecyclerView(100_000);
+    }
+
+    /** The old approach: one inflated row per entrant. */
+    @Test
+    public void linearLayout_10k() {
+        List<EntrantListItem> items = EntrantListItem.fromStore(store(10_000));
+        long heapBefore = usedHeap();
+        LinearLayout[] container = new LinearLayout[1];
+        long[] elapsed = new long[1];
+        instrumentation.runOnMainSync(() -> {
+            long start = System.nanoTime();
+            container[0] = new LinearLayout(context);
+            container[0].setOrientation(LinearLayout.VERTICAL);
+            LayoutInflater inflater = LayoutInflater.from(context);
+            for (EntrantListItem item : items) {
+                container[0].addView(inflater.inflate(item.isHeader()
+                        ? R.layout.item_entrant_section : R.layout.item_entrant_row, container[0], false));
+            }
+            measureAndLayout(container[0]);
+            elapsed[0] = System.nanoTime() - start;
+        });
+        Log.i(TAG, "LinearLayout 10000: first layout=" + elapsed[0] / 1_000_000 + "ms views="
+                + container[0].getChildCount() + " heap=" + (usedHeap() - heapBefore) / 1024 + "KB");
+    }
+
+    private void showInRecyclerView(int entrants) throws Exception {
+        EntrantSnapshotStore store = store(entrants);
+        int rows = EntrantListItem.fromStore(store).size();
+        long heapBefore = usedHeap();
+        RecyclerView[] recyclerView = new RecyclerView[1];
+        CountingAdapter adapter = new CountingAdapter();
+        CountDownLatch committed = new CountDownLatch(1);
+        long start = System.nanoTime();
+        instrumentation.runOnMainSync(() -> {
+            recyclerView[0] = new RecyclerView(context);
+            recyclerView[0].setLayoutManager(new LinearLayoutManager(context));
+            recyclerView[0].setAdapter(adapter);
+            recyclerView[0].addItemDecoration(new StickyHeaderDecoration(adapter));
+            adapter.setItems(EntrantListItem.fromStore(store), committed::countDown);
+        });
+        assertTrue("list was not applied", committed.await(30, TimeUnit.SECONDS));
+        instrumentation.runOnMainSync(() -> measureAndLayout(recyclerView[0]));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        Log.i(TAG, "RecyclerView " + entrants + ": first layout=" + elapsedMs + "ms holders="
+                + adapter.created + " rows=" + rows
+                + " heap=" + (usedHeap() - heapBefore) / 1024 + "KB");
+        assertEquals(rows, adapter.getItemCount());
+        assertTrue("created " + adapter.created + " holders", adapter.created <= MAX_HOLDERS);
+    }
+
+    private static EntrantSnapshotStore store(int entrants) {
+        EntrantSnapshotStore store = new EntrantSnapshotStore();
+        List<EntrantSnapshotStore.Change> changes = new ArrayList<>(entrants);
+        for (int i = 0; i < entrants; i++) {
+            changes.add(EntrantSnapshotStore.Change.put("entry_" + i, "Entrant " + i,
+                    "entrant" + i + "@example.com", STATUSES[i % STATUSES.length], null, null, i));
+        }
+        store.apply(changes);
+        return store;
+    }
+
+    /** A phone-sized measure and layout pass. */
+    private static void measureAndLayout(View view) {
+        view.measure(
+                View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, 1080, 1920);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,147 @@
+package com.ijaskz.lotteryeventapp;
+
+import static org.junit.Assert.*;
+
+import android.app.Instrumentation;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many rows EventsAdapter re-binds, and how long the following layout pass
+ * takes, when one event in a list of 2,000 is edited.
+ *
+ * <p>Compares the diffed update ({@link EventsAdapter#setEvents(List, Runnable)}) with the
+ * old behaviour of calling notifyDataSetChanged() for every snapshot. Results are logged
+ * under the "EventsAdapterBind" tag.</p>
+ */
+@RunWith(AndroidJUnit4.class)
+public class EventsAdapterBindBenchmark {
+
+    private static final String TAG = "EventsAdapterBind";
+    private static final int EVENTS = 2000;
+    private static final int ROUNDS = 30;
+
+    /** Counts onBindViewHolder calls. */
+    private static class CountingAdapter extends EventsAdapter {
+        int binds;
+
+        CountingAdapter() {
+            super("entrant");
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
+            binds++;
+            super.onBindViewHolder(holder, position);
+        }
+    }
+
+    private Instrumentation instrumentation;
+    private RecyclerView recyclerView;
+    private CountingAdapter adapter;
+    private List<Event> events;
+
+    @Before
+    public void setUp() throws Exception {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(event(i, 0));
+        }
+        instrumentation.runOnMainSync(() -> {
+            ContextThemeWrapper context = new ContextThemeWrapper(
+                    instrumentation.getTargetContext(), R.style.Theme_LotteryEventApp);
+            recyclerView = new RecyclerView(context);
+            recyclerView.setLayoutManager(new LinearLayoutManager(context));
+            // Change animations bind a second holder; count steady-state binds only
+            recyclerView.setItemAnimator(null);
+            adapter = new CountingAdapter();
+            recyclerView.setAdapter(adapter);
+        });
+        submitAndWait(events);
+        layout();
+    }
+
+    /**
+     * Editing one visible event re-binds only that row with the differ, but every visible
+     * row with notifyDataSetChanged().
+     */
+    @Test
+    public void editingOneEvent_rebindsOneRow() throws Exception {
+        List<Long> diffedNs = new ArrayList<>();
+        List<Long> fullNs = new ArrayList<>();
+        int diffedBinds = 0;
+        int fullBinds = 0;
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            events = new ArrayList<>(events);
+            events.set(1, event(1, round));
+            adapter.binds = 0;
+            submitAndWait(events);
+            diffedNs.add(layout());
+            diffedBinds += adapter.binds;
+
+            adapter.binds = 0;
+            instrumentation.runOnMainSync(() -> adapter.notifyDataSetChanged());
+            fullNs.add(layout());
+            fullBinds += adapter.binds;
+        }
+
+        Log.i(TAG, "diffed: binds/update=" + (double) diffedBinds / ROUNDS
+                + " layout median=" + median(diffedNs) / 1000 + "us");
+        Log.i(TAG, "notifyDataSetChanged: binds/update=" + (double) fullBinds / ROUNDS
+                + " layout median=" + median(fullNs) / 1000 + "us");
+        assertEquals("only the edited row re-binds", ROUNDS, diffedBinds);
+        assertTrue(fullBinds > diffedBinds);
+    }
+
+    private static Event event(int i, int revision) {
+        Event e = new Event("Description " + i, "Organizer", "Edmonton", "Event " + i + " v" + revision,
+                50, "2025-12-01 10:00", null);
+        e.setEvent_id("event_" + i);
+        return e;
+    }
+
+    private void submitAndWait(List<Event> list) throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        instrumentation.runOnMainSync(() -> adapter.setEvents(list, committed::countDown));
+        assertTrue("diff did not finish", committed.await(10, TimeUnit.SECONDS));
+    }
+
+    /** Runs a measure and layout pass on the main thread, returning its duration in ns. */
+    private long layout() {
+        long[] elapsed = new long[1];
+        instrumentation.runOnMainSync(() -> {
+            long start = System.nanoTime();
+            recyclerView.measure(
+                    View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY));
+            recyclerView.layout(0, 0, 1080, 1920);
+            elapsed[0] = System.nanoTime() - start;
+        });
+        return elapsed[0];
+    }
+
+    private static long median(List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,136 @@
+package com.ijaskz.lotteryeventapp;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks on the Firestore emulator that organizer views are filtered by the server: the
+ * organizer feed query returns only the organizer's events, and organizers who share a
+ * display name no longer see each other's events.
+ *
+ * <p>Start the emulator first ({@code firebase emulators:start --only firestore} from the
+ * LotteryEventApp directory); the test is skipped if it cannot be reached. The emulator
+ * does not require composite indexes, so this does not check firestore.indexes.json.</p>
+ */
+@RunWith(AndroidJUnit4.class)
+public class OrganizerEventsQueryTest {
+
+    private static final String APP_NAME = "organizer-events-query-test";
+    /** The host machine, as seen from the Android emulator. */
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int EMULATOR_PORT = 8080;
+
+    private static final int MINE = 5;
+    private static final int OTHERS = 40;
+
+    private FirebaseFirestore db;
+    private final String me = "org_" + UUID.randomUUID();
+    private final String other = "org_" + UUID.randomUUID();
+    private final List<String> seededIds = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        FirebaseApp app;
+        try {
+            app = FirebaseApp.getInstance(APP_NAME);
+        } catch (IllegalStateException e) {
+            app = FirebaseApp.initializeApp(context, FirebaseApp.getInstance().getOptions(), APP_NAME);
+            FirebaseFirestore.getInstance(app).useEmulator(EMULATOR_HOST, EMULATOR_PORT);
+        }
+        db = FirebaseFirestore.getInstance(app);
+
+        try {
+            seed();
+        } catch (Exception e) {
+            assumeTrue("Firestore emulator not reachable: " + e, false);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        List<Task<Void>> deletes = new ArrayList<>();
+        for (String id : seededIds) {
+            deletes.add(db.collection("events").document(id).delete());
+        }
+        Tasks.await(Tasks.whenAll(deletes), 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * The organizer query reads exactly the organizer's events, newest first, even though
+     * the other organizer has the same name and more events.
+     */
+    @Test
+    public void organizerQuery_readsOnlyOwnEvents() throws Exception {
+        QuerySnapshot snap = Tasks.await(EventStream.orderedEvents(db, me).get(Source.SERVER),
+                10, TimeUnit.SECONDS);
+
+        assertEquals(MINE, snap.size());
+        Timestamp previous = null;
+        for (DocumentSnapshot doc : snap.getDocuments()) {
+            assertEquals(me, doc.getString("organizer_id"));
+            Timestamp created = doc.getTimestamp("createdAt");
+            if (previous != null) assertTrue(created.compareTo(previous) <= 0);
+            previous = created;
+        }
+    }
+
+    /**
+     * The first page of the organizer feed is limited to the organizer's events too.
+     */
+    @Test
+    public void organizerFirstPage_readsOnlyOwnEvents() throws Exception {
+        QuerySnapshot snap = Tasks.await(EventStream.orderedEvents(db, other)
+                .limit(PagedEventFeed.PAGE_SIZE).get(Source.SERVER), 10, TimeUnit.SECONDS);
+
+        assertEquals(PagedEventFeed.PAGE_SIZE, snap.size());
+        for (DocumentSnapshot doc : snap.getDocuments()) {
+            assertEquals(other, doc.getString("organizer_id"));
+        }
+    }
+
+    private void seed() throws Exception {
+        WriteBatch batch = db.batch();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < MINE + OTHERS; i++) {
+            String id = "organizer_query_" + UUID.randomUUID();
+            Map<String, Object> data = new HashMap<>();
+            data.put("event_name", "Event " + i);
+            // Same display name for both organizers: only the id tells them apart
+            data.put("organizer_name", "Pat Organizer");
+            data.put("organizer_id", i < MINE ? me : other);
+            data.put("createdAt", new Timestamp(new Date(now - i * 1000L)));
+            batch.set(db.collection("events").document(id), data);
+            seededIds.add(id);
+        }
+        Tasks.await(batch.commit(), 10, TimeUnit.SECONDS);
+    }
+}
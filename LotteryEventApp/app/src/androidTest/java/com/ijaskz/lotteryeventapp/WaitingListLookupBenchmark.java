@@ -0,0 +1,156 @@
+package com.ijaskz.lotteryeventapp;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares looking up an entrant's waiting list entry with a where-query against reading
+ * it by its (event, entrant) document id, on the Firestore emulator.
+ *
+ * <p>Start the emulator first ({@code firebase emulators:start --only firestore}); the
+ * test is skipped if it cannot be reached. Results are logged under the
+ * "WaitingListLookup" tag as median and p95 latency in milliseconds.</p>
+ */
+@RunWith(AndroidJUnit4.class)
+public class WaitingListLookupBenchmark {
+
+    private static final String TAG = "WaitingListLookup";
+    private static final String APP_NAME = "waiting-list-lookup-benchmark";
+    /** The host machine, as seen from the Android emulator. */
+    private static final String EMULATOR_HOST = "10.0.2.2";
+    private static final int EMULATOR_PORT = 8080;
+
+    private static final int EVENTS = 10;
+    private static final int ENTRANTS_PER_EVENT = 40; // one batch holds at most 500 writes
+    private static final int WARMUP = 20;
+    private static final int SAMPLES = 200;
+
+    private FirebaseFirestore db;
+    private boolean seeded;
+
+    @Before
+    public void setUp() throws Exception {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        FirebaseApp app;
+        try {
+            app = FirebaseApp.getInstance(APP_NAME);
+        } catch (IllegalStateException e) {
+            app = FirebaseApp.initializeApp(context, FirebaseApp.getInstance().getOptions(), APP_NAME);
+            FirebaseFirestore.getInstance(app).useEmulator(EMULATOR_HOST, EMULATOR_PORT);
+        }
+        db = FirebaseFirestore.getInstance(app);
+
+        try {
+            seed();
+            seeded = true;
+        } catch (Exception e) {
+            assumeTrue("Firestore emulator not reachable: " + e, false);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (!seeded) return;
+        List<Task<Void>> deletes = new ArrayList<>();
+        for (int e = 0; e < EVENTS; e++) {
+            for (int u = 0; u < ENTRANTS_PER_EVENT; u++) {
+                deletes.add(db.collection("waiting_list").document(docId(e, u)).delete());
+            }
+        }
+        Tasks.await(Tasks.whenAll(deletes), 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Times both lookups for the same randomly chosen entrants, reading from the server so
+     * the local cache does not hide the difference.
+     */
+    @Test
+    public void pointReadIsFasterThanQuery() throws Exception {
+        List<Long> queryMs = new ArrayList<>();
+        List<Long> readMs = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < WARMUP + SAMPLES; i++) {
+            int e = random.nextInt(EVENTS);
+            int u = random.nextInt(ENTRANTS_PER_EVENT);
+
+            long start = System.nanoTime();
+            int found = Tasks.await(db.collection("waiting_list")
+                    .whereEqualTo("event_id", eventId(e))
+                    .whereEqualTo("entrant_id", entrantId(u))
+                    .limit(1)
+                    .get(Source.SERVER), 10, TimeUnit.SECONDS).size();
+            long queried = System.nanoTime();
+            boolean exists = Tasks.await(db.collection("waiting_list")
+                    .document(WaitingListEntry.documentId(eventId(e), entrantId(u)))
+                    .get(Source.SERVER), 10, TimeUnit.SECONDS).exists();
+            long read = System.nanoTime();
+
+            assertEquals(1, found);
+            assertTrue(exists);
+            if (i >= WARMUP) {
+                queryMs.add(TimeUnit.NANOSECONDS.toMillis(queried - start));
+                readMs.add(TimeUnit.NANOSECONDS.toMillis(read - queried));
+            }
+        }
+
+        Log.i(TAG, "query:      median=" + percentile(queryMs, 50) + "ms p95=" + percentile(queryMs, 95) + "ms");
+        Log.i(TAG, "point read: median=" + percentile(readMs, 50) + "ms p95=" + percentile(readMs, 95) + "ms");
+        assertTrue("point reads should not be slower than queries",
+                percentile(readMs, 50) <= percentile(queryMs, 50));
+    }
+
+    private void seed() throws Exception {
+        WriteBatch batch = db.batch();
+        for (int e = 0; e < EVENTS; e++) {
+            for (int u = 0; u < ENTRANTS_PER_EVENT; u++) {
+                WaitingListEntry entry = new WaitingListEntry(eventId(e), entrantId(u), "Bench " + u, "bench@test.com");
+                batch.set(db.collection("waiting_list").document(docId(e, u)), entry);
+            }
+        }
+        Tasks.await(batch.commit(), 10, TimeUnit.SECONDS);
+    }
+
+    private static String eventId(int e) {
+        return "bench_event_" + e;
+    }
+
+    private static String entrantId(int u) {
+        return "bench_entrant_" + u;
+    }
+
+    private static String docId(int e, int u) {
+        return WaitingListEntry.documentId(eventId(e), entrantId(u));
+    }
+
+    private static long percentile(List<Long> samples, int p) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+}
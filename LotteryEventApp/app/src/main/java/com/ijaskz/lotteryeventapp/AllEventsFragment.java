@@ -1,29 +1,32 @@
 package com.ijaskz.lotteryeventapp;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Button;
 import android.widget.LinearLayout;
 import android.widget.EditText;
 import android.widget.Spinner;
+import android.widget.TextView;
 import android.widget.ArrayAdapter;
 import android.text.Editable;
 import android.text.TextWatcher;
 
-import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.Query;
+import com.ijaskz.lotteryeventapp.search.EventSearcher;
+import com.ijaskz.lotteryeventapp.search.EventStatusIndex;
+import com.ijaskz.lotteryeventapp.search.RegistrationStatus;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.google.firebase.firestore.ListenerRegistration;
-
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,17 +43,23 @@ public class AllEventsFragment extends Fragment {
     private RecyclerView rvEvents;
     private EventsAdapter adapter;
     private final FireStoreHelper helper = new FireStoreHelper();
-    private ListenerRegistration reg;
+    private PagedEventFeed feed;
+    private EventSearcher searcher;
+    private EventStatusIndex statusIndex;
     private EditText etFilterQuery;
     private Spinner spFilterStatus;
+    private Button btnLoadMore;
+    private TextView tvSearchScope;
 
     /**
-     * Stores all events before filters are applied.
+     * Stores the loaded pages of events before filters are applied.
      */
     private final List<Event> allEvents = new ArrayList<>();
     private String currentQuery = "";
-    private String currentStatus = "Any";
-    private ListenerRegistration reg2;
+    /** Status to filter by; null for "Any". */
+    @Nullable private RegistrationStatus currentStatus;
+    /** Whether the one automatic page load allowed since the filters last changed was made. */
+    private boolean autoLoaded;
 
     /**
      * Creating the all events fragment view.
@@ -66,6 +75,11 @@ public class AllEventsFragment extends Fragment {
 
         rvEvents = v.findViewById(R.id.rv_events);
         rvEvents.setLayoutManager(new LinearLayoutManager(requireContext()));
+        tvSearchScope = v.findViewById(R.id.tv_search_scope);
+        btnLoadMore = v.findViewById(R.id.btn_load_more);
+        btnLoadMore.setOnClickListener(view -> {
+            if (feed != null) feed.loadNext();
+        });
 
         // Organizer-specific UI controls
         LinearLayout pic1 = v.findViewById(R.id.pic1);
@@ -75,9 +89,22 @@ public class AllEventsFragment extends Fragment {
 
         adapter = new EventsAdapter(userType, pic1, pic2);
         rvEvents.setAdapter(adapter);
-
-        // Listen for event updates
-        reg = helper.listenToEvents(adapter);
+        searcher = new EventSearcher(ContextCompat.getMainExecutor(requireContext()));
+
+        // Moves events between status buckets as their registration windows open and close
+        Handler handler = new Handler(Looper.getMainLooper());
+        statusIndex = new EventStatusIndex(
+                (task, delayMs) -> {
+                    handler.postDelayed(task, delayMs);
+                    return () -> handler.removeCallbacks(task);
+                },
+                System::currentTimeMillis,
+                eventIds -> {
+                    if (adapter == null) return;
+                    adapter.refreshStatus(eventIds);
+                    if (currentStatus != null) applyFilters();
+                });
+        adapter.setStatusIndex(statusIndex);
 
         // Search filter input
         etFilterQuery = v.findViewById(R.id.et_filter_query);
@@ -96,7 +123,8 @@ public class AllEventsFragment extends Fragment {
             spFilterStatus.setOnItemSelectedListener(new android.widget.AdapterView.OnItemSelectedListener() {
                 @Override
                 public void onItemSelected(android.widget.AdapterView<?> parent, View view, int position, long id) {
-                    currentStatus = (String) parent.getItemAtPosition(position);
+                    currentStatus = RegistrationStatus.fromLabel((String) parent.getItemAtPosition(position));
+                    autoLoaded = false;
                     applyFilters();
                 }
                 @Override
@@ -110,30 +138,32 @@ public class AllEventsFragment extends Fragment {
                 @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
                 @Override public void onTextChanged(CharSequence s, int start, int before, int count) {
                     currentQuery = s != null ? s.toString().trim() : "";
+                    autoLoaded = false;
                     applyFilters();
                 }
                 @Override public void afterTextChanged(Editable s) {}
             });
         }
 
-        // Real-time listener to keep `allEvents` updated
-        reg2 = FirebaseFirestore.getInstance()
-                .collection("events")
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .addSnapshotListener((snap, e) -> {
-                    if (e != null || snap == null) return;
-                    List<Event> tmp = new ArrayList<>();
-                    for (DocumentSnapshot doc : snap) {
-                        Event ev = doc.toObject(Event.class);
-                        if (ev != null) {
-                            ev.setEvent_id(doc.getId());
-                            tmp.add(ev);
-                        }
+        // Paged feed keeps `allEvents` updated; the first page is real-time
+        feed = helper.pagedEvents("organizer".equals(userType) ? userManager.getUserId() : null,
+                new PagedEventFeed.Listener() {
+                    @Override
+                    public void onEvents(List<Event> events) {
+                        allEvents.clear();
+                        allEvents.addAll(events);
+                        if (statusIndex != null) statusIndex.sync(events);
+                        if (searcher != null) searcher.setEvents(events);
+                        applyFilters();
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e("AllEvents", "Failed to load events", e);
                     }
-                    allEvents.clear();
-                    allEvents.addAll(tmp);
-                    applyFilters();
                 });
+        rvEvents.addOnScrollListener(new EventFeedScrollListener(feed));
+        feed.start();
 
         // Click handlers for viewing or editing events
         adapter.setOnEventClickListener(new EventsAdapter.OnEventClickListener() {
@@ -180,56 +210,65 @@ public class AllEventsFragment extends Fragment {
 
     /**
      * Applies the current search text and status filter to the event list.
+     * Text search runs on the search index's worker thread; organizers' events are
+     * already limited to their own by the feed's query. Only the events the feed has
+     * loaded are searched, and the screen says so.
      */
     private void applyFilters() {
-        if (adapter == null) return;
+        if (adapter == null || searcher == null) return;
 
-        String q = currentQuery.toLowerCase();
-        Timestamp now = Timestamp.now();
+        boolean partial = feed != null && feed.hasMore();
+        tvSearchScope.setVisibility(currentQuery.isEmpty() ? View.GONE : View.VISIBLE);
+        tvSearchScope.setText("Searching the " + allEvents.size() + " loaded events"
+                + (partial ? "; load or scroll for more to search others" : ""));
 
-        UserManager userManager = new UserManager(requireContext());
-        String userType = userManager.getUserType();
-        String userName = userManager.getUserName();
-
-        List<Event> filtered = new ArrayList<>();
-        for (Event e : allEvents) {
+        if (currentQuery.isEmpty()) {
+            showMatching(allEvents);
+            return;
+        }
+        searcher.search(currentQuery, (query, results) -> {
+            // Drop results for text the user has since changed
+            if (searcher == null || !query.equals(currentQuery)) return;
+            showMatching(results);
+        });
+    }
 
-            // Filter organizer's own events
-            if ("organizer".equals(userType)) {
-                String eventOrganizerName = e.getOrganizer_name();
-                if (eventOrganizerName == null || !eventOrganizerName.equals(userName)) {
-                    continue;
-                }
+    /**
+     * Shows the events that pass the status filter.
+     * @param matches events matching the search text, in display order
+     */
+    private void showMatching(List<Event> matches) {
+        List<Event> filtered;
+        if (currentStatus == null) {
+            filtered = new ArrayList<>(matches);
+        } else {
+            filtered = new ArrayList<>();
+            for (Event e : matches) {
+                if (statusIndex.statusOf(e) == currentStatus) filtered.add(e);
             }
-
-            String name = e.getEvent_name() != null ? e.getEvent_name().toLowerCase() : "";
-            String desc = e.getEvent_description() != null ? e.getEvent_description().toLowerCase() : "";
-            boolean textOk = q.isEmpty() || name.contains(q) || desc.contains(q);
-            boolean statusOk = matchesStatus(e, now, currentStatus);
-
-            if (textOk && statusOk) filtered.add(e);
         }
         adapter.setEvents(filtered);
+
+        // A narrow filter may not fill the screen, so nothing would scroll to load more.
+        // Load one more page per change of filters; after that the user asks for more, so a
+        // rare match never pages through the whole collection (evicting earlier pages).
+        boolean shortList = feed != null && feed.hasMore() && filtered.size() < PagedEventFeed.PAGE_SIZE;
+        if (shortList && !autoLoaded) {
+            autoLoaded = true;
+            feed.loadNext();
+        }
+        boolean filtering = !currentQuery.isEmpty() || currentStatus != null;
+        btnLoadMore.setVisibility(shortList && filtering ? View.VISIBLE : View.GONE);
     }
 
     /**
-     * Checks if an event matches the chosen registration status.
+     * Catches up on registration windows that opened or closed while the timer could not
+     * run, e.g. while the device slept.
      */
-    private boolean matchesStatus(Event e, Timestamp now, String status) {
-        if ("Any".equals(status)) return true;
-
-        Timestamp rs = e.getRegistrationStart();
-        Timestamp re = e.getRegistrationEnd();
-        boolean hasWindow = (rs != null && re != null);
-
-        if ("Not set".equals(status)) return !hasWindow;
-        if (!hasWindow) return false;
-
-        if ("Upcoming".equals(status)) return now.compareTo(rs) < 0;
-        if ("Closed".equals(status))   return now.compareTo(re) > 0;
-        if ("Open".equals(status))     return now.compareTo(rs) >= 0 && now.compareTo(re) <= 0;
-
-        return true;
+    @Override
+    public void onResume() {
+        super.onResume();
+        if (statusIndex != null) statusIndex.refresh();
     }
 
     /**
@@ -238,13 +277,17 @@ public class AllEventsFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
-        if (reg != null) {
-            reg.remove();
-            reg = null;
+        if (feed != null) {
+            feed.stop();
+            feed = null;
+        }
+        if (searcher != null) {
+            searcher.shutdown();
+            searcher = null;
         }
-        if (reg2 != null) {
-            reg2.remove();
-            reg2 = null;
+        if (statusIndex != null) {
+            statusIndex.clear();
+            statusIndex = null;
         }
         rvEvents.setAdapter(null);
     }
@@ -17,6 +17,9 @@ import androidx.fragment.app.Fragment;
 
 import com.bumptech.glide.Glide;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+import com.ijaskz.lotteryeventapp.repository.WaitingListCounters;
+import com.ijaskz.lotteryeventapp.util.DateFormats;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 
@@ -25,11 +28,9 @@ import android.app.TimePickerDialog;
 import android.widget.Toast;
 
 import java.io.InputStream;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 
 // ZXing (QR)
@@ -172,7 +173,8 @@ public class CreateEventFragment extends Fragment {
             } else {
                 UserManager userManager = new UserManager(requireContext());
                 String nizer_name = userManager.getUserName();
-                saveEvent(description, location, name, max, time, "", nizer_name, waitlistLimit);
+                saveEvent(description, location, name, max, time, "", nizer_name,
+                        userManager.getUserId(), waitlistLimit);
             }
         });
 
@@ -209,7 +211,8 @@ public class CreateEventFragment extends Fragment {
                     uploadedImageUrl = imageUrl;
                     UserManager userManager = new UserManager(requireContext());
                     String nizer_name = userManager.getUserName();
-                    saveEvent(description, location, name, max, time, uploadedImageUrl, nizer_name, waitlistLimit);
+                    saveEvent(description, location, name, max, time, uploadedImageUrl, nizer_name,
+                            userManager.getUserId(), waitlistLimit);
                 });
 
             } catch (Exception e) {
@@ -227,7 +230,8 @@ public class CreateEventFragment extends Fragment {
      * Saves event data to Firestore.
      */
     private void saveEvent(String description, String location, String name, int max,
-                           String time, String imageUrl, String org_name, Integer waitlistLimit) {
+                           String time, String imageUrl, String org_name, String org_id,
+                           Integer waitlistLimit) {
 
         Map<String, Object> data = new HashMap<>();
         data.put("event_name", name);
@@ -235,6 +239,7 @@ public class CreateEventFragment extends Fragment {
         data.put("event_time", time);
         data.put("image", imageUrl);
         data.put("organizer_name", org_name);
+        data.put("organizer_id", org_id);
         data.put("location", location);
         data.put("max", max);
         data.put("createdAt", com.google.firebase.Timestamp.now());
@@ -251,42 +256,26 @@ public class CreateEventFragment extends Fragment {
 
         FirebaseFirestore db = FirebaseFirestore.getInstance();
 
-        // If QR was generated earlier
-        if (pendingEventId != null) {
-            final String docId = pendingEventId;
-            data.put("event_id", docId);
-            data.put("deeplink", "lotteryevent://event/" + docId);
-
-            db.collection("events").document(docId)
-                    .set(data)
-                    .addOnSuccessListener(unused -> {
-                        Toast.makeText(requireContext(), "Event submitted!", Toast.LENGTH_SHORT).show();
-                        if (isAdded()) requireActivity().getSupportFragmentManager().popBackStack();
-                    })
-                    .addOnFailureListener(e -> {
-                        btnSubmit.setEnabled(true);
-                        Toast.makeText(requireContext(), "Could not submit: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                    });
-        } else {
-
-            // Normal creation
-            db.collection("events")
-                    .add(data)
-                    .addOnSuccessListener(doc -> {
-                        String docId = doc.getId();
-                        Map<String,Object> up = new HashMap<>();
-                        up.put("event_id", docId);
-                        up.put("deeplink", "lotteryevent://event/" + docId);
-                        db.collection("events").document(docId).update(up);
-
-                        Toast.makeText(requireContext(), "Event submitted!", Toast.LENGTH_SHORT).show();
-                        if (isAdded()) requireActivity().getSupportFragmentManager().popBackStack();
-                    })
-                    .addOnFailureListener(e -> {
-                        btnSubmit.setEnabled(true);
-                        Toast.makeText(requireContext(), "Could not submit: " + e.getMessage(), Toast.LENGTH_LONG).show();
-                    });
-        }
+        // Use the id the QR was generated with, or take a new one, so the event and its
+        // counters are created in one batch before anyone can join
+        final String docId = pendingEventId != null
+                ? pendingEventId
+                : db.collection("events").document().getId();
+        data.put("event_id", docId);
+        data.put("deeplink", "lotteryevent://event/" + docId);
+
+        WriteBatch batch = db.batch();
+        batch.set(db.collection("events").document(docId), data);
+        new WaitingListCounters(db).initialize(batch, docId);
+        batch.commit()
+                .addOnSuccessListener(unused -> {
+                    Toast.makeText(requireContext(), "Event submitted!", Toast.LENGTH_SHORT).show();
+                    if (isAdded()) requireActivity().getSupportFragmentManager().popBackStack();
+                })
+                .addOnFailureListener(e -> {
+                    btnSubmit.setEnabled(true);
+                    Toast.makeText(requireContext(), "Could not submit: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                });
     }
 
     /**
@@ -328,7 +317,7 @@ public class CreateEventFragment extends Fragment {
      * Formats dates for UI display.
      */
     private String fmt(Date d) {
-        return new SimpleDateFormat("MMM d, yyyy • h:mm a", Locale.getDefault()).format(d);
+        return DateFormats.longDateTime(d);
     }
 
     /**
@@ -29,10 +29,10 @@ import android.app.TimePickerDialog;
 import android.widget.Toast;
 import java.util.Calendar;
 import java.util.Date;
-import java.text.SimpleDateFormat;
-import java.util.Locale;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.SetOptions;
+import com.ijaskz.lotteryeventapp.repository.EventMetadataCache;
+import com.ijaskz.lotteryeventapp.util.DateFormats;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -288,6 +288,8 @@ public class EditEventFragment extends Fragment {
                 .document(event.getEvent_id())
                 .set(data, SetOptions.merge())
                 .addOnSuccessListener(unused -> {
+                    // Notifications built after this point must see the new name/time/location/image
+                    EventMetadataCache.getInstance().invalidate(event.getEvent_id());
                     Toast.makeText(requireContext(), "Event updated", Toast.LENGTH_SHORT).show();
                     requireActivity().onBackPressed(); // or navigate up
                 })
@@ -335,6 +337,6 @@ public class EditEventFragment extends Fragment {
      * Formatting the Date and time
      */
     private String fmt(Date d) {
-        return new SimpleDateFormat("MMM d, yyyy • h:mm a", Locale.getDefault()).format(d);
+        return DateFormats.longDateTime(d);
     }
 }
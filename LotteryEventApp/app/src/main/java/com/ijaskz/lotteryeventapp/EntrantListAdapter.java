@@ -0,0 +1,162 @@
+package com.ijaskz.lotteryeventapp;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * Adapter for the organizer's entrant list: status section headers and one row per
+ * entrant with a remove action.
+ *
+ * <p>Only the rows in view have views, so the list costs the same to show for ten
+ * entrants or a hundred thousand. Updates are diffed off the main thread and rows have
+ * stable ids, so a snapshot that changes one entrant re-binds one row. Pair with a
+ * {@link StickyHeaderDecoration} to keep the current section's header at the top.</p>
+ */
+public class EntrantListAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
+        implements StickyHeaderDecoration.Sections {
+
+    static final int VIEW_TYPE_HEADER = 0;
+    static final int VIEW_TYPE_ENTRANT = 1;
+
+    /**
+     * Rows are the same if they are the same entrant in the same section, and only re-bind
+     * if the name or email changed.
+     */
+    static final DiffUtil.ItemCallback<EntrantListItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<EntrantListItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull EntrantListItem oldItem, @NonNull EntrantListItem newItem) {
+            return oldItem.isSameRow(newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull EntrantListItem oldItem, @NonNull EntrantListItem newItem) {
+            return oldItem.hasSameContent(newItem);
+        }
+    };
+
+    /**
+     * Callback for the remove action on an entrant row.
+     */
+    public interface OnRemoveClickListener {
+        /**
+         * @param docId waiting list document id
+         * @param name name as shown in the row
+         */
+        void onRemoveClick(String docId, String name);
+    }
+
+    private final AsyncListDiffer<EntrantListItem> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    @Nullable private OnRemoveClickListener removeListener;
+
+    public EntrantListAdapter() {
+        setHasStableIds(true);
+    }
+
+    /**
+     * Sets the listener for the remove action
+     * @param listener callback for remove actions
+     */
+    public void setOnRemoveClickListener(@Nullable OnRemoveClickListener listener) {
+        this.removeListener = listener;
+    }
+
+    /**
+     * Shows new rows, e.g. from {@link EntrantListItem#fromColumns}. The list is diffed
+     * against the current one on a background thread.
+     * @param items rows in display order; not changed afterwards
+     * @param onCommitted called on the main thread once the rows are shown; may be null
+     */
+    public void setItems(List<EntrantListItem> items, @Nullable Runnable onCommitted) {
+        differ.submitList(items, onCommitted);
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getId();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return differ.getCurrentList().get(position).isHeader() ? VIEW_TYPE_HEADER : VIEW_TYPE_ENTRANT;
+    }
+
+    @Override
+    public int getHeaderPosition(int position) {
+        return differ.getCurrentList().get(position).getHeaderPosition();
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        LayoutInflater inflater = LayoutInflater.from(parent.getContext());
+        if (viewType == VIEW_TYPE_HEADER) {
+            return new HeaderViewHolder(inflater.inflate(R.layout.item_entrant_section, parent, false));
+        }
+        return new EntrantViewHolder(inflater.inflate(R.layout.item_entrant_row, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        EntrantListItem item = differ.getCurrentList().get(position);
+        if (holder instanceof HeaderViewHolder) {
+            ((HeaderViewHolder) holder).tvTitle.setText(item.getSectionTitle());
+            return;
+        }
+
+        EntrantViewHolder row = (EntrantViewHolder) holder;
+        String name = item.getName();
+        String email = item.getEmail();
+        if (name == null || name.trim().isEmpty()) name = "(no name)";
+        if (email == null || email.trim().isEmpty()) email = "(no email)";
+        row.tvName.setText(name);
+        row.tvEmail.setText(email);
+
+        String shownName = name;
+        row.tvRemove.setOnClickListener(v -> {
+            if (removeListener != null) removeListener.onRemoveClick(item.getDocId(), shownName);
+        });
+    }
+
+    /**
+     * ViewHolder for section header rows
+     */
+    static class HeaderViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvTitle;
+
+        HeaderViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvTitle = itemView.findViewById(R.id.tvEntrantSectionTitle);
+        }
+    }
+
+    /**
+     * ViewHolder for entrant rows
+     */
+    static class EntrantViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvName;
+        final TextView tvEmail;
+        final TextView tvRemove;
+
+        EntrantViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvName = itemView.findViewById(R.id.tvEntrantName);
+            tvEmail = itemView.findViewById(R.id.tvEntrantEmail);
+            tvRemove = itemView.findViewById(R.id.tvEntrantRemove);
+        }
+    }
+}
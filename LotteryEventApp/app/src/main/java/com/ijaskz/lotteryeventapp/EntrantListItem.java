@@ -0,0 +1,201 @@
+package com.ijaskz.lotteryeventapp;
+
+import androidx.annotation.Nullable;
+
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore;
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore.StatusColumns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One row of the organizer's entrant list: a section header or an entrant.
+ *
+ * <p>Rows point at the strings already held by the {@link EntrantSnapshotStore}, so a row
+ * costs one small object. Each knows the position of its section's header, for the sticky
+ * header, and has a stable id made from its section and waiting list document id; an
+ * entrant shown in two sections has two rows.</p>
+ */
+public final class EntrantListItem {
+
+    /** Before the lottery: everyone still waiting. */
+    static final int SECTION_WAITING = 0;
+    static final int SECTION_CHOSEN = 1;
+    static final int SECTION_INVITED = 2;
+    static final int SECTION_ACCEPTED = 3;
+    static final int SECTION_CANCELLED = 4;
+    static final int SECTION_OTHER = 5;
+
+    private static final String[] SECTION_TITLES = {
+            "Waiting list entrants",
+            "All entrants chosen in lottery",
+            "Chosen entrants invited to apply",
+            "Accepted entrants",
+            "Cancelled entrants",
+            "Other waiting list entrants"
+    };
+
+    /** Statuses with a section of their own; anything else is listed under "Other". */
+    private static final List<String> KNOWN_STATUSES = Arrays.asList(
+            EntrantSnapshotStore.DEFAULT_STATUS, "selected", "accepted", "enrolled", "declined", "cancelled");
+
+    private final int section;
+    /** Waiting list document id; null for a header. */
+    @Nullable private final String docId;
+    @Nullable private final String name;
+    @Nullable private final String email;
+    private final int headerPosition;
+    private final long id;
+
+    private EntrantListItem(int section, @Nullable String docId, @Nullable String name,
+                            @Nullable String email, int headerPosition) {
+        this.section = section;
+        this.docId = docId;
+        this.name = name;
+        this.email = email;
+        this.headerPosition = headerPosition;
+        this.id = stableId(section, docId);
+    }
+
+    /**
+     * Lays out a store's entrants in sections, on the store's thread; see
+     * {@link #fromColumns(List)}.
+     * @param store a loaded entrant store
+     * @return rows in display order; empty if there are no entrants
+     */
+    public static List<EntrantListItem> fromStore(EntrantSnapshotStore store) {
+        return fromColumns(store.snapshot());
+    }
+
+    /**
+     * Lays out entrants in sections. Before the lottery there is one waiting list; after
+     * it, the chosen entrants, then each response, then everyone else. Entrants are listed
+     * earliest to join first. Sorting every section is the costly part of a rebuild, so
+     * call this off the main thread with a snapshot taken on it.
+     * @param snapshot columns from {@link EntrantSnapshotStore#snapshot()}
+     * @return rows in display order; empty if there are no entrants
+     */
+    public static List<EntrantListItem> fromColumns(List<StatusColumns> snapshot) {
+        Map<String, StatusColumns> byStatus = new LinkedHashMap<>();
+        int size = 0;
+        for (StatusColumns columns : snapshot) {
+            byStatus.put(columns.getStatus(), columns);
+            size += columns.size();
+        }
+        List<EntrantListItem> items = new ArrayList<>(size + SECTION_TITLES.length);
+        List<StatusColumns> waiting = pick(byStatus, EntrantSnapshotStore.DEFAULT_STATUS);
+        List<StatusColumns> selected = pick(byStatus, "selected");
+        List<StatusColumns> accepted = pick(byStatus, "accepted", "enrolled");
+        List<StatusColumns> cancelled = pick(byStatus, "declined", "cancelled");
+        List<StatusColumns> rest = new ArrayList<>(waiting);
+        for (StatusColumns columns : snapshot) {
+            if (!KNOWN_STATUSES.contains(columns.getStatus())) rest.add(columns);
+        }
+
+        boolean hasLotteryActivity = count(selected) > 0 || count(accepted) > 0 || count(cancelled) > 0;
+        if (!hasLotteryActivity) {
+            addSection(items, SECTION_WAITING, waiting);
+            return items;
+        }
+        List<StatusColumns> chosen = new ArrayList<>(selected);
+        chosen.addAll(accepted);
+        chosen.addAll(cancelled);
+        addSection(items, SECTION_CHOSEN, chosen);
+        addSection(items, SECTION_INVITED, selected);
+        addSection(items, SECTION_ACCEPTED, accepted);
+        addSection(items, SECTION_CANCELLED, cancelled);
+        addSection(items, SECTION_OTHER, rest);
+        return items;
+    }
+
+    /** @return the columns of those statuses that have entrants, in the order given */
+    private static List<StatusColumns> pick(Map<String, StatusColumns> byStatus, String... statuses) {
+        List<StatusColumns> picked = new ArrayList<>(statuses.length);
+        for (String status : statuses) {
+            StatusColumns columns = byStatus.get(status);
+            if (columns != null) picked.add(columns);
+        }
+        return picked;
+    }
+
+    /** Adds a header and its entrants, unless there are none. */
+    private static void addSection(List<EntrantListItem> items, int section, List<StatusColumns> statuses) {
+        if (count(statuses) == 0) return;
+        int header = items.size();
+        items.add(new EntrantListItem(section, null, null, null, header));
+        for (StatusColumns columns : statuses) {
+            for (int row : columns.rowsByJoinTime()) {
+                items.add(new EntrantListItem(section, columns.id(row), columns.name(row),
+                        columns.email(row), header));
+            }
+        }
+    }
+
+    private static int count(List<StatusColumns> statuses) {
+        int n = 0;
+        for (StatusColumns columns : statuses) n += columns.size();
+        return n;
+    }
+
+    /** 64-bit FNV-1a of the section and document id. */
+    private static long stableId(int section, @Nullable String docId) {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ section) * 0x100000001b3L;
+        if (docId != null) {
+            for (int i = 0; i < docId.length(); i++) {
+                hash = (hash ^ docId.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    /** @return true for a section header */
+    public boolean isHeader() {
+        return docId == null;
+    }
+
+    /** @return the section's title, e.g. "Accepted entrants" */
+    public String getSectionTitle() {
+        return SECTION_TITLES[section];
+    }
+
+    /** @return waiting list document id; null for a header */
+    @Nullable
+    public String getDocId() {
+        return docId;
+    }
+
+    @Nullable
+    public String getName() {
+        return name;
+    }
+
+    @Nullable
+    public String getEmail() {
+        return email;
+    }
+
+    /** @return position of this row's section header in the list it was built in */
+    public int getHeaderPosition() {
+        return headerPosition;
+    }
+
+    /** @return id that stays the same for this row across rebuilds */
+    public long getId() {
+        return id;
+    }
+
+    /** @return true if both rows are the same entrant in the same section, or the same header */
+    public boolean isSameRow(EntrantListItem other) {
+        return section == other.section && Objects.equals(docId, other.docId);
+    }
+
+    /** @return true if the row would display the same */
+    public boolean hasSameContent(EntrantListItem other) {
+        return Objects.equals(name, other.name) && Objects.equals(email, other.email);
+    }
+}
@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Objects;
 import com.google.firebase.Timestamp;
 
 /**
@@ -12,6 +13,8 @@ import com.google.firebase.Timestamp;
  */
 public class Event implements Serializable {
     private String organizer_name;
+    /** User id of the organizer; organizer views query by this rather than the name. */
+    private String organizer_id;
     private String event_description;
     private String event_id;
     private String location;
@@ -75,6 +78,14 @@ public class Event implements Serializable {
         return organizer_name;
     }
 
+    public String getOrganizer_id() {
+        return organizer_id;
+    }
+
+    public void setOrganizer_id(String organizer_id) {
+        this.organizer_id = organizer_id;
+    }
+
     public void setEvent_id(String arg) {
         this.event_id = arg;
     }
@@ -154,5 +165,34 @@ public class Event implements Serializable {
     public void setLotteryRun(boolean lotteryRun) {
         this.lotteryRun = lotteryRun;
     }
-}
 
+    /**
+     * Compares every stored field of two events, including the id. Used by list diffing
+     * to decide whether a row needs to be re-bound; {@link #equals} is left as identity.
+     * @param other event to compare with
+     * @return true if both events hold the same data
+     */
+    public boolean hasSameContent(Event other) {
+        if (other == this) return true;
+        if (other == null) return false;
+        return lotteryRun == other.lotteryRun
+                && max == other.max
+                && Objects.equals(event_id, other.event_id)
+                && Objects.equals(event_name, other.event_name)
+                && Objects.equals(event_description, other.event_description)
+                && Objects.equals(organizer_name, other.organizer_name)
+                && Objects.equals(organizer_id, other.organizer_id)
+                && Objects.equals(location, other.location)
+                && Objects.equals(image, other.image)
+                && Objects.equals(event_time, other.event_time)
+                && Objects.equals(applied, other.applied)
+                && Objects.equals(picked, other.picked)
+                && Objects.equals(notPicked, other.notPicked)
+                && Objects.equals(registrationStart, other.registrationStart)
+                && Objects.equals(registrationEnd, other.registrationEnd)
+                && Objects.equals(qrUrl, other.qrUrl)
+                && Objects.equals(deeplink, other.deeplink)
+                && Objects.equals(responseWindowHours, other.responseWindowHours)
+                && Objects.equals(waitlistLimit, other.waitlistLimit);
+    }
+}
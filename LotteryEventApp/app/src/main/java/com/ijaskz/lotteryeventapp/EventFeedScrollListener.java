@@ -0,0 +1,35 @@
+package com.ijaskz.lotteryeventapp;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Asks a {@link PagedEventFeed} for the next or previous page when the list is scrolled
+ * within a few rows of either end.
+ */
+public class EventFeedScrollListener extends RecyclerView.OnScrollListener {
+
+    /** Rows from either end at which the adjacent page is requested. */
+    private static final int PREFETCH_DISTANCE = 5;
+
+    private final PagedEventFeed feed;
+
+    public EventFeedScrollListener(PagedEventFeed feed) {
+        this.feed = feed;
+    }
+
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        RecyclerView.LayoutManager lm = recyclerView.getLayoutManager();
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        if (!(lm instanceof LinearLayoutManager) || adapter == null) return;
+
+        LinearLayoutManager layout = (LinearLayoutManager) lm;
+        if (dy > 0 && layout.findLastVisibleItemPosition() >= adapter.getItemCount() - PREFETCH_DISTANCE) {
+            feed.loadNext();
+        } else if (dy < 0 && layout.findFirstVisibleItemPosition() <= PREFETCH_DISTANCE) {
+            feed.loadPrevious();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ijaskz.lotteryeventapp;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The contiguous run of feed pages currently held in memory.
+ *
+ * <p>Pages are numbered from 0 (the newest events). At most {@code maxPages} are kept;
+ * adding a page past that evicts the page at the opposite end, so memory stays flat
+ * however far the user scrolls.</p>
+ */
+public class EventPageWindow {
+
+    private final int maxPages;
+    private final TreeMap<Integer, List<Event>> pages = new TreeMap<>();
+
+    /**
+     * @param maxPages most pages to keep in memory; at least 2
+     */
+    public EventPageWindow(int maxPages) {
+        if (maxPages < 2) {
+            throw new IllegalArgumentException("maxPages must be at least 2");
+        }
+        this.maxPages = maxPages;
+    }
+
+    /** @return true if no page is loaded */
+    public boolean isEmpty() {
+        return pages.isEmpty();
+    }
+
+    /** @return index of the first loaded page, or -1 if none */
+    public int first() {
+        return pages.isEmpty() ? -1 : pages.firstKey();
+    }
+
+    /** @return index of the last loaded page, or -1 if none */
+    public int last() {
+        return pages.isEmpty() ? -1 : pages.lastKey();
+    }
+
+    /** @return true if page {@code index} is loaded */
+    public boolean contains(int index) {
+        return pages.containsKey(index);
+    }
+
+    /**
+     * Adds the page after the last one, evicting from the front if the window is full.
+     * @param events the page's events
+     * @return index of the added page
+     */
+    public int append(List<Event> events) {
+        int index = pages.isEmpty() ? 0 : pages.lastKey() + 1;
+        pages.put(index, events);
+        while (pages.size() > maxPages) {
+            pages.pollFirstEntry();
+        }
+        return index;
+    }
+
+    /**
+     * Adds the page before the first one, evicting from the back if the window is full.
+     * @param events the page's events
+     * @return index of the added page
+     * @throws IllegalStateException if page 0 is already loaded
+     */
+    public int prepend(List<Event> events) {
+        if (pages.isEmpty() || pages.firstKey() == 0) {
+            throw new IllegalStateException("Nothing before page " + first());
+        }
+        int index = pages.firstKey() - 1;
+        pages.put(index, events);
+        while (pages.size() > maxPages) {
+            pages.pollLastEntry();
+        }
+        return index;
+    }
+
+    /**
+     * Replaces the events of a loaded page, e.g. when its real-time listener fires.
+     * Does nothing if the page is not loaded.
+     */
+    public void replace(int index, List<Event> events) {
+        if (pages.containsKey(index)) {
+            pages.put(index, events);
+        }
+    }
+
+    /** Drops every page. */
+    public void clear() {
+        pages.clear();
+    }
+
+    /**
+     * @return the loaded events in page order. An event that appears in two pages (e.g.
+     *         pushed from page 0 into page 1 by a newer event) is listed once.
+     */
+    public List<Event> events() {
+        List<Event> all = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (List<Event> page : pages.values()) {
+            for (Event e : page) {
+                if (e.getEvent_id() == null || seen.add(e.getEvent_id())) {
+                    all.add(e);
+                }
+            }
+        }
+        return all;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ijaskz.lotteryeventapp;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the results of an events query in order by applying each snapshot's document
+ * changes, instead of rebuilding the whole list from every snapshot.
+ *
+ * <p>Only added and modified documents are converted to {@link Event}s; unchanged events
+ * keep their existing objects, so a list differ sees them as unchanged.</p>
+ */
+public class EventSnapshotList {
+
+    private final List<Event> events = new ArrayList<>();
+
+    /**
+     * Applies the snapshot's changes.
+     * @param snap next snapshot from the same query listener
+     * @return a new copy of the current events, or null if the snapshot changed nothing
+     *         (e.g. a metadata-only snapshot)
+     */
+    public List<Event> apply(QuerySnapshot snap) {
+        List<DocumentChange> changes = snap.getDocumentChanges();
+        if (changes.isEmpty() && !events.isEmpty()) {
+            return null;
+        }
+        for (DocumentChange change : changes) {
+            Event event = null;
+            if (change.getType() != DocumentChange.Type.REMOVED) {
+                event = change.getDocument().toObject(Event.class);
+                event.setEvent_id(change.getDocument().getId());
+            }
+            applyChange(events, change.getType(), change.getOldIndex(), change.getNewIndex(), event);
+        }
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * Applies one document change to an ordered list, following Firestore's index rules:
+     * removals use the old index, additions the new one, and a modification may move the
+     * item from its old index to its new one.
+     * @param list list to change in place
+     * @param type kind of change
+     * @param oldIndex index before the change, or -1 for an addition
+     * @param newIndex index after the change, or -1 for a removal
+     * @param item the added or modified item; ignored for removals
+     */
+    static <T> void applyChange(List<T> list, DocumentChange.Type type, int oldIndex, int newIndex, T item) {
+        switch (type) {
+            case ADDED:
+                list.add(newIndex, item);
+                break;
+            case MODIFIED:
+                if (oldIndex == newIndex) {
+                    list.set(newIndex, item);
+                } else {
+                    list.remove(oldIndex);
+                    list.add(newIndex, item);
+                }
+                break;
+            case REMOVED:
+                list.remove(oldIndex);
+                break;
+        }
+    }
+}
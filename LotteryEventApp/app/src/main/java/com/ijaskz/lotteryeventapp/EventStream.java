@@ -0,0 +1,254 @@
+package com.ijaskz.lotteryeventapp;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.ijaskz.lotteryeventapp.search.EventStatusIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One real-time listener on the newest page of events, shared by every screen that shows
+ * the feed.
+ *
+ * <p>Screens {@link #subscribe} and get the current page right away, then every change.
+ * The Firestore listener is attached when the first screen subscribes and removed
+ * {@link #LINGER_MS} after the last one unsubscribes. Moving from Home to All Events
+ * replaces one screen with the other, so the listener, and the page it already parsed,
+ * carries over instead of being torn down and downloaded again. Screens apply their own
+ * filters to what they receive.</p>
+ *
+ * <p>Firestore answers a new listener from its on-disk cache before the server, so after a
+ * cold start the page seen last time shows without waiting on the network.</p>
+ *
+ * <p>All calls are expected on the main thread, where Firestore delivers snapshots.</p>
+ */
+public class EventStream {
+
+    /**
+     * The newest page of events as of the latest snapshot.
+     */
+    public static final class Page {
+        private final List<Event> events;
+        @Nullable private final Object[] endCursor;
+        private final boolean full;
+
+        /**
+         * @param events events, newest first
+         * @param endCursor (createdAt, id) of the last event, for reading the next page;
+         *                  null if the page is empty
+         * @param full true if the page holds {@link PagedEventFeed#PAGE_SIZE} events, so
+         *             there may be more after it
+         */
+        public Page(List<Event> events, @Nullable Object[] endCursor, boolean full) {
+            this.events = Collections.unmodifiableList(events);
+            this.endCursor = endCursor;
+            this.full = full;
+        }
+
+        public List<Event> getEvents() {
+            return events;
+        }
+
+        @Nullable
+        public Object[] getEndCursor() {
+            return endCursor;
+        }
+
+        public boolean isFull() {
+            return full;
+        }
+    }
+
+    /**
+     * Receives the first page from a stream.
+     */
+    public interface Observer {
+        void onPage(Page page);
+
+        void onError(Exception e);
+    }
+
+    /**
+     * Source of pages for a stream, e.g. a Firestore snapshot listener.
+     */
+    interface Upstream {
+        /**
+         * Starts delivering pages to {@code downstream}.
+         * @return stops delivery when run
+         */
+        Runnable start(Observer downstream);
+    }
+
+    /**
+     * Handle returned by {@link #subscribe}; call {@link #unsubscribe()} once done.
+     */
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    /** How long the listener is kept after the last screen unsubscribes. */
+    static final long LINGER_MS = 10_000;
+
+    private static final Map<String, EventStream> SHARED = new HashMap<>();
+
+    private final Upstream upstream;
+    private final List<Observer> observers = new ArrayList<>();
+    @Nullable private final Runnable onIdle;
+    @Nullable private final EventStatusIndex.Scheduler scheduler;
+    @Nullable private Runnable stopUpstream;
+    @Nullable private Runnable cancelLinger;
+    @Nullable private Page latest;
+
+    /**
+     * Creates a stream that stops its upstream as soon as the last observer leaves.
+     */
+    EventStream(Upstream upstream, @Nullable Runnable onIdle) {
+        this(upstream, onIdle, null);
+    }
+
+    /**
+     * @param upstream source of pages
+     * @param onIdle run once the upstream has been stopped
+     * @param scheduler delays stopping the upstream by {@link #LINGER_MS}; null to stop
+     *                  it straight away
+     */
+    EventStream(Upstream upstream, @Nullable Runnable onIdle,
+                @Nullable EventStatusIndex.Scheduler scheduler) {
+        this.upstream = upstream;
+        this.onIdle = onIdle;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns the stream shared by all screens showing the same events.
+     * @param db Firestore instance
+     * @param organizerId only this organizer's events; null for all events
+     * @param scheduler runs the delayed stop on the main thread, e.g. through a Handler
+     * @return the shared stream
+     */
+    public static EventStream shared(FirebaseFirestore db, @Nullable String organizerId,
+                                     EventStatusIndex.Scheduler scheduler) {
+        String key = organizerId == null ? "" : "organizer:" + organizerId;
+        EventStream stream = SHARED.get(key);
+        if (stream == null) {
+            Query firstPage = orderedEvents(db, organizerId).limit(PagedEventFeed.PAGE_SIZE);
+            stream = new EventStream(firestoreUpstream(firstPage), () -> SHARED.remove(key), scheduler);
+            SHARED.put(key, stream);
+        }
+        return stream;
+    }
+
+    /**
+     * @param db Firestore instance
+     * @param organizerId only this organizer's events; null for all events
+     * @return the events query, newest first, in the order the feed pages through it.
+     *         Filtering by organizer uses the (organizer_id, createdAt, __name__) index
+     *         in firestore.indexes.json.
+     */
+    public static Query orderedEvents(FirebaseFirestore db, @Nullable String organizerId) {
+        Query query = db.collection("events");
+        if (organizerId != null) {
+            query = query.whereEqualTo("organizer_id", organizerId);
+        }
+        return query
+                .orderBy("createdAt", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+    }
+
+    /**
+     * Adds an observer, starting the upstream listener if it is not running. The observer
+     * receives the latest page immediately if one has arrived.
+     * @param observer receives pages and errors
+     * @return subscription to cancel
+     */
+    public Subscription subscribe(Observer observer) {
+        observers.add(observer);
+        if (cancelLinger != null) {
+            cancelLinger.run();
+            cancelLinger = null;
+        }
+        if (stopUpstream == null) {
+            stopUpstream = upstream.start(new Observer() {
+                @Override
+                public void onPage(Page page) {
+                    latest = page;
+                    for (Observer o : new ArrayList<>(observers)) {
+                        o.onPage(page);
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    // Firestore drops a listener after an error; the next subscriber restarts it
+                    stopUpstream = null;
+                    latest = null;
+                    for (Observer o : new ArrayList<>(observers)) {
+                        o.onError(e);
+                    }
+                }
+            });
+        } else if (latest != null) {
+            observer.onPage(latest);
+        }
+        return () -> unsubscribe(observer);
+    }
+
+    private void unsubscribe(Observer observer) {
+        if (!observers.remove(observer) || !observers.isEmpty()) return;
+        if (scheduler != null && stopUpstream != null) {
+            cancelLinger = scheduler.schedule(() -> {
+                cancelLinger = null;
+                stop();
+            }, LINGER_MS);
+            return;
+        }
+        stop();
+    }
+
+    private void stop() {
+        if (stopUpstream != null) {
+            stopUpstream.run();
+            stopUpstream = null;
+        }
+        latest = null;
+        if (onIdle != null) {
+            onIdle.run();
+        }
+    }
+
+    /** @return number of current observers */
+    int observerCount() {
+        return observers.size();
+    }
+
+    private static Upstream firestoreUpstream(Query firstPage) {
+        return downstream -> {
+            EventSnapshotList events = new EventSnapshotList();
+            ListenerRegistration reg = firstPage.addSnapshotListener((snap, e) -> {
+                if (e != null) {
+                    downstream.onError(e);
+                    return;
+                }
+                if (snap == null) return;
+                List<Event> list = events.apply(snap);
+                if (list == null) return;
+                Object[] cursor = null;
+                if (!snap.isEmpty()) {
+                    DocumentSnapshot last = snap.getDocuments().get(snap.size() - 1);
+                    cursor = new Object[]{last.get("createdAt"), last.getId()};
+                }
+                downstream.onPage(new Page(list, cursor, snap.size() >= PagedEventFeed.PAGE_SIZE));
+            });
+            return reg::remove;
+        };
+    }
+}
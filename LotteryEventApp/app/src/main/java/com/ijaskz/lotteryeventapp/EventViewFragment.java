@@ -1,6 +1,5 @@
 package com.ijaskz.lotteryeventapp;
 
-import android.graphics.Color;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.LayoutInflater;
@@ -12,7 +11,6 @@ import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationServices;
 import androidx.core.app.ActivityCompat;
 import android.content.pm.PackageManager;
-import android.widget.ScrollView;
 import android.widget.TextView;
 import android.widget.Toast;
 import android.widget.EditText;
@@ -22,19 +20,36 @@ import androidx.preference.PreferenceManager;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 import androidx.appcompat.app.AlertDialog;
 
 import com.bumptech.glide.Glide;
 import com.google.firebase.Timestamp;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.ijaskz.lotteryeventapp.export.EntrantColumn;
+import com.ijaskz.lotteryeventapp.export.EntrantExport;
+import com.ijaskz.lotteryeventapp.export.EntrantSource;
+import com.ijaskz.lotteryeventapp.export.ExportFormat;
+import com.ijaskz.lotteryeventapp.export.FirestoreEntrantSource;
+import com.ijaskz.lotteryeventapp.export.StoreEntrantSource;
+import com.ijaskz.lotteryeventapp.map.EntrantClusterLayer;
+import com.ijaskz.lotteryeventapp.repository.DrawReceiptStore;
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore;
+import com.ijaskz.lotteryeventapp.repository.WaitlistFullException;
+import com.ijaskz.lotteryeventapp.service.DrawReceipt;
 import com.ijaskz.lotteryeventapp.service.LotteryService;
+import com.ijaskz.lotteryeventapp.service.SeededDraw;
+import com.ijaskz.lotteryeventapp.util.DateFormats;
 import com.ijaskz.lotteryeventapp.util.LotteryDeadlineUtil;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.ArrayList;
 
 
@@ -50,7 +65,6 @@ import org.osmdroid.config.Configuration;
 import org.osmdroid.tileprovider.tilesource.TileSourceFactory;
 import org.osmdroid.util.GeoPoint;
 import org.osmdroid.views.MapView;
-import org.osmdroid.views.overlay.Marker;
 
 import java.util.List;
 
@@ -66,6 +80,11 @@ public class EventViewFragment extends Fragment {
     private Button btnNotifyNotSelectedEntrants;
     private Button btnNotifyWaitingListEntrants;
 
+    /** Runs entrant exports one at a time, off the main thread. */
+    private static final ExecutorService EXPORT_EXECUTOR = Executors.newSingleThreadExecutor();
+    /** Builds entrant list rows off the main thread. */
+    private static final ExecutorService ROWS_EXECUTOR = Executors.newSingleThreadExecutor();
+
     private FirebaseFirestore db = FirebaseFirestore.getInstance();
     private UserManager userManager;
     private WaitingListManager waitingListManager;
@@ -75,11 +94,13 @@ public class EventViewFragment extends Fragment {
     private ImageView imgEventQr;
 
     private LotteryService lotteryService;
+    private DrawReceiptStore drawReceiptStore;
 
     private TextView tvWaitingCount;
 
     private TextView tvEntrantsHeader;
-    private ScrollView scrollViewEntrants;
+    private RecyclerView rvEntrants;
+    private EntrantListAdapter entrantListAdapter;
     private TextView tvEntrantsList;
     private Button btnExportCsv;
 
@@ -88,6 +109,12 @@ public class EventViewFragment extends Fragment {
 
     // OSMDroid Map
     private MapView mapView;
+    private EntrantClusterLayer entrantClusters;
+
+    /** The event's waiting list, shared by the organizer views; null for entrants. */
+    private EntrantSnapshotStore entrantStore;
+    /** Whether entrant rows are being built, and whether the store changed meanwhile. */
+    private boolean buildingRows, rowsStale;
 
 
     public static EventViewFragment newInstance(Event event) {
@@ -144,9 +171,10 @@ public class EventViewFragment extends Fragment {
         mapView = view.findViewById(R.id.mapView);
 
         lotteryService = new LotteryService(waitingListManager);
+        drawReceiptStore = new DrawReceiptStore(db);
 
         tvEntrantsHeader = view.findViewById(R.id.tvEntrantsHeader);
-        scrollViewEntrants = view.findViewById(R.id.scrollViewEntrants);
+        rvEntrants = view.findViewById(R.id.rvEntrants);
         tvEntrantsList = view.findViewById(R.id.tvEntrantsList);
         btnExportCsv = view.findViewById(R.id.btnExportCsv);
 
@@ -191,11 +219,12 @@ public class EventViewFragment extends Fragment {
                 btnNotifyWaitingListEntrants.setOnClickListener(v -> showNotifyWaitingListDialog());
             }
 
+            setupEntrantsList();
             loadAndDisplayEntrantsList();
 
-            // Set up CSV export button
+            // Set up export button
             if (btnExportCsv != null) {
-                btnExportCsv.setOnClickListener(v -> exportEntrantsAsCsv());
+                btnExportCsv.setOnClickListener(v -> chooseExportFormat());
             }
 
 
@@ -210,7 +239,8 @@ public class EventViewFragment extends Fragment {
             if (btnNotifyNotSelectedEntrants != null) btnNotifyNotSelectedEntrants.setVisibility(View.GONE);
             if (btnNotifyWaitingListEntrants != null) btnNotifyWaitingListEntrants.setVisibility(View.GONE);
             if (tvEntrantsHeader != null) tvEntrantsHeader.setVisibility(View.GONE);
-            if (scrollViewEntrants != null) scrollViewEntrants.setVisibility(View.GONE);
+            if (rvEntrants != null) rvEntrants.setVisibility(View.GONE);
+            if (tvEntrantsList != null) tvEntrantsList.setVisibility(View.GONE);
             if (btnExportCsv != null) btnExportCsv.setVisibility(View.GONE);
         }
 
@@ -237,79 +267,19 @@ public class EventViewFragment extends Fragment {
     }
 
     /**
-     * Loads all entrant locations from Firestore and displays them as markers
+     * Shows the entrants' locations on the map as clusters, kept up to date as entrants
+     * join and leave. Only the entrants in view are read, by geohash cell, rather than the
+     * whole list the entrant store holds.
      */
     private void loadEntrantLocations() {
-        if (mapView == null || event == null) return;
+        if (mapView == null || event == null || entrantClusters != null) return;
 
         String eventId = event.getEvent_id();
         if (eventId == null) return;
 
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (!isAdded()) return;
-
-                    mapView.getOverlays().clear(); // Clear existing markers
-
-                    int markerCount = 0;
-                    double sumLat = 0;
-                    double sumLon = 0;
-
-                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                        Double lat = doc.getDouble("latitude");
-                        Double lon = doc.getDouble("longitude");
-                        String name = doc.getString("entrant_name");
-
-                        if (lat != null && lon != null) {
-                            // Create marker
-                            Marker marker = new Marker(mapView);
-                            GeoPoint point = new GeoPoint(lat, lon);
-                            marker.setPosition(point);
-                            marker.setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM);
-
-                            // Set title (entrant name)
-                            if (name != null && !name.isEmpty()) {
-                                marker.setTitle(name);
-                            } else {
-                                marker.setTitle("Entrant");
-                            }
-
-                            mapView.getOverlays().add(marker);
-
-                            // Sum for center calculation
-                            sumLat += lat;
-                            sumLon += lon;
-                            markerCount++;
-                        }
-                        Log.d("EventViewMap", "Marker: " + name + " @ " + lat + ", " + lon);
-
-                    }
-
-                    // Center map on average location of all markers
-                    if (markerCount > 0) {
-                        double avgLat = sumLat / markerCount;
-                        double avgLon = sumLon / markerCount;
-                        GeoPoint center = new GeoPoint(avgLat, avgLon);
-                        mapView.getController().setCenter(center);
-
-                        // Adjust zoom based on marker count
-                        if (markerCount == 1) {
-                            mapView.getController().setZoom(15.0);
-                        } else if (markerCount < 5) {
-                            mapView.getController().setZoom(12.0);
-                        } else {
-                            mapView.getController().setZoom(10.0);
-                        }
-                    }
-
-                    mapView.invalidate(); // Refresh the map
-
-                    Log.d("EventViewMap", "Loaded " + markerCount + " entrant locations");
-                })
-                .addOnFailureListener(e -> {
-                    Log.e("EventViewMap", "Failed to load locations: " + e.getMessage());
+        entrantClusters = new EntrantClusterLayer(mapView);
+        entrantClusters.listen(db.collection("waiting_list").whereEqualTo("event_id", eventId),
+                e -> {
                     if (isAdded()) {
                         Toast.makeText(getContext(),
                                 "Could not load entrant locations",
@@ -449,17 +419,15 @@ public class EventViewFragment extends Fragment {
         if (userId == null || eventId == null) return;
 
         db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("entrant_id", userId)
-                .limit(1)
+                .document(WaitingListEntry.documentId(eventId, userId))
                 .get()
-                .addOnSuccessListener(snap -> {
+                .addOnSuccessListener(doc -> {
                     Long selectedAt = null;
                     Integer hours = null;
-                    if (!snap.isEmpty()) {
-                        Object sel = snap.getDocuments().get(0).get("selected_at");
+                    if (doc.exists()) {
+                        Object sel = doc.get("selected_at");
                         if (sel instanceof Number) selectedAt = ((Number) sel).longValue();
-                        Object h = snap.getDocuments().get(0).get("response_window_hours");
+                        Object h = doc.get("response_window_hours");
                         if (h instanceof Number) hours = ((Number) h).intValue();
                     }
                     updateEntrantLotteryUI(status, selectedAt, hours);
@@ -536,14 +504,15 @@ public class EventViewFragment extends Fragment {
                     String eventId = event != null ? event.getEvent_id() : null;
                     if (eventId == null) return;
 
-                    lotteryService.runLottery(eventId, slots, hours, new LotteryService.OnLotteryComplete() {
+                    // Seeded draw, committed before it runs, so it can be audited from its receipt
+                    lotteryService.runSeededLottery(eventId, slots, hours, SeededDraw.newSeed(), drawReceiptStore,
+                            new LotteryService.OnSeededLotteryComplete() {
                         @Override
-                        public void onSuccess(java.util.List<WaitingListEntry> winners) {
+                        public void onSuccess(java.util.List<WaitingListEntry> winners, DrawReceipt receipt) {
                             if (getContext() != null) {
                                 Toast.makeText(getContext(), "Selected " + winners.size() + " entrants", Toast.LENGTH_LONG).show();
                             }
                             loadWaitingCount();
-                            loadEntrantLocations(); // Refresh map after lottery
                             String eventId = event.getEvent_id();
                             FirebaseFirestore.getInstance()
                                     .collection("events")
@@ -617,14 +586,12 @@ public class EventViewFragment extends Fragment {
                             eventId,
                             title,
                             message,
-                            new WaitingListManager.OnCompleteListener() {
+                            new WaitingListManager.OnNotifyResultListener() {
                                 @Override
-                                public void onSuccess() {
+                                public void onResult(int sent, int failed) {
                                     if (!isAdded()) return;
                                     btnNotifySelectedEntrants.setEnabled(true);
-                                    Toast.makeText(getContext(),
-                                            "Notification sent to selected entrants.",
-                                            Toast.LENGTH_LONG).show();
+                                    showNotifyResult("selected entrants", sent, failed);
                                 }
 
                                 @Override
@@ -690,14 +657,12 @@ public class EventViewFragment extends Fragment {
                             eventId,
                             title,
                             message,
-                            new WaitingListManager.OnCompleteListener() {
+                            new WaitingListManager.OnNotifyResultListener() {
                                 @Override
-                                public void onSuccess() {
+                                public void onResult(int sent, int failed) {
                                     if (!isAdded()) return;
                                     btnNotifyNotSelectedEntrants.setEnabled(true);
-                                    Toast.makeText(getContext(),
-                                            "Notification sent to not-selected entrants.",
-                                            Toast.LENGTH_LONG).show();
+                                    showNotifyResult("not-selected entrants", sent, failed);
                                 }
 
                                 @Override
@@ -763,14 +728,12 @@ public class EventViewFragment extends Fragment {
                             eventId,
                             title,
                             message,
-                            new WaitingListManager.OnCompleteListener() {
+                            new WaitingListManager.OnNotifyResultListener() {
                                 @Override
-                                public void onSuccess() {
+                                public void onResult(int sent, int failed) {
                                     if (!isAdded()) return;
                                     btnNotifyWaitingListEntrants.setEnabled(true);
-                                    Toast.makeText(getContext(),
-                                            "Notification sent to all waiting-list entrants.",
-                                            Toast.LENGTH_LONG).show();
+                                    showNotifyResult("all waiting-list entrants", sent, failed);
                                 }
 
                                 @Override
@@ -788,142 +751,105 @@ public class EventViewFragment extends Fragment {
     }
 
     /**
-     * Opens a dialog showing categorized waiting list entries.
+     * Tells the organizer how many notifications went out and how many could not be written.
      */
+    private void showNotifyResult(String recipients, int sent, int failed) {
+        String text;
+        if (sent + failed == 0) {
+            text = "No " + recipients + " to notify.";
+        } else if (failed == 0) {
+            text = "Notification sent to " + sent + " " + recipients + ".";
+        } else {
+            text = "Sent " + sent + " notifications to " + recipients + ", " + failed + " failed.";
+        }
+        Toast.makeText(getContext(), text, Toast.LENGTH_LONG).show();
+    }
 
-    private void showWaitingListDialog() {
-        if (event == null) return;
-        String eventId = event.getEvent_id();
-        if (eventId == null) return;
-
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    if (!isAdded()) return;
-
-                    if (snap.isEmpty()) {
-                        new AlertDialog.Builder(requireContext())
-                                .setTitle("Waiting List")
-                                .setMessage("No entrants on the waiting list yet.")
-                                .setPositiveButton("OK", null)
-                                .show();
-                        return;
-                    }
-
-                    StringBuilder sb = new StringBuilder();
-
-                    // 1. US 02.06.01 - chosen entrants invited to apply
-                    //    In your model this is status = "selected"
-                    sb.append("Chosen entrants invited to apply:\n");
-                    boolean anySelected = false;
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        String status = doc.getString("status");
-                        if (!"selected".equals(status)) {
-                            continue;
-                        }
-                        anySelected = true;
-
-                        String name = doc.getString("entrant_name");
-                        String email = doc.getString("entrant_email");
-
-                        if (name == null || name.trim().isEmpty()) {
-                            name = "(no name)";
-                        }
-                        sb.append("• ").append(name);
-                        if (email != null && !email.trim().isEmpty()) {
-                            sb.append("  <").append(email).append(">");
-                        }
-                        sb.append("\n");
-                    }
-                    if (!anySelected) {
-                        sb.append("  (none)\n");
-                    }
-
-                    sb.append("\n");
+    /**
+     * Opens a dialog showing categorized waiting list entries, from the entrant store.
+     */
 
-                    // 2. US 02.06.02 - cancelled entrants
-                    //    For your code, treat "declined" as cancelled, and also include "cancelled" if you add it later
-                    sb.append("Cancelled entrants:\n");
-                    boolean anyCancelled = false;
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        String status = doc.getString("status");
-                        if (!"declined".equals(status) && !"cancelled".equals(status)) {
-                            continue;
-                        }
-                        anyCancelled = true;
+    private void showWaitingListDialog() {
+        if (entrantStore == null || !entrantStore.isLoaded()) {
+            Toast.makeText(getContext(), "Waiting list is still loading", Toast.LENGTH_SHORT).show();
+            return;
+        }
 
-                        String name = doc.getString("entrant_name");
-                        String email = doc.getString("entrant_email");
+        if (entrantStore.size() == 0) {
+            new AlertDialog.Builder(requireContext())
+                    .setTitle("Waiting List")
+                    .setMessage("No entrants on the waiting list yet.")
+                    .setPositiveButton("OK", null)
+                    .show();
+            return;
+        }
 
-                        if (name == null || name.trim().isEmpty()) {
-                            name = "(no name)";
-                        }
-                        sb.append("• ").append(name);
-                        if (email != null && !email.trim().isEmpty()) {
-                            sb.append("  <").append(email).append(">");
-                        }
-                        // Optional, if you want to show the exact status
-                        sb.append("  [").append(status).append("]");
-                        sb.append("\n");
-                    }
-                    if (!anyCancelled) {
-                        sb.append("  (none)\n");
-                    }
+        StringBuilder sb = new StringBuilder();
 
-                    sb.append("\n");
+        // 1. US 02.06.01 - chosen entrants invited to apply
+        //    In your model this is status = "selected"
+        sb.append("Chosen entrants invited to apply:\n");
+        int selected = appendEntrants(sb, entrantStore.columns("selected"), false);
+        if (selected == 0) {
+            sb.append("  (none)\n");
+        }
 
-                    // 3. Everything else on the waiting list, to keep your old behavior
-                    sb.append("Other waiting list entrants:\n");
-                    boolean anyOther = false;
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        String status = doc.getString("status");
+        sb.append("\n");
 
-                        // Skip the ones already shown above
-                        if ("selected".equals(status)
-                                || "declined".equals(status)
-                                || "cancelled".equals(status)) {
-                            continue;
-                        }
+        // 2. US 02.06.02 - cancelled entrants
+        //    For your code, treat "declined" as cancelled, and also include "cancelled" if you add it later
+        sb.append("Cancelled entrants:\n");
+        int cancelled = appendEntrants(sb, entrantStore.columns("declined"), true)
+                + appendEntrants(sb, entrantStore.columns("cancelled"), true);
+        if (cancelled == 0) {
+            sb.append("  (none)\n");
+        }
 
-                        anyOther = true;
-                        String name = doc.getString("entrant_name");
-                        String email = doc.getString("entrant_email");
+        sb.append("\n");
 
-                        if (name == null || name.trim().isEmpty()) {
-                            name = "(no name)";
-                        }
-                        if (email == null || email.trim().isEmpty()) {
-                            email = "(no email)";
-                        }
-                        if (status == null || status.trim().isEmpty()) {
-                            status = "unknown";
-                        }
+        // 3. Everything else on the waiting list, to keep your old behavior
+        sb.append("Other waiting list entrants:\n");
+        int other = 0;
+        for (EntrantSnapshotStore.StatusColumns columns : entrantStore.allColumns()) {
+            // Skip the ones already shown above
+            String status = columns.getStatus();
+            if ("selected".equals(status) || "declined".equals(status) || "cancelled".equals(status)) {
+                continue;
+            }
+            other += appendEntrants(sb, columns, true);
+        }
+        if (other == 0) {
+            sb.append("  (none)\n");
+        }
 
-                        sb.append("• ")
-                                .append(name)
-                                .append("  <").append(email).append(">")
-                                .append("  [").append(status).append("]")
-                                .append("\n");
-                    }
-                    if (!anyOther) {
-                        sb.append("  (none)\n");
-                    }
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Waiting List")
+                .setMessage(sb.toString())
+                .setPositiveButton("OK", null)
+                .show();
+    }
 
-                    new AlertDialog.Builder(requireContext())
-                            .setTitle("Waiting List")
-                            .setMessage(sb.toString())
-                            .setPositiveButton("OK", null)
-                            .show();
-                })
-                .addOnFailureListener(e -> {
-                    if (!isAdded()) return;
-                    new AlertDialog.Builder(requireContext())
-                            .setTitle("Waiting List")
-                            .setMessage("Failed to load waiting list: " + e.getMessage())
-                            .setPositiveButton("OK", null)
-                            .show();
-                });
+    /**
+     * Appends a line per entrant with one status: name, email and optionally the status.
+     * @return number of lines appended
+     */
+    private int appendEntrants(StringBuilder sb, EntrantSnapshotStore.StatusColumns columns, boolean withStatus) {
+        for (int row : columns.rowsByJoinTime()) {
+            String name = columns.name(row);
+            String email = columns.email(row);
+            if (name == null || name.trim().isEmpty()) {
+                name = "(no name)";
+            }
+            sb.append("• ").append(name);
+            if (email != null && !email.trim().isEmpty()) {
+                sb.append("  <").append(email).append(">");
+            }
+            if (withStatus) {
+                sb.append("  [").append(columns.getStatus()).append("]");
+            }
+            sb.append("\n");
+        }
+        return columns.size();
     }
 
     /**
@@ -941,31 +867,8 @@ public class EventViewFragment extends Fragment {
             return;
         }
 
-        if (waitlistCapacity > 0) {
-            waitingListManager.getWaitingListCount(eventId, new WaitingListManager.OnCountListener() {
-                @Override
-                public void onCount(int count) {
-                    currentWaitingCount = count;
-                    if (count >= waitlistCapacity) {
-                        if (getContext() != null) {
-                            Toast.makeText(getContext(),
-                                    "Waitlist is full for this event.",
-                                    Toast.LENGTH_SHORT).show();
-                        }
-                        updateJoinButtonForCapacity();
-                        return;
-                    }
-                    actuallyJoinWaitlist(userId, userName, userEmail, eventId);
-                }
-
-                @Override
-                public void onError(Exception e) {
-                    actuallyJoinWaitlist(userId, userName, userEmail, eventId);
-                }
-            });
-        } else {
-            actuallyJoinWaitlist(userId, userName, userEmail, eventId);
-        }
+        // The waitlist limit is enforced by the join transaction itself
+        actuallyJoinWaitlist(userId, userName, userEmail, eventId);
     }
 
     /**
@@ -977,6 +880,7 @@ public class EventViewFragment extends Fragment {
 
         getLocation((lat, lon) -> {
             waitingListManager.joinWaitingList(eventId, userId, userName, userEmail, lat, lon,
+                    waitlistCapacity,
                     new WaitingListManager.OnCompleteListener() {
                         @Override
                         public void onSuccess() {
@@ -987,6 +891,11 @@ public class EventViewFragment extends Fragment {
 
                         @Override
                         public void onFailure(Exception e) {
+                            if (e instanceof WaitlistFullException) {
+                                Toast.makeText(getContext(), e.getMessage(), Toast.LENGTH_SHORT).show();
+                                loadWaitingCount(); // refreshes the count and disables the button
+                                return;
+                            }
                             btnJoinWaitlist.setEnabled(true);
                             Toast.makeText(getContext(), "Failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                         }
@@ -1131,7 +1040,7 @@ public class EventViewFragment extends Fragment {
      */
 
     private String fmt(Timestamp ts) {
-        return new SimpleDateFormat("MMM d, h:mm a", Locale.getDefault()).format(ts.toDate());
+        return DateFormats.shortDateTime(ts.toDate());
     }
 
     /**
@@ -1153,268 +1062,71 @@ public class EventViewFragment extends Fragment {
         }
     }
     /**
-     * Adds a section title inside the entrants list
-     */
-    private void addSectionTitle(LinearLayout parent, String title) {
-        TextView sectionTitle = new TextView(getContext());
-        sectionTitle.setText(title);
-        sectionTitle.setTextSize(15);
-        sectionTitle.setTypeface(android.graphics.Typeface.DEFAULT_BOLD);
-        sectionTitle.setPadding(0, 16, 0, 4);
-        parent.addView(sectionTitle);
-    }
-
-    /**
-     * Adds the "Name   Email" header row for a section
+     * Sets up the organizer's entrant list with sticky section headers
      */
-    private void addHeaderRow(LinearLayout parent) {
-        LinearLayout headerLayout = new LinearLayout(getContext());
-        headerLayout.setOrientation(LinearLayout.HORIZONTAL);
-
-        TextView nameHeader = new TextView(getContext());
-        nameHeader.setText("Name");
-        nameHeader.setTextSize(14);
-        nameHeader.setTypeface(android.graphics.Typeface.DEFAULT_BOLD);
-        nameHeader.setLayoutParams(new LinearLayout.LayoutParams(
-                0,
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                1f
-        ));
-        headerLayout.addView(nameHeader);
-
-        TextView emailHeader = new TextView(getContext());
-        emailHeader.setText("Email");
-        emailHeader.setTextSize(14);
-        emailHeader.setTypeface(android.graphics.Typeface.DEFAULT_BOLD);
-        emailHeader.setLayoutParams(new LinearLayout.LayoutParams(
-                0,
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                1f
-        ));
-        headerLayout.addView(emailHeader);
-
-        TextView empty = new TextView(getContext());
-        empty.setLayoutParams(new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT
-        ));
-        headerLayout.addView(empty);
-
-        parent.addView(headerLayout);
+    private void setupEntrantsList() {
+        entrantListAdapter = new EntrantListAdapter();
+        entrantListAdapter.setOnRemoveClickListener(this::showRemoveConfirmation);
+        rvEntrants.setLayoutManager(new LinearLayoutManager(getContext()));
+        rvEntrants.setAdapter(entrantListAdapter);
+        rvEntrants.addItemDecoration(new StickyHeaderDecoration(entrantListAdapter));
     }
 
-
     /**
-     * Adds one entrant row with name, email and red "remove" action
-     */
-    private void addEntrantRow(LinearLayout parent, String name, String email, String docId) {
-        if (name == null || name.trim().isEmpty()) name = "(no name)";
-        if (email == null || email.trim().isEmpty()) email = "(no email)";
-
-        LinearLayout rowLayout = new LinearLayout(getContext());
-        rowLayout.setOrientation(LinearLayout.HORIZONTAL);
-        rowLayout.setLayoutParams(new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.MATCH_PARENT,
-                LinearLayout.LayoutParams.WRAP_CONTENT));
-        rowLayout.setPadding(0, 6, 0, 6);
-
-        // NAME COLUMN
-        TextView nameText = new TextView(getContext());
-        nameText.setText(name);
-        nameText.setTextSize(14);
-        nameText.setTypeface(android.graphics.Typeface.MONOSPACE);
-        nameText.setSingleLine(true);
-        nameText.setEllipsize(android.text.TextUtils.TruncateAt.END);
-        nameText.setLayoutParams(new LinearLayout.LayoutParams(
-                0,
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                1f));
-        rowLayout.addView(nameText);
-
-        // EMAIL COLUMN
-        TextView emailText = new TextView(getContext());
-        emailText.setText(email);
-        emailText.setTextSize(14);
-        emailText.setTypeface(android.graphics.Typeface.MONOSPACE);
-        emailText.setSingleLine(true);
-        emailText.setEllipsize(android.text.TextUtils.TruncateAt.END);
-        emailText.setLayoutParams(new LinearLayout.LayoutParams(
-                0,
-                LinearLayout.LayoutParams.WRAP_CONTENT,
-                1f));
-        rowLayout.addView(emailText);
-
-        // REMOVE BUTTON
-        TextView removeButton = new TextView(getContext());
-        removeButton.setText("remove");
-        removeButton.setTextSize(12);
-        removeButton.setTextColor(Color.RED);
-        removeButton.setPadding(16, 0, 0, 0);
-        removeButton.setClickable(true);
-
-        final String finalName = name;
-        removeButton.setOnClickListener(v -> showRemoveConfirmation(docId, finalName));
-
-        rowLayout.addView(removeButton);
-        parent.addView(rowLayout);
-    }
-
-
-
-    /**
-     * Loads and displays the list of entrants for organizers
+     * Starts the event's entrant store, which all the organizer views read, and shows the
+     * list of entrants, redrawn whenever the waiting list changes.
      */
 
     private void loadAndDisplayEntrantsList() {
-        if (event == null) return;
+        if (event == null || entrantStore != null) return;
         String eventId = event.getEvent_id();
         if (eventId == null) return;
 
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (!isAdded()) return;
-
-                    if (querySnapshot.isEmpty()) {
-                        tvEntrantsHeader.setVisibility(View.VISIBLE);
-                        scrollViewEntrants.setVisibility(View.VISIBLE);
-                        btnExportCsv.setVisibility(View.VISIBLE);
-                        tvEntrantsList.setText("No entrants yet.");
-                        return;
-                    }
-
-                    // Clear the ScrollView content
-                    scrollViewEntrants.removeAllViews();
-
-                    LinearLayout container = new LinearLayout(getContext());
-                    container.setOrientation(LinearLayout.VERTICAL);
-                    container.setLayoutParams(new ViewGroup.LayoutParams(
-                            ViewGroup.LayoutParams.MATCH_PARENT,
-                            ViewGroup.LayoutParams.WRAP_CONTENT));
-
-                    // Separate docs by status
-                    List<DocumentSnapshot> waitingDocs = new ArrayList<>();
-                    List<DocumentSnapshot> selectedDocs = new ArrayList<>();
-                    List<DocumentSnapshot> acceptedDocs = new ArrayList<>();
-                    List<DocumentSnapshot> cancelledDocs = new ArrayList<>();
-                    List<DocumentSnapshot> otherDocs = new ArrayList<>();
-
-                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                        String status = doc.getString("status");
-
-                        if ("selected".equals(status)) {
-                            selectedDocs.add(doc);
-                        } else if ("accepted".equals(status) || "enrolled".equals(status)) {
-                            acceptedDocs.add(doc);
-                        } else if ("declined".equals(status) || "cancelled".equals(status)) {
-                            cancelledDocs.add(doc);
-                        } else if (status == null || "waiting".equals(status)) {
-                            waitingDocs.add(doc);
-                        } else {
-                            otherDocs.add(doc);
-                        }
-                    }
-
-                    boolean hasLotteryActivity =
-                            !selectedDocs.isEmpty() || !acceptedDocs.isEmpty() || !cancelledDocs.isEmpty();
-
-                    // Case 1: before lottery, show a single simple waiting list
-                    if (!hasLotteryActivity) {
-                        addSectionTitle(container, "Waiting list entrants");
-                        addHeaderRow(container);
-                        for (DocumentSnapshot doc : waitingDocs) {
-                            String name = doc.getString("entrant_name");
-                            String email = doc.getString("entrant_email");
-                            String docId = doc.getId();
-                            addEntrantRow(container, name, email, docId);
-                        }
-                    } else {
-                        // Case 2: after lottery, show grouped sections
-
-                        // 2.0 All chosen entrants, regardless of response
-                        List<DocumentSnapshot> allChosen = new ArrayList<>();
-                        allChosen.addAll(selectedDocs);
-                        allChosen.addAll(acceptedDocs);
-                        allChosen.addAll(cancelledDocs);
-
-                        if (!allChosen.isEmpty()) {
-                            addSectionTitle(container, "All entrants chosen in lottery");
-                            addHeaderRow(container);
-                            for (DocumentSnapshot doc : allChosen) {
-                                String name = doc.getString("entrant_name");
-                                String email = doc.getString("entrant_email");
-                                String docId = doc.getId();
-                                addEntrantRow(container, name, email, docId);
-                            }
-                        }
-
-                        // 2.1 Still selected, invited to apply
-                        if (!selectedDocs.isEmpty()) {
-                            addSectionTitle(container, "Chosen entrants invited to apply");
-                            addHeaderRow(container);
-                            for (DocumentSnapshot doc : selectedDocs) {
-                                String name = doc.getString("entrant_name");
-                                String email = doc.getString("entrant_email");
-                                String docId = doc.getId();
-                                addEntrantRow(container, name, email, docId);
-                            }
-                        }
-
-                        // 2.2 Accepted / enrolled
-                        if (!acceptedDocs.isEmpty()) {
-                            addSectionTitle(container, "Accepted entrants");
-                            addHeaderRow(container);
-                            for (DocumentSnapshot doc : acceptedDocs) {
-                                String name = doc.getString("entrant_name");
-                                String email = doc.getString("entrant_email");
-                                String docId = doc.getId();
-                                addEntrantRow(container, name, email, docId);
-                            }
-                        }
-
-                        // 2.3 Cancelled / declined
-                        if (!cancelledDocs.isEmpty()) {
-                            addSectionTitle(container, "Cancelled entrants");
-                            addHeaderRow(container);
-                            for (DocumentSnapshot doc : cancelledDocs) {
-                                String name = doc.getString("entrant_name");
-                                String email = doc.getString("entrant_email");
-                                String docId = doc.getId();
-                                addEntrantRow(container, name, email, docId);
-                            }
-                        }
-
-                        // 2.4 Never chosen, still just on waiting list
-                        if (!waitingDocs.isEmpty() || !otherDocs.isEmpty()) {
-                            addSectionTitle(container, "Other waiting list entrants");
-                            addHeaderRow(container);
-
-                            for (DocumentSnapshot doc : waitingDocs) {
-                                String name = doc.getString("entrant_name");
-                                String email = doc.getString("entrant_email");
-                                String docId = doc.getId();
-                                addEntrantRow(container, name, email, docId);
-                            }
-
-                            for (DocumentSnapshot doc : otherDocs) {
-                                String name = doc.getString("entrant_name");
-                                String email = doc.getString("entrant_email");
-                                String docId = doc.getId();
-                                addEntrantRow(container, name, email, docId);
-                            }
-                        }
-                    }
+        entrantStore = new EntrantSnapshotStore();
+        entrantStore.addListener(changes -> {
+            if (isAdded()) displayEntrantsList();
+        });
+        entrantStore.attach(db.collection("waiting_list").whereEqualTo("event_id", eventId),
+                ContextCompat.getMainExecutor(requireContext()),
+                e -> Log.e("EventViewFragment", "Failed to load entrants: " + e.getMessage()));
+    }
 
-                    scrollViewEntrants.addView(container);
-                    tvEntrantsHeader.setVisibility(View.VISIBLE);
-                    scrollViewEntrants.setVisibility(View.VISIBLE);
-                    btnExportCsv.setVisibility(View.VISIBLE);
-                })
-                .addOnFailureListener(e -> {
-                    if (!isAdded()) return;
-                    Log.e("EventViewFragment", "Failed to load entrants: " + e.getMessage());
-                });
+    /**
+     * Shows the entrants in {@link #entrantStore}, grouped by status. Only the rows in
+     * view are created; the rest are bound as the list scrolls.
+     *
+     * <p>The rows are built from a snapshot of the store on {@link #ROWS_EXECUTOR}, as
+     * sorting a long list takes several frames. Changes that arrive while rows are being
+     * built are shown together by one more build once it finishes.</p>
+     */
+    private void displayEntrantsList() {
+        tvEntrantsHeader.setVisibility(View.VISIBLE);
+        btnExportCsv.setVisibility(View.VISIBLE);
+        boolean empty = entrantStore.size() == 0;
+        tvEntrantsList.setVisibility(empty ? View.VISIBLE : View.GONE);
+        rvEntrants.setVisibility(empty ? View.GONE : View.VISIBLE);
+        if (buildingRows) {
+            rowsStale = true;
+            return;
+        }
+        buildingRows = true;
+        List<EntrantSnapshotStore.StatusColumns> snapshot = entrantStore.snapshot();
+        Executor main = ContextCompat.getMainExecutor(requireContext());
+        ROWS_EXECUTOR.execute(() -> {
+            List<EntrantListItem> items = EntrantListItem.fromColumns(snapshot);
+            main.execute(() -> {
+                buildingRows = false;
+                if (!isAdded() || entrantListAdapter == null || entrantStore == null) {
+                    rowsStale = false;
+                    return;
+                }
+                entrantListAdapter.setItems(items, null);
+                if (rowsStale) {
+                    rowsStale = false;
+                    displayEntrantsList();
+                }
+            });
+        });
     }
 
 
@@ -1437,25 +1149,26 @@ public class EventViewFragment extends Fragment {
      * Removes an entrant from the waiting list in Firebase
      */
     private void removeEntrantFromWaitingList(String waitingListDocId) {
-        db.collection("waiting_list")
-                .document(waitingListDocId)
-                .delete()
-                .addOnSuccessListener(aVoid -> {
-                    if (!isAdded()) return;
-                    Toast.makeText(getContext(),
-                            "Entrant removed from waiting list",
-                            Toast.LENGTH_SHORT).show();
-                    // Reload the list to reflect changes
-                    loadAndDisplayEntrantsList();
-                    loadWaitingCount(); // Update the count
-                    loadEntrantLocations(); // Update the map
-                })
-                .addOnFailureListener(e -> {
-                    if (!isAdded()) return;
-                    Toast.makeText(getContext(),
-                            "Failed to remove entrant: " + e.getMessage(),
-                            Toast.LENGTH_SHORT).show();
-                });
+        // Goes through the manager so the event's waiting list counters are updated too
+        waitingListManager.removeEntry(waitingListDocId, new WaitingListManager.OnCompleteListener() {
+            @Override
+            public void onSuccess() {
+                if (!isAdded()) return;
+                Toast.makeText(getContext(),
+                        "Entrant removed from waiting list",
+                        Toast.LENGTH_SHORT).show();
+                // The entrant store's listener redraws the list
+                loadWaitingCount(); // Update the count
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (!isAdded()) return;
+                Toast.makeText(getContext(),
+                        "Failed to remove entrant: " + e.getMessage(),
+                        Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     /**
@@ -1467,120 +1180,151 @@ public class EventViewFragment extends Fragment {
     }
 
     /**
-     * Exports the entrants list as a CSV file
+     * Asks the organizer for an export format, then for the columns to include.
      */
-    private void exportEntrantsAsCsv() {
-        if (event == null) return;
-        String eventId = event.getEvent_id();
-        if (eventId == null) return;
-
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (!isAdded()) return;
-
-                    // Build CSV content
-                    StringBuilder csv = new StringBuilder();
-                    csv.append("Name,Email,Status,Joined Date\n");
-
-                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                        String name = doc.getString("entrant_name");
-                        String email = doc.getString("entrant_email");
-                        String status = doc.getString("status");
-                        Long joinedAt = doc.getLong("joined_at");
-
-                        // Handle null values
-                        if (name == null) name = "";
-                        if (email == null) email = "";
-                        if (status == null) status = "";
-
-                        String joinedDate = "";
-                        if (joinedAt != null) {
-                            joinedDate = new SimpleDateFormat("yyyy-MM-dd HH:mm",
-                                    Locale.getDefault()).format(new Date(joinedAt));
-                        }
-
-                        // Escape commas and quotes in CSV
-                        name = escapeCsv(name);
-                        email = escapeCsv(email);
-
-                        csv.append(String.format("%s,%s,%s,%s\n",
-                                name, email, status, joinedDate));
-                    }
-
-                    // Save to file
-                    saveCsvFile(csv.toString());
-                })
-                .addOnFailureListener(e -> {
-                    if (!isAdded()) return;
-                    Toast.makeText(getContext(),
-                            "Failed to export: " + e.getMessage(),
-                            Toast.LENGTH_SHORT).show();
-                });
+    private void chooseExportFormat() {
+        if (event == null || event.getEvent_id() == null) return;
+        ExportFormat[] formats = ExportFormat.values();
+        String[] labels = new String[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            labels[i] = formats[i].getLabel();
+        }
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Export Format")
+                .setItems(labels, (dialog, which) -> chooseExportColumns(formats[which]))
+                .setNegativeButton("Cancel", null)
+                .show();
     }
 
     /**
-     * Escapes special characters for CSV format
+     * Asks which columns to export, with the default columns checked.
+     * @param format format chosen in {@link #chooseExportFormat()}
      */
-    private String escapeCsv(String value) {
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
+    private void chooseExportColumns(ExportFormat format) {
+        EntrantColumn[] all = EntrantColumn.values();
+        String[] headers = new String[all.length];
+        boolean[] checked = new boolean[all.length];
+        for (int i = 0; i < all.length; i++) {
+            headers[i] = all[i].getHeader();
+            checked[i] = EntrantColumn.DEFAULTS.contains(all[i]);
         }
-        return value;
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Columns")
+                .setMultiChoiceItems(headers, checked, (dialog, which, isChecked) -> checked[which] = isChecked)
+                .setPositiveButton("Export", (dialog, which) -> {
+                    List<EntrantColumn> columns = new ArrayList<>();
+                    for (int i = 0; i < all.length; i++) {
+                        if (checked[i]) columns.add(all[i]);
+                    }
+                    if (columns.isEmpty()) {
+                        Toast.makeText(requireContext(), "Choose at least one column", Toast.LENGTH_SHORT).show();
+                        return;
+                    }
+                    exportEntrants(format, columns);
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
     }
 
     /**
-     * Saves CSV content to Downloads folder
+     * Exports the entrants list to a file in Downloads. Entrants are taken from the
+     * entrant store, or read a page at a time if a column it lacks is chosen, and streamed
+     * to the file on a background thread; the button shows progress.
+     * @param format file format
+     * @param columns columns to write, in order
      */
-    private void saveCsvFile(String csvContent) {
-        try {
-            String eventName = event.getEvent_name() != null ?
-                    event.getEvent_name().replaceAll("[^a-zA-Z0-9]", "_") : "event";
-            String fileName = eventName + "_entrants_" +
-                    System.currentTimeMillis() + ".csv";
+    private void exportEntrants(ExportFormat format, List<EntrantColumn> columns) {
+        if (event == null) return;
+        String eventId = event.getEvent_id();
+        if (eventId == null) return;
+
+        String eventName = event.getEvent_name() != null ?
+                event.getEvent_name().replaceAll("[^a-zA-Z0-9]", "_") : "event";
+        String fileName = eventName + "_entrants_" +
+                System.currentTimeMillis() + "." + format.getFileExtension();
 
+        // Application context: the export may finish after this screen is closed
+        android.content.Context context = requireContext().getApplicationContext();
+        android.net.Uri download = null;
+        java.io.OutputStream outputStream;
+        try {
             if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.Q) {
-                // Android 10+ using MediaStore
+                // Android 10+ using MediaStore; hidden from other apps until complete
                 android.content.ContentValues values = new android.content.ContentValues();
                 values.put(android.provider.MediaStore.Downloads.DISPLAY_NAME, fileName);
-                values.put(android.provider.MediaStore.Downloads.MIME_TYPE, "text/csv");
+                values.put(android.provider.MediaStore.Downloads.MIME_TYPE, format.getMimeType());
                 values.put(android.provider.MediaStore.Downloads.RELATIVE_PATH,
                         android.os.Environment.DIRECTORY_DOWNLOADS);
+                values.put(android.provider.MediaStore.Downloads.IS_PENDING, 1);
 
-                android.net.Uri uri = requireContext().getContentResolver().insert(
+                download = context.getContentResolver().insert(
                         android.provider.MediaStore.Downloads.EXTERNAL_CONTENT_URI, values);
-
-                if (uri != null) {
-                    java.io.OutputStream outputStream =
-                            requireContext().getContentResolver().openOutputStream(uri);
-                    if (outputStream != null) {
-                        outputStream.write(csvContent.getBytes());
-                        outputStream.close();
-                        Toast.makeText(getContext(),
-                                "CSV exported to Downloads/" + fileName,
-                                Toast.LENGTH_LONG).show();
-                    }
-                }
+                if (download == null) throw new java.io.IOException("Could not create the file");
+                outputStream = context.getContentResolver().openOutputStream(download);
+                if (outputStream == null) throw new java.io.IOException("Could not open the file");
             } else {
                 // For older Android versions
                 java.io.File downloadDir = android.os.Environment.getExternalStoragePublicDirectory(
                         android.os.Environment.DIRECTORY_DOWNLOADS);
-                java.io.File file = new java.io.File(downloadDir, fileName);
-
-                java.io.FileWriter writer = new java.io.FileWriter(file);
-                writer.write(csvContent);
-                writer.close();
-
-                Toast.makeText(getContext(),
-                        "CSV exported to Downloads/" + fileName,
-                        Toast.LENGTH_LONG).show();
+                outputStream = new java.io.FileOutputStream(new java.io.File(downloadDir, fileName));
             }
         } catch (Exception e) {
-            Toast.makeText(getContext(),
+            if (download != null) context.getContentResolver().delete(download, null, null);
+            Toast.makeText(context,
                     "Failed to save file: " + e.getMessage(),
                     Toast.LENGTH_LONG).show();
-            Log.e("EventViewFragment", "CSV save error", e);
+            Log.e("EventViewFragment", "Export save error", e);
+            return;
+        }
+
+        CharSequence buttonText = btnExportCsv.getText();
+        btnExportCsv.setEnabled(false);
+        android.net.Uri pending = download;
+        // The screen's entrant store already holds the list unless other columns are wanted
+        EntrantSource source = entrantStore != null && entrantStore.isLoaded()
+                && StoreEntrantSource.covers(columns)
+                ? new StoreEntrantSource(entrantStore.snapshot())
+                : new FirestoreEntrantSource(db, eventId);
+        new EntrantExport(source, format, columns, EXPORT_EXECUTOR,
+                ContextCompat.getMainExecutor(context))
+                .start(outputStream, new EntrantExport.Listener() {
+                    @Override
+                    public void onProgress(int rows) {
+                        if (isAdded() && btnExportCsv != null) {
+                            btnExportCsv.setText("Exporting... " + rows);
+                        }
+                    }
+
+                    @Override
+                    public void onComplete(int rows) {
+                        if (pending != null) {
+                            android.content.ContentValues done = new android.content.ContentValues();
+                            done.put(android.provider.MediaStore.Downloads.IS_PENDING, 0);
+                            context.getContentResolver().update(pending, done, null, null);
+                        }
+                        resetExportButton(buttonText);
+                        Toast.makeText(context,
+                                "Exported to Downloads/" + fileName + " (" + rows + " entrants)",
+                                Toast.LENGTH_LONG).show();
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        // Don't leave a partial file behind
+                        if (pending != null) context.getContentResolver().delete(pending, null, null);
+                        resetExportButton(buttonText);
+                        Toast.makeText(context,
+                                "Failed to export: " + e.getMessage(),
+                                Toast.LENGTH_LONG).show();
+                        Log.e("EventViewFragment", "Export error", e);
+                    }
+                });
+    }
+
+    private void resetExportButton(CharSequence text) {
+        if (isAdded() && btnExportCsv != null) {
+            btnExportCsv.setText(text);
+            btnExportCsv.setEnabled(true);
         }
     }
 
@@ -1603,6 +1347,14 @@ public class EventViewFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        if (entrantClusters != null) {
+            entrantClusters.detach();
+            entrantClusters = null;
+        }
+        if (entrantStore != null) {
+            entrantStore.detach();
+            entrantStore = null;
+        }
         if (mapView != null) {
             mapView.onDetach();
         }
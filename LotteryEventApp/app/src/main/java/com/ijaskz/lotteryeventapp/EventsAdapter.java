@@ -9,27 +9,39 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.request.target.ViewTarget;
+import com.bumptech.glide.request.transition.Transition;
+
+import android.graphics.drawable.Drawable;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import com.google.firebase.Timestamp;
-import java.text.SimpleDateFormat;
-import java.util.Locale;
+import com.ijaskz.lotteryeventapp.search.EventStatusIndex;
+import com.ijaskz.lotteryeventapp.search.RegistrationStatus;
+import com.ijaskz.lotteryeventapp.util.RegistrationWindowLabels;
 
 /**
  * Defines the EventsAdapter to display them with a RecyclerView
  */
 public class EventsAdapter extends RecyclerView.Adapter<EventsAdapter.EventViewHolder> {
 
-    private List<Event> events = new ArrayList<>();
+    private final AsyncListDiffer<Event> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private final String userType;
     private final LinearLayout pic1;
     private final LinearLayout pic2;
 
     private OnEventClickListener listener;
+    @Nullable private EventStatusIndex statusIndex;
+    private final RegistrationWindowLabels windowLabels = new RegistrationWindowLabels();
 
     /**
      * interface to defines the listeners
@@ -39,6 +51,22 @@ public class EventsAdapter extends RecyclerView.Adapter<EventsAdapter.EventViewH
         void onEditClick(Event event);    // pencil tap -> edit
     }
 
+    /**
+     * Rows are the same event if they share an event_id, and only re-bind if the event's
+     * content changed.
+     */
+    static final DiffUtil.ItemCallback<Event> DIFF_CALLBACK = new DiffUtil.ItemCallback<Event>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return Objects.equals(oldItem.getEvent_id(), newItem.getEvent_id());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Event oldItem, @NonNull Event newItem) {
+            return oldItem.hasSameContent(newItem);
+        }
+    };
+
     /** Constructor when not using background image slots */
     public EventsAdapter(String userType) {
         this.userType = userType;
@@ -51,6 +79,7 @@ public class EventsAdapter extends RecyclerView.Adapter<EventsAdapter.EventViewH
         this.userType = userType;
         this.pic1 = pic1;
         this.pic2 = pic2;
+        differ.addListListener((previous, current) -> updateHeaderImages(previous, current));
     }
 
     /**
@@ -62,12 +91,44 @@ public class EventsAdapter extends RecyclerView.Adapter<EventsAdapter.EventViewH
     }
 
     /**
-     * Defines all events to be displayed
+     * Sets where rows read their registration status from. Without one, each bind works
+     * the status out from the current time.
+     * @param statusIndex index holding the displayed events; may be null
+     */
+    public void setStatusIndex(@Nullable EventStatusIndex statusIndex) {
+        this.statusIndex = statusIndex;
+    }
+
+    /**
+     * Re-binds the rows of events whose registration status changed.
+     * @param eventIds ids of the changed events
+     */
+    public void refreshStatus(Set<String> eventIds) {
+        List<Event> current = differ.getCurrentList();
+        for (int i = 0; i < current.size(); i++) {
+            if (eventIds.contains(current.get(i).getEvent_id())) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+
+    /**
+     * Defines all events to be displayed. The new list is diffed against the current one
+     * off the main thread, and only rows whose event changed are re-bound.
      * @param events the list of current events in database
      */
     public void setEvents(List<Event> events) {
-        this.events = events != null ? events : new ArrayList<>();
-        notifyDataSetChanged();
+        setEvents(events, null);
+    }
+
+    /**
+     * Like {@link #setEvents(List)}, running {@code onCommitted} once the rows are updated.
+     * @param events the list of current events in database
+     * @param onCommitted called on the main thread after the list is applied; may be null
+     */
+    public void setEvents(List<Event> events, @Nullable Runnable onCommitted) {
+        // The differ ignores a list it has already seen, so always hand it a fresh copy
+        differ.submitList(events != null ? new ArrayList<>(events) : new ArrayList<>(), onCommitted);
     }
 
     /**
@@ -93,32 +154,27 @@ public class EventsAdapter extends RecyclerView.Adapter<EventsAdapter.EventViewH
      */
     @Override
     public void onBindViewHolder(@NonNull EventViewHolder holder, int position) {
-        Event e = events.get(position);
+        Event e = differ.getCurrentList().get(position);
         holder.tvName.setText(e.getEvent_name());
         holder.tvDesc.setText(e.getEvent_description());
 
         // Registration window gating
         Timestamp rs = e.getRegistrationStart();
         Timestamp re = e.getRegistrationEnd();
-        Timestamp now = Timestamp.now();
+        RegistrationStatus status = statusIndex != null
+                ? statusIndex.statusOf(e)
+                : RegistrationStatus.of(e, System.currentTimeMillis());
 
-        boolean hasWindow = (rs != null && re != null);
-        boolean isOpen = hasWindow && now.compareTo(rs) >= 0 && now.compareTo(re) <= 0;
+        boolean hasWindow = status != RegistrationStatus.NOT_SET;
+        boolean isOpen = status == RegistrationStatus.OPEN;
         if (holder.tvRegStatus != null) {
-            if (!hasWindow) {
-                holder.tvRegStatus.setText("Registration: not set");
-            } else if (now.compareTo(rs) < 0) {
-                holder.tvRegStatus.setText("Registration: upcoming");
-            } else if (now.compareTo(re) > 0) {
-                holder.tvRegStatus.setText("Registration: closed");
-            } else {
-                holder.tvRegStatus.setText("Registration: open");
-            }
+            holder.tvRegStatus.setText(statusText(status));
         }
 
         if (holder.tvRegWindow != null) {
             if (hasWindow) {
-                holder.tvRegWindow.setText("Opens: " + fmt(rs) + "  •  Closes: " + fmt(re));
+                holder.tvRegWindow.setText(windowLabels.label(e.getEvent_id(),
+                        RegistrationStatus.millis(rs), RegistrationStatus.millis(re)));
                 holder.tvRegWindow.setVisibility(View.VISIBLE);
             } else {
                 holder.tvRegWindow.setText("");
@@ -162,31 +218,6 @@ public class EventsAdapter extends RecyclerView.Adapter<EventsAdapter.EventViewH
                     .placeholder(android.R.drawable.ic_menu_gallery)
                     .error(android.R.drawable.ic_menu_gallery)
                     .into(holder.imgView);
-
-            int adapterPos = holder.getAdapterPosition();
-            if (adapterPos == 0 && pic1 != null) {
-                Glide.with(holder.itemView.getContext())
-                        .load(imageUrl)
-                        .centerCrop()
-                        .into(new com.bumptech.glide.request.target.ViewTarget<LinearLayout, android.graphics.drawable.Drawable>(pic1) {
-                            @Override
-                            public void onResourceReady(@NonNull android.graphics.drawable.Drawable resource,
-                                                        @androidx.annotation.Nullable com.bumptech.glide.request.transition.Transition<? super android.graphics.drawable.Drawable> transition) {
-                                pic1.setBackground(resource);
-                            }
-                        });
-            } else if (adapterPos == 1 && pic2 != null) {
-                Glide.with(holder.itemView.getContext())
-                        .load(imageUrl)
-                        .centerCrop()
-                        .into(new com.bumptech.glide.request.target.ViewTarget<LinearLayout, android.graphics.drawable.Drawable>(pic2) {
-                            @Override
-                            public void onResourceReady(@NonNull android.graphics.drawable.Drawable resource,
-                                                        @androidx.annotation.Nullable com.bumptech.glide.request.transition.Transition<? super android.graphics.drawable.Drawable> transition) {
-                                pic2.setBackground(resource);
-                            }
-                        });
-            }
         } else {
             holder.imgView.setImageResource(android.R.drawable.zoom_plate);
         }
@@ -198,16 +229,53 @@ public class EventsAdapter extends RecyclerView.Adapter<EventsAdapter.EventViewH
      */
     @Override
     public int getItemCount() {
-        return events.size();
+        return differ.getCurrentList().size();
     }
 
     /**
-     * Formatting date info
-     * @param ts The date unformatted
-     * @return date formatted
+     * Loads the first two events' images into the background slots when either of those
+     * events changed. Done here rather than in onBindViewHolder because rows that only move
+     * are not re-bound.
      */
-    private String fmt(Timestamp ts) {
-        return new SimpleDateFormat("MMM d, h:mm a", Locale.getDefault()).format(ts.toDate());
+    private void updateHeaderImages(List<Event> previous, List<Event> current) {
+        loadHeaderImage(pic1, imageAt(previous, 0), imageAt(current, 0));
+        loadHeaderImage(pic2, imageAt(previous, 1), imageAt(current, 1));
+    }
+
+    @Nullable
+    private static String imageAt(List<Event> events, int index) {
+        if (index >= events.size()) return null;
+        String url = events.get(index).getImage();
+        return url != null && (url.startsWith("http://") || url.startsWith("https://")) ? url : null;
+    }
+
+    private static void loadHeaderImage(@Nullable LinearLayout slot, @Nullable String previousUrl,
+                                        @Nullable String url) {
+        if (slot == null || url == null || url.equals(previousUrl)) return;
+        Glide.with(slot.getContext())
+                .load(url)
+                .centerCrop()
+                .into(new ViewTarget<LinearLayout, Drawable>(slot) {
+                    @Override
+                    public void onResourceReady(@NonNull Drawable resource,
+                                                @Nullable Transition<? super Drawable> transition) {
+                        slot.setBackground(resource);
+                    }
+                });
+    }
+
+    /**
+     * Text for the registration status line; constants, so binding does not build strings
+     * @param status the event's status
+     * @return e.g. "Registration: open"
+     */
+    private static String statusText(RegistrationStatus status) {
+        switch (status) {
+            case OPEN: return "Registration: open";
+            case UPCOMING: return "Registration: upcoming";
+            case CLOSED: return "Registration: closed";
+            default: return "Registration: not set";
+        }
     }
 /**
  * Holds references to the views for each event item in the RecyclerView.
@@ -2,6 +2,7 @@ package com.ijaskz.lotteryeventapp;
 
 // EventsHomeFragment.java
 import android.os.Bundle;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -14,9 +15,8 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
-import com.google.firebase.firestore.ListenerRegistration;
-
 import java.time.LocalTime;
+import java.util.List;
 
 /**
  * Defines the EventsHomeFragment to be displayed in the main activity holder
@@ -25,7 +25,7 @@ public class EventsHomeFragment extends Fragment {
     private RecyclerView rvEvents;
     private EventsAdapter adapter;
     private FireStoreHelper dbHelper = new FireStoreHelper();
-    private ListenerRegistration reg;
+    private PagedEventFeed feed;
 
     /**
      * Creates Fragment to be passed to holder
@@ -49,7 +49,7 @@ public class EventsHomeFragment extends Fragment {
         rvEvents.setLayoutManager(new LinearLayoutManager(getContext()));
         UserManager userManager = new UserManager(getContext());
         String userType = userManager.getUserType();
-        String userName = userManager.getUserName();
+        String userId = userManager.getUserId();
 
         adapter = new EventsAdapter(userType, pic1, pic2);
         rvEvents.setAdapter(adapter);
@@ -62,12 +62,23 @@ public class EventsHomeFragment extends Fragment {
 
         }
 
-        // Filter events for organizers
-        if ("organizer".equals(userType)) {
-            reg = dbHelper.listenToEventsFiltered(adapter, userName);
-        } else {
-            reg = dbHelper.listenToEvents(adapter);
-        }
+        // Filter events for organizers; pages load as the list scrolls
+        feed = dbHelper.pagedEvents("organizer".equals(userType) ? userId : null,
+                new PagedEventFeed.Listener() {
+                    @Override
+                    public void onEvents(List<Event> events) {
+                        adapter.setEvents(events);
+                        // Marks time-to-content for a cold start on this screen
+                        if (getActivity() != null) getActivity().reportFullyDrawn();
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Log.e("EventsHome", "Failed to load events", e);
+                    }
+                });
+        rvEvents.addOnScrollListener(new EventFeedScrollListener(feed));
+        feed.start();
 
         adapter.setOnEventClickListener(new EventsAdapter.OnEventClickListener() {
             /**
@@ -118,9 +129,9 @@ public class EventsHomeFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
-        if (reg != null) {
-            reg.remove();     // stop listening to avoid leaks + duplicate updates
-            reg = null;
+        if (feed != null) {
+            feed.stop();      // stop listening to avoid leaks + duplicate updates
+            feed = null;
         }
         rvEvents.setAdapter(null); // optional hygiene
 
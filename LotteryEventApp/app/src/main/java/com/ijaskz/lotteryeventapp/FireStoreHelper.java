@@ -1,7 +1,11 @@
 package com.ijaskz.lotteryeventapp;
 
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
+import androidx.annotation.Nullable;
+
 import com.google.firebase.Timestamp;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FieldValue;
@@ -39,6 +43,8 @@ public class FireStoreHelper {
         newEvent.put("event_time", event.getEvent_time());
         newEvent.put("image", event.getImage());
         newEvent.put("max", event.getMax());
+        newEvent.put("organizer_name", event.getOrganizer_name());
+        newEvent.put("organizer_id", event.getOrganizer_id());
 
         // 🔹 Add a timestamp for sorting
         newEvent.put("createdAt", FieldValue.serverTimestamp());
@@ -150,13 +156,36 @@ public class FireStoreHelper {
     }
 
 
+    /**
+     * Creates a paged, newest-first feed of events. Call {@link PagedEventFeed#start()} to
+     * begin loading and {@link PagedEventFeed#stop()} when the view goes away. Feeds for
+     * the same organizer (or for all events) share one first-page listener, which is kept
+     * briefly after the last feed stops so the next screen can pick it up.
+     * @param organizerId only include events whose organizer_id is this user id; null for
+     *                    all events
+     * @param listener receives the loaded events
+     * @return the feed
+     */
+    public PagedEventFeed pagedEvents(@Nullable String organizerId, PagedEventFeed.Listener listener) {
+        Handler handler = new Handler(Looper.getMainLooper());
+        return new PagedEventFeed(EventStream.orderedEvents(db, organizerId),
+                EventStream.shared(db, organizerId, (task, delayMs) -> {
+                    handler.postDelayed(task, delayMs);
+                    return () -> handler.removeCallbacks(task);
+                }), listener);
+    }
+
     /**
      * Listen to events filtered by organizer name
      * @param adapter The adapter for events to update
      * @param organizerName The organizer name to filter by
      * @return Listener reg for events
+     * @deprecated listens to every matching event and matches on the display name; use
+     * {@link #pagedEvents} with the organizer's user id
      */
+    @Deprecated
     public ListenerRegistration listenToEventsFiltered(EventsAdapter adapter, String organizerName) {
+        EventSnapshotList events = new EventSnapshotList();
         return db.collection("events")
                 .whereEqualTo("organizer_name", organizerName)
                 .orderBy("createdAt", Query.Direction.DESCENDING)
@@ -166,18 +195,11 @@ public class FireStoreHelper {
                         return;
                     }
 
-                    List<Event> list = new ArrayList<>();
-                    if (snap != null) {
-                        for (DocumentSnapshot doc : snap) {
-                            Event ev = doc.toObject(Event.class);
-                            if (ev != null) {
-                                ev.setEvent_id(doc.getId());
-                                list.add(ev);
-                            }
-                        }
+                    if (snap == null) return;
+                    List<Event> list = events.apply(snap);
+                    if (list != null) {
+                        adapter.setEvents(list);
                     }
-
-                    adapter.setEvents(list);
                 });
     }
 
@@ -211,11 +233,15 @@ public class FireStoreHelper {
     }
 
     /**
-     * updates the adapter for events with a list of events from database
+     * updates the adapter for events with a list of events from database.
+     * Each snapshot only re-parses the events that changed; see {@link EventSnapshotList}.
      * @param adapter The adapter for events to update
      * @return Listener reg for events
+     * @deprecated listens to the whole collection; use {@link #pagedEvents}
      */
+    @Deprecated
     public ListenerRegistration listenToEvents(EventsAdapter adapter) {
+        EventSnapshotList events = new EventSnapshotList();
         return db.collection("events")
                 .orderBy("createdAt", Query.Direction.DESCENDING) // ✅ Sort by newest
                 .addSnapshotListener((snap, e) -> {
@@ -224,18 +250,11 @@ public class FireStoreHelper {
                         return;
                     }
 
-                    List<Event> list = new ArrayList<>();
-                    if (snap != null) {
-                        for (DocumentSnapshot doc : snap) {
-                            Event ev = doc.toObject(Event.class);
-                            if (ev != null) {
-                                ev.setEvent_id(doc.getId());
-                                list.add(ev);
-                            }
-                        }
+                    if (snap == null) return;
+                    List<Event> list = events.apply(snap);
+                    if (list != null) {
+                        adapter.setEvents(list);
                     }
-
-                    adapter.setEvents(list);
                 });
     }
 }
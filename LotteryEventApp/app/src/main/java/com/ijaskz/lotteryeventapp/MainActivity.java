@@ -6,9 +6,11 @@ import android.os.Bundle;
 import android.provider.MediaStore;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.ActionBarDrawerToggle;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.core.view.GravityCompat;
@@ -18,6 +20,9 @@ import androidx.fragment.app.Fragment;
 import com.google.android.material.navigation.NavigationView;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.ijaskz.lotteryeventapp.repository.GeohashBackfill;
+import com.ijaskz.lotteryeventapp.repository.OrganizerIdBackfill;
+import com.ijaskz.lotteryeventapp.repository.WaitingListIdMigration;
 
 /**
  * Defines main activity that holds fragments and navigation bar
@@ -147,6 +152,9 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         menu.findItem(R.id.nav_notifications).setVisible("organizer".equals(userType) || "entrant".equals(userType));
         menu.findItem(R.id.nav_manage_profiles).setVisible("admin".equals(userType));
         menu.findItem(R.id.nav_admin_notification_logs).setVisible("admin".equals(userType)); //Admin-only logs
+        menu.findItem(R.id.nav_migrate_waiting_list).setVisible("admin".equals(userType));
+        menu.findItem(R.id.nav_backfill_organizer_ids).setVisible("admin".equals(userType));
+        menu.findItem(R.id.nav_backfill_geohashes).setVisible("admin".equals(userType));
         menu.findItem(R.id.nav_lottery_description).setVisible("entrant".equals(userType));
         menu.findItem(R.id.nav_logout).setVisible(true);
 
@@ -197,6 +205,21 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         else if (id == R.id.nav_manage_profiles) fragment = new UserManagerFragment();
         else if (id == R.id.nav_admin_notification_logs) fragment = new AdminNotificationLogsFragment();
         else if (id == R.id.nav_lottery_description) fragment = new LotteryDescription();
+        else if (id == R.id.nav_migrate_waiting_list) {
+            confirmWaitingListMigration();
+            drawerLayout.closeDrawer(GravityCompat.START);
+            return true;
+        }
+        else if (id == R.id.nav_backfill_organizer_ids) {
+            confirmOrganizerIdBackfill();
+            drawerLayout.closeDrawer(GravityCompat.START);
+            return true;
+        }
+        else if (id == R.id.nav_backfill_geohashes) {
+            confirmGeohashBackfill();
+            drawerLayout.closeDrawer(GravityCompat.START);
+            return true;
+        }
         else if (id == R.id.nav_logout) {
             userManager.logout();
             Intent intent = new Intent(this, LoginActivity.class);
@@ -211,6 +234,98 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         return true;
     }
 
+    /**
+     * Asks the admin to confirm, then moves waiting list entries to their
+     * (event, entrant) document ids. Safe to run more than once.
+     */
+    private void confirmWaitingListMigration() {
+        new AlertDialog.Builder(this)
+                .setTitle("Migrate Waiting Lists")
+                .setMessage("Move every waiting list entry to its new document id and remove duplicate entries?")
+                .setPositiveButton("Migrate", (dialog, which) -> {
+                    Toast.makeText(this, "Migrating waiting lists...", Toast.LENGTH_SHORT).show();
+                    new WaitingListIdMigration().run(new WaitingListIdMigration.OnMigrationListener() {
+                        @Override
+                        public void onComplete(WaitingListIdMigration.Report report) {
+                            Toast.makeText(MainActivity.this,
+                                    "Migration done: " + report.getMoved() + " moved, "
+                                            + report.getDuplicates() + " duplicates removed, "
+                                            + report.getFailed() + " failed",
+                                    Toast.LENGTH_LONG).show();
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            Toast.makeText(MainActivity.this,
+                                    "Migration failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                        }
+                    });
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    /**
+     * Asks the admin to confirm, then sets organizer_id on events that only store the
+     * organizer's name, so they show up in organizer views. Safe to run more than once.
+     */
+    private void confirmOrganizerIdBackfill() {
+        new AlertDialog.Builder(this)
+                .setTitle("Backfill Organizer Ids")
+                .setMessage("Link every older event to its organizer's account by matching the organizer name?")
+                .setPositiveButton("Backfill", (dialog, which) -> {
+                    Toast.makeText(this, "Backfilling organizer ids...", Toast.LENGTH_SHORT).show();
+                    new OrganizerIdBackfill().run(new OrganizerIdBackfill.OnBackfillListener() {
+                        @Override
+                        public void onComplete(OrganizerIdBackfill.Report report) {
+                            Toast.makeText(MainActivity.this,
+                                    "Backfill done: " + report.getUpdated() + " updated, "
+                                            + report.getAmbiguous() + " ambiguous, "
+                                            + report.getUnmatched() + " unmatched",
+                                    Toast.LENGTH_LONG).show();
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            Toast.makeText(MainActivity.this,
+                                    "Backfill failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                        }
+                    });
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    /**
+     * Asks the admin to confirm, then sets the geohash on waiting list entries that have
+     * a location but no geohash, so they show up on event maps. Safe to run more than once.
+     */
+    private void confirmGeohashBackfill() {
+        new AlertDialog.Builder(this)
+                .setTitle("Backfill Entrant Geohashes")
+                .setMessage("Add a geohash to every older waiting list entry that has a location?")
+                .setPositiveButton("Backfill", (dialog, which) -> {
+                    Toast.makeText(this, "Backfilling geohashes...", Toast.LENGTH_SHORT).show();
+                    new GeohashBackfill().run(new GeohashBackfill.OnBackfillListener() {
+                        @Override
+                        public void onComplete(GeohashBackfill.Report report) {
+                            Toast.makeText(MainActivity.this,
+                                    "Backfill done: " + report.getUpdated() + " updated, "
+                                            + report.getWithoutLocation() + " without location",
+                                    Toast.LENGTH_LONG).show();
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            Toast.makeText(MainActivity.this,
+                                    "Backfill failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+                        }
+                    });
+                })
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
     /**
      * loads new fragment into holder
      * @param fragment The fragment to be displayed
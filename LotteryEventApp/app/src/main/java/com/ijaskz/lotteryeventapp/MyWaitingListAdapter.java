@@ -12,11 +12,10 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.text.SimpleDateFormat;
+import com.ijaskz.lotteryeventapp.util.DateFormats;
+
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 /**
  * Adapter for displaying waiting list entries with section headers
@@ -270,8 +269,7 @@ public class MyWaitingListAdapter extends RecyclerView.Adapter<RecyclerView.View
      * @return formatted date like "Nov 07, 2024"
      */
     private String formatDate(long timestamp) {
-        SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-        return sdf.format(new Date(timestamp));
+        return DateFormats.date(timestamp);
     }
     /**
      * Capitalizes first letter of a string
@@ -15,7 +15,10 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import java.util.List;
 
+import com.ijaskz.lotteryeventapp.repository.DrawReceiptStore;
+import com.ijaskz.lotteryeventapp.service.DrawReceipt;
 import com.ijaskz.lotteryeventapp.service.LotteryService;
+import com.ijaskz.lotteryeventapp.service.SeededDraw;
 
 /**
  * Shows the user's waiting list entries
@@ -28,6 +31,7 @@ public class MyWaitingListFragment extends Fragment {
     private WaitingListManager waitingListManager;
     private UserManager userManager;
     private LotteryService lotteryService;
+    private DrawReceiptStore drawReceiptStore;
 
     /**
      * Creates Fragment and sets up adapter, listeners and waiting list UI
@@ -60,6 +64,7 @@ public class MyWaitingListFragment extends Fragment {
         waitingListManager = new WaitingListManager();
         userManager = new UserManager(getContext());
         lotteryService = new LotteryService(waitingListManager);
+        drawReceiptStore = new DrawReceiptStore();
 
         // Load waiting lists
         loadMyWaitingLists();
@@ -81,6 +86,8 @@ public class MyWaitingListFragment extends Fragment {
             new WaitingListManager.OnWaitingListLoadedListener() {
                 @Override
                 public void onLoaded(List<WaitingListEntry> entries) {
+                    // Called again once synced, maybe after leaving the screen
+                    if (!isAdded()) return;
                     if (entries.isEmpty()) {
                         // Show empty state
                         tvEmptyState.setVisibility(View.VISIBLE);
@@ -91,10 +98,13 @@ public class MyWaitingListFragment extends Fragment {
                         recyclerView.setVisibility(View.VISIBLE);
                         adapter.setWaitingListEntries(entries);
                     }
+                    // Marks time-to-content for a cold start on this screen
+                    requireActivity().reportFullyDrawn();
                 }
 
                 @Override
                 public void onError(Exception e) {
+                    if (!isAdded()) return;
                     Toast.makeText(getContext(),
                         "Error: " + e.getMessage(),
                         Toast.LENGTH_SHORT).show();
@@ -168,22 +178,7 @@ public class MyWaitingListFragment extends Fragment {
                     loadMyWaitingLists();
 
                     // Automatically draw one replacement entrant from the waiting list
-                    lotteryService.replenishFromWaitlistOnDecline(
-                            entry.getEvent_id(),
-                            1,
-                            null,
-                            new LotteryService.OnLotteryComplete() {
-                                @Override
-                                public void onSuccess(java.util.List<WaitingListEntry> winners) {
-                                    // No additional UI needed here; notifications are handled by WaitingListManager
-                                }
-
-                                @Override
-                                public void onFailure(Exception e) {
-                                    // Failure to draw a replacement should not affect the decline flow
-                                }
-                            }
-                    );
+                    drawReplacement(entry.getEvent_id());
                 }
 
                 @Override
@@ -195,6 +190,30 @@ public class MyWaitingListFragment extends Fragment {
             });
     }
 
+    /**
+     * Draws one replacement entrant after a decline, as a seeded draw committed on the
+     * event's next round with its receipt stored. If the draw fails no one is promoted and
+     * the entrant is told, so the organizer can draw again; the decline itself stands.
+     * @param eventId the event that lost an entrant
+     */
+    private void drawReplacement(String eventId) {
+        lotteryService.replenishSeeded(eventId, 1, null, SeededDraw.newSeed(), drawReceiptStore,
+                new LotteryService.OnSeededLotteryComplete() {
+                    @Override
+                    public void onSuccess(List<WaitingListEntry> winners, DrawReceipt receipt) {
+                        // No additional UI needed here; notifications are handled by WaitingListManager
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        if (!isAdded()) return;
+                        Toast.makeText(getContext(),
+                            "Could not draw a replacement: " + e.getMessage(),
+                            Toast.LENGTH_SHORT).show();
+                    }
+                });
+    }
+
     /**
      * Reload waiting list every time fragment is visible
      */
@@ -4,12 +4,18 @@ import android.util.Log;
 
 import androidx.annotation.Nullable;
 
-import com.google.android.gms.tasks.OnFailureListener;
-import com.google.android.gms.tasks.OnSuccessListener;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.ijaskz.lotteryeventapp.repository.CacheFirstQuery;
+import com.ijaskz.lotteryeventapp.repository.ChunkedBatchWriter;
+import com.ijaskz.lotteryeventapp.repository.EventMetadata;
+import com.ijaskz.lotteryeventapp.repository.EventMetadataCache;
+import com.ijaskz.lotteryeventapp.repository.FirestoreChunkCommitter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,9 +44,11 @@ public class NotificationManager {
     private static final String TAG = "AppNotificationMgr";
 
     private FirebaseFirestore db;
+    private EventMetadataCache eventCache;
 
     public NotificationManager() {
         db = FirebaseFirestore.getInstance();
+        eventCache = EventMetadataCache.getInstance();
     }
 
     /**
@@ -49,6 +57,7 @@ public class NotificationManager {
     protected NotificationManager(boolean skipInit) {
         if (!skipInit) {
             db = FirebaseFirestore.getInstance();
+            eventCache = EventMetadataCache.getInstance();
         }
     }
 
@@ -74,69 +83,7 @@ public class NotificationManager {
             return;
         }
 
-        // Fetch event to include name, location, time, image, deeplink
-        db.collection("events")
-                .document(eventId)
-                .get()
-                .addOnSuccessListener(eventDoc -> {
-                    String eventName = null;
-                    String location = null;
-                    String time = null;
-                    String imageUrl = null;
-                    String deeplink = "lotteryevent://event/" + eventId;
-
-                    if (eventDoc.exists()) {
-                        eventName = firstNonNull(
-                                eventDoc.getString("event_name"),
-                                eventDoc.getString("name"));
-                        location = eventDoc.getString("location");
-                        time = firstNonNull(
-                                eventDoc.getString("event_time"),
-                                eventDoc.getString("time"));
-                        imageUrl = firstNonNull(
-                                eventDoc.getString("image"),
-                                eventDoc.getString("imageUrl"));
-                        String storedDeeplink = eventDoc.getString("deeplink");
-                        if (storedDeeplink != null && !storedDeeplink.isEmpty()) {
-                            deeplink = storedDeeplink;
-                        }
-                    }
-
-                    String title = "You’ve been selected!";
-                    if (eventName != null && !eventName.isEmpty()) {
-                        title = "Selected for " + eventName;
-                    }
-
-                    StringBuilder msg = new StringBuilder();
-                    msg.append("You have been selected to sign up for this event.");
-                    if (eventName != null && !eventName.isEmpty()) {
-                        msg.append(" Event: ").append(eventName).append(".");
-                    }
-                    if (time != null && !time.isEmpty()) {
-                        msg.append(" Time: ").append(time).append(".");
-                    }
-                    if (location != null && !location.isEmpty()) {
-                        msg.append(" Location: ").append(location).append(".");
-                    }
-                    msg.append(" Tap to view details and complete your registration.");
-
-                    Map<String, Object> data = baseNotificationMap(
-                            userId,
-                            eventId,
-                            title,
-                            msg.toString(),
-                            "selection"
-                    );
-                    putIfNotNull(data, "eventName", eventName);
-                    putIfNotNull(data, "eventLocation", location);
-                    putIfNotNull(data, "eventTime", time);
-                    putIfNotNull(data, "imageUrl", imageUrl);
-                    putIfNotNull(data, "deeplink", deeplink);
-
-                    writeNotificationDocument(data);
-                })
-                .addOnFailureListener(e ->
-                        Log.e(TAG, "Failed to fetch event for selection notification", e));
+        sendSelectionNotifications(eventId, Collections.singletonList(userId), null);
     }
 
     /**
@@ -154,39 +101,7 @@ public class NotificationManager {
             return;
         }
 
-        db.collection("events")
-                .document(eventId)
-                .get()
-                .addOnSuccessListener(eventDoc -> {
-                    String eventName = null;
-                    if (eventDoc.exists()) {
-                        eventName = firstNonNull(
-                                eventDoc.getString("event_name"),
-                                eventDoc.getString("name"));
-                    }
-
-                    String title = "Lottery result";
-                    String message;
-                    if (eventName != null && !eventName.isEmpty()) {
-                        message = "Unfortunately, you were not selected for \"" +
-                                eventName + "\" this time.";
-                    } else {
-                        message = "Unfortunately, you were not selected in the lottery.";
-                    }
-
-                    Map<String, Object> data = baseNotificationMap(
-                            userId,
-                            eventId,
-                            title,
-                            message,
-                            "not_selected"
-                    );
-                    putIfNotNull(data, "eventName", eventName);
-
-                    writeNotificationDocument(data);
-                })
-                .addOnFailureListener(e ->
-                        Log.e(TAG, "Failed to fetch event for not-selected notification", e));
+        sendNotSelectedNotifications(eventId, Collections.singletonList(userId), null);
     }
 
     /**
@@ -204,8 +119,124 @@ public class NotificationManager {
             return;
         }
 
-        Map<String, Object> data = baseNotificationMap(
-                userId,
+        sendOrganizerNotifications(Collections.singletonList(userId), eventId, title, message, null);
+    }
+
+    // ------------------------------------------------------------------------
+    // Bulk sending: one event lookup, then batched writes
+    // ------------------------------------------------------------------------
+
+    /**
+     * Sends the "you were selected" notification to many entrants of one event.
+     * @param eventId event the entrants were selected for
+     * @param userIds recipients
+     * @param listener optional; receives sent/failed counts
+     */
+    public void sendSelectionNotifications(String eventId, List<String> userIds,
+                                           @Nullable OnBulkSendListener listener) {
+        eventCache.get(eventId, new EventMetadataCache.OnMetadataListener() {
+            @Override
+            public void onLoaded(EventMetadata event) {
+                String eventName = event.getName();
+                String location = event.getLocation();
+                String time = event.getTime();
+
+                String title = "You’ve been selected!";
+                if (eventName != null && !eventName.isEmpty()) {
+                    title = "Selected for " + eventName;
+                }
+
+                StringBuilder msg = new StringBuilder();
+                msg.append("You have been selected to sign up for this event.");
+                if (eventName != null && !eventName.isEmpty()) {
+                    msg.append(" Event: ").append(eventName).append(".");
+                }
+                if (time != null && !time.isEmpty()) {
+                    msg.append(" Time: ").append(time).append(".");
+                }
+                if (location != null && !location.isEmpty()) {
+                    msg.append(" Location: ").append(location).append(".");
+                }
+                msg.append(" Tap to view details and complete your registration.");
+
+                Map<String, Object> template = baseNotificationMap(
+                        eventId,
+                        title,
+                        msg.toString(),
+                        "selection"
+                );
+                putIfNotNull(template, "eventName", eventName);
+                putIfNotNull(template, "eventLocation", location);
+                putIfNotNull(template, "eventTime", time);
+                putIfNotNull(template, "imageUrl", event.getImageUrl());
+                putIfNotNull(template, "deeplink", event.getDeeplink());
+
+                writeNotificationDocuments(userIds, template, listener);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Failed to fetch event for selection notification", e);
+                reportNotSent(userIds, e, listener);
+            }
+        });
+    }
+
+    /**
+     * Sends the "you were not selected" notification to many entrants of one event.
+     * @param eventId event the lottery was run for
+     * @param userIds recipients
+     * @param listener optional; receives sent/failed counts
+     */
+    public void sendNotSelectedNotifications(String eventId, List<String> userIds,
+                                             @Nullable OnBulkSendListener listener) {
+        eventCache.get(eventId, new EventMetadataCache.OnMetadataListener() {
+            @Override
+            public void onLoaded(EventMetadata event) {
+                String eventName = event.getName();
+
+                String title = "Lottery result";
+                String message;
+                if (eventName != null && !eventName.isEmpty()) {
+                    message = "Unfortunately, you were not selected for \"" +
+                            eventName + "\" this time.";
+                } else {
+                    message = "Unfortunately, you were not selected in the lottery.";
+                }
+
+                Map<String, Object> template = baseNotificationMap(
+                        eventId,
+                        title,
+                        message,
+                        "not_selected"
+                );
+                putIfNotNull(template, "eventName", eventName);
+
+                writeNotificationDocuments(userIds, template, listener);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.e(TAG, "Failed to fetch event for not-selected notification", e);
+                reportNotSent(userIds, e, listener);
+            }
+        });
+    }
+
+    /**
+     * Sends the same organizer/admin message to many users, optionally tied to an event.
+     * @param userIds recipients
+     * @param eventId optional event to link the message to
+     * @param title notification title
+     * @param message body text
+     * @param listener optional; receives sent/failed counts
+     */
+    public void sendOrganizerNotifications(List<String> userIds,
+                                           @Nullable String eventId,
+                                           String title,
+                                           String message,
+                                           @Nullable OnBulkSendListener listener) {
+        Map<String, Object> template = baseNotificationMap(
                 eventId,
                 title,
                 message,
@@ -214,49 +245,50 @@ public class NotificationManager {
 
         // If eventId is present, enrich with event name/image/deeplink
         if (eventId != null && !eventId.isEmpty()) {
-            db.collection("events")
-                    .document(eventId)
-                    .get()
-                    .addOnSuccessListener(eventDoc -> {
-                        String eventName = null;
-                        String imageUrl = null;
-                        String deeplink = "lotteryevent://event/" + eventId;
-
-                        if (eventDoc.exists()) {
-                            eventName = firstNonNull(
-                                    eventDoc.getString("event_name"),
-                                    eventDoc.getString("name"));
-                            imageUrl = firstNonNull(
-                                    eventDoc.getString("image"),
-                                    eventDoc.getString("imageUrl"));
-                            String storedDeeplink = eventDoc.getString("deeplink");
-                            if (storedDeeplink != null && !storedDeeplink.isEmpty()) {
-                                deeplink = storedDeeplink;
-                            }
-                        }
-
-                        putIfNotNull(data, "eventName", eventName);
-                        putIfNotNull(data, "imageUrl", imageUrl);
-                        putIfNotNull(data, "deeplink", deeplink);
-
-                        writeNotificationDocument(data);
-                    })
-                    .addOnFailureListener(e -> {
-                        Log.e(TAG, "Failed to fetch event for organizer notification", e);
-                        writeNotificationDocument(data);
-                    });
+            eventCache.get(eventId, new EventMetadataCache.OnMetadataListener() {
+                @Override
+                public void onLoaded(EventMetadata event) {
+                    putIfNotNull(template, "eventName", event.getName());
+                    putIfNotNull(template, "imageUrl", event.getImageUrl());
+                    putIfNotNull(template, "deeplink", event.getDeeplink());
+
+                    writeNotificationDocuments(userIds, template, listener);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    Log.e(TAG, "Failed to fetch event for organizer notification", e);
+                    writeNotificationDocuments(userIds, template, listener);
+                }
+            });
         } else {
-            writeNotificationDocument(data);
+            writeNotificationDocuments(userIds, template, listener);
         }
     }
 
+    /**
+     * Callback for bulk sends. Called once, after every batch has been committed or has
+     * given up retrying.
+     */
+    public interface OnBulkSendListener {
+        /**
+         * @param sent number of notifications written
+         * @param failed number of notifications that could not be written
+         * @param firstError the first write error, or null if nothing failed
+         */
+        void onComplete(int sent, int failed, @Nullable Exception firstError);
+    }
+
     // ------------------------------------------------------------------------
     // Read helpers used by NotificationsFragment
     // ------------------------------------------------------------------------
 
     /**
      * Fetches all notifications for a given user, newest first.
-     * Sorting is done in memory to avoid needing a composite index.
+     * Sorting is done in memory.
+     *
+     * <p>Answers from the device cache first, then again once notifications created since
+     * are synced, so the listener may be called twice; see {@link CacheFirstQuery}.</p>
      */
     public void getNotificationsForUser(
             String userId,
@@ -267,27 +299,33 @@ public class NotificationManager {
             return;
         }
 
-        db.collection("notifications")
-                .whereEqualTo("userId", userId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<AppNotification> notifications = new ArrayList<>();
-                    for (DocumentSnapshot doc : querySnapshot) {
-                        AppNotification n = doc.toObject(AppNotification.class);
-                        if (n != null) {
-                            n.setId(doc.getId());
-                            notifications.add(n);
+        new CacheFirstQuery(db.collection("notifications").whereEqualTo("userId", userId),
+                "createdAt", "notifications/user/" + userId)
+                .load(new CacheFirstQuery.Listener() {
+                    @Override
+                    public void onLoaded(List<DocumentSnapshot> docs, boolean fromCache) {
+                        List<AppNotification> notifications = new ArrayList<>();
+                        for (DocumentSnapshot doc : docs) {
+                            AppNotification n = doc.toObject(AppNotification.class);
+                            if (n != null) {
+                                n.setId(doc.getId());
+                                notifications.add(n);
+                            }
                         }
-                    }
 
-                    // Sort newest first by createdAt
-                    notifications.sort(
-                            (a, b) -> Long.compare(b.getCreatedAt(), a.getCreatedAt())
-                    );
+                        // Sort newest first by createdAt
+                        notifications.sort(
+                                (a, b) -> Long.compare(b.getCreatedAt(), a.getCreatedAt())
+                        );
+
+                        listener.onLoaded(notifications);
+                    }
 
-                    listener.onLoaded(notifications);
-                })
-                .addOnFailureListener(listener::onError);
+                    @Override
+                    public void onError(Exception e) {
+                        listener.onError(e);
+                    }
+                });
     }
 
     /**
@@ -313,14 +351,12 @@ public class NotificationManager {
     // Internal helpers
     // ------------------------------------------------------------------------
 
-    /** Builds the minimal notification map shared by all types. */
-    private Map<String, Object> baseNotificationMap(String userId,
-                                                    @Nullable String eventId,
+    /** Builds the notification fields shared by all types and recipients (no userId). */
+    private Map<String, Object> baseNotificationMap(@Nullable String eventId,
                                                     String title,
                                                     String message,
                                                     String type) {
         Map<String, Object> map = new HashMap<>();
-        map.put("userId", userId);
         if (eventId != null) {
             map.put("eventId", eventId);
         }
@@ -332,16 +368,61 @@ public class NotificationManager {
         return map;
     }
 
-    /** Writes a notification document into the "notifications" collection. */
-    private void writeNotificationDocument(Map<String, Object> data) {
-        db.collection("notifications")
-                .add(data)
-                .addOnSuccessListener(
-                        (OnSuccessListener<? super com.google.firebase.firestore.DocumentReference>) documentReference ->
-                                Log.d(TAG, "Notification created: " + documentReference.getId()))
-                .addOnFailureListener(
-                        (OnFailureListener) e ->
-                                Log.e(TAG, "Failed to create notification", e));
+    /**
+     * Writes one copy of {@code template} per recipient into the "notifications" collection,
+     * in batches of up to 500 with a bounded number of batches in flight. Each recipient's
+     * document id is chosen here, once, so a retried batch rewrites the same documents
+     * instead of adding duplicates.
+     */
+    private void writeNotificationDocuments(List<String> userIds, Map<String, Object> template,
+                                            @Nullable OnBulkSendListener listener) {
+        CollectionReference notifications = db.collection("notifications");
+        List<Notification> docs = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            if (userId == null || userId.isEmpty()) continue;
+            Map<String, Object> data = new HashMap<>(template);
+            data.put("userId", userId);
+            docs.add(new Notification(notifications.document(), data));
+        }
+
+        ChunkedBatchWriter<Notification> writer = new ChunkedBatchWriter<>(
+                new FirestoreChunkCommitter<Notification>(db) {
+                    @Override
+                    protected void addWrites(Writes writes, Notification notification) {
+                        writes.set(notification.ref, notification.data);
+                    }
+                });
+        writer.write(docs, new ChunkedBatchWriter.OnBatchListener<Notification>() {
+            @Override
+            public void onComplete(ChunkedBatchWriter.BatchResult<Notification> result) {
+                int failed = result.getFailedItems().size();
+                int sent = docs.size() - failed;
+                if (failed > 0) {
+                    Log.e(TAG, "Failed to create " + failed + " notifications", result.getFirstError());
+                }
+                if (listener != null) {
+                    listener.onComplete(sent, failed, result.getFirstError());
+                }
+            }
+        });
+    }
+
+    /** One recipient's notification document and its fields. */
+    private static final class Notification {
+        final DocumentReference ref;
+        final Map<String, Object> data;
+
+        Notification(DocumentReference ref, Map<String, Object> data) {
+            this.ref = ref;
+            this.data = data;
+        }
+    }
+
+    private static void reportNotSent(List<String> userIds, Exception e,
+                                      @Nullable OnBulkSendListener listener) {
+        if (listener != null) {
+            listener.onComplete(0, userIds.size(), e);
+        }
     }
 
     /**
@@ -352,12 +433,4 @@ public class NotificationManager {
             map.put(key, value);
         }
     }
-
-    /**
-     * Returns the first non-null and non-empty string among the two.
-     * Can return null if both are empty.
-     */
-    private String firstNonNull(String a, String b) {
-        return (a != null && !a.isEmpty()) ? a : (b != null ? b : null);
-    }
 }
\ No newline at end of file
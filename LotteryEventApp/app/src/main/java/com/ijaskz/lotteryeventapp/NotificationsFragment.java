@@ -88,8 +88,11 @@ public class NotificationsFragment extends Fragment {
         notificationManager.getNotificationsForUser(userId, new NotificationManager.OnNotificationsLoadedListener() {
             @Override
             public void onLoaded(List<AppNotification> notifications) {
+                // Called again once synced, maybe after leaving the screen
+                if (!isAdded()) return;
                 if (notifications == null || notifications.isEmpty()) {
                     // No notifications stored yet
+                    adapter.setNotifications(notifications);
                     if (notificationsEnabled) {
                         emptyText.setText("You have no notifications yet.");
                     } else {
@@ -108,10 +111,13 @@ public class NotificationsFragment extends Fragment {
                         emptyText.setVisibility(View.VISIBLE);
                     }
                 }
+                // Marks time-to-content for a cold start on this screen
+                requireActivity().reportFullyDrawn();
             }
 
             @Override
             public void onError(Exception e) {
+                if (!isAdded()) return;
                 Log.e("NotificationsFragment", "Error loading notifications", e);
                 emptyText.setText("Failed to load notifications.");
                 emptyText.setVisibility(View.VISIBLE);
@@ -0,0 +1,214 @@
+package com.ijaskz.lotteryeventapp;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Events feed, newest first, loaded one page at a time as the user scrolls.
+ *
+ * <p>Only the first page is real-time, through an {@link EventStream} shared with other
+ * screens, so new and edited events at the top still appear live. Later pages are read
+ * once with a {@code startAfter()} cursor. At most {@link #MAX_PAGES} pages are held in
+ * an {@link EventPageWindow}; scrolling past them evicts the page at the other end, and
+ * scrolling back re-reads it from its saved cursor. Each saved cursor is just the page's
+ * last (createdAt, id) pair, so memory stays flat as the collection grows.</p>
+ *
+ * <p>Events created while later pages are loaded push page 0's last event into page 1's
+ * range; such an event is shown once page 1 is re-read, or after {@link #restart()}.</p>
+ */
+public class PagedEventFeed {
+
+    /** Events per page. */
+    public static final int PAGE_SIZE = 25;
+
+    /** Pages held in memory at once. */
+    public static final int MAX_PAGES = 6;
+
+    /**
+     * Receives the feed's events whenever the loaded pages change.
+     */
+    public interface Listener {
+        /**
+         * @param events events in the loaded pages, newest first
+         */
+        void onEvents(List<Event> events);
+
+        void onError(Exception e);
+    }
+
+    private final Query query;
+    private final EventStream firstPage;
+    private final Listener listener;
+    private final EventPageWindow window = new EventPageWindow(MAX_PAGES);
+    /** Cursor values after the last event of each page seen so far; null until known. */
+    private final List<Object[]> pageEnds = new ArrayList<>();
+
+    private List<Event> firstPageEvents = new ArrayList<>();
+    private EventStream.Subscription subscription;
+    private boolean loading;
+    /** Bumped by {@link #stop()} so reads started before it are ignored. */
+    private int generation;
+    private boolean reachedEnd;
+
+    /**
+     * @param query events query with any filters applied, ordered as
+     *              {@link EventStream#orderedEvents}, without a limit
+     * @param firstPage stream of the query's first page
+     * @param listener receives the events
+     */
+    public PagedEventFeed(Query query, EventStream firstPage, Listener listener) {
+        this.query = query;
+        this.firstPage = firstPage;
+        this.listener = listener;
+    }
+
+    /** Starts following the first page. */
+    public void start() {
+        subscription = firstPage.subscribe(new EventStream.Observer() {
+            @Override
+            public void onPage(EventStream.Page page) {
+                firstPageEvents = page.getEvents();
+                setPageEnd(0, page.getEndCursor());
+                if (window.isEmpty()) {
+                    window.append(page.getEvents());
+                    reachedEnd = !page.isFull();
+                } else if (window.contains(0)) {
+                    window.replace(0, page.getEvents());
+                } else {
+                    return;
+                }
+                publish();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    /** Stops following the first page and drops all pages. */
+    public void stop() {
+        if (subscription != null) {
+            subscription.unsubscribe();
+            subscription = null;
+        }
+        generation++;
+        window.clear();
+        pageEnds.clear();
+        firstPageEvents = new ArrayList<>();
+        loading = false;
+        reachedEnd = false;
+    }
+
+    /** Drops every page and starts again from the newest events. */
+    public void restart() {
+        stop();
+        start();
+    }
+
+    /** @return true if there may be events after the last loaded page */
+    public boolean hasMore() {
+        return !reachedEnd;
+    }
+
+    /**
+     * Loads the page after the last loaded one, unless a load is running or the end has
+     * been reached. Call when the user scrolls near the bottom.
+     */
+    public void loadNext() {
+        if (loading || reachedEnd || window.isEmpty()) return;
+        int last = window.last();
+        Object[] after = pageEnd(last);
+        if (after == null) return;
+
+        loading = true;
+        int started = generation;
+        query.startAfter(after).limit(PAGE_SIZE).get()
+                .addOnSuccessListener(snap -> {
+                    if (started != generation) return;
+                    loading = false;
+                    window.append(toEvents(snap));
+                    setPageEnd(last + 1, endCursor(snap));
+                    reachedEnd = snap.size() < PAGE_SIZE;
+                    publish();
+                })
+                .addOnFailureListener(e -> {
+                    if (started != generation) return;
+                    loading = false;
+                    listener.onError(e);
+                });
+    }
+
+    /**
+     * Re-loads the page before the first loaded one, if it was evicted. Call when the
+     * user scrolls near the top.
+     */
+    public void loadPrevious() {
+        if (loading || window.isEmpty() || window.first() == 0) return;
+        int first = window.first();
+        if (first == 1) {
+            window.prepend(firstPageEvents);
+            reachedEnd = false;
+            publish();
+            return;
+        }
+        Object[] after = pageEnd(first - 2);
+        if (after == null) return;
+
+        loading = true;
+        int started = generation;
+        query.startAfter(after).limit(PAGE_SIZE).get()
+                .addOnSuccessListener(snap -> {
+                    if (started != generation) return;
+                    loading = false;
+                    window.prepend(toEvents(snap));
+                    // The tail was evicted, so there is more below again
+                    reachedEnd = false;
+                    publish();
+                })
+                .addOnFailureListener(e -> {
+                    if (started != generation) return;
+                    loading = false;
+                    listener.onError(e);
+                });
+    }
+
+    private void publish() {
+        listener.onEvents(window.events());
+    }
+
+    private Object[] pageEnd(int page) {
+        return page < pageEnds.size() ? pageEnds.get(page) : null;
+    }
+
+    private void setPageEnd(int page, Object[] cursor) {
+        if (cursor == null) return;
+        while (pageEnds.size() <= page) {
+            pageEnds.add(null);
+        }
+        pageEnds.set(page, cursor);
+    }
+
+    private static Object[] endCursor(QuerySnapshot snap) {
+        if (snap.isEmpty()) return null;
+        DocumentSnapshot last = snap.getDocuments().get(snap.size() - 1);
+        return new Object[]{last.get("createdAt"), last.getId()};
+    }
+
+    private static List<Event> toEvents(QuerySnapshot snap) {
+        List<Event> events = new ArrayList<>(snap.size());
+        for (DocumentSnapshot doc : snap) {
+            Event ev = doc.toObject(Event.class);
+            if (ev != null) {
+                ev.setEvent_id(doc.getId());
+                events.add(ev);
+            }
+        }
+        return events;
+    }
+}
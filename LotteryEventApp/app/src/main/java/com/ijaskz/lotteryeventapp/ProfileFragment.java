@@ -273,8 +273,13 @@ public class ProfileFragment extends Fragment {
                 .whereEqualTo("entrant_id", userId)
                 .get()
                 .addOnSuccessListener(waitingListSnapshot -> {
+                    // Remove through the manager so each event's waiting list counters drop too
+                    WaitingListManager waitingListManager = new WaitingListManager();
                     for (com.google.firebase.firestore.DocumentSnapshot doc : waitingListSnapshot) {
-                        doc.getReference().delete();
+                        waitingListManager.removeEntry(doc.getId(), new WaitingListManager.OnCompleteListener() {
+                            @Override public void onSuccess() { }
+                            @Override public void onFailure(Exception e) { }
+                        });
                     }
 
                     db.collection("users")
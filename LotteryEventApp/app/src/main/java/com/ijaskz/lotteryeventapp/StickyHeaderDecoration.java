@@ -0,0 +1,99 @@
+package com.ijaskz.lotteryeventapp;
+
+import android.graphics.Canvas;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Draws the header of the section at the top of a RecyclerView over the list, so the
+ * current section stays labelled while its rows scroll. The next section's header pushes
+ * it up as it arrives.
+ *
+ * <p>The pinned header is one extra view holder created and bound with the list's adapter.
+ * It is re-bound only when a different header reaches the top.</p>
+ */
+public class StickyHeaderDecoration extends RecyclerView.ItemDecoration {
+
+    /**
+     * Implemented by an adapter whose rows are grouped under header rows.
+     */
+    public interface Sections {
+        /**
+         * @param position adapter position of any row
+         * @return adapter position of the header of that row's section
+         */
+        int getHeaderPosition(int position);
+    }
+
+    private final RecyclerView.Adapter<RecyclerView.ViewHolder> adapter;
+    private final Sections sections;
+    @Nullable private RecyclerView.ViewHolder header;
+    private long boundId = RecyclerView.NO_ID;
+    private int boundWidth;
+
+    /**
+     * @param adapter the list's adapter, with stable ids
+     */
+    public <A extends RecyclerView.Adapter<RecyclerView.ViewHolder> & Sections> StickyHeaderDecoration(A adapter) {
+        this.adapter = adapter;
+        this.sections = adapter;
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        if (parent.getChildCount() == 0) return;
+        int top = parent.getChildAdapterPosition(parent.getChildAt(0));
+        if (top == RecyclerView.NO_POSITION || top >= adapter.getItemCount()) return;
+
+        int headerPosition = sections.getHeaderPosition(top);
+        View headerView = headerView(parent, headerPosition);
+
+        // The next header pushes the pinned one up
+        int offset = 0;
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION || position <= headerPosition
+                    || position >= adapter.getItemCount()) {
+                continue;
+            }
+            if (sections.getHeaderPosition(position) == position) {
+                offset = Math.min(0, child.getTop() - headerView.getHeight());
+                break;
+            }
+        }
+
+        c.save();
+        c.translate(parent.getPaddingLeft(), offset);
+        headerView.draw(c);
+        c.restore();
+    }
+
+    /** Binds and lays out the pinned header for the given position, if not already. */
+    private View headerView(RecyclerView parent, int position) {
+        if (header == null) {
+            header = adapter.onCreateViewHolder(parent, adapter.getItemViewType(position));
+            boundId = RecyclerView.NO_ID;
+        }
+        int width = parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+        long id = adapter.getItemId(position);
+        if (id != boundId || width != boundWidth) {
+            adapter.onBindViewHolder(header, position);
+            View view = header.itemView;
+            ViewGroup.LayoutParams params = view.getLayoutParams();
+            int height = params != null && params.height > 0 ? params.height : 0;
+            view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                    height > 0
+                            ? View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY)
+                            : View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+            view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+            boundId = id;
+            boundWidth = width;
+        }
+        return header.itemView;
+    }
+}
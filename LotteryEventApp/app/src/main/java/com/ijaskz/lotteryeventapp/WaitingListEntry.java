@@ -19,6 +19,7 @@ public class WaitingListEntry {
 
     private Double latitude;
     private Double longitude;
+    private String geohash;         // Geohash of latitude/longitude, for map viewport queries (nullable)
 
     public WaitingListEntry(){}
 
@@ -37,11 +38,31 @@ public class WaitingListEntry {
         this.response_window_hours = null;
     }
 
+    /**
+     * Document id of an entrant's entry on an event's waiting list. The id is derived from
+     * the pair, so joining twice addresses the same document instead of creating a second one.
+     * The event id's length comes first, so two different pairs never share an id even when
+     * the ids themselves contain "_" (e.g. "a_b" + "c" and "a" + "b_c").
+     * @param eventId event id
+     * @param entrantId user id of the entrant
+     * @return "{length of eventId}_{eventId}_{entrantId}"
+     */
+    public static String documentId(String eventId, String entrantId) {
+        if (eventId == null || entrantId == null || eventId.isEmpty() || entrantId.isEmpty()
+                || eventId.contains("/") || entrantId.contains("/")) {
+            throw new IllegalArgumentException("Invalid event or entrant id");
+        }
+        return eventId.length() + "_" + eventId + "_" + entrantId;
+    }
+
     public Double getLatitude() { return latitude; }
     public void setLatitude(Double latitude) { this.latitude = latitude; }
 
     public Double getLongitude() { return longitude; }
     public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public String getGeohash() { return geohash; }
+    public void setGeohash(String geohash) { this.geohash = geohash; }
     
     public String getId() { return id; }
     public void setId(String id) { this.id = id; }
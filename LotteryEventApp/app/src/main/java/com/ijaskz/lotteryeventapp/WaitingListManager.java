@@ -1,40 +1,61 @@
 package com.ijaskz.lotteryeventapp;
 
-import com.google.android.gms.tasks.OnCompleteListener;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.WriteBatch;
-import com.google.firebase.firestore.DocumentReference;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.ijaskz.lotteryeventapp.repository.EntryNotFoundException;
+import com.ijaskz.lotteryeventapp.repository.FirestoreWaitingListRepository;
+import com.ijaskz.lotteryeventapp.repository.WaitingListCounts;
+import com.ijaskz.lotteryeventapp.repository.WaitingListRepository;
+import com.ijaskz.lotteryeventapp.repository.WaitlistFullException;
+import com.ijaskz.lotteryeventapp.util.Geohash;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Set;
 
 /**
  * WaitingListManager
- * Handles all Firestore operations for waiting lists
+ * Handles all waiting list operations. Storage goes through a {@link WaitingListRepository},
+ * which is Firestore in the app and can be swapped for an in-memory store in JVM tests.
  */
 public class WaitingListManager {
 
-    private FirebaseFirestore db;
+    private static final String TAG = "WaitingListManager";
+    /** Entries per page for {@link #scanEntriesByStatus}. */
+    protected static final int SCAN_PAGE_SIZE = 500;
+    private WaitingListRepository repository;
     private NotificationManager notificationManager;
 
     public WaitingListManager() {
-        db = FirebaseFirestore.getInstance();
-        notificationManager = new NotificationManager();
+        this(new FirestoreWaitingListRepository(), new NotificationManager());
+    }
+
+    /**
+     * Creates a manager over the given storage backend.
+     * @param repository storage for waiting list entries
+     * @param notificationManager notification sender; may be null to skip notifications
+     */
+    public WaitingListManager(WaitingListRepository repository,
+                              @Nullable NotificationManager notificationManager) {
+        this.repository = repository;
+        this.notificationManager = notificationManager;
     }
 
     /**
      * Testing-only constructor that skips Firebase initialization.
      * Subclasses in JVM unit tests can call this to avoid touching Android/Firebase.
-     * When using this constructor, overridden methods must avoid accessing {@code db}.
-     * @param skipInit when true, do not initialize the Firestore instance
+     * When using this constructor, overridden methods must avoid accessing {@code repository}.
+     * @param skipInit when true, do not initialize the Firestore-backed repository
      */
     protected WaitingListManager(boolean skipInit) {
         if (!skipInit) {
-            db = FirebaseFirestore.getInstance();
+            repository = new FirestoreWaitingListRepository();
             notificationManager = new NotificationManager();
         } else {
             notificationManager= null;
@@ -49,63 +70,54 @@ public class WaitingListManager {
      * @param newStatus Status value to apply
      * @param hours Optional response window hours to set (nullable)
      * @param listener Callback for completion or error
+     * @deprecated re-reads every entry after the write to build notifications; use
+     *             {@link #updateEntries(List, String, Integer, OnCompleteListener)} with the
+     *             entries you already loaded
      */
+    @Deprecated
     public void updateEntriesStatus(List<String> entryIds, String newStatus, Integer hours, OnCompleteListener listener) {
         if (entryIds == null || entryIds.isEmpty()) {
             listener.onSuccess();
             return;
         }
 
-        long now = System.currentTimeMillis();
-        WriteBatch batch = db.batch();
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("status", newStatus);
-        updates.put("updated_at", now);
-        if ("selected".equals(newStatus)) {
-            updates.put("selected_at", now);
-        }
-        if (hours != null) {
-            updates.put("response_window_hours", hours);
-        }
+        repository.updateAll(entryIds, statusUpdates(newStatus, hours), new WaitingListRepository.OnWriteListener() {
+            @Override
+            public void onSuccess() {
+                // AFTER updating status, send notifications to selected entrants
+                if ("selected".equals(newStatus) && notificationManager != null) {
+                    // Notifications for selected entrants
+                    for (String id : entryIds) {
+                        repository.getById(id, onEntry(entry -> notificationManager.createSelectionNotification(entry)));
+                    }
+                    // Determine event id and notify non-selected entrants
+                    String firstId = entryIds.get(0);
+                    repository.getById(firstId, onEntry(entry ->
+                            notifyNotSelectedEntrants(entry.getEvent_id(), entryIds)));
+                }
+                listener.onSuccess();
+            }
 
-        for (String id : entryIds) {
-            DocumentReference ref = db.collection("waiting_list").document(id);
-            batch.update(ref, updates);
-        }
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
 
-        batch.commit()
-                .addOnSuccessListener(aVoid -> {
-                    // AFTER updating status, send notifications to selected entrants
-                    if ("selected".equals(newStatus) && notificationManager != null) {
-                        // Notifications for selected entrants
-                        for (String id : entryIds) {
-                            db.collection("waiting_list")
-                                    .document(id)
-                                    .get()
-                                    .addOnSuccessListener(doc -> {
-                                        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                                        if (entry != null) {
-                                            entry.setId(doc.getId());
-                                            notificationManager.createSelectionNotification(entry);
-                                        }
-                                    });
-                        }
-                        // Determine event id and notify non-selected entrants
-                        String firstId = entryIds.get(0);
-                        db.collection("waiting_list")
-                                .document(firstId)
-                                .get()
-                                .addOnSuccessListener(doc -> {
-                                    WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                                    if (entry != null) {
-                                        String eventId = entry.getEvent_id();
-                                        notifyNotSelectedEntrants(eventId, entryIds);
-                                    }
-                                });
-                    }
-                    listener.onSuccess();
-                })
-                .addOnFailureListener(listener::onFailure);
+    /**
+     * Updates already-loaded waiting list entries to a new status with an optional response
+     * window (hours). If newStatus is "selected", selected_at is set, each entrant gets a
+     * selection notification and everyone else on the event's list is notified and marked
+     * "not_selected". Notifications are built from the given entries, so nothing is re-read
+     * after the write.
+     * @param entries entries to update, as loaded by the caller (must have ids)
+     * @param newStatus Status value to apply
+     * @param hours Optional response window hours to set (nullable)
+     * @param listener Callback for completion or error
+     */
+    public void updateEntries(List<WaitingListEntry> entries, String newStatus, Integer hours, OnCompleteListener listener) {
+        writeStatus(entries, newStatus, hours, true, listener);
     }
 
     /**
@@ -113,123 +125,118 @@ public class WaitingListManager {
      */
     public void joinWaitingList(String eventId, String userId, String userName,
                                 String userEmail,Double lat, Double lon, OnCompleteListener listener) {
+        joinWaitingList(eventId, userId, userName, userEmail, lat, lon, 0, listener);
+    }
 
-        // Check if already joined
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("entrant_id", userId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (!querySnapshot.isEmpty()) {
-                        listener.onFailure(new Exception("Already on waiting list"));
-                        return;
-                    }
+    /**
+     * Join a waiting list for an event that has a waiting list limit. The duplicate check,
+     * the limit check and the insert happen in one transaction, so concurrent joins can
+     * neither add the same entrant twice nor exceed the limit.
+     * Fails with "Already on waiting list", or with a {@link WaitlistFullException}.
+     * @param capacity waiting list limit; zero or less for no limit
+     */
+    public void joinWaitingList(String eventId, String userId, String userName,
+                                String userEmail, Double lat, Double lon, int capacity,
+                                OnCompleteListener listener) {
 
-                    // Create new entry
-                    WaitingListEntry entry = new WaitingListEntry(
-                            eventId, userId, userName, userEmail
-                    );
+        WaitingListEntry entry = new WaitingListEntry(eventId, userId, userName, userEmail);
 
-                    // Add location if provided
-                    if (lat != null && lon != null) {
-                        entry.setLatitude(lat);
-                        entry.setLongitude(lon);
-                    }
+        // Add location if provided
+        if (lat != null && lon != null) {
+            entry.setLatitude(lat);
+            entry.setLongitude(lon);
+            entry.setGeohash(Geohash.encode(lat, lon, Geohash.STORED_PRECISION));
+        }
+
+        repository.join(entry, capacity, new WaitingListRepository.OnJoinListener() {
+            @Override
+            public void onResult(WaitingListRepository.JoinResult result) {
+                switch (result) {
+                    case JOINED:
+                        listener.onSuccess();
+                        break;
+                    case ALREADY_JOINED:
+                        listener.onFailure(new Exception("Already on waiting list"));
+                        break;
+                    default:
+                        listener.onFailure(new WaitlistFullException());
+                        break;
+                }
+            }
 
-                    // Add to Firestore
-                    db.collection("waiting_list")
-                            .add(entry)
-                            .addOnSuccessListener(docRef -> listener.onSuccess())
-                            .addOnFailureListener(e -> listener.onFailure(e));
-                })
-                .addOnFailureListener(e -> listener.onFailure(e));
+            @Override
+            public void onError(Exception e) {
+                listener.onFailure(e);
+            }
+        });
     }
 
     /**
-     * Leave a waiting list
+     * Leave a waiting list. Deletes the entrant's entry by its id, without a lookup.
+     * Fails with "Not on waiting list" if the entrant has no entry.
      */
     public void leaveWaitingList(String eventId, String userId, OnCompleteListener listener) {
-
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("entrant_id", userId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (querySnapshot.isEmpty()) {
-                        listener.onFailure(new Exception("Not on waiting list"));
-                        return;
-                    }
-
-                    // Delete the entry
-                    querySnapshot.getDocuments().get(0).getReference().delete()
-                            .addOnSuccessListener(aVoid -> listener.onSuccess())
-                            .addOnFailureListener(e -> listener.onFailure(e));
-                })
-                .addOnFailureListener(e -> listener.onFailure(e));
+        repository.delete(WaitingListEntry.documentId(eventId, userId), forwardEntryWrite(listener));
     }
 
     /**
-     * Get all waiting lists for a user
+     * Get all waiting lists for a user. The listener may be called twice: with the entries
+     * stored on the device, then with them synced.
      */
     public void getMyWaitingLists(String userId, OnWaitingListLoadedListener listener) {
 
-        db.collection("waiting_list")
-                .whereEqualTo("entrant_id", userId)
-                // Removed .orderBy() to avoid needing a composite index
-                // Sorting is done in memory instead
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<WaitingListEntry> entries = new ArrayList<>();
-                    for (DocumentSnapshot doc : querySnapshot) {
-                        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                        if (entry != null) {
-                            entry.setId(doc.getId());
-                            entries.add(entry);
-                        }
-                    }
+        // No orderBy() to avoid needing a composite index
+        // Sorting is done in memory instead
+        repository.findByEntrant(userId, new WaitingListRepository.OnEntriesLoadedListener() {
+            @Override
+            public void onLoaded(List<WaitingListEntry> entries) {
+                // Sort by joined_at in descending order (newest first)
+                entries.sort((a, b) -> Long.compare(b.getJoined_at(), a.getJoined_at()));
 
-                    // Sort by joined_at in descending order (newest first)
-                    entries.sort((a, b) -> Long.compare(b.getJoined_at(), a.getJoined_at()));
+                listener.onLoaded(entries);
+            }
 
-                    listener.onLoaded(entries);
-                })
-                .addOnFailureListener(e -> listener.onError(e));
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
     }
 
     /**
-     * Check if user is on waiting list for an event
+     * Check if user is on waiting list for an event (a single document read)
      */
     public void isOnWaitingList(String eventId, String userId, OnCheckListener listener) {
 
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("entrant_id", userId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    listener.onResult(!querySnapshot.isEmpty());
-                })
-                .addOnFailureListener(e -> listener.onResult(false));
+        repository.findEntry(eventId, userId, new WaitingListRepository.OnEntryLoadedListener() {
+            @Override
+            public void onLoaded(@Nullable WaitingListEntry entry) {
+                listener.onResult(entry != null);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onResult(false);
+            }
+        });
     }
 
     /**
-     * Get status of user's waiting list entry
+     * Get status of user's waiting list entry (a single document read)
      */
     public void getWaitingListStatus(String eventId, String userId, OnStatusListener listener) {
 
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("entrant_id", userId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (querySnapshot.isEmpty()) {
-                        listener.onStatus(null);
-                    } else {
-                        WaitingListEntry entry = querySnapshot.getDocuments()
-                                .get(0).toObject(WaitingListEntry.class);
-                        listener.onStatus(entry != null ? entry.getStatus() : null);
-                    }
-                })
-                .addOnFailureListener(e -> listener.onStatus(null));
+        repository.findEntry(eventId, userId, new WaitingListRepository.OnEntryLoadedListener() {
+            @Override
+            public void onLoaded(@Nullable WaitingListEntry entry) {
+                listener.onStatus(entry != null ? entry.getStatus() : null);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onStatus(null);
+            }
+        });
     }
 
     /**
@@ -238,24 +245,7 @@ public class WaitingListManager {
      */
     public void acceptInvitation(String eventId, String userId, OnCompleteListener listener) {
 
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("entrant_id", userId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (querySnapshot.isEmpty()) {
-                        listener.onFailure(new Exception("Not on waiting list"));
-                        return;
-                    }
-
-                    // Update status to "accepted"
-                    querySnapshot.getDocuments().get(0).getReference()
-                            .update("status", "accepted",
-                                    "updated_at", System.currentTimeMillis())
-                            .addOnSuccessListener(aVoid -> listener.onSuccess())
-                            .addOnFailureListener(e -> listener.onFailure(e));
-                })
-                .addOnFailureListener(e -> listener.onFailure(e));
+        setStatusForEntrant(eventId, userId, "accepted", listener);
     }
 
     /**
@@ -264,24 +254,7 @@ public class WaitingListManager {
      */
     public void declineInvitation(String eventId, String userId, OnCompleteListener listener) {
 
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("entrant_id", userId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (querySnapshot.isEmpty()) {
-                        listener.onFailure(new Exception("Not on waiting list"));
-                        return;
-                    }
-
-                    // Update status to "declined"
-                    querySnapshot.getDocuments().get(0).getReference()
-                            .update("status", "declined",
-                                    "updated_at", System.currentTimeMillis())
-                            .addOnSuccessListener(aVoid -> listener.onSuccess())
-                            .addOnFailureListener(e -> listener.onFailure(e));
-                })
-                .addOnFailureListener(e -> listener.onFailure(e));
+        setStatusForEntrant(eventId, userId, "declined", listener);
     }
 
     /**
@@ -291,22 +264,43 @@ public class WaitingListManager {
      * @param listener Callback receiving the loaded entries or an error
      */
     public void getEntriesByStatus(String eventId, String status, OnEntriesLoadedListener listener) {
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("status", status)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    List<WaitingListEntry> entries = new ArrayList<>();
-                    for (DocumentSnapshot doc : querySnapshot) {
-                        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                        if (entry != null) {
-                            entry.setId(doc.getId());
-                            entries.add(entry);
-                        }
-                    }
-                    listener.onEntriesLoaded(entries);
-                })
-                .addOnFailureListener(listener::onError);
+        repository.findByEventAndStatus(eventId, status, new WaitingListRepository.OnEntriesLoadedListener() {
+            @Override
+            public void onLoaded(List<WaitingListEntry> entries) {
+                listener.onEntriesLoaded(entries);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Reads all entries for an event with a specific status one page at a time, so the
+     * caller never holds more than a page of them.
+     * @param eventId The event ID to query entries for
+     * @param status The status value to filter by (e.g., "waiting", "not_selected")
+     * @param listener Callback receiving each page, then completion or an error
+     */
+    public void scanEntriesByStatus(String eventId, String status, OnEntriesPageListener listener) {
+        repository.scanByEventAndStatus(eventId, status, SCAN_PAGE_SIZE, new WaitingListRepository.OnPageListener() {
+            @Override
+            public void onPage(List<WaitingListEntry> entries) {
+                listener.onPage(entries);
+            }
+
+            @Override
+            public void onComplete() {
+                listener.onComplete();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
     }
 
     /**
@@ -316,59 +310,11 @@ public class WaitingListManager {
      * @param entryIds List of entry document IDs to update
      * @param newStatus The status to write to each entry
      * @param listener Callback for completion or error
+     * @deprecated use {@link #updateEntries(List, String, Integer, OnCompleteListener)}
      */
+    @Deprecated
     public void updateEntriesStatus(List<String> entryIds, String newStatus, OnCompleteListener listener) {
-        if (entryIds == null || entryIds.isEmpty()) {
-            listener.onSuccess();
-            return;
-        }
-
-        long now = System.currentTimeMillis();
-        WriteBatch batch = db.batch();
-        Map<String, Object> updates = new HashMap<>();
-        updates.put("status", newStatus);
-        updates.put("updated_at", now);
-        if ("selected".equals(newStatus)) {
-            updates.put("selected_at", now);
-        }
-
-        for (String id : entryIds) {
-            DocumentReference ref = db.collection("waiting_list").document(id);
-            batch.update(ref, updates);
-        }
-
-        batch.commit()
-                .addOnSuccessListener(aVoid -> {
-                    if ("selected".equals(newStatus) && notificationManager != null) {
-                        // Notifications for selected entrants
-                        for (String id : entryIds) {
-                            db.collection("waiting_list")
-                                    .document(id)
-                                    .get()
-                                    .addOnSuccessListener(doc -> {
-                                        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                                        if (entry != null) {
-                                            entry.setId(doc.getId());
-                                            notificationManager.createSelectionNotification(entry);
-                                        }
-                                    });
-                        }
-                        // Determine event id and notify non-selected entrants
-                        String firstId = entryIds.get(0);
-                        db.collection("waiting_list")
-                                .document(firstId)
-                                .get()
-                                .addOnSuccessListener(doc -> {
-                                    WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                                    if (entry != null) {
-                                        String eventId = entry.getEvent_id();
-                                        notifyNotSelectedEntrants(eventId, entryIds);
-                                    }
-                                });
-                    }
-                    listener.onSuccess();
-                })
-                .addOnFailureListener(listener::onFailure);
+        updateEntriesStatus(entryIds, newStatus, null, listener);
     }
 
     /**
@@ -385,46 +331,7 @@ public class WaitingListManager {
                                        String title,
                                        String message,
                                        OnCompleteListener listener) {
-        if (eventId == null || eventId.isEmpty()) {
-            if (listener != null) {
-                listener.onFailure(new IllegalArgumentException("eventId is required"));
-            }
-            return;
-        }
-
-        if (notificationManager == null) {
-            if (listener != null) {
-                listener.onFailure(new IllegalStateException("NotificationManager not initialized"));
-            }
-            return;
-        }
-
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("status", "selected")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    for (DocumentSnapshot doc : querySnapshot) {
-                        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                        if (entry != null) {
-                            String userId = entry.getEntrant_id();
-                            notificationManager.createOrganizerNotificationForUser(
-                                    userId,
-                                    eventId,
-                                    title,
-                                    message
-                            );
-                        }
-                    }
-                    if (listener != null) {
-                        listener.onSuccess();
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    if (listener != null) {
-                        listener.onFailure(e);
-                    }
-                });
+        notifyEntrants(eventId, "selected", title, message, asResultListener(listener));
     }
 
     /**
@@ -432,7 +339,7 @@ public class WaitingListManager {
      * Sends a custom organizer/admin message to every waiting-list entry
      * with status "not_selected" for the given event.
      *
-     * Uses NotificationManager.createOrganizerNotificationForUser(...) with type "organizer_message".
+     * Uses NotificationManager.sendOrganizerNotifications(...) with type "organizer_message".
      *
      * @param eventId  id of the event
      * @param title    notification title (e.g., "Lottery Result")
@@ -443,46 +350,7 @@ public class WaitingListManager {
                                           String title,
                                           String message,
                                           OnCompleteListener listener) {
-        if (eventId == null || eventId.isEmpty()) {
-            if (listener != null) {
-                listener.onFailure(new IllegalArgumentException("eventId is required"));
-            }
-            return;
-        }
-
-        if (notificationManager == null) {
-            if (listener != null) {
-                listener.onFailure(new IllegalStateException("NotificationManager not initialized"));
-            }
-            return;
-        }
-
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .whereEqualTo("status", "not_selected")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    for (DocumentSnapshot doc : querySnapshot) {
-                        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                        if (entry != null) {
-                            String userId = entry.getEntrant_id();
-                            notificationManager.createOrganizerNotificationForUser(
-                                    userId,
-                                    eventId,
-                                    title,
-                                    message
-                            );
-                        }
-                    }
-                    if (listener != null) {
-                        listener.onSuccess();
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    if (listener != null) {
-                        listener.onFailure(e);
-                    }
-                });
+        notifyEntrants(eventId, "not_selected", title, message, asResultListener(listener));
     }
 
     /**
@@ -490,7 +358,7 @@ public class WaitingListManager {
      * Sends a custom organizer/admin message to every waiting-list entry
      * with the given eventId (regardless of status).
      *
-     * Uses NotificationManager.createOrganizerNotificationForUser(...) with type "organizer_message".
+     * Uses NotificationManager.sendOrganizerNotifications(...) with type "organizer_message".
      *
      * @param eventId  id of the event
      * @param title    notification title (e.g., "Event Update")
@@ -501,45 +369,95 @@ public class WaitingListManager {
                                              String title,
                                              String message,
                                              OnCompleteListener listener) {
+        notifyEntrants(eventId, null, title, message, asResultListener(listener));
+    }
+
+    /**
+     * Like {@link #notifySelectedEntrants(String, String, String, OnCompleteListener)}, but
+     * reports how many notifications were sent and how many failed.
+     */
+    public void notifySelectedEntrants(String eventId, String title, String message,
+                                       OnNotifyResultListener listener) {
+        notifyEntrants(eventId, "selected", title, message, listener);
+    }
+
+    /**
+     * Like {@link #notifyNotSelectedEntrants(String, String, String, OnCompleteListener)}, but
+     * reports how many notifications were sent and how many failed.
+     */
+    public void notifyNotSelectedEntrants(String eventId, String title, String message,
+                                          OnNotifyResultListener listener) {
+        notifyEntrants(eventId, "not_selected", title, message, listener);
+    }
+
+    /**
+     * Like {@link #notifyAllWaitingListEntrants(String, String, String, OnCompleteListener)}, but
+     * reports how many notifications were sent and how many failed.
+     */
+    public void notifyAllWaitingListEntrants(String eventId, String title, String message,
+                                             OnNotifyResultListener listener) {
+        notifyEntrants(eventId, null, title, message, listener);
+    }
+
+    /**
+     * Sends an organizer message to the entrants of an event with the given status
+     * (or all entrants when status is null) through the bulk notification writer.
+     */
+    private void notifyEntrants(String eventId, @Nullable String status, String title,
+                                String message, OnNotifyResultListener listener) {
         if (eventId == null || eventId.isEmpty()) {
-            if (listener != null) {
-                listener.onFailure(new IllegalArgumentException("eventId is required"));
-            }
+            listener.onFailure(new IllegalArgumentException("eventId is required"));
             return;
         }
 
         if (notificationManager == null) {
-            if (listener != null) {
-                listener.onFailure(new IllegalStateException("NotificationManager not initialized"));
-            }
+            listener.onFailure(new IllegalStateException("NotificationManager not initialized"));
             return;
         }
 
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    for (DocumentSnapshot doc : querySnapshot) {
-                        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                        if (entry != null) {
-                            String userId = entry.getEntrant_id();
-                            notificationManager.createOrganizerNotificationForUser(
-                                    userId,
-                                    eventId,
-                                    title,
-                                    message
-                            );
-                        }
-                    }
-                    if (listener != null) {
-                        listener.onSuccess();
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    if (listener != null) {
-                        listener.onFailure(e);
-                    }
-                });
+        WaitingListRepository.OnEntriesLoadedListener send = new WaitingListRepository.OnEntriesLoadedListener() {
+            @Override
+            public void onLoaded(List<WaitingListEntry> entries) {
+                List<String> recipients = new ArrayList<>(entries.size());
+                for (WaitingListEntry entry : entries) {
+                    recipients.add(entry.getEntrant_id());
+                }
+                notificationManager.sendOrganizerNotifications(recipients, eventId, title, message,
+                        (sent, failed, firstError) -> listener.onResult(sent, failed));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onFailure(e);
+            }
+        };
+        if (status == null) {
+            repository.findByEvent(eventId, send);
+        } else {
+            repository.findByEventAndStatus(eventId, status, send);
+        }
+    }
+
+    /** Adapts an optional {@link OnCompleteListener} to bulk-send results; any failure is an error. */
+    private static OnNotifyResultListener asResultListener(@Nullable OnCompleteListener listener) {
+        return new OnNotifyResultListener() {
+            @Override
+            public void onResult(int sent, int failed) {
+                if (listener == null) return;
+                if (failed == 0) {
+                    listener.onSuccess();
+                } else {
+                    listener.onFailure(new Exception(failed + " of " + (sent + failed) + " notifications failed"));
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (listener != null) {
+                    listener.onFailure(e);
+                }
+            }
+        };
     }
 
     /**
@@ -561,10 +479,7 @@ public class WaitingListManager {
             updates.put("decline_reason", declineReason);
         }
 
-        db.collection("waiting_list").document(entryId)
-                .update(updates)
-                .addOnSuccessListener(aVoid -> listener.onSuccess())
-                .addOnFailureListener(listener::onFailure);
+        repository.update(entryId, updates, forward(listener));
     }
 
     /**
@@ -577,38 +492,51 @@ public class WaitingListManager {
             return;
         }
 
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    long now = System.currentTimeMillis();
-                    WriteBatch batch = db.batch();
-
-                    for (DocumentSnapshot doc : querySnapshot) {
-                        String id = doc.getId();
-
-                        // Winners are already "selected" – skip them here
-                        if (selectedEntryIds.contains(id)) {
-                            continue;
-                        }
-
-                        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                        if (entry == null) continue;
-
-                        entry.setId(id);
-
-                        // 1) Update status to "not_selected"
-                        batch.update(doc.getReference(),
-                                "status", "not_selected",
-                                "updated_at", now);
-
-                        // 2) Send the automatic "you were not selected" notification
-                        notificationManager.createNotSelectedNotification(entry);
+        Set<String> selected = new HashSet<>(selectedEntryIds);
+        repository.findByEvent(eventId, new WaitingListRepository.OnEntriesLoadedListener() {
+            @Override
+            public void onLoaded(List<WaitingListEntry> entries) {
+                List<WaitingListEntry> notSelected = new ArrayList<>();
+                List<String> recipients = new ArrayList<>();
+
+                for (WaitingListEntry entry : entries) {
+                    // Winners are already "selected" – skip them here
+                    if (selected.contains(entry.getId())) {
+                        continue;
                     }
 
-                    // Commit status updates (fire-and-forget)
-                    batch.commit();
+                    notSelected.add(entry);
+                    recipients.add(entry.getEntrant_id());
+                }
+
+                if (notSelected.isEmpty()) {
+                    return;
+                }
+
+                // Send the automatic "you were not selected" notifications in batches
+                notificationManager.sendNotSelectedNotifications(eventId, recipients, null);
+
+                // Update status to "not_selected" (fire-and-forget)
+                Map<String, Object> updates = new HashMap<>();
+                updates.put("status", "not_selected");
+                updates.put("updated_at", System.currentTimeMillis());
+                repository.updateEntries(notSelected, updates, new WaitingListRepository.OnWriteListener() {
+                    @Override public void onSuccess() { }
+                    @Override public void onFailure(Exception e) {
+                        Log.w(TAG, "Failed to mark " + notSelected.size() + " entrants not_selected for " + eventId, e);
+                    }
                 });
+            }
+
+            @Override
+            public void onError(Exception e) { }
+        });
+    }
+
+    /** Callback used when counting entrants per status. */
+    public interface OnStatusCountsListener {
+        void onCounts(WaitingListCounts counts);
+        void onError(Exception e);
     }
 
     /**Callback used when counting entrants for an event. */
@@ -632,10 +560,12 @@ public class WaitingListManager {
      * Asynchronously counts how many entrants are on the waiting list
      * for a given event.
      * <p>
-     * Implementation detail: this executes a Firestore aggregation
-     * (count) on the <code>waiting_list</code> collection filtered by
-     * <code>event_id</code>. The result is delivered on the supplied
-     * {@link OnCountListener} callback.
+     * Implementation detail: this delegates to
+     * {@link WaitingListRepository#countByEvent(String, WaitingListRepository.OnCountListener)},
+     * which reads the event's per-status counters rather than the
+     * <code>waiting_list</code> entries themselves (events created before the
+     * counters existed fall back to a count aggregation). The result is
+     * delivered on the supplied {@link OnCountListener} callback.
      * </p>
      *
      * <h4>Contract</h4>
@@ -652,11 +582,55 @@ public class WaitingListManager {
      */
 
     public void getWaitingListCount(String eventId, OnCountListener listener) {
-        db.collection("waiting_list")
-                .whereEqualTo("event_id", eventId)
-                .get()
-                .addOnSuccessListener(snap -> listener.onCount(snap.size()))
-                .addOnFailureListener(listener::onError);
+        if (eventId == null || eventId.trim().isEmpty()) {
+            listener.onCount(0);
+            return;
+        }
+        repository.countByEvent(eventId, new WaitingListRepository.OnCountListener() {
+            @Override
+            public void onCount(int count) {
+                listener.onCount(count);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Counts the entrants on an event's waiting list per status (waiting, selected,
+     * accepted, ...). Reads the event's counters, not the entries.
+     * @param eventId event id
+     * @param listener receives the counts or an error
+     */
+    public void getWaitingListCounts(String eventId, OnStatusCountsListener listener) {
+        if (eventId == null || eventId.trim().isEmpty()) {
+            listener.onCounts(WaitingListCounts.empty());
+            return;
+        }
+        repository.countByStatus(eventId, new WaitingListRepository.OnCountsListener() {
+            @Override
+            public void onCounts(WaitingListCounts counts) {
+                listener.onCounts(counts);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Removes a waiting list entry by its document id, e.g. when an organizer removes an
+     * entrant. The event's counters are updated with it.
+     * @param entryId waiting_list document id
+     * @param listener callback for completion or error
+     */
+    public void removeEntry(String entryId, OnCompleteListener listener) {
+        repository.delete(entryId, forward(listener));
     }
 
     /**
@@ -669,7 +643,10 @@ public class WaitingListManager {
      * @param newStatus status value to apply (e.g., "selected")
      * @param hours optional response window hours to set; may be null
      * @param listener callback for completion or error
+     * @deprecated re-reads every entry after the write to build notifications; use
+     *             {@link #updateEntriesForReplacements(List, String, Integer, OnCompleteListener)}
      */
+    @Deprecated
     public void updateEntriesStatusForReplacements(List<String> entryIds,
                                                    String newStatus,
                                                    Integer hours,
@@ -679,8 +656,85 @@ public class WaitingListManager {
             return;
         }
 
+        repository.updateAll(entryIds, statusUpdates(newStatus, hours), new WaitingListRepository.OnWriteListener() {
+            @Override
+            public void onSuccess() {
+                if ("selected".equals(newStatus) && notificationManager != null) {
+                    for (String id : entryIds) {
+                        repository.getById(id, onEntry(entry -> notificationManager.createSelectionNotification(entry)));
+                    }
+                }
+                listener.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Replacement-draw variant of {@link #updateEntries(List, String, Integer, OnCompleteListener)}:
+     * only the given entries are updated and notified; nobody is marked "not_selected".
+     * @param entries entries to update, as loaded by the caller (must have ids)
+     * @param newStatus status value to apply (e.g., "selected")
+     * @param hours optional response window hours to set; may be null
+     * @param listener callback for completion or error
+     */
+    public void updateEntriesForReplacements(List<WaitingListEntry> entries,
+                                             String newStatus,
+                                             Integer hours,
+                                             OnCompleteListener listener) {
+        writeStatus(entries, newStatus, hours, false, listener);
+    }
+
+    /**
+     * Writes a status change for loaded entries and sends notifications from the same
+     * objects once the write has committed.
+     * @param notifyOthers true to also notify and mark the rest of the list "not_selected"
+     */
+    private void writeStatus(List<WaitingListEntry> entries, String newStatus, Integer hours,
+                             boolean notifyOthers, OnCompleteListener listener) {
+        List<WaitingListEntry> stored = new ArrayList<>(entries == null ? 0 : entries.size());
+        List<String> ids = new ArrayList<>(entries == null ? 0 : entries.size());
+        if (entries != null) {
+            for (WaitingListEntry e : entries) {
+                if (e.getId() != null) {
+                    stored.add(e);
+                    ids.add(e.getId());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            listener.onSuccess();
+            return;
+        }
+
+        repository.updateEntries(stored, statusUpdates(newStatus, hours), new WaitingListRepository.OnWriteListener() {
+            @Override
+            public void onSuccess() {
+                if ("selected".equals(newStatus) && notificationManager != null) {
+                    for (Map.Entry<String, List<String>> byEvent : entrantIdsByEvent(entries).entrySet()) {
+                        notificationManager.sendSelectionNotifications(byEvent.getKey(), byEvent.getValue(), null);
+                    }
+                    if (notifyOthers) {
+                        notifyNotSelectedEntrants(entries.get(0).getEvent_id(), ids);
+                    }
+                }
+                listener.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /** Field updates for a status change; see {@link #updateEntries}. */
+    private static Map<String, Object> statusUpdates(String newStatus, @Nullable Integer hours) {
         long now = System.currentTimeMillis();
-        WriteBatch batch = db.batch();
         Map<String, Object> updates = new HashMap<>();
         updates.put("status", newStatus);
         updates.put("updated_at", now);
@@ -690,34 +744,105 @@ public class WaitingListManager {
         if (hours != null) {
             updates.put("response_window_hours", hours);
         }
+        return updates;
+    }
 
-        for (String id : entryIds) {
-            DocumentReference ref = db.collection("waiting_list").document(id);
-            batch.update(ref, updates);
+    /**
+     * Moves an entrant's entry for an event to a new status with a single write to its
+     * document. Fails with "Not on waiting list" if the entrant has no entry.
+     */
+    private void setStatusForEntrant(String eventId, String userId, String newStatus,
+                                     OnCompleteListener listener) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("status", newStatus);
+        updates.put("updated_at", System.currentTimeMillis());
+        repository.update(WaitingListEntry.documentId(eventId, userId), updates, forwardEntryWrite(listener));
+    }
+
+    /**
+     * Like {@link #forward}, but reports a missing entry as "Not on waiting list".
+     */
+    private static WaitingListRepository.OnWriteListener forwardEntryWrite(OnCompleteListener listener) {
+        return new WaitingListRepository.OnWriteListener() {
+            @Override
+            public void onSuccess() {
+                listener.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e instanceof EntryNotFoundException
+                        ? new Exception("Not on waiting list") : e);
+            }
+        };
+    }
+
+    /** Groups entrant ids by event id, keeping the entries' order. */
+    private static Map<String, List<String>> entrantIdsByEvent(List<WaitingListEntry> entries) {
+        Map<String, List<String>> byEvent = new LinkedHashMap<>();
+        for (WaitingListEntry entry : entries) {
+            if (entry.getId() == null || entry.getEvent_id() == null) continue;
+            List<String> ids = byEvent.get(entry.getEvent_id());
+            if (ids == null) {
+                ids = new ArrayList<>();
+                byEvent.put(entry.getEvent_id(), ids);
+            }
+            ids.add(entry.getEntrant_id());
         }
+        return byEvent;
+    }
 
-        batch.commit()
-                .addOnSuccessListener(aVoid -> {
-                    if ("selected".equals(newStatus) && notificationManager != null) {
-                        for (String id : entryIds) {
-                            db.collection("waiting_list")
-                                    .document(id)
-                                    .get()
-                                    .addOnSuccessListener(doc -> {
-                                        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
-                                        if (entry != null) {
-                                            entry.setId(doc.getId());
-                                            notificationManager.createSelectionNotification(entry);
-                                        }
-                                    });
-                        }
-                    }
-                    listener.onSuccess();
-                })
-                .addOnFailureListener(listener::onFailure);
+    /** Adapts an {@link OnCompleteListener} to the repository's write callback. */
+    private static WaitingListRepository.OnWriteListener forward(OnCompleteListener listener) {
+        return new WaitingListRepository.OnWriteListener() {
+            @Override
+            public void onSuccess() {
+                listener.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        };
+    }
+
+    /** Single-method consumer used by {@link #onEntry(EntryConsumer)}. */
+    private interface EntryConsumer {
+        void accept(WaitingListEntry entry);
+    }
+
+    /**
+     * Builds a best-effort lookup callback that runs {@code consumer} when the entry exists
+     * and ignores missing entries or errors.
+     */
+    private static WaitingListRepository.OnEntryLoadedListener onEntry(EntryConsumer consumer) {
+        return new WaitingListRepository.OnEntryLoadedListener() {
+            @Override
+            public void onLoaded(@Nullable WaitingListEntry entry) {
+                if (entry != null) {
+                    consumer.accept(entry);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) { }
+        };
     }
 
     // Callback Interfaces
+    /** Result of a bulk organizer notification. */
+    public interface OnNotifyResultListener {
+        /**
+         * @param sent number of notifications written
+         * @param failed number of notifications that could not be written
+         */
+        void onResult(int sent, int failed);
+
+        /** Called when the recipients could not be loaded. */
+        void onFailure(Exception e);
+    }
+
     public interface OnCompleteListener {
         void onSuccess();
         void onFailure(Exception e);
@@ -743,5 +868,14 @@ public class WaitingListManager {
         void onEntriesLoaded(List<WaitingListEntry> entries);
         void onError(Exception e);
     }
+
+    /**
+     * Callback invoked for each page of entries read by {@link #scanEntriesByStatus}.
+     */
+    public interface OnEntriesPageListener {
+        void onPage(List<WaitingListEntry> entries);
+        void onComplete();
+        void onError(Exception e);
+    }
 }
 
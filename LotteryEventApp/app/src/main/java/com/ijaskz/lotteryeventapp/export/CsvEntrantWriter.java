@@ -0,0 +1,90 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.util.DateFormats;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes waiting list entries as CSV rows straight to a {@link Writer}, without building
+ * each row as a string first.
+ *
+ * <p>Fields containing a comma, quote or line break are quoted, with quotes doubled
+ * (RFC 4180). Times are written as {@link DateFormats#exportDateTime} dates, missing values
+ * as empty fields. Rows end with "\n".</p>
+ */
+public class CsvEntrantWriter implements EntrantExporter.RowWriter {
+
+    private final Writer out;
+    private final EntrantColumn[] columns;
+
+    /**
+     * @param out destination; should be buffered
+     * @param columns columns to write, in order
+     */
+    public CsvEntrantWriter(Writer out, List<EntrantColumn> columns) {
+        this.out = out;
+        this.columns = columns.toArray(new EntrantColumn[0]);
+    }
+
+    /** Writes the header row. */
+    public void writeHeader() throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) out.write(',');
+            writeField(columns[i].getHeader());
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void write(WaitingListEntry entry) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) out.write(',');
+            Object value = columns[i].value(entry);
+            if (value == null) continue;
+            if (columns[i].isTime()) {
+                out.write(DateFormats.exportDateTime(((Number) value).longValue()));
+            } else {
+                writeField(value.toString());
+            }
+        }
+        out.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Writes a field, quoting it if needed.
+     * @param value field value
+     */
+    void writeField(String value) throws IOException {
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                out.write(value, start, i + 1 - start);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
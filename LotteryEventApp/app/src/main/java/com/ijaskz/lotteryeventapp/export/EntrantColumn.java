@@ -0,0 +1,86 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import androidx.annotation.Nullable;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link WaitingListEntry} field that can be included in an export.
+ *
+ * <p>Each column has a header for CSV, a key for JSON (the Firestore field name) and a
+ * value, which is a String, a Number or null. Time columns hold epoch milliseconds; CSV
+ * writes them as dates and JSON as numbers.</p>
+ */
+public enum EntrantColumn {
+    NAME("Name", "entrant_name", false) {
+        @Override Object value(WaitingListEntry e) { return e.getEntrant_name(); }
+    },
+    EMAIL("Email", "entrant_email", false) {
+        @Override Object value(WaitingListEntry e) { return e.getEntrant_email(); }
+    },
+    STATUS("Status", "status", false) {
+        @Override Object value(WaitingListEntry e) { return e.getStatus(); }
+    },
+    JOINED_AT("Joined Date", "joined_at", true) {
+        // 0 means the document had no joined_at
+        @Override Object value(WaitingListEntry e) { return e.getJoined_at() > 0 ? e.getJoined_at() : null; }
+    },
+    ENTRANT_ID("Entrant Id", "entrant_id", false) {
+        @Override Object value(WaitingListEntry e) { return e.getEntrant_id(); }
+    },
+    SELECTED_AT("Selected Date", "selected_at", true) {
+        @Override Object value(WaitingListEntry e) { return e.getSelected_at(); }
+    },
+    RESPONDED_AT("Responded Date", "responded_at", true) {
+        @Override Object value(WaitingListEntry e) { return e.getResponded_at(); }
+    },
+    DECLINE_REASON("Decline Reason", "decline_reason", false) {
+        @Override Object value(WaitingListEntry e) { return e.getDecline_reason(); }
+    },
+    LATITUDE("Latitude", "latitude", false) {
+        @Override Object value(WaitingListEntry e) { return e.getLatitude(); }
+    },
+    LONGITUDE("Longitude", "longitude", false) {
+        @Override Object value(WaitingListEntry e) { return e.getLongitude(); }
+    };
+
+    /** The columns the export had before columns were selectable. */
+    public static final List<EntrantColumn> DEFAULTS =
+            Collections.unmodifiableList(Arrays.asList(NAME, EMAIL, STATUS, JOINED_AT));
+
+    private final String header;
+    private final String key;
+    private final boolean time;
+
+    EntrantColumn(String header, String key, boolean time) {
+        this.header = header;
+        this.key = key;
+        this.time = time;
+    }
+
+    /** @return the CSV header, e.g. "Joined Date" */
+    public String getHeader() {
+        return header;
+    }
+
+    /** @return the JSON key, e.g. "joined_at" */
+    public String getKey() {
+        return key;
+    }
+
+    /** @return true if the value is a time in epoch milliseconds */
+    public boolean isTime() {
+        return time;
+    }
+
+    /**
+     * @param e the entry
+     * @return the column's value: a String, a Number, or null if not set
+     */
+    @Nullable
+    abstract Object value(WaitingListEntry e);
+}
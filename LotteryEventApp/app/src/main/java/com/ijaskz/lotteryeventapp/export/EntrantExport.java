@@ -0,0 +1,109 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Streams an event's waiting list to an output stream on a background thread, in any
+ * {@link EntrantExporter} format and with a chosen set of columns.
+ *
+ * <p>Entries are read from an {@link EntrantSource} a page at a time and handed to the
+ * format's row writer, so memory use is one page plus the writer's buffers however large
+ * the list is. The listener hears about progress after each page and once at the end.</p>
+ */
+public class EntrantExport {
+
+    /** Entries read per page. */
+    public static final int PAGE_SIZE = 500;
+
+    /**
+     * Receives the export's progress; called on the callback executor.
+     */
+    public interface Listener {
+        /**
+         * @param rows entries written so far
+         */
+        void onProgress(int rows);
+
+        /**
+         * @param rows total entries written; the stream has been closed
+         */
+        void onComplete(int rows);
+
+        /**
+         * The export stopped; the stream has been closed and holds a partial file.
+         */
+        void onError(Exception e);
+    }
+
+    private final EntrantSource source;
+    private final EntrantExporter exporter;
+    private final List<EntrantColumn> columns;
+    private final Executor worker;
+    private final Executor callbacks;
+    private final int pageSize;
+
+    /**
+     * @param source reads the entries
+     * @param exporter file format
+     * @param columns columns to write, in order
+     * @param worker runs the export, e.g. a single background thread
+     * @param callbacks runs listener calls, e.g. the main thread's executor
+     */
+    public EntrantExport(EntrantSource source, EntrantExporter exporter, List<EntrantColumn> columns,
+                         Executor worker, Executor callbacks) {
+        this(source, exporter, columns, worker, callbacks, PAGE_SIZE);
+    }
+
+    EntrantExport(EntrantSource source, EntrantExporter exporter, List<EntrantColumn> columns,
+                  Executor worker, Executor callbacks, int pageSize) {
+        this.source = source;
+        this.exporter = exporter;
+        this.columns = new ArrayList<>(columns);
+        this.worker = worker;
+        this.callbacks = callbacks;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Starts writing the export to {@code out}, which is closed when the export ends.
+     * @param out destination, e.g. a MediaStore download's stream
+     * @param listener receives progress
+     */
+    public void start(OutputStream out, Listener listener) {
+        worker.execute(() -> {
+            int rows = 0;
+            try {
+                try (EntrantExporter.RowWriter writer = exporter.open(out, columns)) {
+                    Object cursor = null;
+                    while (true) {
+                        EntrantSource.Page page = source.next(cursor, pageSize);
+                        List<WaitingListEntry> entries = page.getEntries();
+                        for (WaitingListEntry entry : entries) {
+                            writer.write(entry);
+                        }
+                        rows += entries.size();
+                        if (entries.size() < pageSize || page.getCursor() == null) break;
+                        cursor = page.getCursor();
+                        int written = rows;
+                        callbacks.execute(() -> listener.onProgress(written));
+                    }
+                }
+            } catch (Exception e) {
+                try {
+                    out.close();
+                } catch (Exception ignored) {
+                    // Already closed by the writer, or unusable anyway
+                }
+                callbacks.execute(() -> listener.onError(e));
+                return;
+            }
+            int total = rows;
+            callbacks.execute(() -> listener.onComplete(total));
+        });
+    }
+}
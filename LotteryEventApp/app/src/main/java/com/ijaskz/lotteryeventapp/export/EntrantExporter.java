@@ -0,0 +1,41 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * A file format for exporting waiting list entries, written row by row to a stream.
+ *
+ * <p>{@link ExportFormat} holds the built-in formats.</p>
+ */
+public interface EntrantExporter {
+
+    /**
+     * Writes rows in an exporter's format. Closing it finishes the format (e.g. the gzip
+     * trailer) and closes the underlying stream.
+     */
+    interface RowWriter extends Closeable {
+        /**
+         * @param entry entry to write as one row
+         */
+        void write(WaitingListEntry entry) throws IOException;
+    }
+
+    /** @return MIME type of the file, e.g. "text/csv" */
+    String getMimeType();
+
+    /** @return file name extension without the dot, e.g. "csv" */
+    String getFileExtension();
+
+    /**
+     * Starts a file on {@code out}, writing any header.
+     * @param out destination; buffering is added by the writer
+     * @param columns columns to write, in order
+     * @return writer for the rows
+     */
+    RowWriter open(OutputStream out, List<EntrantColumn> columns) throws IOException;
+}
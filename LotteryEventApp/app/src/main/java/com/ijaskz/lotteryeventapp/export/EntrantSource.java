@@ -0,0 +1,51 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import androidx.annotation.Nullable;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.util.List;
+
+/**
+ * Reads an event's waiting list one page at a time, so an export never holds more than a
+ * page of entries.
+ *
+ * <p>Calls block and are made from the export's worker thread.</p>
+ */
+public interface EntrantSource {
+
+    /**
+     * One page of entries and where the next page starts.
+     */
+    final class Page {
+        private final List<WaitingListEntry> entries;
+        @Nullable private final Object cursor;
+
+        /**
+         * @param entries the entries, in a stable order
+         * @param cursor passed to {@link #next} to read the following page
+         */
+        public Page(List<WaitingListEntry> entries, @Nullable Object cursor) {
+            this.entries = entries;
+            this.cursor = cursor;
+        }
+
+        public List<WaitingListEntry> getEntries() {
+            return entries;
+        }
+
+        @Nullable
+        public Object getCursor() {
+            return cursor;
+        }
+    }
+
+    /**
+     * Reads the page after {@code cursor}.
+     * @param cursor cursor of the previous page; null for the first page
+     * @param limit maximum number of entries to return
+     * @return the page; fewer than {@code limit} entries means it is the last one
+     * @throws Exception if the page could not be read
+     */
+    Page next(@Nullable Object cursor, int limit) throws Exception;
+}
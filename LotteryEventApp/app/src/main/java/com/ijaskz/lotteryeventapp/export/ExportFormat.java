@@ -0,0 +1,74 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The built-in export formats. All write UTF-8 through a 64K character buffer.
+ */
+public enum ExportFormat implements EntrantExporter {
+    CSV("CSV", "text/csv", "csv") {
+        @Override
+        public RowWriter open(OutputStream out, List<EntrantColumn> columns) throws IOException {
+            CsvEntrantWriter csv = new CsvEntrantWriter(utf8(out), columns);
+            csv.writeHeader();
+            return csv;
+        }
+    },
+    /** CSV compressed with gzip, for large lists that are shared by email or chat. */
+    CSV_GZIP("CSV (gzip)", "application/gzip", "csv.gz") {
+        @Override
+        public RowWriter open(OutputStream out, List<EntrantColumn> columns) throws IOException {
+            CsvEntrantWriter csv = new CsvEntrantWriter(
+                    utf8(new GZIPOutputStream(out, BUFFER_BYTES)), columns);
+            csv.writeHeader();
+            return csv;
+        }
+    },
+    JSON_LINES("JSON Lines", "application/x-ndjson", "jsonl") {
+        @Override
+        public RowWriter open(OutputStream out, List<EntrantColumn> columns) {
+            return new JsonLinesEntrantWriter(utf8(out), columns);
+        }
+    };
+
+    /** Size of the character buffer in front of the stream. */
+    static final int BUFFER_CHARS = 64 * 1024;
+    /** Size of gzip's output buffer. */
+    static final int BUFFER_BYTES = 16 * 1024;
+
+    private final String label;
+    private final String mimeType;
+    private final String extension;
+
+    ExportFormat(String label, String mimeType, String extension) {
+        this.label = label;
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    /** @return name shown when choosing a format */
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    @Override
+    public String getFileExtension() {
+        return extension;
+    }
+
+    private static Writer utf8(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+    }
+}
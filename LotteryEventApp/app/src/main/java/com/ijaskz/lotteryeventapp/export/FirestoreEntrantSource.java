@@ -0,0 +1,57 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EntrantSource} over the "waiting_list" collection, ordered by document id and
+ * paged with {@code startAfter()}. Equality on event_id plus document id order is served
+ * by the automatic single-field index.
+ */
+public class FirestoreEntrantSource implements EntrantSource {
+
+    /** How long one page may take before the export fails. */
+    static final long PAGE_TIMEOUT_SECONDS = 60;
+
+    private final Query query;
+
+    /**
+     * @param db Firestore instance
+     * @param eventId event whose entrants are read
+     */
+    public FirestoreEntrantSource(FirebaseFirestore db, String eventId) {
+        this.query = db.collection("waiting_list")
+                .whereEqualTo("event_id", eventId)
+                .orderBy(FieldPath.documentId());
+    }
+
+    @Override
+    public Page next(@Nullable Object cursor, int limit) throws Exception {
+        Query page = query.limit(limit);
+        if (cursor != null) {
+            page = page.startAfter((DocumentSnapshot) cursor);
+        }
+        QuerySnapshot snap = Tasks.await(page.get(), PAGE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        List<DocumentSnapshot> docs = snap.getDocuments();
+        List<WaitingListEntry> entries = new ArrayList<>(docs.size());
+        for (DocumentSnapshot doc : docs) {
+            WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
+            if (entry != null) {
+                entry.setId(doc.getId());
+                entries.add(entry);
+            }
+        }
+        return new Page(entries, docs.isEmpty() ? null : docs.get(docs.size() - 1));
+    }
+}
@@ -0,0 +1,94 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes waiting list entries as JSON Lines: one JSON object per line, keyed by the
+ * Firestore field names.
+ *
+ * <p>Times are epoch milliseconds and missing values are null, so the file can be loaded
+ * back without parsing dates. Written by hand rather than through a JSON library so that
+ * no object tree is built per row.</p>
+ */
+public class JsonLinesEntrantWriter implements EntrantExporter.RowWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer out;
+    private final EntrantColumn[] columns;
+    /** {@code "key":} for each column, escaped once up front. */
+    private final String[] keys;
+
+    /**
+     * @param out destination; should be buffered
+     * @param columns columns to write, in order
+     */
+    public JsonLinesEntrantWriter(Writer out, List<EntrantColumn> columns) {
+        this.out = out;
+        this.columns = columns.toArray(new EntrantColumn[0]);
+        this.keys = new String[this.columns.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (i == 0 ? "{\"" : ",\"") + this.columns[i].getKey() + "\":";
+        }
+    }
+
+    @Override
+    public void write(WaitingListEntry entry) throws IOException {
+        if (columns.length == 0) out.write('{');
+        for (int i = 0; i < columns.length; i++) {
+            out.write(keys[i]);
+            Object value = columns[i].value(entry);
+            if (value == null) {
+                out.write("null");
+            } else if (value instanceof Number) {
+                writeNumber((Number) value);
+            } else {
+                writeString(value.toString());
+            }
+        }
+        out.write("}\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeNumber(Number value) throws IOException {
+        // JSON has no NaN or Infinity
+        if (value instanceof Double && !Double.isFinite(value.doubleValue())) {
+            out.write("null");
+        } else {
+            out.write(value.toString());
+        }
+    }
+
+    /** Writes a quoted JSON string, escaping quotes, backslashes and control characters. */
+    void writeString(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) continue;
+            out.write(value, start, i - start);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    out.write("\\u00");
+                    out.write(HEX[c >> 4]);
+                    out.write(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,66 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import androidx.annotation.Nullable;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link EntrantSource} over a snapshot of an {@link EntrantSnapshotStore}'s columns, so an
+ * export from the organizer screen reads nothing from Firestore. Entries are built a page
+ * at a time on the export's thread. The store keeps only some fields; use
+ * {@link #covers(List)} to check the chosen columns first.
+ */
+public class StoreEntrantSource implements EntrantSource {
+
+    /** The columns an {@link EntrantSnapshotStore} holds. */
+    static final List<EntrantColumn> STORED = Collections.unmodifiableList(Arrays.asList(
+            EntrantColumn.NAME, EntrantColumn.EMAIL, EntrantColumn.STATUS,
+            EntrantColumn.JOINED_AT, EntrantColumn.LATITUDE, EntrantColumn.LONGITUDE));
+
+    private final List<EntrantSnapshotStore.StatusColumns> columns;
+
+    /**
+     * @param columns the store's entrants, from {@link EntrantSnapshotStore#snapshot()} on
+     *                the store's thread
+     */
+    public StoreEntrantSource(List<EntrantSnapshotStore.StatusColumns> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * @param columns columns chosen for an export
+     * @return true if every column is held by the store
+     */
+    public static boolean covers(List<EntrantColumn> columns) {
+        return STORED.containsAll(columns);
+    }
+
+    /**
+     * Reads the page after {@code cursor}, status by status.
+     * @param cursor an int[] of the status and row the page starts at; null for the first page
+     */
+    @Override
+    public Page next(@Nullable Object cursor, int limit) {
+        int status = cursor != null ? ((int[]) cursor)[0] : 0;
+        int row = cursor != null ? ((int[]) cursor)[1] : 0;
+        List<WaitingListEntry> entries = new ArrayList<>(limit);
+        while (status < columns.size() && entries.size() < limit) {
+            EntrantSnapshotStore.StatusColumns rows = columns.get(status);
+            int to = Math.min(rows.size(), row + limit - entries.size());
+            for (; row < to; row++) {
+                entries.add(rows.toEntry(row));
+            }
+            if (row == rows.size()) {
+                status++;
+                row = 0;
+            }
+        }
+        return new Page(entries, new int[] {status, row});
+    }
+}
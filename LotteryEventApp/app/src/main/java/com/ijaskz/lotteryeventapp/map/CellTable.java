@@ -0,0 +1,166 @@
+package com.ijaskz.lotteryeventapp.map;
+
+import java.util.Arrays;
+
+/**
+ * The grid cells of one zoom level in {@link EntrantClusterIndex}: a hash table from cell
+ * key to count, coordinate sums and slot sum, held in parallel arrays.
+ *
+ * <p>Open addressing with linear probing; removals shift later entries back instead of
+ * leaving tombstones. A level holds up to one cell per entrant, so keeping the cells out
+ * of boxed keys and per-cell objects is most of the index's build time and memory.</p>
+ */
+final class CellTable {
+
+    /** Cell keys are non-negative, so -1 marks a free entry. */
+    private static final long FREE = -1L;
+
+    private long[] keys;
+    private int[] counts;
+    private double[] sumX;
+    private double[] sumY;
+    private long[] slotSums;
+    private int mask;
+    private int size;
+
+    CellTable() {
+        allocate(16);
+    }
+
+    /** @return number of cells */
+    int size() {
+        return size;
+    }
+
+    /** @return entries in the table, for {@link #keyAt} and friends */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Adds ({@code sign} 1) or removes (-1) a point in a cell, creating or dropping the
+     * cell as its count leaves or reaches zero.
+     */
+    void update(long key, double x, double y, int slot, int sign) {
+        int i = indexOf(key);
+        if (keys[i] == FREE) {
+            if (sign < 0) return;
+            keys[i] = key;
+            size++;
+        }
+        counts[i] += sign;
+        if (counts[i] == 0) {
+            delete(i);
+            return;
+        }
+        sumX[i] += sign * x;
+        sumY[i] += sign * y;
+        slotSums[i] += sign * (long) slot;
+        if (size * 2 > keys.length) allocate(keys.length * 2);
+    }
+
+    /** @return entry holding {@code key}, or -1 */
+    int find(long key) {
+        int i = indexOf(key);
+        return keys[i] == FREE ? -1 : i;
+    }
+
+    /** @return key at an entry, or a negative number if the entry is free */
+    long keyAt(int i) {
+        return keys[i];
+    }
+
+    int countAt(int i) {
+        return counts[i];
+    }
+
+    double sumXAt(int i) {
+        return sumX[i];
+    }
+
+    double sumYAt(int i) {
+        return sumY[i];
+    }
+
+    long slotSumAt(int i) {
+        return slotSums[i];
+    }
+
+    void clear() {
+        size = 0;
+        allocate(16);
+    }
+
+    /** @return entry holding {@code key}, or the free entry where it would go */
+    private int indexOf(long key) {
+        int i = hash(key) & mask;
+        while (keys[i] != FREE && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /** Frees entry {@code i}, moving later entries of the same probe run back into it. */
+    private void delete(int i) {
+        size--;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == FREE) break;
+            int home = hash(keys[j]) & mask;
+            // Move j to i unless its home lies cyclically in (i, j]
+            boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (stays) continue;
+            move(j, i);
+            i = j;
+        }
+        keys[i] = FREE;
+        counts[i] = 0;
+        sumX[i] = 0;
+        sumY[i] = 0;
+        slotSums[i] = 0;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        counts[to] = counts[from];
+        sumX[to] = sumX[from];
+        sumY[to] = sumY[from];
+        slotSums[to] = slotSums[from];
+    }
+
+    /** Replaces the arrays with empty ones of {@code capacity}, re-adding current cells. */
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        double[] oldSumX = sumX;
+        double[] oldSumY = sumY;
+        long[] oldSlotSums = slotSums;
+
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        counts = new int[capacity];
+        sumX = new double[capacity];
+        sumY = new double[capacity];
+        slotSums = new long[capacity];
+        mask = capacity - 1;
+        if (oldKeys == null || size == 0) {
+            size = 0;
+            return;
+        }
+        for (int from = 0; from < oldKeys.length; from++) {
+            if (oldKeys[from] == FREE) continue;
+            int to = indexOf(oldKeys[from]);
+            keys[to] = oldKeys[from];
+            counts[to] = oldCounts[from];
+            sumX[to] = oldSumX[from];
+            sumY[to] = oldSumY[from];
+            slotSums[to] = oldSlotSums[from];
+        }
+    }
+}
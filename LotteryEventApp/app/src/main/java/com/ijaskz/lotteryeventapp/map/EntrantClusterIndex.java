@@ -0,0 +1,345 @@
+package com.ijaskz.lotteryeventapp.map;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Groups entrant locations into map clusters for every zoom level, so drawing the map only
+ * reads the clusters in view instead of placing a marker per entrant.
+ *
+ * <p>Points are projected to Web Mercator (as osmdroid tiles are) and counted in a grid of
+ * {@link #CELL_PX}-pixel cells at each zoom level from 0 to {@link #MAX_ZOOM}. The cell
+ * size is a power of two, so the grids nest like a quadtree: a cell at one level holds
+ * exactly four cells of the next. Each cell keeps a count and the coordinate sums for its
+ * centroid, in a {@link CellTable} per level; adding, moving or removing an entrant updates
+ * one cell per level.</p>
+ *
+ * <p>Not thread-safe; use it from one thread, e.g. a single background executor.</p>
+ */
+public class EntrantClusterIndex {
+
+    /** Deepest zoom level with its own grid; deeper zooms use this one. */
+    public static final int MAX_ZOOM = 16;
+    /** Width of a grid cell on screen, in pixels of a 256-pixel tile. */
+    public static final int CELL_PX = 64;
+
+    /** log2 of the cells across the world at zoom 0: 256 / CELL_PX = 4. */
+    private static final int ZOOM_0_SHIFT = 2;
+    /** Cells across the world at {@link #MAX_ZOOM}. */
+    private static final int MAX_CELLS = 1 << (MAX_ZOOM + ZOOM_0_SHIFT);
+    /** Web Mercator stops short of the poles. */
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    /**
+     * A group of nearby entrants, or a single entrant, to draw as one marker.
+     */
+    public static final class Cluster {
+        private final double latitude;
+        private final double longitude;
+        private final int count;
+        @Nullable private final String entrantId;
+        @Nullable private final String name;
+
+        Cluster(double latitude, double longitude, int count,
+                @Nullable String entrantId, @Nullable String name) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.count = count;
+            this.entrantId = entrantId;
+            this.name = name;
+        }
+
+        /** @return latitude of the entrants' centroid */
+        public double getLatitude() {
+            return latitude;
+        }
+
+        /** @return longitude of the entrants' centroid */
+        public double getLongitude() {
+            return longitude;
+        }
+
+        /** @return number of entrants in the cluster */
+        public int getCount() {
+            return count;
+        }
+
+        /** @return waiting list entry id when the cluster is a single entrant, else null */
+        @Nullable
+        public String getEntrantId() {
+            return entrantId;
+        }
+
+        /** @return entrant name when the cluster is a single entrant, else null */
+        @Nullable
+        public String getName() {
+            return name;
+        }
+    }
+
+    /** Cells by {@link #key} for each zoom level. */
+    private final CellTable[] levels = new CellTable[MAX_ZOOM + 1];
+    private final Map<String, Integer> slotById = new HashMap<>();
+
+    // Points by slot; removed slots are reused
+    private double[] xs = new double[16];
+    private double[] ys = new double[16];
+    private String[] ids = new String[16];
+    private String[] names = new String[16];
+    private String[] regions = new String[16];
+    private int slots;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    private double sumX;
+    private double sumY;
+
+    public EntrantClusterIndex() {
+        for (int z = 0; z <= MAX_ZOOM; z++) {
+            levels[z] = new CellTable();
+        }
+    }
+
+    /** @return number of entrants in the index */
+    public int size() {
+        return slotById.size();
+    }
+
+    /**
+     * Adds an entrant, or moves and renames one already in the index.
+     * @param id waiting list entry id
+     * @param latitude entrant latitude
+     * @param longitude entrant longitude
+     * @param name entrant name shown on a single-entrant marker
+     */
+    public void put(String id, double latitude, double longitude, @Nullable String name) {
+        put(id, latitude, longitude, name, null);
+    }
+
+    /**
+     * Adds an entrant loaded as part of a region, or moves, renames or re-homes one already
+     * in the index.
+     * @param id waiting list entry id
+     * @param latitude entrant latitude
+     * @param longitude entrant longitude
+     * @param name entrant name shown on a single-entrant marker
+     * @param region the loaded area the entrant came from, e.g. a geohash prefix; see
+     *               {@link #remove(String, String)} and {@link #removeRegion}
+     */
+    public void put(String id, double latitude, double longitude, @Nullable String name,
+                    @Nullable String region) {
+        double x = projectX(longitude);
+        double y = projectY(latitude);
+        Integer existing = slotById.get(id);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            names[slot] = name;
+            regions[slot] = region;
+            if (xs[slot] == x && ys[slot] == y) return;
+            update(slot, -1);
+        } else {
+            slot = allocateSlot();
+            slotById.put(id, slot);
+            ids[slot] = id;
+            names[slot] = name;
+            regions[slot] = region;
+        }
+        xs[slot] = x;
+        ys[slot] = y;
+        update(slot, 1);
+    }
+
+    /**
+     * Removes an entrant.
+     * @param id waiting list entry id
+     * @return true if the entrant was in the index
+     */
+    public boolean remove(String id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) return false;
+        update(slot, -1);
+        ids[slot] = null;
+        names[slot] = null;
+        regions[slot] = null;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    /**
+     * Removes an entrant if it was last put from {@code region}. An entrant that moved to
+     * another region may be added there before its old region reports it gone; this
+     * keeps that late removal from dropping it.
+     * @param id waiting list entry id
+     * @param region region reporting the removal
+     * @return true if the entrant was removed
+     */
+    public boolean remove(String id, @Nullable String region) {
+        Integer slot = slotById.get(id);
+        if (slot == null || !Objects.equals(regions[slot], region)) return false;
+        return remove(id);
+    }
+
+    /**
+     * Removes every entrant last put from a region, e.g. when it is no longer loaded.
+     * @param region region to drop
+     * @return number of entrants removed
+     */
+    public int removeRegion(String region) {
+        int removed = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (ids[slot] != null && region.equals(regions[slot])) {
+                remove(ids[slot]);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /** Removes every entrant. */
+    public void clear() {
+        for (CellTable cells : levels) {
+            cells.clear();
+        }
+        slotById.clear();
+        Arrays.fill(ids, 0, slots, null);
+        Arrays.fill(names, 0, slots, null);
+        Arrays.fill(regions, 0, slots, null);
+        slots = 0;
+        freeCount = 0;
+        sumX = 0;
+        sumY = 0;
+    }
+
+    /**
+     * @return one cluster holding every entrant, at their centroid, or null if the index
+     *         is empty
+     */
+    @Nullable
+    public Cluster all() {
+        int count = size();
+        if (count == 0) return null;
+        return new Cluster(latitude(sumY / count), longitude(sumX / count), count, null, null);
+    }
+
+    /**
+     * Returns the clusters in view at a zoom level. Cells overlapping the edge of the view
+     * are included, so markers don't pop in and out while panning.
+     * @param zoom map zoom level; fractions are rounded down
+     * @param north northern edge of the view, in degrees
+     * @param south southern edge of the view, in degrees
+     * @param east eastern edge of the view, in degrees
+     * @param west western edge of the view, in degrees; greater than {@code east} when
+     *             the view crosses the antimeridian
+     * @return clusters in no particular order
+     */
+    public List<Cluster> clusters(double zoom, double north, double south, double east, double west) {
+        int z = (int) Math.max(0, Math.min(MAX_ZOOM, Math.floor(zoom)));
+        int shift = MAX_ZOOM - z;
+        int cellsAcross = MAX_CELLS >> shift;
+        int minX = 0;
+        int maxX = cellsAcross - 1;
+        if (west <= east) {
+            minX = cell(projectX(west)) >> shift;
+            maxX = cell(projectX(east)) >> shift;
+        }
+        int minY = cell(projectY(north)) >> shift;
+        int maxY = cell(projectY(south)) >> shift;
+
+        CellTable cells = levels[z];
+        List<Cluster> result = new ArrayList<>();
+        long area = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (area <= cells.size()) {
+            // Small view at a deep zoom: look up each cell in it
+            for (int cx = minX; cx <= maxX; cx++) {
+                for (int cy = minY; cy <= maxY; cy++) {
+                    int i = cells.find(key(cx, cy));
+                    if (i >= 0) result.add(toCluster(cells, i));
+                }
+            }
+        } else {
+            for (int i = 0; i < cells.capacity(); i++) {
+                long k = cells.keyAt(i);
+                if (k < 0) continue;
+                int cx = (int) (k >>> 32);
+                int cy = (int) k;
+                if (cx >= minX && cx <= maxX && cy >= minY && cy <= maxY) {
+                    result.add(toCluster(cells, i));
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Adds ({@code sign} 1) or removes (-1) the point in {@code slot} at every level. */
+    private void update(int slot, int sign) {
+        double x = xs[slot];
+        double y = ys[slot];
+        int cx = cell(x);
+        int cy = cell(y);
+        sumX += sign * x;
+        sumY += sign * y;
+        for (int z = MAX_ZOOM; z >= 0; z--) {
+            int shift = MAX_ZOOM - z;
+            levels[z].update(key(cx >> shift, cy >> shift), x, y, slot, sign);
+        }
+    }
+
+    private Cluster toCluster(CellTable cells, int i) {
+        int count = cells.countAt(i);
+        if (count == 1) {
+            int slot = (int) cells.slotSumAt(i);
+            return new Cluster(latitude(ys[slot]), longitude(xs[slot]), 1, ids[slot], names[slot]);
+        }
+        return new Cluster(latitude(cells.sumYAt(i) / count), longitude(cells.sumXAt(i) / count),
+                count, null, null);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        if (slots == xs.length) {
+            int capacity = slots * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            regions = Arrays.copyOf(regions, capacity);
+        }
+        return slots++;
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    /** @return cell at {@link #MAX_ZOOM} holding the projected coordinate */
+    private static int cell(double projected) {
+        return (int) Math.max(0, Math.min(MAX_CELLS - 1, (long) (projected * MAX_CELLS)));
+    }
+
+    /** @return longitude as a fraction of the world's width, 0 at 180°W */
+    static double projectX(double longitude) {
+        return (longitude + 180.0) / 360.0;
+    }
+
+    /** @return latitude as a Web Mercator fraction of the world's height, 0 at the top */
+    static double projectY(double latitude) {
+        double lat = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        return 0.5 - Math.log(Math.tan(Math.PI / 4 + lat / 2)) / (2 * Math.PI);
+    }
+
+    private static double longitude(double x) {
+        return x * 360.0 - 180.0;
+    }
+
+    private static double latitude(double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * y))));
+    }
+}
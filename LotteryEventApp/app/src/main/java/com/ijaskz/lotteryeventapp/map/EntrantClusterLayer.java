@@ -0,0 +1,398 @@
+package com.ijaskz.lotteryeventapp.map;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.ijaskz.lotteryeventapp.util.Geohash;
+
+import org.osmdroid.events.DelayedMapListener;
+import org.osmdroid.events.MapListener;
+import org.osmdroid.events.ScrollEvent;
+import org.osmdroid.events.ZoomEvent;
+import org.osmdroid.util.BoundingBox;
+import org.osmdroid.util.GeoPoint;
+import org.osmdroid.views.MapView;
+import org.osmdroid.views.overlay.FolderOverlay;
+import org.osmdroid.views.overlay.Marker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shows a waiting list's entrant locations on a map as cluster markers with counts, reading
+ * only the entrants in view.
+ *
+ * <p>Entries store a {@link Geohash} of their location, so the area in view is a handful of
+ * geohash range queries. Zoomed in, when the view is covered by at most
+ * {@link #MAX_VIEW_CELLS} cells of {@link #DETAIL_PRECISION}, each cell's entries are
+ * listened to and kept in an {@link EntrantClusterIndex}; the most recently viewed
+ * {@link #MAX_LOADED_REGIONS} cells stay loaded, and older ones are dropped. Zoomed out,
+ * each coarser cell in view is one count and average-location aggregation query, shown
+ * as one cluster, so no entries are downloaded at all. Network reads and markers are
+ * bounded by the view, not by the size of the list.</p>
+ *
+ * <p>The Firestore listeners deliver document changes to a background thread that owns
+ * the index, so joining and leaving entrants update it without rereading anything. The
+ * clusters in view are computed there too, and the main thread only swaps the markers in
+ * this layer's overlay.</p>
+ */
+public class EntrantClusterLayer {
+
+    private static final String TAG = "EventViewMap";
+    /** Wait this long after the last scroll or zoom event before redrawing. */
+    private static final long REDRAW_DELAY_MS = 100;
+    /** Zoom levels a tap on a cluster zooms in by. */
+    private static final double CLUSTER_TAP_ZOOM = 2;
+    private static final long CLUSTER_TAP_ANIMATION_MS = 300;
+
+    /** Geohash length of the cells whose entries are loaded: about 5 km across. */
+    static final int DETAIL_PRECISION = 5;
+    /** Most geohash cells queried for one view. */
+    static final int MAX_VIEW_CELLS = 16;
+    /** Detail cells kept loaded, including those that have scrolled out of view. */
+    static final int MAX_LOADED_REGIONS = 32;
+    /** How long a zoomed-out cell's count is shown before it is queried again. */
+    private static final long SUMMARY_TTL_MS = 60_000;
+
+    /** A zoomed-out cell's aggregation result. */
+    private static final class Summary {
+        /** Null when the cell has no entrants. */
+        @Nullable final EntrantClusterIndex.Cluster cluster;
+        final long fetchedAt;
+
+        Summary(@Nullable EntrantClusterIndex.Cluster cluster, long fetchedAt) {
+            this.cluster = cluster;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    private final MapView mapView;
+    private final FolderOverlay overlay = new FolderOverlay();
+    private final Executor main;
+    /** Owns {@link #index}; nothing else touches it. */
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+    private final EntrantClusterIndex index = new EntrantClusterIndex();
+    private final LruCache<String, Drawable> icons = new LruCache<>(64);
+
+    /** Worker: detail cells whose listeners are live. */
+    private final Set<String> liveRegions = new HashSet<>();
+
+    // Main thread from here on
+    @Nullable private Query entrants;
+    @Nullable private OnFailureListener onFailure;
+    /** Listeners of loaded detail cells, least recently viewed first. */
+    private final LinkedHashMap<String, ListenerRegistration> loadedRegions =
+            new LinkedHashMap<String, ListenerRegistration>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ListenerRegistration> eldest) {
+                    if (size() <= MAX_LOADED_REGIONS) return false;
+                    unload(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+            };
+    private final Map<String, Summary> summaries = new HashMap<>();
+    private final Set<String> summariesLoading = new HashSet<>();
+    /** Zoomed-out cells in view, or null when zoomed in. */
+    @Nullable private List<String> summaryCells;
+    /** Incremented per redraw, so an older result arriving late is dropped. */
+    private int generation;
+    /** Whether the map has been centered on the entrants. */
+    private boolean centered;
+    private boolean failureReported;
+    private boolean detached;
+
+    /**
+     * Adds the layer's overlay to the map.
+     * @param mapView map to draw on
+     */
+    public EntrantClusterLayer(MapView mapView) {
+        this.mapView = mapView;
+        this.main = ContextCompat.getMainExecutor(mapView.getContext());
+        mapView.getOverlays().add(overlay);
+        mapView.addMapListener(new DelayedMapListener(new MapListener() {
+            @Override
+            public boolean onScroll(ScrollEvent event) {
+                redraw();
+                return false;
+            }
+
+            @Override
+            public boolean onZoom(ZoomEvent event) {
+                redraw();
+                return false;
+            }
+        }, REDRAW_DELAY_MS));
+    }
+
+    /**
+     * Shows the entries of a waiting list query, kept up to date as the view moves and as
+     * entries change. Entries without a location are left off the map. Centers the map on
+     * the entrants first.
+     * @param entrants waiting_list documents to show, e.g. one event's
+     * @param onFailure told if loading fails
+     */
+    public void listen(Query entrants, OnFailureListener onFailure) {
+        unloadAll();
+        this.entrants = entrants;
+        this.onFailure = onFailure;
+        summarize(entrants, summary -> {
+            if (!centered && summary != null) {
+                centered = true;
+                centerOn(summary);
+            }
+            redraw();
+        });
+    }
+
+    /** Stops listening and removes the layer from the map. */
+    public void detach() {
+        detached = true;
+        unloadAll();
+        worker.shutdownNow();
+        mapView.getOverlays().remove(overlay);
+        icons.evictAll();
+    }
+
+    /** Centers on the entrants, closer in when there are only a few. */
+    private void centerOn(EntrantClusterIndex.Cluster all) {
+        mapView.getController().setCenter(new GeoPoint(all.getLatitude(), all.getLongitude()));
+        if (all.getCount() == 1) {
+            mapView.getController().setZoom(15.0);
+        } else if (all.getCount() < 5) {
+            mapView.getController().setZoom(12.0);
+        } else {
+            mapView.getController().setZoom(10.0);
+        }
+    }
+
+    /**
+     * Loads what the view needs: detail cells when zoomed in, cell counts when zoomed out.
+     * Then replaces the markers.
+     */
+    private void redraw() {
+        if (detached || entrants == null) return;
+        int redraw = ++generation;
+        double zoom = mapView.getZoomLevelDouble();
+        BoundingBox box = mapView.getBoundingBox();
+        double north = box.getLatNorth();
+        double south = box.getLatSouth();
+        double east = box.getLonEast();
+        double west = box.getLonWest();
+        int precision = Geohash.precisionFor(north, south, east, west, MAX_VIEW_CELLS);
+
+        if (precision < DETAIL_PRECISION) {
+            summaryCells = Geohash.cover(north, south, east, west, precision);
+            showSummaries();
+            return;
+        }
+        summaryCells = null;
+        for (String region : Geohash.cover(north, south, east, west, DETAIL_PRECISION)) {
+            load(region);
+        }
+        worker.execute(() -> {
+            List<EntrantClusterIndex.Cluster> clusters = index.clusters(zoom, north, south, east, west);
+            main.execute(() -> {
+                if (!detached && redraw == generation) show(clusters);
+            });
+        });
+    }
+
+    /** Starts listening to a detail cell's entries, unless it is already loaded. */
+    private void load(String region) {
+        if (loadedRegions.get(region) != null) return;
+        // Runs on the worker before any of the listener's snapshots
+        worker.execute(() -> liveRegions.add(region));
+        loadedRegions.put(region, inRegion(entrants, region).addSnapshotListener(worker, (snap, e) -> {
+            if (e != null) {
+                Log.e(TAG, "Failed to load locations: " + e.getMessage());
+                main.execute(() -> reportFailure(e));
+                return;
+            }
+            if (snap == null || !liveRegions.contains(region) || snap.getDocumentChanges().isEmpty()) return;
+            for (DocumentChange change : snap.getDocumentChanges()) {
+                DocumentSnapshot doc = change.getDocument();
+                Double lat = doc.getDouble("latitude");
+                Double lon = doc.getDouble("longitude");
+                if (change.getType() == DocumentChange.Type.REMOVED || lat == null || lon == null) {
+                    index.remove(doc.getId(), region);
+                } else {
+                    index.put(doc.getId(), lat, lon, doc.getString("entrant_name"), region);
+                }
+            }
+            main.execute(this::redraw);
+        }));
+    }
+
+    /** Stops listening to a detail cell and drops its entries from the index. */
+    private void unload(String region, ListenerRegistration registration) {
+        registration.remove();
+        if (!worker.isShutdown()) {
+            worker.execute(() -> {
+                liveRegions.remove(region);
+                index.removeRegion(region);
+            });
+        }
+    }
+
+    private void unloadAll() {
+        for (Map.Entry<String, ListenerRegistration> e : loadedRegions.entrySet()) {
+            unload(e.getKey(), e.getValue());
+        }
+        loadedRegions.clear();
+        summaries.clear();
+        summaryCells = null;
+    }
+
+    /** Shows the counts of the zoomed-out cells in view, querying any not yet known. */
+    private void showSummaries() {
+        List<String> cells = summaryCells;
+        if (cells == null || entrants == null) return;
+        long now = System.currentTimeMillis();
+        List<EntrantClusterIndex.Cluster> clusters = new ArrayList<>();
+        for (String cell : cells) {
+            Summary summary = summaries.get(cell);
+            if (summary != null && now - summary.fetchedAt < SUMMARY_TTL_MS) {
+                if (summary.cluster != null) clusters.add(summary.cluster);
+            } else if (summariesLoading.add(cell)) {
+                summarize(inRegion(entrants, cell), cluster -> {
+                    summariesLoading.remove(cell);
+                    summaries.put(cell, new Summary(cluster, System.currentTimeMillis()));
+                    if (summaryCells != null && summaryCells.contains(cell)) showSummaries();
+                });
+            }
+        }
+        show(clusters);
+    }
+
+    /** Receives an aggregation result on the main thread. */
+    private interface SummaryCallback {
+        /**
+         * @param summary count and average location, or null if there are no entrants
+         *                with a location
+         */
+        void onSummary(@Nullable EntrantClusterIndex.Cluster summary);
+    }
+
+    /**
+     * Counts a query's entries and averages their location on the server, reading no
+     * documents.
+     */
+    private void summarize(Query query, SummaryCallback callback) {
+        AggregateField.AverageAggregateField avgLat = AggregateField.average("latitude");
+        AggregateField.AverageAggregateField avgLon = AggregateField.average("longitude");
+        query.aggregate(AggregateField.count(), avgLat, avgLon)
+                .get(AggregateSource.SERVER)
+                .addOnSuccessListener(snap -> {
+                    if (detached) return;
+                    Double lat = snap.get(avgLat);
+                    Double lon = snap.get(avgLon);
+                    long count = snap.getCount();
+                    callback.onSummary(count > 0 && lat != null && lon != null
+                            ? new EntrantClusterIndex.Cluster(lat, lon, (int) count, null, null)
+                            : null);
+                })
+                .addOnFailureListener(e -> {
+                    Log.e(TAG, "Failed to count locations: " + e.getMessage());
+                    if (detached) return;
+                    callback.onSummary(null);
+                    reportFailure(e);
+                });
+    }
+
+    /** Tells the listener about the first failure only, rather than once per cell. */
+    private void reportFailure(Exception e) {
+        if (detached || failureReported || onFailure == null) return;
+        failureReported = true;
+        onFailure.onFailure(e);
+    }
+
+    /**
+     * Narrows a waiting list query to one geohash cell. With an event_id filter this needs
+     * the (event_id, geohash) index in firestore.indexes.json.
+     * @param query waiting_list query
+     * @param prefix geohash of the cell; empty for every entry with a geohash
+     * @return the query's entries whose geohash starts with {@code prefix}
+     */
+    public static Query inRegion(Query query, String prefix) {
+        return query.whereGreaterThanOrEqualTo("geohash", prefix)
+                .whereLessThan("geohash", prefix + Geohash.RANGE_END);
+    }
+
+    private void show(List<EntrantClusterIndex.Cluster> clusters) {
+        overlay.getItems().clear();
+        for (EntrantClusterIndex.Cluster cluster : clusters) {
+            Marker marker = new Marker(mapView);
+            marker.setPosition(new GeoPoint(cluster.getLatitude(), cluster.getLongitude()));
+            if (cluster.getCount() == 1) {
+                marker.setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_BOTTOM);
+                String name = cluster.getName();
+                marker.setTitle(name != null && !name.isEmpty() ? name : "Entrant");
+            } else {
+                marker.setAnchor(Marker.ANCHOR_CENTER, Marker.ANCHOR_CENTER);
+                marker.setIcon(icon(cluster.getCount()));
+                marker.setTitle(cluster.getCount() + " entrants");
+                marker.setOnMarkerClickListener(new Marker.OnMarkerClickListener() {
+                    @Override
+                    public boolean onMarkerClick(Marker m, MapView map) {
+                        map.getController().animateTo(m.getPosition(),
+                                map.getZoomLevelDouble() + CLUSTER_TAP_ZOOM, CLUSTER_TAP_ANIMATION_MS);
+                        return true;
+                    }
+                });
+            }
+            overlay.add(marker);
+        }
+        mapView.invalidate();
+    }
+
+    /** @return a circle with the cluster's count, shared by clusters with the same label */
+    private Drawable icon(int count) {
+        String label = count < 1000 ? String.valueOf(count) : (count / 1000) + "k";
+        Drawable cached = icons.get(label);
+        if (cached != null) return cached;
+
+        Resources res = mapView.getResources();
+        float density = res.getDisplayMetrics().density;
+        int size = (int) ((label.length() <= 2 ? 32 : 40) * density);
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(Color.parseColor("#CC1565C0"));
+        canvas.drawCircle(size / 2f, size / 2f, size / 2f, paint);
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(13 * density);
+        paint.setTextAlign(Paint.Align.CENTER);
+        paint.setFakeBoldText(true);
+        float baseline = size / 2f - (paint.descent() + paint.ascent()) / 2;
+        canvas.drawText(label, size / 2f, baseline, paint);
+
+        Drawable drawable = new BitmapDrawable(res, bitmap);
+        icons.put(label, drawable);
+        return drawable;
+    }
+}
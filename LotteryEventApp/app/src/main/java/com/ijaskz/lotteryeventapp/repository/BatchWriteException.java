@@ -0,0 +1,20 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+/**
+ * Reports that some chunks of a chunked write could not be committed.
+ * The other chunks were committed; {@link #getResult()} says which is which.
+ */
+public class BatchWriteException extends Exception {
+
+    private final ChunkedBatchWriter.BatchResult<?> result;
+
+    public BatchWriteException(ChunkedBatchWriter.BatchResult<?> result) {
+        super(result.getFailedItems().size() + " of the writes failed", result.getFirstError());
+        this.result = result;
+    }
+
+    /** @return per-chunk outcome of the write */
+    public ChunkedBatchWriter.BatchResult<?> getResult() {
+        return result;
+    }
+}
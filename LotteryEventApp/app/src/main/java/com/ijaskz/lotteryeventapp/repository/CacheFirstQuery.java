@@ -0,0 +1,141 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.Source;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Reads a query from the device first, then brings it up to date from the server, so a
+ * screen can show what it showed last time within milliseconds of starting.
+ *
+ * <p>Firestore keeps every document the app has read in its on-disk cache, which is the
+ * local mirror: no second copy is kept. A load answers from that cache, then syncs
+ * incrementally. Documents carry a time field that writers bump ("updated_at" on waiting
+ * list entries, "createdAt" on notifications), and the newest value in the cache is the
+ * watermark. Only documents past it, less {@link #OVERLAP_MS} for writers' clock skew, are
+ * read from the server; they land in the cache, and the cache is read again.</p>
+ *
+ * <p>A watermark query cannot see deletions, so the first load of a query in each app
+ * process, and any load {@link #FULL_SYNC_INTERVAL_MS} after the last full one, reads the
+ * whole query from the server instead.</p>
+ */
+public class CacheFirstQuery {
+
+    /** How far before the watermark the incremental read starts. */
+    static final long OVERLAP_MS = 10 * 60_000;
+    /** Longest time between full reads of a query. */
+    static final long FULL_SYNC_INTERVAL_MS = 30 * 60_000;
+
+    /** When each query was last read in full, by {@link #key}; per process. */
+    private static final Map<String, Long> lastFullSync = new ConcurrentHashMap<>();
+
+    /**
+     * Receives a load's results, once or twice.
+     */
+    public interface Listener {
+        /**
+         * @param docs the query's documents
+         * @param fromCache true for the first, cached answer; false once synced
+         */
+        void onLoaded(List<DocumentSnapshot> docs, boolean fromCache);
+
+        /**
+         * Called if the server could not be reached and there was nothing cached to show.
+         */
+        void onError(Exception e);
+    }
+
+    private final Query query;
+    private final String timeField;
+    private final String key;
+    private final LongSupplier clock;
+
+    /**
+     * @param query the query to load, without a filter or order on {@code timeField}
+     * @param timeField field holding the document's last write time in epoch millis; the
+     *                  query's filters plus this field need a composite index
+     * @param key identifies the query across loads, e.g. "waiting_list/entrant/&lt;id&gt;"
+     */
+    public CacheFirstQuery(Query query, String timeField, String key) {
+        this(query, timeField, key, System::currentTimeMillis);
+    }
+
+    CacheFirstQuery(Query query, String timeField, String key, LongSupplier clock) {
+        this.query = query;
+        this.timeField = timeField;
+        this.key = key;
+        this.clock = clock;
+    }
+
+    /**
+     * Shows the cached documents, if there are any, then the synced ones.
+     * @param listener receives the results
+     */
+    public void load(Listener listener) {
+        query.get(Source.CACHE)
+                .addOnSuccessListener(cached -> {
+                    List<DocumentSnapshot> docs = cached.getDocuments();
+                    if (!docs.isEmpty()) listener.onLoaded(docs, true);
+                    sync(watermark(docs, timeField), !docs.isEmpty(), listener);
+                })
+                // Nothing cached for this query yet
+                .addOnFailureListener(e -> sync(0, false, listener));
+    }
+
+    /** Forgets when every query was last read in full, e.g. after signing out. */
+    public static void resetFullSyncs() {
+        lastFullSync.clear();
+    }
+
+    private void sync(long watermark, boolean shown, Listener listener) {
+        long now = clock.getAsLong();
+        boolean full = needsFullSync(watermark, lastFullSync.get(key), now);
+        Query read = full ? query : query.whereGreaterThan(timeField, watermark - OVERLAP_MS);
+        read.get(Source.SERVER)
+                .addOnSuccessListener(snap -> {
+                    if (full) {
+                        lastFullSync.put(key, now);
+                        listener.onLoaded(snap.getDocuments(), false);
+                    } else if (!snap.isEmpty() || !shown) {
+                        // The changed documents are in the cache now; read it with them
+                        query.get(Source.CACHE)
+                                .addOnSuccessListener(merged -> listener.onLoaded(merged.getDocuments(), false))
+                                .addOnFailureListener(listener::onError);
+                    }
+                })
+                .addOnFailureListener(e -> {
+                    // Offline: what was cached stays on screen
+                    if (!shown) listener.onError(e);
+                });
+    }
+
+    /**
+     * @param watermark newest time in the cache; 0 if nothing is cached
+     * @param lastFull when the query was last read in full this process; null if never
+     * @return true if the whole query should be read from the server
+     */
+    static boolean needsFullSync(long watermark, @Nullable Long lastFull, long now) {
+        return watermark <= 0 || lastFull == null || now - lastFull >= FULL_SYNC_INTERVAL_MS;
+    }
+
+    /** @return the newest {@code field} among the documents, in millis; 0 if none */
+    static long watermark(List<DocumentSnapshot> docs, String field) {
+        long newest = 0;
+        for (DocumentSnapshot doc : docs) {
+            newest = Math.max(newest, toMillis(doc.get(field)));
+        }
+        return newest;
+    }
+
+    /** @return a field value as epoch millis; 0 if it is missing or not a number */
+    static long toMillis(@Nullable Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,280 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits a large write into bounded chunks and commits them with limited parallelism.
+ *
+ * <p>Firestore rejects a {@code WriteBatch} with more than {@value #MAX_CHUNK_SIZE} writes, so a
+ * lottery over a big waiting list cannot be written as one batch. This class hands each chunk
+ * to a {@link ChunkCommitter} (which builds and commits one batch), keeps at most
+ * {@code parallelism} chunks in flight, retries failed chunks with exponential backoff and
+ * jitter, and reports every chunk's outcome. Each chunk is atomic on its own; the write as a
+ * whole is not.</p>
+ *
+ * @param <T> the item written per document (e.g. a document id)
+ */
+public class ChunkedBatchWriter<T> {
+
+    /** Firestore's limit on writes per batch. */
+    public static final int MAX_CHUNK_SIZE = 500;
+
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final int DEFAULT_MAX_ATTEMPTS = 4;
+    public static final long DEFAULT_INITIAL_BACKOFF_MS = 250;
+    private static final long MAX_BACKOFF_MS = 8_000;
+
+    private static ScheduledExecutorService sharedScheduler;
+
+    private final ChunkCommitter<T> committer;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a writer with full-size chunks and the default parallelism and retry settings.
+     * @param committer commits one chunk
+     */
+    public ChunkedBatchWriter(ChunkCommitter<T> committer) {
+        this(committer, MAX_CHUNK_SIZE, DEFAULT_PARALLELISM, DEFAULT_MAX_ATTEMPTS,
+                DEFAULT_INITIAL_BACKOFF_MS, sharedScheduler());
+    }
+
+    /**
+     * Creates a writer with the default parallelism and retry settings.
+     * @param committer commits one chunk
+     * @param chunkSize items per chunk, clamped to [1, {@value #MAX_CHUNK_SIZE}]; use less
+     *                  than the maximum when the committer adds extra writes per chunk
+     */
+    public ChunkedBatchWriter(ChunkCommitter<T> committer, int chunkSize) {
+        this(committer, chunkSize, DEFAULT_PARALLELISM, DEFAULT_MAX_ATTEMPTS,
+                DEFAULT_INITIAL_BACKOFF_MS, sharedScheduler());
+    }
+
+    /**
+     * @param committer commits one chunk
+     * @param chunkSize items per chunk, clamped to [1, {@value #MAX_CHUNK_SIZE}]
+     * @param parallelism maximum number of chunks committing at the same time
+     * @param maxAttempts attempts per chunk, including the first one
+     * @param initialBackoffMs delay before the first retry; doubled on each further retry
+     * @param scheduler runs delayed retries
+     */
+    public ChunkedBatchWriter(ChunkCommitter<T> committer, int chunkSize, int parallelism,
+                              int maxAttempts, long initialBackoffMs,
+                              ScheduledExecutorService scheduler) {
+        this.committer = committer;
+        this.chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, chunkSize));
+        this.parallelism = Math.max(1, parallelism);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(0, initialBackoffMs);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Writes all items. {@code listener.onComplete} is called exactly once, after every chunk
+     * has either succeeded or used up its attempts.
+     * @param items items to write, in order
+     * @param listener receives per-chunk results and the final result
+     */
+    public void write(List<T> items, OnBatchListener<T> listener) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            chunks.add(new ArrayList<>(items.subList(from, Math.min(items.size(), from + chunkSize))));
+        }
+        if (chunks.isEmpty()) {
+            listener.onComplete(new BatchResult<>(Collections.<ChunkResult<T>>emptyList()));
+            return;
+        }
+        Run run = new Run(chunks, listener);
+        for (int i = 0; i < Math.min(parallelism, chunks.size()); i++) {
+            run.startNext();
+        }
+    }
+
+    /** State of one {@link #write} call. */
+    private final class Run {
+        private final List<List<T>> chunks;
+        private final OnBatchListener<T> listener;
+        private final AtomicInteger nextChunk = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final List<ChunkResult<T>> results;
+
+        Run(List<List<T>> chunks, OnBatchListener<T> listener) {
+            this.chunks = chunks;
+            this.listener = listener;
+            this.remaining = new AtomicInteger(chunks.size());
+            this.results = new ArrayList<>(Collections.<ChunkResult<T>>nCopies(chunks.size(), null));
+        }
+
+        void startNext() {
+            int index = nextChunk.getAndIncrement();
+            if (index < chunks.size()) {
+                attempt(index, 1);
+            }
+        }
+
+        void attempt(int index, int attempt) {
+            List<T> chunk = chunks.get(index);
+            try {
+                committer.commit(chunk, new WaitingListRepository.OnWriteListener() {
+                    @Override
+                    public void onSuccess() {
+                        finish(new ChunkResult<>(index, chunk, attempt, null));
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        retryOrFail(index, attempt, e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                retryOrFail(index, attempt, e);
+            }
+        }
+
+        void retryOrFail(int index, int attempt, Exception e) {
+            if (attempt >= maxAttempts || !committer.isRetryable(e)) {
+                finish(new ChunkResult<>(index, chunks.get(index), attempt, e));
+                return;
+            }
+            scheduler.schedule(() -> attempt(index, attempt + 1), backoffMs(attempt), TimeUnit.MILLISECONDS);
+        }
+
+        void finish(ChunkResult<T> result) {
+            synchronized (results) {
+                results.set(result.getIndex(), result);
+            }
+            listener.onChunkComplete(result);
+            if (remaining.decrementAndGet() == 0) {
+                List<ChunkResult<T>> done;
+                synchronized (results) {
+                    done = new ArrayList<>(results);
+                }
+                listener.onComplete(new BatchResult<>(done));
+            } else {
+                startNext();
+            }
+        }
+    }
+
+    /** Exponential backoff with "equal jitter": half fixed, half random. */
+    private long backoffMs(int attempt) {
+        long delay = Math.min(MAX_BACKOFF_MS, initialBackoffMs << Math.min(20, attempt - 1));
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private static synchronized ScheduledExecutorService sharedScheduler() {
+        if (sharedScheduler == null) {
+            sharedScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "batch-writer-retry");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return sharedScheduler;
+    }
+
+    /**
+     * Commits one chunk as a single atomic batch. Every attempt at a chunk is given the same
+     * list instance.
+     */
+    public interface ChunkCommitter<T> {
+        void commit(List<T> chunk, WaitingListRepository.OnWriteListener listener);
+
+        /**
+         * Whether a failed chunk is worth retrying. Defaults to always; committers should
+         * return false for permanent errors, and for errors after which the chunk may have
+         * been applied unless its writes can safely be applied twice.
+         */
+        default boolean isRetryable(Exception e) {
+            return true;
+        }
+    }
+
+    /** Receives progress and the final outcome of a {@link #write} call. */
+    public interface OnBatchListener<T> {
+        /** Called once per chunk, after it succeeds or runs out of attempts. */
+        default void onChunkComplete(ChunkResult<T> chunk) { }
+
+        /** Called once, after every chunk has completed. */
+        void onComplete(BatchResult<T> result);
+    }
+
+    /** Outcome of one chunk. */
+    public static final class ChunkResult<T> {
+        private final int index;
+        private final List<T> items;
+        private final int attempts;
+        @Nullable private final Exception error;
+
+        ChunkResult(int index, List<T> items, int attempts, @Nullable Exception error) {
+            this.index = index;
+            this.items = items;
+            this.attempts = attempts;
+            this.error = error;
+        }
+
+        /** @return position of the chunk in the write, starting at 0 */
+        public int getIndex() { return index; }
+
+        /** @return the items in this chunk */
+        public List<T> getItems() { return items; }
+
+        /** @return number of commit attempts made */
+        public int getAttempts() { return attempts; }
+
+        /** @return the last error, or null if the chunk was committed */
+        @Nullable public Exception getError() { return error; }
+
+        public boolean isSuccess() { return error == null; }
+    }
+
+    /** Outcome of a whole {@link #write} call. */
+    public static final class BatchResult<T> {
+        private final List<ChunkResult<T>> chunks;
+
+        BatchResult(List<ChunkResult<T>> chunks) {
+            this.chunks = Collections.unmodifiableList(chunks);
+        }
+
+        /** @return every chunk's result, in chunk order */
+        public List<ChunkResult<T>> getChunks() { return chunks; }
+
+        /** @return true if every chunk was committed */
+        public boolean isSuccess() {
+            for (ChunkResult<T> c : chunks) {
+                if (!c.isSuccess()) return false;
+            }
+            return true;
+        }
+
+        /** @return items from chunks that could not be committed */
+        public List<T> getFailedItems() {
+            List<T> failed = new ArrayList<>();
+            for (ChunkResult<T> c : chunks) {
+                if (!c.isSuccess()) failed.addAll(c.getItems());
+            }
+            return failed;
+        }
+
+        /** @return the first chunk error, or null if all chunks succeeded */
+        @Nullable public Exception getFirstError() {
+            for (ChunkResult<T> c : chunks) {
+                if (!c.isSuccess()) return c.getError();
+            }
+            return null;
+        }
+    }
+}
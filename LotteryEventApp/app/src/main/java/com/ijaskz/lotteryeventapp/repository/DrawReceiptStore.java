@@ -0,0 +1,103 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.ijaskz.lotteryeventapp.service.DrawLedger;
+import com.ijaskz.lotteryeventapp.service.DrawReceipt;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link DrawLedger} that keeps lottery draw commitments and receipts in Firestore.
+ *
+ * <p>The event document keeps the last round claimed ("draw_round"). Each round's receipt
+ * lives at {@code events/{event_id}/draw_receipts/{round}}: it is created holding only the
+ * seed hash and the server time of the commitment, and the seed and winners are added when
+ * the draw is revealed. No seed is stored anywhere before its draw is revealed.</p>
+ */
+public class DrawReceiptStore implements DrawLedger {
+
+    private final FirebaseFirestore db;
+
+    public DrawReceiptStore() {
+        this(FirebaseFirestore.getInstance());
+    }
+
+    public DrawReceiptStore(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    private DocumentReference eventDoc(String eventId) {
+        return db.collection("events").document(eventId);
+    }
+
+    private DocumentReference receiptDoc(String eventId, int round) {
+        return eventDoc(eventId).collection("draw_receipts").document(String.valueOf(round));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Claims the round and creates its receipt in one transaction, so two draws running
+     * at the same time never share a round. The salt is the commitment's server timestamp,
+     * read back from the server once it is written.</p>
+     */
+    @Override
+    public void commit(String eventId, String seedHash, OnCommittedListener listener) {
+        DocumentReference event = eventDoc(eventId);
+        db.runTransaction(tx -> {
+            DocumentSnapshot snap = tx.get(event);
+            if (!snap.exists()) {
+                throw new FirebaseFirestoreException("No event with id " + eventId,
+                        FirebaseFirestoreException.Code.NOT_FOUND);
+            }
+            Long last = snap.getLong("draw_round");
+            int round = last != null ? last.intValue() + 1 : 0;
+
+            Map<String, Object> commitment = new HashMap<>();
+            commitment.put("event_id", eventId);
+            commitment.put("round", round);
+            commitment.put("seed_hash", seedHash);
+            commitment.put("committed_at", FieldValue.serverTimestamp());
+            tx.update(event, "draw_round", round);
+            tx.set(receiptDoc(eventId, round), commitment);
+            return round;
+        }).addOnSuccessListener(round -> receiptDoc(eventId, round).get(Source.SERVER)
+                .addOnSuccessListener(doc -> {
+                    Timestamp committedAt = doc.getTimestamp("committed_at");
+                    if (committedAt == null) {
+                        listener.onError(new IllegalStateException("Draw commitment has no server time"));
+                        return;
+                    }
+                    listener.onCommitted(round, salt(committedAt));
+                })
+                .addOnFailureListener(listener::onError))
+          .addOnFailureListener(listener::onError);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Merges the receipt into the round's document, keeping the commitment's fields.</p>
+     */
+    @Override
+    public void reveal(DrawReceipt receipt, OnRevealedListener listener) {
+        receiptDoc(receipt.getEvent_id(), receipt.getRound())
+                .set(receipt, SetOptions.merge())
+                .addOnSuccessListener(aVoid -> listener.onRevealed())
+                .addOnFailureListener(listener::onError);
+    }
+
+    /** @return the timestamp as "seconds.nanoseconds", with nine digits of nanoseconds */
+    static String salt(Timestamp committedAt) {
+        return String.format(Locale.ROOT, "%d.%09d", committedAt.getSeconds(), committedAt.getNanoseconds());
+    }
+}
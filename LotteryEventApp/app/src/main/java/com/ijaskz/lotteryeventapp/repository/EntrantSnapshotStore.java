@@ -0,0 +1,396 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * One event's waiting list, kept in memory by a single snapshot listener and shared by
+ * every view of the organizer screen (entrant list, waiting list dialog and export),
+ * so opening the screen costs one read stream instead of a full download per view.
+ *
+ * <p>Only the fields those views use are kept: name, email, status, location and join
+ * time. They are held in parallel arrays per status ({@link StatusColumns}) rather than as
+ * documents or {@link WaitingListEntry} objects, so the list costs a few array slots per
+ * entrant, and a status section is one array to walk.</p>
+ *
+ * <p>Snapshot documents are read into {@link Change}s on a background thread. The changes
+ * are applied, and listeners told, on the callback executor (e.g. the main thread), which
+ * is the only thread that may read the store.</p>
+ */
+public class EntrantSnapshotStore {
+
+    /** Status stored for entries without one, as the organizer views treat them. */
+    public static final String DEFAULT_STATUS = "waiting";
+
+    /**
+     * One entry added, changed or removed, as read from a snapshot.
+     */
+    public static final class Change {
+        private final String id;
+        private final boolean removed;
+        @Nullable private final String name;
+        @Nullable private final String email;
+        private final String status;
+        private final double latitude;
+        private final double longitude;
+        private final long joinedAt;
+
+        private Change(String id, boolean removed, @Nullable String name, @Nullable String email,
+                       @Nullable String status, double latitude, double longitude, long joinedAt) {
+            this.id = id;
+            this.removed = removed;
+            this.name = name;
+            this.email = email;
+            this.status = status != null ? status : DEFAULT_STATUS;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.joinedAt = joinedAt;
+        }
+
+        /**
+         * @param latitude latitude, or null if the entry has no location
+         * @param longitude longitude, or null if the entry has no location
+         * @return an added or changed entry
+         */
+        public static Change put(String id, @Nullable String name, @Nullable String email,
+                                 @Nullable String status, @Nullable Double latitude,
+                                 @Nullable Double longitude, long joinedAt) {
+            boolean located = latitude != null && longitude != null;
+            return new Change(id, false, name, email, status,
+                    located ? latitude : Double.NaN, located ? longitude : Double.NaN, joinedAt);
+        }
+
+        /** @return a removed entry */
+        public static Change removed(String id) {
+            return new Change(id, true, null, null, null, Double.NaN, Double.NaN, 0);
+        }
+
+        /** @return waiting list document id */
+        public String getId() { return id; }
+
+        /** @return true if the entry left the list */
+        public boolean isRemoved() { return removed; }
+
+        @Nullable
+        public String getName() { return name; }
+
+        @Nullable
+        public String getEmail() { return email; }
+
+        public String getStatus() { return status; }
+
+        /** @return true if the entry has a latitude and longitude */
+        public boolean hasLocation() { return !Double.isNaN(latitude); }
+
+        public double getLatitude() { return latitude; }
+
+        public double getLongitude() { return longitude; }
+
+        public long getJoinedAt() { return joinedAt; }
+    }
+
+    /**
+     * Told about changes after they are applied, on the callback executor.
+     */
+    public interface Listener {
+        /**
+         * @param changes the changes just applied; empty for the first, empty snapshot
+         */
+        void onEntrantsChanged(List<Change> changes);
+    }
+
+    /**
+     * The entrants with one status, column by column: row {@code i} of every column is one
+     * entrant. Rows are in no particular order; see {@link #rowsByJoinTime()}.
+     */
+    public static final class StatusColumns {
+        private final String status;
+        private final Map<String, Integer> rowById = new HashMap<>();
+        private String[] ids = new String[8];
+        private String[] names = new String[8];
+        private String[] emails = new String[8];
+        private double[] latitudes = new double[8];
+        private double[] longitudes = new double[8];
+        private long[] joinedAt = new long[8];
+        private int size;
+
+        StatusColumns(String status) {
+            this.status = status;
+        }
+
+        public String getStatus() { return status; }
+
+        public int size() { return size; }
+
+        public String id(int row) { return ids[row]; }
+
+        @Nullable
+        public String name(int row) { return names[row]; }
+
+        @Nullable
+        public String email(int row) { return emails[row]; }
+
+        public boolean hasLocation(int row) { return !Double.isNaN(latitudes[row]); }
+
+        /** @return latitude, or NaN if the entrant has no location */
+        public double latitude(int row) { return latitudes[row]; }
+
+        /** @return longitude, or NaN if the entrant has no location */
+        public double longitude(int row) { return longitudes[row]; }
+
+        public long joinedAt(int row) { return joinedAt[row]; }
+
+        /** @return row numbers, earliest to join first */
+        public int[] rowsByJoinTime() {
+            Integer[] rows = new Integer[size];
+            for (int i = 0; i < size; i++) rows[i] = i;
+            Arrays.sort(rows, (a, b) -> {
+                int c = Long.compare(joinedAt[a], joinedAt[b]);
+                return c != 0 ? c : ids[a].compareTo(ids[b]);
+            });
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) order[i] = rows[i];
+            return order;
+        }
+
+        /**
+         * @return a copy of the rows, which later changes to the store do not affect. Only
+         *         the arrays are copied, with no object per entrant, so it is cheap enough
+         *         for the main thread.
+         */
+        public StatusColumns copy() {
+            StatusColumns copy = new StatusColumns(status);
+            copy.ids = Arrays.copyOf(ids, size);
+            copy.names = Arrays.copyOf(names, size);
+            copy.emails = Arrays.copyOf(emails, size);
+            copy.latitudes = Arrays.copyOf(latitudes, size);
+            copy.longitudes = Arrays.copyOf(longitudes, size);
+            copy.joinedAt = Arrays.copyOf(joinedAt, size);
+            copy.size = size;
+            return copy;
+        }
+
+        /**
+         * @return a {@link WaitingListEntry} holding the row's stored fields, e.g. for an export
+         */
+        public WaitingListEntry toEntry(int row) {
+            WaitingListEntry entry = new WaitingListEntry();
+            entry.setId(ids[row]);
+            entry.setEntrant_name(names[row]);
+            entry.setEntrant_email(emails[row]);
+            entry.setStatus(status);
+            entry.setJoined_at(joinedAt[row]);
+            if (hasLocation(row)) {
+                entry.setLatitude(latitudes[row]);
+                entry.setLongitude(longitudes[row]);
+            }
+            return entry;
+        }
+
+        private void put(Change c) {
+            Integer existing = rowById.get(c.id);
+            int row;
+            if (existing != null) {
+                row = existing;
+            } else {
+                if (size == ids.length) grow();
+                row = size++;
+                rowById.put(c.id, row);
+                ids[row] = c.id;
+            }
+            names[row] = c.name;
+            emails[row] = c.email;
+            latitudes[row] = c.latitude;
+            longitudes[row] = c.longitude;
+            joinedAt[row] = c.joinedAt;
+        }
+
+        /** Removes a row by moving the last row into its place. */
+        private boolean remove(String id) {
+            Integer row = rowById.remove(id);
+            if (row == null) return false;
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                names[row] = names[last];
+                emails[row] = emails[last];
+                latitudes[row] = latitudes[last];
+                longitudes[row] = longitudes[last];
+                joinedAt[row] = joinedAt[last];
+                rowById.put(ids[row], row);
+            }
+            ids[last] = null;
+            names[last] = null;
+            emails[last] = null;
+            return true;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            emails = Arrays.copyOf(emails, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            joinedAt = Arrays.copyOf(joinedAt, capacity);
+        }
+    }
+
+    /** Columns by status, in the order statuses were first seen. */
+    private final Map<String, StatusColumns> byStatus = new LinkedHashMap<>();
+    private final Map<String, StatusColumns> columnsById = new HashMap<>();
+    private final List<Listener> listeners = new ArrayList<>();
+    private boolean loaded;
+
+    @Nullable private ListenerRegistration registration;
+    @Nullable private ExecutorService reader;
+
+    /**
+     * Starts the snapshot listener. Does nothing if it is already running.
+     * @param entrants the event's waiting_list query
+     * @param callbacks applies changes and runs listeners, e.g. the main thread's executor
+     * @param onFailure told on the callback executor if the listener fails
+     */
+    public void attach(Query entrants, Executor callbacks, OnFailureListener onFailure) {
+        if (registration != null) return;
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        reader = worker;
+        registration = entrants.addSnapshotListener(worker, (snap, e) -> {
+            if (e != null) {
+                callbacks.execute(() -> onFailure.onFailure(e));
+                return;
+            }
+            if (snap == null) return;
+            List<DocumentChange> docChanges = snap.getDocumentChanges();
+            List<Change> changes = new ArrayList<>(docChanges.size());
+            for (DocumentChange change : docChanges) {
+                changes.add(toChange(change.getDocument(), change.getType() == DocumentChange.Type.REMOVED));
+            }
+            callbacks.execute(() -> {
+                if (registration != null) apply(changes);
+            });
+        });
+    }
+
+    /** Stops the listener. The entrants already loaded stay readable. */
+    public void detach() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        if (reader != null) {
+            reader.shutdown();
+            reader = null;
+        }
+    }
+
+    /**
+     * @param listener told after each applied snapshot
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** @return true once the first snapshot has been applied */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** @return number of entrants */
+    public int size() {
+        return columnsById.size();
+    }
+
+    /**
+     * @param status entry status, e.g. "waiting"
+     * @return the entrants with that status; empty columns if there are none
+     */
+    public StatusColumns columns(String status) {
+        StatusColumns columns = byStatus.get(status);
+        return columns != null ? columns : new StatusColumns(status);
+    }
+
+    /** @return columns for every status with entrants */
+    public Collection<StatusColumns> allColumns() {
+        List<StatusColumns> nonEmpty = new ArrayList<>();
+        for (StatusColumns columns : byStatus.values()) {
+            if (columns.size() > 0) nonEmpty.add(columns);
+        }
+        return Collections.unmodifiableList(nonEmpty);
+    }
+
+    /**
+     * @return a copy of the columns of every status with entrants, e.g. to export on another
+     *         thread while the store keeps changing
+     */
+    public List<StatusColumns> snapshot() {
+        List<StatusColumns> copies = new ArrayList<>();
+        for (StatusColumns columns : allColumns()) {
+            copies.add(columns.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * Applies changes and tells the listeners. An entry whose status changed moves to its
+     * new status's columns.
+     * @param changes changes from one snapshot
+     */
+    public void apply(List<Change> changes) {
+        for (Change change : changes) {
+            StatusColumns current = columnsById.get(change.id);
+            if (change.removed) {
+                if (current != null) {
+                    current.remove(change.id);
+                    columnsById.remove(change.id);
+                }
+                continue;
+            }
+            StatusColumns target = byStatus.get(change.status);
+            if (target == null) {
+                target = new StatusColumns(change.status);
+                byStatus.put(change.status, target);
+            }
+            if (current != null && current != target) current.remove(change.id);
+            target.put(change);
+            columnsById.put(change.id, target);
+        }
+        boolean first = !loaded;
+        loaded = true;
+        if (changes.isEmpty() && !first) return;
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onEntrantsChanged(changes);
+        }
+    }
+
+    /** Reads the fields the store keeps from a waiting_list document. */
+    static Change toChange(DocumentSnapshot doc, boolean removed) {
+        if (removed) return Change.removed(doc.getId());
+        Long joinedAt = doc.getLong("joined_at");
+        return Change.put(doc.getId(), doc.getString("entrant_name"), doc.getString("entrant_email"),
+                doc.getString("status"), doc.getDouble("latitude"), doc.getDouble("longitude"),
+                joinedAt != null ? joinedAt : 0);
+    }
+}
@@ -0,0 +1,19 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+/**
+ * Reported when a write addresses a waiting list entry that does not exist.
+ */
+public class EntryNotFoundException extends Exception {
+
+    private final String entryId;
+
+    public EntryNotFoundException(String entryId) {
+        super("No waiting_list entry with id " + entryId);
+        this.entryId = entryId;
+    }
+
+    /** @return id of the missing entry */
+    public String getEntryId() {
+        return entryId;
+    }
+}
@@ -0,0 +1,71 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+/**
+ * The event fields notifications are built from: name, time, location, image and deeplink.
+ * Immutable; resolved through {@link EventMetadataCache}.
+ */
+public final class EventMetadata {
+
+    private final String eventId;
+    private final boolean exists;
+    @Nullable private final String name;
+    @Nullable private final String time;
+    @Nullable private final String location;
+    @Nullable private final String imageUrl;
+    private final String deeplink;
+
+    public EventMetadata(String eventId, boolean exists, @Nullable String name, @Nullable String time,
+                         @Nullable String location, @Nullable String imageUrl, @Nullable String deeplink) {
+        this.eventId = eventId;
+        this.exists = exists;
+        this.name = name;
+        this.time = time;
+        this.location = location;
+        this.imageUrl = imageUrl;
+        this.deeplink = (deeplink != null && !deeplink.isEmpty()) ? deeplink : defaultDeeplink(eventId);
+    }
+
+    /**
+     * Reads metadata from an events/{id} snapshot, accepting both the current and the
+     * legacy field names ("event_name"/"name", "event_time"/"time", "image"/"imageUrl").
+     * A missing document yields metadata with only the default deeplink.
+     */
+    public static EventMetadata fromSnapshot(String eventId, DocumentSnapshot doc) {
+        if (doc == null || !doc.exists()) {
+            return new EventMetadata(eventId, false, null, null, null, null, null);
+        }
+        return new EventMetadata(
+                eventId,
+                true,
+                firstNonEmpty(doc.getString("event_name"), doc.getString("name")),
+                firstNonEmpty(doc.getString("event_time"), doc.getString("time")),
+                doc.getString("location"),
+                firstNonEmpty(doc.getString("image"), doc.getString("imageUrl")),
+                doc.getString("deeplink"));
+    }
+
+    /** @return the deeplink used when the event does not store one */
+    public static String defaultDeeplink(String eventId) {
+        return "lotteryevent://event/" + eventId;
+    }
+
+    public String getEventId() { return eventId; }
+
+    /** @return false if the event document did not exist when loaded */
+    public boolean exists() { return exists; }
+
+    @Nullable public String getName() { return name; }
+    @Nullable public String getTime() { return time; }
+    @Nullable public String getLocation() { return location; }
+    @Nullable public String getImageUrl() { return imageUrl; }
+    public String getDeeplink() { return deeplink; }
+
+    @Nullable
+    private static String firstNonEmpty(@Nullable String a, @Nullable String b) {
+        return (a != null && !a.isEmpty()) ? a : b;
+    }
+}
@@ -0,0 +1,193 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * App-wide read-through cache of {@link EventMetadata}, keyed by event id.
+ *
+ * <ul>
+ *   <li>Entries expire after a fixed TTL and are then reloaded on the next request.</li>
+ *   <li>At most {@code maxEntries} events are kept; the least recently used is evicted.</li>
+ *   <li>Concurrent requests for an event that is not cached share a single load
+ *       (single-flight), so a fan-out to thousands of recipients reads the event once.</li>
+ *   <li>{@link #invalidate(String)} drops an event, e.g. after it is edited. A load that was
+ *       already running still answers its callers but is not cached.</li>
+ * </ul>
+ *
+ * <p>Thread-safe. Callbacks run on the thread that completes the load (the main thread for
+ * Firestore), or immediately on the caller's thread for cache hits.</p>
+ */
+public class EventMetadataCache {
+
+    public static final long DEFAULT_TTL_MS = 5 * 60 * 1000L;
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static EventMetadataCache instance;
+
+    private final Loader loader;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Cached> entries;
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+
+    /**
+     * @return the shared cache, backed by the Firestore "events" collection
+     */
+    public static synchronized EventMetadataCache getInstance() {
+        if (instance == null) {
+            FirebaseFirestore db = FirebaseFirestore.getInstance();
+            instance = new EventMetadataCache(
+                    (eventId, listener) -> db.collection("events").document(eventId).get()
+                            .addOnSuccessListener(doc -> listener.onLoaded(EventMetadata.fromSnapshot(eventId, doc)))
+                            .addOnFailureListener(listener::onError),
+                    DEFAULT_TTL_MS, DEFAULT_MAX_ENTRIES, System::currentTimeMillis);
+        }
+        return instance;
+    }
+
+    /**
+     * @param loader fetches metadata for a single event
+     * @param ttlMs how long a loaded entry stays valid
+     * @param maxEntries maximum number of cached events
+     * @param clock current time in milliseconds
+     */
+    public EventMetadataCache(Loader loader, long ttlMs, int maxEntries, LongSupplier clock) {
+        this.loader = loader;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+        final int capacity = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Resolves metadata for an event, from the cache when possible.
+     * @param eventId event id
+     * @param listener receives the metadata or the load error
+     */
+    public void get(String eventId, OnMetadataListener listener) {
+        EventMetadata hit = null;
+        InFlight load = null;
+        synchronized (this) {
+            Cached cached = entries.get(eventId);
+            if (cached != null && clock.getAsLong() - cached.loadedAt < ttlMs) {
+                hit = cached.metadata;
+            } else {
+                if (cached != null) {
+                    entries.remove(eventId);
+                }
+                InFlight running = inFlight.get(eventId);
+                if (running != null) {
+                    running.listeners.add(listener);
+                    return;
+                }
+                load = new InFlight();
+                load.listeners.add(listener);
+                inFlight.put(eventId, load);
+            }
+        }
+        // Callbacks and the loader run outside the lock
+        if (hit != null) {
+            listener.onLoaded(hit);
+        } else {
+            startLoad(eventId, load);
+        }
+    }
+
+    private void startLoad(String eventId, InFlight load) {
+        try {
+            loader.load(eventId, new OnMetadataListener() {
+                @Override
+                public void onLoaded(EventMetadata metadata) {
+                    List<OnMetadataListener> waiting;
+                    synchronized (EventMetadataCache.this) {
+                        if (inFlight.get(eventId) == load) {
+                            inFlight.remove(eventId);
+                            entries.put(eventId, new Cached(metadata, clock.getAsLong()));
+                        }
+                        waiting = new ArrayList<>(load.listeners);
+                    }
+                    for (OnMetadataListener l : waiting) {
+                        l.onLoaded(metadata);
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    fail(eventId, load, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            fail(eventId, load, e);
+        }
+    }
+
+    private void fail(String eventId, InFlight load, Exception e) {
+        List<OnMetadataListener> waiting;
+        synchronized (this) {
+            if (inFlight.get(eventId) == load) {
+                inFlight.remove(eventId);
+            }
+            waiting = new ArrayList<>(load.listeners);
+        }
+        for (OnMetadataListener l : waiting) {
+            l.onError(e);
+        }
+    }
+
+    /**
+     * Drops a cached event so the next request reloads it.
+     * @param eventId event id
+     */
+    public synchronized void invalidate(String eventId) {
+        entries.remove(eventId);
+        inFlight.remove(eventId);
+    }
+
+    /** Drops every cached event. */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        inFlight.clear();
+    }
+
+    /** @return number of cached events, expired ones included until they are requested */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Cached {
+        final EventMetadata metadata;
+        final long loadedAt;
+
+        Cached(EventMetadata metadata, long loadedAt) {
+            this.metadata = metadata;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class InFlight {
+        final List<OnMetadataListener> listeners = new ArrayList<>();
+    }
+
+    /** Loads metadata for one event from the backing store. */
+    public interface Loader {
+        void load(String eventId, OnMetadataListener listener);
+    }
+
+    /** Callback for metadata lookups. */
+    public interface OnMetadataListener {
+        void onLoaded(EventMetadata metadata);
+        void onError(Exception e);
+    }
+}
@@ -0,0 +1,157 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@link ChunkedBatchWriter.ChunkCommitter} that writes each chunk as one Firestore
+ * {@link WriteBatch}. Subclasses only say what to write for a single item.
+ *
+ * <p>A chunk's writes are built once, on its first attempt, and every retry commits exactly
+ * the same writes to the same documents. A failed commit may still have been applied, so
+ * which errors are retried depends on whether the writes can safely be applied twice:</p>
+ * <ul>
+ *   <li>aborted and resource exhausted: the commit was rejected, so it is always retried;</li>
+ *   <li>unavailable and deadline exceeded: the commit may have been applied, so it is only
+ *       retried when the committer {@link #isIdempotent() is idempotent};</li>
+ *   <li>anything else, including errors that do not come from Firestore, fails the chunk.</li>
+ * </ul>
+ *
+ * @param <T> item type
+ */
+public abstract class FirestoreChunkCommitter<T> implements ChunkedBatchWriter.ChunkCommitter<T> {
+
+    private final FirebaseFirestore db;
+    /** Writes built for each chunk still being committed; retries get the same list back. */
+    private final Map<List<T>, Writes> prepared = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    protected FirestoreChunkCommitter(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Adds the writes for one item. Document references are resolved here, once per chunk,
+     * so ids made with {@code document()} must be assigned before the write is added.
+     * @param writes writes of the current chunk
+     * @param item item to write
+     */
+    protected abstract void addWrites(Writes writes, T item);
+
+    /**
+     * Adds writes that belong to the chunk as a whole (e.g. a counter update) after its items.
+     * Does nothing by default. Committers that add increments here must return false from
+     * {@link #isIdempotent()}.
+     * @param writes writes of the current chunk
+     * @param chunk items in the chunk
+     */
+    protected void finishWrites(Writes writes, List<T> chunk) {
+    }
+
+    /**
+     * @return true if committing a chunk's writes twice has the same effect as once, i.e.
+     * they only set, update or delete fixed documents with fixed values. Defaults to true.
+     */
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    public void commit(List<T> chunk, WaitingListRepository.OnWriteListener listener) {
+        Writes writes;
+        synchronized (prepared) {
+            writes = prepared.get(chunk);
+            if (writes == null) {
+                writes = new Writes();
+                for (T item : chunk) {
+                    addWrites(writes, item);
+                }
+                finishWrites(writes, chunk);
+                prepared.put(chunk, writes);
+            }
+        }
+        writes.toBatch(db).commit()
+                .addOnSuccessListener(aVoid -> {
+                    prepared.remove(chunk);
+                    listener.onSuccess();
+                })
+                .addOnFailureListener(listener::onFailure);
+    }
+
+    @Override
+    public boolean isRetryable(Exception e) {
+        return isRetryable(e, isIdempotent());
+    }
+
+    /**
+     * Classifies a failed Firestore commit as described for this class.
+     * @param e the failure
+     * @param idempotent whether applying the commit twice is harmless
+     * @return true if the commit should be tried again
+     */
+    static boolean isRetryable(Exception e, boolean idempotent) {
+        if (!(e instanceof FirebaseFirestoreException)) {
+            return false;
+        }
+        FirebaseFirestoreException.Code code = ((FirebaseFirestoreException) e).getCode();
+        if (code == null) {
+            return false;
+        }
+        switch (code) {
+            case ABORTED:
+            case RESOURCE_EXHAUSTED:
+                return true;
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+                return idempotent;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * The writes of one chunk, kept so that each attempt commits a new batch with the same
+     * writes; a {@link WriteBatch} cannot be committed twice.
+     */
+    protected static final class Writes {
+        private final List<Consumer<WriteBatch>> ops = new ArrayList<>();
+
+        public void set(DocumentReference ref, Object data) {
+            ops.add(batch -> batch.set(ref, data));
+        }
+
+        public void set(DocumentReference ref, Object data, SetOptions options) {
+            ops.add(batch -> batch.set(ref, data, options));
+        }
+
+        public void update(DocumentReference ref, Map<String, Object> data) {
+            ops.add(batch -> batch.update(ref, data));
+        }
+
+        public void delete(DocumentReference ref) {
+            ops.add(batch -> batch.delete(ref));
+        }
+
+        /** @return number of writes */
+        public int size() {
+            return ops.size();
+        }
+
+        WriteBatch toBatch(FirebaseFirestore db) {
+            WriteBatch batch = db.batch();
+            for (Consumer<WriteBatch> op : ops) {
+                op.accept(batch);
+            }
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,517 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link WaitingListRepository} backed by the Firestore "waiting_list" collection.
+ *
+ * <p>Every write that adds, removes or re-statuses an entry also updates the event's
+ * {@link WaitingListCounters} in the same batch or transaction, so counts never need to
+ * download the list.</p>
+ */
+public class FirestoreWaitingListRepository implements WaitingListRepository {
+
+    static final String COLLECTION = "waiting_list";
+
+    private final FirebaseFirestore db;
+    private final WaitingListCounters counters;
+
+    public FirestoreWaitingListRepository() {
+        this(FirebaseFirestore.getInstance());
+    }
+
+    public FirestoreWaitingListRepository(FirebaseFirestore db) {
+        this.db = db;
+        this.counters = new WaitingListCounters(db);
+    }
+
+    private CollectionReference collection() {
+        return db.collection(COLLECTION);
+    }
+
+    @Override
+    public void getById(String entryId, OnEntryLoadedListener listener) {
+        collection().document(entryId)
+                .get()
+                .addOnSuccessListener(doc -> listener.onLoaded(doc.exists() ? toEntry(doc) : null))
+                .addOnFailureListener(listener::onError);
+    }
+
+    @Override
+    public void findEntry(String eventId, String entrantId, OnEntryLoadedListener listener) {
+        getById(WaitingListEntry.documentId(eventId, entrantId), listener);
+    }
+
+    @Override
+    public void findByEvent(String eventId, OnEntriesLoadedListener listener) {
+        collection()
+                .whereEqualTo("event_id", eventId)
+                .get()
+                .addOnSuccessListener(snap -> listener.onLoaded(toEntries(snap)))
+                .addOnFailureListener(listener::onError);
+    }
+
+    @Override
+    public void findByEventAndStatus(String eventId, String status, OnEntriesLoadedListener listener) {
+        collection()
+                .whereEqualTo("event_id", eventId)
+                .whereEqualTo("status", status)
+                .get()
+                .addOnSuccessListener(snap -> listener.onLoaded(toEntries(snap)))
+                .addOnFailureListener(listener::onError);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Pages are read with {@code startAfter()} on the last document of the previous page.
+     * Equality on event_id and status plus document id order is served by the automatic
+     * single-field indexes.</p>
+     */
+    @Override
+    public void scanByEventAndStatus(String eventId, String status, int pageSize, OnPageListener listener) {
+        Query query = collection()
+                .whereEqualTo("event_id", eventId)
+                .whereEqualTo("status", status)
+                .orderBy(FieldPath.documentId())
+                .limit(pageSize);
+        scanFrom(query, null, pageSize, listener);
+    }
+
+    private void scanFrom(Query query, @Nullable DocumentSnapshot after, int pageSize, OnPageListener listener) {
+        (after == null ? query : query.startAfter(after)).get()
+                .addOnSuccessListener(snap -> {
+                    List<DocumentSnapshot> docs = snap.getDocuments();
+                    List<WaitingListEntry> page = toEntries(docs);
+                    if (!page.isEmpty()) {
+                        listener.onPage(page);
+                    }
+                    if (docs.size() < pageSize) {
+                        listener.onComplete();
+                    } else {
+                        scanFrom(query, docs.get(docs.size() - 1), pageSize, listener);
+                    }
+                })
+                .addOnFailureListener(listener::onError);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Answers from the device cache first, then syncs the entries updated since; see
+     * {@link CacheFirstQuery}.</p>
+     */
+    @Override
+    public void findByEntrant(String entrantId, OnEntriesLoadedListener listener) {
+        new CacheFirstQuery(collection().whereEqualTo("entrant_id", entrantId),
+                "updated_at", COLLECTION + "/entrant/" + entrantId)
+                .load(new CacheFirstQuery.Listener() {
+                    @Override
+                    public void onLoaded(List<DocumentSnapshot> docs, boolean fromCache) {
+                        listener.onLoaded(toEntries(docs));
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        listener.onError(e);
+                    }
+                });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Reads the event's counter documents; see {@link WaitingListCounters}.</p>
+     */
+    @Override
+    public void countByEvent(String eventId, OnCountListener listener) {
+        counters.loadTotal(eventId, listener);
+    }
+
+    @Override
+    public void countByStatus(String eventId, OnCountsListener listener) {
+        counters.load(eventId, listener);
+    }
+
+    @Override
+    public void add(WaitingListEntry entry, OnWriteListener listener) {
+        join(entry, 0, new OnJoinListener() {
+            @Override
+            public void onResult(JoinResult result) {
+                if (result == JoinResult.JOINED) {
+                    listener.onSuccess();
+                } else {
+                    listener.onFailure(new FirebaseFirestoreException("Entrant is already on the waiting list",
+                            FirebaseFirestoreException.Code.ALREADY_EXISTS));
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Runs in a transaction that reads the entry's document and, when there is a limit,
+     * the event's counter documents, then writes the entry and one counter shard. Joins
+     * against a limit all read every shard, so Firestore retries concurrent ones and the
+     * limit is never exceeded; joins without a limit read no counters and only contend on
+     * the shard they write.
+     * Events created before counters existed have no reliable total; for them the limit is
+     * checked with a count query before the transaction, which is best-effort.</p>
+     */
+    @Override
+    public void join(WaitingListEntry entry, int capacity, OnJoinListener listener) {
+        String eventId = entry.getEvent_id();
+        DocumentReference ref = collection().document(WaitingListEntry.documentId(eventId, entry.getEntrant_id()));
+        db.runTransaction(tx -> {
+            if (tx.get(ref).exists()) {
+                return JoinResult.ALREADY_JOINED;
+            }
+            if (capacity > 0) {
+                List<DocumentSnapshot> counts = new ArrayList<>();
+                counts.add(tx.get(counters.meta(eventId)));
+                if (!WaitingListCounters.isInitialized(counts.get(0))) {
+                    return null;
+                }
+                for (DocumentReference shard : counters.shards(eventId)) {
+                    counts.add(tx.get(shard));
+                }
+                int total = WaitingListCounts.fromStatusCounts(WaitingListCounters.sumShards(counts)).getTotal();
+                if (total >= capacity) {
+                    return JoinResult.FULL;
+                }
+            }
+            tx.set(ref, entry);
+            Map<String, Object> moved = WaitingListCounters.move(null, entry.getStatus(), 1);
+            if (!moved.isEmpty()) {
+                tx.set(counters.randomShard(eventId), moved, SetOptions.merge());
+            }
+            return JoinResult.JOINED;
+        }).addOnSuccessListener(result -> {
+            if (result == null) {
+                joinWithoutCounters(entry, capacity, listener);
+                return;
+            }
+            if (result == JoinResult.JOINED) {
+                entry.setId(ref.getId());
+            }
+            listener.onResult(result);
+        }).addOnFailureListener(listener::onError);
+    }
+
+    /** Join path for events without counters: count first, then join without a limit. */
+    private void joinWithoutCounters(WaitingListEntry entry, int capacity, OnJoinListener listener) {
+        countByEvent(entry.getEvent_id(), new OnCountListener() {
+            @Override
+            public void onCount(int count) {
+                if (count >= capacity) {
+                    listener.onResult(JoinResult.FULL);
+                } else {
+                    join(entry, 0, listener);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A status change runs in a transaction that reads the entry's current status and
+     * moves the counters with it.</p>
+     */
+    @Override
+    public void update(String entryId, Map<String, Object> updates, OnWriteListener listener) {
+        DocumentReference ref = collection().document(entryId);
+        if (!updates.containsKey("status")) {
+            ref.update(updates)
+                    .addOnSuccessListener(aVoid -> listener.onSuccess())
+                    .addOnFailureListener(e -> listener.onFailure(notFoundAware(entryId, e)));
+            return;
+        }
+        db.runTransaction(tx -> {
+            DocumentSnapshot snap = tx.get(ref);
+            if (!snap.exists()) {
+                throw new FirebaseFirestoreException("No waiting_list entry with id " + entryId,
+                        FirebaseFirestoreException.Code.NOT_FOUND);
+            }
+            tx.update(ref, updates);
+            Map<String, Object> moved = WaitingListCounters.move(
+                    snap.getString("status"), (String) updates.get("status"), 1);
+            String eventId = snap.getString("event_id");
+            if (!moved.isEmpty() && eventId != null) {
+                tx.set(counters.randomShard(eventId), moved, SetOptions.merge());
+            }
+            return null;
+        }).addOnSuccessListener(ignored -> listener.onSuccess())
+          .addOnFailureListener(e -> listener.onFailure(notFoundAware(entryId, e)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Large updates are split into batches of at most {@value ChunkedBatchWriter#MAX_CHUNK_SIZE}
+     * writes that are committed in parallel and retried on transient errors. If some
+     * batches still fail, the listener receives a {@link BatchWriteException} saying which
+     * entries were not updated.</p>
+     *
+     * <p>A status change reads every entry first, to know which counters to move; callers
+     * that already hold the entries should use {@link #updateEntries} instead.</p>
+     */
+    @Override
+    public void updateAll(List<String> entryIds, Map<String, Object> updates, OnWriteListener listener) {
+        if (updates.containsKey("status")) {
+            // The counters need each entry's current status, so load the entries first.
+            loadAll(entryIds, new OnEntriesLoadedListener() {
+                @Override
+                public void onLoaded(List<WaitingListEntry> entries) {
+                    updateEntries(entries, updates, listener);
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    listener.onFailure(e);
+                }
+            });
+            return;
+        }
+        ChunkedBatchWriter<String> writer = new ChunkedBatchWriter<>(new FirestoreChunkCommitter<String>(db) {
+            @Override
+            protected void addWrites(Writes writes, String id) {
+                writes.update(collection().document(id), updates);
+            }
+        });
+        writer.write(entryIds, batchListener(listener));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each chunk commits its entries together with one counter increment per event, so
+     * the counts stay consistent with whichever chunks succeed. Chunks are one write short
+     * of the batch limit per event to leave room for the counter writes. A chunk is not
+     * retried after an error that may have left it applied, as its increments would then be
+     * counted twice.</p>
+     *
+     * <p>The entries are not read again, so an entry whose status changed since the caller
+     * loaded it moves the wrong counter. Once every chunk has finished, each event's
+     * counters are therefore checked against aggregation counts with
+     * {@link WaitingListCounters#recount}, which costs a constant number of reads however
+     * many entries were updated.</p>
+     */
+    @Override
+    public void updateEntries(List<WaitingListEntry> entries, Map<String, Object> updates, OnWriteListener listener) {
+        if (!updates.containsKey("status")) {
+            List<String> ids = new ArrayList<>(entries.size());
+            for (WaitingListEntry entry : entries) {
+                ids.add(entry.getId());
+            }
+            updateAll(ids, updates, listener);
+            return;
+        }
+        String newStatus = (String) updates.get("status");
+        Set<String> events = new HashSet<>();
+        for (WaitingListEntry entry : entries) {
+            events.add(entry.getEvent_id());
+        }
+        ChunkedBatchWriter<WaitingListEntry> writer = new ChunkedBatchWriter<>(
+                new FirestoreChunkCommitter<WaitingListEntry>(db) {
+                    @Override
+                    protected void addWrites(Writes writes, WaitingListEntry entry) {
+                        writes.update(collection().document(entry.getId()), updates);
+                    }
+
+                    @Override
+                    protected void finishWrites(Writes writes, List<WaitingListEntry> chunk) {
+                        Map<String, Map<String, Integer>> deltasByEvent = new HashMap<>();
+                        for (WaitingListEntry entry : chunk) {
+                            Map<String, Integer> deltas = deltasByEvent.get(entry.getEvent_id());
+                            if (deltas == null) {
+                                deltas = new HashMap<>();
+                                deltasByEvent.put(entry.getEvent_id(), deltas);
+                            }
+                            WaitingListCounters.addDelta(deltas, entry.getStatus(), -1);
+                            WaitingListCounters.addDelta(deltas, newStatus, 1);
+                        }
+                        for (Map.Entry<String, Map<String, Integer>> e : deltasByEvent.entrySet()) {
+                            Map<String, Object> moved = WaitingListCounters.increments(e.getValue());
+                            if (!moved.isEmpty() && e.getKey() != null) {
+                                writes.set(counters.randomShard(e.getKey()), moved, SetOptions.merge());
+                            }
+                        }
+                    }
+
+                    /** The counter increments must not be applied twice. */
+                    @Override
+                    protected boolean isIdempotent() {
+                        return false;
+                    }
+                },
+                ChunkedBatchWriter.MAX_CHUNK_SIZE - events.size());
+        ChunkedBatchWriter.OnBatchListener<WaitingListEntry> report = batchListener(listener);
+        writer.write(entries, new ChunkedBatchWriter.OnBatchListener<WaitingListEntry>() {
+            @Override
+            public void onComplete(ChunkedBatchWriter.BatchResult<WaitingListEntry> result) {
+                recount(events, () -> report.onComplete(result));
+            }
+        });
+    }
+
+    /**
+     * Recounts each event's counters in parallel, then runs {@code then}. A failed recount
+     * only leaves the counters as they were, so it does not fail the update.
+     */
+    private void recount(Set<String> eventIds, Runnable then) {
+        List<String> ids = new ArrayList<>();
+        for (String eventId : eventIds) {
+            if (eventId != null) ids.add(eventId);
+        }
+        if (ids.isEmpty()) {
+            then.run();
+            return;
+        }
+        AtomicInteger pending = new AtomicInteger(ids.size());
+        OnWriteListener done = new OnWriteListener() {
+            @Override
+            public void onSuccess() {
+                if (pending.decrementAndGet() == 0) then.run();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                onSuccess();
+            }
+        };
+        for (String eventId : ids) {
+            counters.recount(eventId, done);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Runs in a transaction that reads the entry's status so its counter is decremented
+     * exactly once, even if two clients remove the same entry.</p>
+     */
+    @Override
+    public void delete(String entryId, OnWriteListener listener) {
+        DocumentReference ref = collection().document(entryId);
+        db.runTransaction(tx -> {
+            DocumentSnapshot snap = tx.get(ref);
+            if (!snap.exists()) {
+                throw new FirebaseFirestoreException("No waiting_list entry with id " + entryId,
+                        FirebaseFirestoreException.Code.NOT_FOUND);
+            }
+            tx.delete(ref);
+            String eventId = snap.getString("event_id");
+            if (eventId != null) {
+                Map<String, Object> moved = WaitingListCounters.move(snap.getString("status"), null, 1);
+                if (!moved.isEmpty()) {
+                    tx.set(counters.randomShard(eventId), moved, SetOptions.merge());
+                }
+            }
+            return null;
+        }).addOnSuccessListener(ignored -> listener.onSuccess())
+          .addOnFailureListener(e -> listener.onFailure(notFoundAware(entryId, e)));
+    }
+
+    /** Reports Firestore's NOT_FOUND as an {@link EntryNotFoundException}. */
+    private static Exception notFoundAware(String entryId, Exception e) {
+        if (e instanceof FirebaseFirestoreException
+                && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.NOT_FOUND) {
+            return new EntryNotFoundException(entryId);
+        }
+        return e;
+    }
+
+    /** Loads entries by id in parallel; fails if any of them does not exist. */
+    private void loadAll(List<String> entryIds, OnEntriesLoadedListener listener) {
+        List<Task<DocumentSnapshot>> reads = new ArrayList<>(entryIds.size());
+        for (String id : entryIds) {
+            reads.add(collection().document(id).get());
+        }
+        Tasks.whenAllComplete(reads)
+                .addOnSuccessListener(done -> {
+                    List<WaitingListEntry> entries = new ArrayList<>(reads.size());
+                    for (int i = 0; i < reads.size(); i++) {
+                        Task<DocumentSnapshot> read = reads.get(i);
+                        if (!read.isSuccessful()) {
+                            listener.onError(read.getException());
+                            return;
+                        }
+                        WaitingListEntry entry = read.getResult().exists() ? toEntry(read.getResult()) : null;
+                        if (entry == null) {
+                            listener.onError(new EntryNotFoundException(entryIds.get(i)));
+                            return;
+                        }
+                        entries.add(entry);
+                    }
+                    listener.onLoaded(entries);
+                })
+                .addOnFailureListener(listener::onError);
+    }
+
+    /** Reports a chunked write as a whole; see {@link BatchWriteException}. */
+    private static <T> ChunkedBatchWriter.OnBatchListener<T> batchListener(OnWriteListener listener) {
+        return new ChunkedBatchWriter.OnBatchListener<T>() {
+            @Override
+            public void onComplete(ChunkedBatchWriter.BatchResult<T> result) {
+                if (result.isSuccess()) {
+                    listener.onSuccess();
+                } else {
+                    listener.onFailure(new BatchWriteException(result));
+                }
+            }
+        };
+    }
+
+    /** Converts a snapshot to an entry, carrying over the document id. */
+    private static WaitingListEntry toEntry(DocumentSnapshot doc) {
+        WaitingListEntry entry = doc.toObject(WaitingListEntry.class);
+        if (entry != null) {
+            entry.setId(doc.getId());
+        }
+        return entry;
+    }
+
+    /** Converts every document in a query result, skipping ones that fail to map. */
+    private static List<WaitingListEntry> toEntries(Iterable<? extends DocumentSnapshot> snap) {
+        List<WaitingListEntry> entries = new ArrayList<>();
+        for (DocumentSnapshot doc : snap) {
+            WaitingListEntry entry = toEntry(doc);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,129 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
+import com.ijaskz.lotteryeventapp.util.Geohash;
+
+import java.util.List;
+
+/**
+ * One-shot migration that sets "geohash" on waiting list entries that were given a
+ * location before the field existed.
+ *
+ * <p>The entrant map reads entries by geohash range for the area in view, so an older
+ * entry with a latitude and longitude but no geohash is missing from the map until this
+ * has run. Entries without a location are counted in the {@link Report} and left alone.</p>
+ *
+ * <p>Entries whose geohash already matches their location are skipped, so the backfill can
+ * be re-run after a failure.</p>
+ */
+public class GeohashBackfill {
+
+    /** Entry documents read per page; each page is written in one batch (max 500). */
+    static final int PAGE_SIZE = 200;
+
+    /**
+     * Totals for a backfill run.
+     */
+    public static final class Report {
+        private int scanned;
+        private int updated;
+        private int withoutLocation;
+
+        /** @return number of entries read */
+        public int getScanned() { return scanned; }
+
+        /** @return number of entries given a geohash */
+        public int getUpdated() { return updated; }
+
+        /** @return number of entries with no latitude or longitude */
+        public int getWithoutLocation() { return withoutLocation; }
+
+        @Override
+        public String toString() {
+            return "scanned=" + scanned + " updated=" + updated
+                    + " withoutLocation=" + withoutLocation;
+        }
+    }
+
+    /**
+     * Callback for {@link #run(OnBackfillListener)}.
+     */
+    public interface OnBackfillListener {
+        /**
+         * Called once every page has been processed.
+         * @param report totals
+         */
+        void onComplete(Report report);
+
+        /**
+         * Called if a page could not be read or written. Pages already written stay
+         * updated.
+         */
+        void onError(Exception e);
+    }
+
+    private final FirebaseFirestore db;
+
+    public GeohashBackfill() {
+        this(FirebaseFirestore.getInstance());
+    }
+
+    public GeohashBackfill(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Backfills every waiting list entry one page at a time.
+     * @param listener receives the totals
+     */
+    public void run(OnBackfillListener listener) {
+        backfillPage(null, new Report(), listener);
+    }
+
+    private void backfillPage(@Nullable DocumentSnapshot after, Report report, OnBackfillListener listener) {
+        Query page = db.collection("waiting_list").orderBy(FieldPath.documentId()).limit(PAGE_SIZE);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        page.get()
+                .addOnSuccessListener(snap -> {
+                    List<DocumentSnapshot> docs = snap.getDocuments();
+                    report.scanned += docs.size();
+
+                    WriteBatch batch = db.batch();
+                    int writes = 0;
+                    for (DocumentSnapshot doc : docs) {
+                        Double lat = doc.getDouble("latitude");
+                        Double lon = doc.getDouble("longitude");
+                        if (lat == null || lon == null) {
+                            report.withoutLocation++;
+                            continue;
+                        }
+                        String geohash = Geohash.encode(lat, lon, Geohash.STORED_PRECISION);
+                        if (!geohash.equals(doc.getString("geohash"))) {
+                            batch.update(doc.getReference(), "geohash", geohash);
+                            writes++;
+                        }
+                    }
+
+                    int pageWrites = writes;
+                    batch.commit()
+                            .addOnSuccessListener(unused -> {
+                                report.updated += pageWrites;
+                                if (docs.size() < PAGE_SIZE) {
+                                    listener.onComplete(report);
+                                } else {
+                                    backfillPage(docs.get(docs.size() - 1), report, listener);
+                                }
+                            })
+                            .addOnFailureListener(listener::onError);
+                })
+                .addOnFailureListener(listener::onError);
+    }
+}
@@ -0,0 +1,420 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory {@link WaitingListRepository} for JVM tests and load tests.
+ *
+ * <p>Entries are indexed by id, event_id, entrant_id and (event_id, status), so every
+ * query touches only the matching entries. All operations are thread-safe and complete
+ * synchronously on the calling thread; callbacks are invoked outside the lock.</p>
+ *
+ * <p>Like Firestore, stored entries are copied on write and on read, so callers never
+ * share mutable state with the store. Document reads and writes are counted the same way
+ * Firestore bills them, which lets tests assert how many round trips a flow costs.</p>
+ *
+ * <p>Per-status counts are kept alongside the indexes, like {@link WaitingListCounters}
+ * does in Firestore; a count is billed as a read of every counter shard.</p>
+ */
+public class InMemoryWaitingListRepository implements WaitingListRepository {
+
+    /** Documents read by one count: every shard plus the "meta" document. */
+    private static final int COUNTER_READS = WaitingListCounters.NUM_SHARDS + 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, WaitingListEntry> entries = new HashMap<>();
+    private final Map<String, Set<String>> byEvent = new HashMap<>();
+    private final Map<String, Set<String>> byEntrant = new HashMap<>();
+    private final Map<String, Set<String>> byEventStatus = new HashMap<>();
+    private final Map<String, Map<String, Integer>> countsByEvent = new HashMap<>();
+
+    private final AtomicLong documentReads = new AtomicLong();
+    private final AtomicLong documentWrites = new AtomicLong();
+
+    @Override
+    public void getById(String entryId, OnEntryLoadedListener listener) {
+        WaitingListEntry found;
+        lock.readLock().lock();
+        try {
+            found = copyOf(entries.get(entryId));
+        } finally {
+            lock.readLock().unlock();
+        }
+        documentReads.incrementAndGet();
+        listener.onLoaded(found);
+    }
+
+    @Override
+    public void findEntry(String eventId, String entrantId, OnEntryLoadedListener listener) {
+        getById(WaitingListEntry.documentId(eventId, entrantId), listener);
+    }
+
+    @Override
+    public void findByEvent(String eventId, OnEntriesLoadedListener listener) {
+        listener.onLoaded(load(byEvent, eventId));
+    }
+
+    @Override
+    public void findByEventAndStatus(String eventId, String status, OnEntriesLoadedListener listener) {
+        listener.onLoaded(load(byEventStatus, statusKey(eventId, status)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each page is read under the lock on its own, like separate Firestore queries.</p>
+     */
+    @Override
+    public void scanByEventAndStatus(String eventId, String status, int pageSize, OnPageListener listener) {
+        String key = statusKey(eventId, status);
+        String after = null;
+        while (true) {
+            List<WaitingListEntry> page = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                // Document id order, starting after the last id of the previous page
+                TreeSet<String> ids = new TreeSet<>(index(byEventStatus, key));
+                for (String id : after == null ? ids : ids.tailSet(after, false)) {
+                    if (page.size() == pageSize) break;
+                    page.add(copyOf(entries.get(id)));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            documentReads.addAndGet(Math.max(1, page.size()));
+            if (!page.isEmpty()) {
+                listener.onPage(page);
+            }
+            if (page.size() < pageSize) {
+                listener.onComplete();
+                return;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+    }
+
+    @Override
+    public void findByEntrant(String entrantId, OnEntriesLoadedListener listener) {
+        listener.onLoaded(load(byEntrant, entrantId));
+    }
+
+    @Override
+    public void countByEvent(String eventId, OnCountListener listener) {
+        int count = counts(eventId).getTotal();
+        documentReads.addAndGet(COUNTER_READS);
+        listener.onCount(count);
+    }
+
+    @Override
+    public void countByStatus(String eventId, OnCountsListener listener) {
+        WaitingListCounts counts = counts(eventId);
+        documentReads.addAndGet(COUNTER_READS);
+        listener.onCounts(counts);
+    }
+
+    @Override
+    public void add(WaitingListEntry entry, OnWriteListener listener) {
+        join(entry, 0, new OnJoinListener() {
+            @Override
+            public void onResult(JoinResult result) {
+                if (result == JoinResult.JOINED) {
+                    listener.onSuccess();
+                } else {
+                    listener.onFailure(new IllegalStateException("Entrant is already on the waiting list"));
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    @Override
+    public void join(WaitingListEntry entry, int capacity, OnJoinListener listener) {
+        String id = WaitingListEntry.documentId(entry.getEvent_id(), entry.getEntrant_id());
+        JoinResult result;
+        lock.writeLock().lock();
+        try {
+            if (entries.containsKey(id)) {
+                result = JoinResult.ALREADY_JOINED;
+            } else if (capacity > 0 && index(byEvent, entry.getEvent_id()).size() >= capacity) {
+                result = JoinResult.FULL;
+            } else {
+                WaitingListEntry stored = copyOf(entry);
+                stored.setId(id);
+                entries.put(id, stored);
+                addToIndexes(stored);
+                result = JoinResult.JOINED;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // The entry document, plus the meta and shard documents when there is a limit
+        documentReads.addAndGet(capacity > 0 ? 1 + COUNTER_READS : 1);
+        if (result == JoinResult.JOINED) {
+            documentWrites.incrementAndGet();
+            entry.setId(id);
+        }
+        listener.onResult(result);
+    }
+
+    @Override
+    public void update(String entryId, Map<String, Object> updates, OnWriteListener listener) {
+        updateAll(Collections.singletonList(entryId), updates, listener);
+    }
+
+    @Override
+    public void updateAll(List<String> entryIds, Map<String, Object> updates, OnWriteListener listener) {
+        Exception failure = null;
+        lock.writeLock().lock();
+        try {
+            // Build every updated copy first so the write is all-or-nothing, like a Firestore batch.
+            List<WaitingListEntry> updated = new ArrayList<>(entryIds.size());
+            for (String id : entryIds) {
+                WaitingListEntry current = entries.get(id);
+                if (current == null) {
+                    throw new EntryNotFoundException(id);
+                }
+                WaitingListEntry copy = copyOf(current);
+                applyUpdates(copy, updates);
+                updated.add(copy);
+            }
+            for (WaitingListEntry copy : updated) {
+                removeFromIndexes(entries.get(copy.getId()));
+                entries.put(copy.getId(), copy);
+                addToIndexes(copy);
+            }
+        } catch (EntryNotFoundException | RuntimeException ex) {
+            failure = ex;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (failure != null) {
+            listener.onFailure(failure);
+            return;
+        }
+        documentWrites.addAndGet(entryIds.size());
+        listener.onSuccess();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Counters always move from the stored status, which is never stale here.</p>
+     */
+    @Override
+    public void updateEntries(List<WaitingListEntry> entries, Map<String, Object> updates, OnWriteListener listener) {
+        List<String> ids = new ArrayList<>(entries.size());
+        for (WaitingListEntry entry : entries) {
+            ids.add(entry.getId());
+        }
+        updateAll(ids, updates, listener);
+    }
+
+    @Override
+    public void delete(String entryId, OnWriteListener listener) {
+        WaitingListEntry removed;
+        lock.writeLock().lock();
+        try {
+            removed = entries.remove(entryId);
+            if (removed != null) {
+                removeFromIndexes(removed);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        documentReads.incrementAndGet();
+        if (removed == null) {
+            listener.onFailure(new EntryNotFoundException(entryId));
+            return;
+        }
+        documentWrites.incrementAndGet();
+        listener.onSuccess();
+    }
+
+    /** @return total number of entries currently stored */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return number of documents read so far (queries count one read per returned entry, minimum one) */
+    public long getDocumentReads() {
+        return documentReads.get();
+    }
+
+    /** @return number of documents written so far */
+    public long getDocumentWrites() {
+        return documentWrites.get();
+    }
+
+    /** Resets the read/write counters, e.g. after seeding test data. */
+    public void resetCounters() {
+        documentReads.set(0);
+        documentWrites.set(0);
+    }
+
+    // ------------------------------------------------------------------------
+    // Internal helpers
+    // ------------------------------------------------------------------------
+
+    private List<WaitingListEntry> load(Map<String, Set<String>> index, String key) {
+        List<WaitingListEntry> result;
+        lock.readLock().lock();
+        try {
+            Set<String> ids = index(index, key);
+            result = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                result.add(copyOf(entries.get(id)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Firestore bills a minimum of one read per query, even when nothing matches.
+        documentReads.addAndGet(Math.max(1, result.size()));
+        return result;
+    }
+
+    private WaitingListCounts counts(String eventId) {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> counts = countsByEvent.get(eventId);
+            return counts == null ? WaitingListCounts.empty() : WaitingListCounts.fromStatusCounts(counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Set<String> index(Map<String, Set<String>> index, String key) {
+        Set<String> ids = index.get(key);
+        return ids != null ? ids : Collections.emptySet();
+    }
+
+    private void addToIndexes(WaitingListEntry e) {
+        put(byEvent, e.getEvent_id(), e.getId());
+        put(byEntrant, e.getEntrant_id(), e.getId());
+        put(byEventStatus, statusKey(e.getEvent_id(), e.getStatus()), e.getId());
+        count(e, 1);
+    }
+
+    private void removeFromIndexes(WaitingListEntry e) {
+        remove(byEvent, e.getEvent_id(), e.getId());
+        remove(byEntrant, e.getEntrant_id(), e.getId());
+        remove(byEventStatus, statusKey(e.getEvent_id(), e.getStatus()), e.getId());
+        count(e, -1);
+    }
+
+    private void count(WaitingListEntry e, int delta) {
+        Map<String, Integer> counts = countsByEvent.get(e.getEvent_id());
+        if (counts == null) {
+            counts = new HashMap<>();
+            countsByEvent.put(e.getEvent_id(), counts);
+        }
+        Integer current = counts.get(e.getStatus());
+        int next = (current == null ? 0 : current) + delta;
+        if (next == 0) {
+            counts.remove(e.getStatus());
+            if (counts.isEmpty()) {
+                countsByEvent.remove(e.getEvent_id());
+            }
+        } else {
+            counts.put(e.getStatus(), next);
+        }
+    }
+
+    private static void put(Map<String, Set<String>> index, String key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids == null) {
+            ids = new HashSet<>();
+            index.put(key, ids);
+        }
+        ids.add(id);
+    }
+
+    private static void remove(Map<String, Set<String>> index, String key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String statusKey(String eventId, String status) {
+        return eventId + '\u0000' + status;
+    }
+
+    /**
+     * Applies Firestore-style field updates to an entry. "updated_at" is applied last
+     * because the entry's setters stamp it themselves.
+     */
+    private static void applyUpdates(WaitingListEntry e, Map<String, Object> updates) {
+        for (Map.Entry<String, Object> u : updates.entrySet()) {
+            Object v = u.getValue();
+            switch (u.getKey()) {
+                case "status":                e.setStatus((String) v); break;
+                case "entrant_name":          e.setEntrant_name((String) v); break;
+                case "entrant_email":         e.setEntrant_email((String) v); break;
+                case "joined_at":             e.setJoined_at(((Number) v).longValue()); break;
+                case "selected_at":           e.setSelected_at(asLong(v)); break;
+                case "responded_at":          e.setResponded_at(asLong(v)); break;
+                case "decline_reason":        e.setDecline_reason((String) v); break;
+                case "response_window_hours": e.setResponse_window_hours(v == null ? null : ((Number) v).intValue()); break;
+                case "latitude":              e.setLatitude(v == null ? null : ((Number) v).doubleValue()); break;
+                case "longitude":             e.setLongitude(v == null ? null : ((Number) v).doubleValue()); break;
+                case "geohash":               e.setGeohash((String) v); break;
+                case "updated_at":            break;
+                default:
+                    throw new IllegalArgumentException("Unknown waiting_list field: " + u.getKey());
+            }
+        }
+        Object updatedAt = updates.get("updated_at");
+        if (updatedAt != null) {
+            e.setUpdated_at(((Number) updatedAt).longValue());
+        }
+    }
+
+    private static Long asLong(Object v) {
+        return v == null ? null : ((Number) v).longValue();
+    }
+
+    /** Field-by-field copy; timestamps are restored last since setters overwrite updated_at. */
+    private static WaitingListEntry copyOf(WaitingListEntry src) {
+        if (src == null) return null;
+        WaitingListEntry c = new WaitingListEntry();
+        c.setId(src.getId());
+        c.setEvent_id(src.getEvent_id());
+        c.setEntrant_id(src.getEntrant_id());
+        c.setEntrant_name(src.getEntrant_name());
+        c.setEntrant_email(src.getEntrant_email());
+        c.setStatus(src.getStatus());
+        c.setJoined_at(src.getJoined_at());
+        c.setSelected_at(src.getSelected_at());
+        c.setResponded_at(src.getResponded_at());
+        c.setDecline_reason(src.getDecline_reason());
+        c.setResponse_window_hours(src.getResponse_window_hours());
+        c.setLatitude(src.getLatitude());
+        c.setLongitude(src.getLongitude());
+        c.setGeohash(src.getGeohash());
+        c.setUpdated_at(src.getUpdated_at());
+        return c;
+    }
+}
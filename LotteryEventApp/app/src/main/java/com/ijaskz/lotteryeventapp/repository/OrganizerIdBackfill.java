@@ -0,0 +1,158 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One-shot migration that sets "organizer_id" on events created before the field existed.
+ *
+ * <p>Organizer screens query events by organizer_id, so older events, which only store
+ * the organizer's display name, do not show up for their organizer until this has run.
+ * Each event's organizer_name is matched against the names of users with the organizer
+ * type. A name shared by several organizers is ambiguous and left alone, as is a name no
+ * organizer has; both are counted in the {@link Report}.</p>
+ *
+ * <p>Events that already have an organizer_id are skipped, so the backfill can be re-run
+ * after a failure.</p>
+ */
+public class OrganizerIdBackfill {
+
+    /** Event documents read per page; each page is written in one batch (max 500). */
+    static final int PAGE_SIZE = 200;
+
+    /**
+     * Totals for a backfill run.
+     */
+    public static final class Report {
+        private int scanned;
+        private int updated;
+        private int ambiguous;
+        private int unmatched;
+
+        /** @return number of events read */
+        public int getScanned() { return scanned; }
+
+        /** @return number of events given an organizer_id */
+        public int getUpdated() { return updated; }
+
+        /** @return number of events whose organizer name belongs to several organizers */
+        public int getAmbiguous() { return ambiguous; }
+
+        /** @return number of events whose organizer name matches no organizer */
+        public int getUnmatched() { return unmatched; }
+
+        @Override
+        public String toString() {
+            return "scanned=" + scanned + " updated=" + updated
+                    + " ambiguous=" + ambiguous + " unmatched=" + unmatched;
+        }
+    }
+
+    /**
+     * Callback for {@link #run(OnBackfillListener)}.
+     */
+    public interface OnBackfillListener {
+        /**
+         * Called once every page has been processed.
+         * @param report totals
+         */
+        void onComplete(Report report);
+
+        /**
+         * Called if organizers or a page could not be read or written. Pages already
+         * written stay updated.
+         */
+        void onError(Exception e);
+    }
+
+    private final FirebaseFirestore db;
+
+    public OrganizerIdBackfill() {
+        this(FirebaseFirestore.getInstance());
+    }
+
+    public OrganizerIdBackfill(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    /**
+     * Loads the organizers, then backfills every event one page at a time.
+     * @param listener receives the totals
+     */
+    public void run(OnBackfillListener listener) {
+        db.collection("users")
+                .whereEqualTo("user_type", "organizer")
+                .get()
+                .addOnSuccessListener(snap -> {
+                    Map<String, String> idByName = new HashMap<>();
+                    Set<String> ambiguousNames = new HashSet<>();
+                    for (DocumentSnapshot user : snap.getDocuments()) {
+                        String name = user.getString("user_name");
+                        if (name == null) continue;
+                        String previous = idByName.put(name, user.getId());
+                        if (previous != null && !previous.equals(user.getId())) {
+                            ambiguousNames.add(name);
+                        }
+                    }
+                    for (String name : ambiguousNames) {
+                        idByName.remove(name);
+                    }
+                    backfillPage(null, idByName, ambiguousNames, new Report(), listener);
+                })
+                .addOnFailureListener(listener::onError);
+    }
+
+    private void backfillPage(@Nullable DocumentSnapshot after, Map<String, String> idByName,
+                              Set<String> ambiguousNames, Report report, OnBackfillListener listener) {
+        Query page = db.collection("events").orderBy(FieldPath.documentId()).limit(PAGE_SIZE);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        page.get()
+                .addOnSuccessListener(snap -> {
+                    List<DocumentSnapshot> docs = snap.getDocuments();
+                    report.scanned += docs.size();
+
+                    WriteBatch batch = db.batch();
+                    int writes = 0;
+                    for (DocumentSnapshot doc : docs) {
+                        if (doc.getString("organizer_id") != null) continue;
+                        String name = doc.getString("organizer_name");
+                        String organizerId = name != null ? idByName.get(name) : null;
+                        if (organizerId != null) {
+                            batch.update(doc.getReference(), "organizer_id", organizerId);
+                            writes++;
+                        } else if (name != null && ambiguousNames.contains(name)) {
+                            report.ambiguous++;
+                        } else {
+                            report.unmatched++;
+                        }
+                    }
+
+                    int pageWrites = writes;
+                    batch.commit()
+                            .addOnSuccessListener(unused -> {
+                                report.updated += pageWrites;
+                                if (docs.size() < PAGE_SIZE) {
+                                    listener.onComplete(report);
+                                } else {
+                                    backfillPage(docs.get(docs.size() - 1), idByName,
+                                            ambiguousNames, report, listener);
+                                }
+                            })
+                            .addOnFailureListener(listener::onError);
+                })
+                .addOnFailureListener(listener::onError);
+    }
+}
@@ -0,0 +1,305 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-status waiting list counters for an event, stored as sharded counters in
+ * {@code events/{event_id}/waiting_list_counters}.
+ *
+ * <p>Each shard document ("shard_0" .. "shard_9") holds one numeric field per status.
+ * Every write that adds, removes or changes the status of a waiting list entry also
+ * increments a randomly picked shard in the same batch or transaction, so popular events
+ * do not contend on a single counter document. Reading the counts costs one read per
+ * shard, however long the list is.</p>
+ *
+ * <p>Every entry has exactly one status, so the event's total is the sum of all shard
+ * fields; there is no separate total for every join and leave to contend on. A join
+ * against a waiting list limit reads all shards in its transaction to check the total;
+ * joins without a limit and leaves only write one shard.</p>
+ *
+ * <p>The "meta" document's "initialized_at" field marks events whose counters have been
+ * kept since the event was created. Events created before counters existed have no such
+ * field; their counts come from aggregation queries over "waiting_list" instead. Its
+ * "entrants" field, written by earlier versions, is no longer kept up to date.</p>
+ */
+public class WaitingListCounters {
+
+    /** Number of shard documents per event. */
+    public static final int NUM_SHARDS = 10;
+
+    static final String COLLECTION = "waiting_list_counters";
+    private static final String META_DOC = "meta";
+
+    private final FirebaseFirestore db;
+
+    public WaitingListCounters() {
+        this(FirebaseFirestore.getInstance());
+    }
+
+    public WaitingListCounters(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    private CollectionReference collection(String eventId) {
+        return db.collection("events").document(eventId).collection(COLLECTION);
+    }
+
+    /**
+     * Marks a new event's counters as complete. Call this in the batch that creates the
+     * event, before anyone can join its waiting list.
+     * @param batch batch creating the event
+     * @param eventId id of the new event
+     */
+    public void initialize(WriteBatch batch, String eventId) {
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("initialized_at", System.currentTimeMillis());
+        meta.put("shards", NUM_SHARDS);
+        batch.set(meta(eventId), meta);
+    }
+
+    /** @return the event's "meta" document, holding the initialized marker */
+    DocumentReference meta(String eventId) {
+        return collection(eventId).document(META_DOC);
+    }
+
+    /** @return true if the meta snapshot belongs to an event whose counters are complete */
+    static boolean isInitialized(@Nullable DocumentSnapshot meta) {
+        return meta != null && meta.exists() && meta.contains("initialized_at");
+    }
+
+    /** @return every shard of the event's counters */
+    List<DocumentReference> shards(String eventId) {
+        List<DocumentReference> shards = new ArrayList<>(NUM_SHARDS);
+        for (int i = 0; i < NUM_SHARDS; i++) {
+            shards.add(collection(eventId).document("shard_" + i));
+        }
+        return shards;
+    }
+
+    /** @return a randomly chosen shard of the event's counters */
+    DocumentReference randomShard(String eventId) {
+        return collection(eventId).document("shard_" + ThreadLocalRandom.current().nextInt(NUM_SHARDS));
+    }
+
+    /**
+     * Field increments that move {@code count} entries from one status to another, for a
+     * merge-set on a shard. A null status means the entries are being added or removed.
+     * @return the increments, or an empty map if nothing changes
+     */
+    static Map<String, Object> move(@Nullable String from, @Nullable String to, int count) {
+        Map<String, Integer> deltas = new HashMap<>();
+        addDelta(deltas, from, -count);
+        addDelta(deltas, to, count);
+        return increments(deltas);
+    }
+
+    /**
+     * Adds {@code delta} to the running change for {@code status}; null statuses are ignored.
+     */
+    static void addDelta(Map<String, Integer> deltas, @Nullable String status, int delta) {
+        if (status == null || delta == 0) return;
+        Integer current = deltas.get(status);
+        deltas.put(status, (current == null ? 0 : current) + delta);
+    }
+
+    /** Converts per-status deltas into increments, dropping statuses that net to zero. */
+    static Map<String, Object> increments(Map<String, Integer> deltas) {
+        Map<String, Object> fields = new HashMap<>();
+        for (Map.Entry<String, Integer> e : deltas.entrySet()) {
+            if (e.getValue() != 0) {
+                fields.put(e.getKey(), FieldValue.increment(e.getValue()));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Loads an event's counts by summing its shards, or with aggregation queries if the
+     * event has no counters.
+     * @param eventId event id
+     * @param listener receives the counts
+     */
+    void load(String eventId, WaitingListRepository.OnCountsListener listener) {
+        collection(eventId).get()
+                .addOnSuccessListener(snap -> {
+                    if (hasInitializedMeta(snap)) {
+                        listener.onCounts(WaitingListCounts.fromStatusCounts(sumShards(snap)));
+                    } else {
+                        aggregate(eventId, listener);
+                    }
+                })
+                .addOnFailureListener(listener::onError);
+    }
+
+    /**
+     * Loads an event's total number of entries by summing its shards, or with an aggregation
+     * query if the event has no counters.
+     * @param eventId event id
+     * @param listener receives the total
+     */
+    void loadTotal(String eventId, WaitingListRepository.OnCountListener listener) {
+        collection(eventId).get()
+                .addOnSuccessListener(snap -> {
+                    if (hasInitializedMeta(snap)) {
+                        listener.onCount(WaitingListCounts.fromStatusCounts(sumShards(snap)).getTotal());
+                        return;
+                    }
+                    db.collection(FirestoreWaitingListRepository.COLLECTION)
+                            .whereEqualTo("event_id", eventId)
+                            .count()
+                            .get(AggregateSource.SERVER)
+                            .addOnSuccessListener(result -> listener.onCount((int) result.getCount()))
+                            .addOnFailureListener(listener::onError);
+                })
+                .addOnFailureListener(listener::onError);
+    }
+
+    /**
+     * Corrects an event's counters where they disagree with aggregation counts of its
+     * entries, e.g. after a batch moved an entry from a status it no longer had.
+     *
+     * <p>The shards are read before and after counting. If they changed in between, a
+     * counted write landed during the count and the two cannot be compared, so nothing is
+     * corrected; the next recount will. Otherwise the difference is added to one shard as
+     * increments, which stays right even if other writes land before it. Events without
+     * counters are left alone.</p>
+     * @param eventId event id
+     * @param listener told when the counters are correct or have been left as they were
+     */
+    void recount(String eventId, WaitingListRepository.OnWriteListener listener) {
+        collection(eventId).get()
+                .addOnSuccessListener(before -> {
+                    if (!hasInitializedMeta(before)) {
+                        listener.onSuccess();
+                        return;
+                    }
+                    aggregate(eventId, new WaitingListRepository.OnCountsListener() {
+                        @Override
+                        public void onCounts(WaitingListCounts counts) {
+                            collection(eventId).get()
+                                    .addOnSuccessListener(after -> {
+                                        Map<String, Long> kept = sumShards(after);
+                                        if (!kept.equals(sumShards(before))) {
+                                            listener.onSuccess();
+                                            return;
+                                        }
+                                        correct(eventId, counts, kept, listener);
+                                    })
+                                    .addOnFailureListener(listener::onFailure);
+                        }
+
+                        @Override
+                        public void onError(Exception e) {
+                            listener.onFailure(e);
+                        }
+                    });
+                })
+                .addOnFailureListener(listener::onFailure);
+    }
+
+    /** Adds the difference between the counted and the kept values to one shard. */
+    private void correct(String eventId, WaitingListCounts counted, Map<String, Long> kept,
+                         WaitingListRepository.OnWriteListener listener) {
+        Map<String, Object> fixes = increments(corrections(counted, kept));
+        if (fixes.isEmpty()) {
+            listener.onSuccess();
+            return;
+        }
+        randomShard(eventId).set(fixes, SetOptions.merge())
+                .addOnSuccessListener(aVoid -> listener.onSuccess())
+                .addOnFailureListener(listener::onFailure);
+    }
+
+    /**
+     * @param counted aggregation counts of the entries
+     * @param kept sums of the shards
+     * @return per-status deltas that bring {@code kept} to {@code counted}
+     */
+    static Map<String, Integer> corrections(WaitingListCounts counted, Map<String, Long> kept) {
+        Map<String, Integer> deltas = new HashMap<>();
+        for (String status : WaitingListCounts.STATUSES) {
+            Long current = kept.get(status);
+            addDelta(deltas, status, (int) (counted.get(status) - (current == null ? 0 : current)));
+        }
+        return deltas;
+    }
+
+    /** @return true if the counter documents include an initialized meta document */
+    private static boolean hasInitializedMeta(Iterable<? extends DocumentSnapshot> docs) {
+        for (DocumentSnapshot doc : docs) {
+            if (META_DOC.equals(doc.getId())) {
+                return isInitialized(doc);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds up each numeric field over the shard documents; the meta document is skipped.
+     * @return count per status
+     */
+    static Map<String, Long> sumShards(Iterable<? extends DocumentSnapshot> docs) {
+        Map<String, Long> sums = new HashMap<>();
+        for (DocumentSnapshot doc : docs) {
+            if (META_DOC.equals(doc.getId()) || !doc.exists()) continue;
+            Map<String, Object> data = doc.getData();
+            if (data == null) continue;
+            for (Map.Entry<String, Object> field : data.entrySet()) {
+                if (field.getValue() instanceof Number) {
+                    Long sum = sums.get(field.getKey());
+                    sums.put(field.getKey(), (sum == null ? 0 : sum)
+                            + ((Number) field.getValue()).longValue());
+                }
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * Counts an event's entries with server-side count queries: one for the total and one
+     * per status. Each is billed as one read per 1000 matching entries.
+     */
+    private void aggregate(String eventId, WaitingListRepository.OnCountsListener listener) {
+        Query byEvent = db.collection(FirestoreWaitingListRepository.COLLECTION)
+                .whereEqualTo("event_id", eventId);
+        List<Task<AggregateQuerySnapshot>> tasks = new ArrayList<>();
+        tasks.add(byEvent.count().get(AggregateSource.SERVER));
+        for (String status : WaitingListCounts.STATUSES) {
+            tasks.add(byEvent.whereEqualTo("status", status).count().get(AggregateSource.SERVER));
+        }
+        Tasks.whenAllComplete(tasks)
+                .addOnSuccessListener(done -> {
+                    for (Task<AggregateQuerySnapshot> task : tasks) {
+                        if (!task.isSuccessful()) {
+                            listener.onError(task.getException());
+                            return;
+                        }
+                    }
+                    Map<String, Integer> counts = new HashMap<>();
+                    for (int i = 0; i < WaitingListCounts.STATUSES.size(); i++) {
+                        counts.put(WaitingListCounts.STATUSES.get(i), (int) tasks.get(i + 1).getResult().getCount());
+                    }
+                    listener.onCounts(new WaitingListCounts(counts, (int) tasks.get(0).getResult().getCount()));
+                })
+                .addOnFailureListener(listener::onError);
+    }
+}
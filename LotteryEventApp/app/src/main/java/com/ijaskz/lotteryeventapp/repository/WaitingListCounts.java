@@ -0,0 +1,79 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Number of waiting list entries per status for one event.
+ *
+ * <p>Instances are immutable. Statuses that were never counted read as zero.</p>
+ */
+public final class WaitingListCounts {
+
+    /** Statuses an entry moves through; these are the counters kept per event. */
+    public static final List<String> STATUSES = Collections.unmodifiableList(Arrays.asList(
+            "waiting", "selected", "not_selected", "accepted", "declined", "cancelled"));
+
+    private static final WaitingListCounts EMPTY = new WaitingListCounts(Collections.<String, Integer>emptyMap(), 0);
+
+    private final Map<String, Integer> byStatus;
+    private final int total;
+
+    /**
+     * @param byStatus status to number of entries
+     * @param total number of entries regardless of status; may exceed the sum of
+     *              {@code byStatus} if some entries have a status that is not counted
+     */
+    public WaitingListCounts(Map<String, Integer> byStatus, int total) {
+        this.byStatus = Collections.unmodifiableMap(new HashMap<>(byStatus));
+        this.total = Math.max(0, total);
+    }
+
+    /** @return counts for an event with no entries */
+    public static WaitingListCounts empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds counts from per-status values, with the total as their sum.
+     * Negative values (e.g. from a counter that drifted) are clamped to zero.
+     * @param byStatus status to number of entries
+     */
+    public static WaitingListCounts fromStatusCounts(Map<String, ? extends Number> byStatus) {
+        Map<String, Integer> counts = new HashMap<>();
+        long sum = 0;
+        for (Map.Entry<String, ? extends Number> e : byStatus.entrySet()) {
+            int value = (int) Math.max(0, Math.min(Integer.MAX_VALUE, e.getValue().longValue()));
+            counts.put(e.getKey(), value);
+            sum += value;
+        }
+        return new WaitingListCounts(counts, (int) Math.min(Integer.MAX_VALUE, sum));
+    }
+
+    /**
+     * @param status status value, e.g. "waiting"
+     * @return number of entries with that status
+     */
+    public int get(String status) {
+        Integer count = byStatus.get(status);
+        return count == null ? 0 : count;
+    }
+
+    /** @return number of entries regardless of status */
+    public int getTotal() {
+        return total;
+    }
+
+    /** @return status to number of entries, for statuses that were counted */
+    public Map<String, Integer> asMap() {
+        return byStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "WaitingListCounts" + byStatus + " total=" + total;
+    }
+}
@@ -0,0 +1,220 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One-shot migration that moves "waiting_list" documents to the id returned by
+ * {@link WaitingListEntry#documentId(String, String)}: those with auto-generated ids, and
+ * those stored under the earlier "{eventId}_{entrantId}" form, which two different pairs
+ * could share. The target is always computed from the document's own event_id and
+ * entrant_id fields, never parsed from its id.
+ *
+ * <p>Lookups, status changes and leaves address entries by that id without a query, so
+ * entries stored under their old ids are invisible to them until this has run. Each entry
+ * is moved in its own transaction: the data is copied to the new id and the old document
+ * deleted. If the entrant already has an entry under the new id, the old document is a
+ * duplicate from a racing join; it is deleted and the event's counters are lowered to
+ * match. Within a page, the entrant's earliest join is the one that is kept.</p>
+ *
+ * <p>The migration is idempotent, so it can be re-run after a failure.</p>
+ */
+public class WaitingListIdMigration {
+
+    /** Documents read per page. */
+    static final int PAGE_SIZE = 200;
+
+    /** What one group's transaction did. */
+    private static final class GroupResult {
+        int moved;
+        int duplicates;
+    }
+
+    /**
+     * Totals for a migration run.
+     */
+    public static final class Report {
+        private int scanned;
+        private int moved;
+        private int duplicates;
+        private int failed;
+
+        /** @return number of documents read */
+        public int getScanned() { return scanned; }
+
+        /** @return number of entries moved to their new id */
+        public int getMoved() { return moved; }
+
+        /** @return number of duplicate entries deleted */
+        public int getDuplicates() { return duplicates; }
+
+        /** @return number of entries that could not be migrated */
+        public int getFailed() { return failed; }
+
+        @Override
+        public String toString() {
+            return "scanned=" + scanned + " moved=" + moved
+                    + " duplicates=" + duplicates + " failed=" + failed;
+        }
+    }
+
+    /**
+     * Callback for {@link #run(OnMigrationListener)}.
+     */
+    public interface OnMigrationListener {
+        /**
+         * Called once every page has been processed.
+         * @param report totals; entries counted as failed can be retried by running again
+         */
+        void onComplete(Report report);
+
+        /**
+         * Called if a page could not be read. Pages already processed stay migrated.
+         */
+        void onError(Exception e);
+    }
+
+    private final FirebaseFirestore db;
+    private final WaitingListCounters counters;
+
+    public WaitingListIdMigration() {
+        this(FirebaseFirestore.getInstance());
+    }
+
+    public WaitingListIdMigration(FirebaseFirestore db) {
+        this.db = db;
+        this.counters = new WaitingListCounters(db);
+    }
+
+    private CollectionReference collection() {
+        return db.collection(FirestoreWaitingListRepository.COLLECTION);
+    }
+
+    /**
+     * Migrates every entry in the collection, one page at a time.
+     * @param listener receives the totals
+     */
+    public void run(OnMigrationListener listener) {
+        migratePage(null, new Report(), listener);
+    }
+
+    private void migratePage(@Nullable DocumentSnapshot after, Report report, OnMigrationListener listener) {
+        Query page = collection().orderBy(FieldPath.documentId()).limit(PAGE_SIZE);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        page.get()
+                .addOnSuccessListener(snap -> {
+                    List<DocumentSnapshot> docs = snap.getDocuments();
+                    report.scanned += docs.size();
+
+                    // Earliest legacy entry per composite id is moved, later ones are duplicates
+                    Map<String, List<DocumentSnapshot>> byTarget = new LinkedHashMap<>();
+                    for (DocumentSnapshot doc : docs) {
+                        String target;
+                        try {
+                            target = WaitingListEntry.documentId(
+                                    doc.getString("event_id"), doc.getString("entrant_id"));
+                        } catch (IllegalArgumentException e) {
+                            report.failed++;
+                            continue;
+                        }
+                        if (target.equals(doc.getId())) continue;
+                        List<DocumentSnapshot> group = byTarget.get(target);
+                        if (group == null) {
+                            group = new ArrayList<>();
+                            byTarget.put(target, group);
+                        }
+                        group.add(doc);
+                    }
+
+                    List<Task<GroupResult>> tasks = new ArrayList<>();
+                    List<Integer> sizes = new ArrayList<>();
+                    for (Map.Entry<String, List<DocumentSnapshot>> group : byTarget.entrySet()) {
+                        List<DocumentSnapshot> legacy = group.getValue();
+                        legacy.sort((a, b) -> Long.compare(joinedAt(a), joinedAt(b)));
+                        tasks.add(migrateGroup(collection().document(group.getKey()), legacy));
+                        sizes.add(legacy.size());
+                    }
+
+                    Tasks.whenAllComplete(tasks).addOnCompleteListener(done -> {
+                        for (int i = 0; i < tasks.size(); i++) {
+                            Task<GroupResult> task = tasks.get(i);
+                            if (task.isSuccessful()) {
+                                report.moved += task.getResult().moved;
+                                report.duplicates += task.getResult().duplicates;
+                            } else {
+                                report.failed += sizes.get(i);
+                            }
+                        }
+                        if (docs.size() < PAGE_SIZE) {
+                            listener.onComplete(report);
+                        } else {
+                            migratePage(docs.get(docs.size() - 1), report, listener);
+                        }
+                    });
+                })
+                .addOnFailureListener(listener::onError);
+    }
+
+    /**
+     * Moves the first legacy document of a group to {@code target} (unless an entry is
+     * already there) and deletes the rest as duplicates, in one transaction.
+     */
+    private Task<GroupResult> migrateGroup(DocumentReference target, List<DocumentSnapshot> legacy) {
+        return db.runTransaction(tx -> {
+            // All reads must come before any write in a transaction
+            boolean targetExists = tx.get(target).exists();
+            List<DocumentSnapshot> current = new ArrayList<>();
+            for (DocumentSnapshot doc : legacy) {
+                DocumentSnapshot fresh = tx.get(doc.getReference());
+                if (fresh.exists()) current.add(fresh);
+            }
+
+            GroupResult result = new GroupResult();
+            for (DocumentSnapshot doc : current) {
+                if (!targetExists) {
+                    Map<String, Object> data = doc.getData();
+                    tx.set(target, data != null ? data : new LinkedHashMap<String, Object>());
+                    targetExists = true;
+                    result.moved++;
+                } else {
+                    dropCounters(tx, doc);
+                    result.duplicates++;
+                }
+                tx.delete(doc.getReference());
+            }
+            return result;
+        });
+    }
+
+    /** Lowers the event's counters for a duplicate entry that is being deleted. */
+    private void dropCounters(Transaction tx, DocumentSnapshot duplicate) {
+        String eventId = duplicate.getString("event_id");
+        Map<String, Object> moved = WaitingListCounters.move(duplicate.getString("status"), null, 1);
+        if (!moved.isEmpty()) {
+            tx.set(counters.randomShard(eventId), moved, SetOptions.merge());
+        }
+    }
+
+    private static long joinedAt(DocumentSnapshot doc) {
+        Long joined = doc.getLong("joined_at");
+        return joined != null ? joined : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,200 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import androidx.annotation.Nullable;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage abstraction for the "waiting_list" collection.
+ *
+ * <p>{@link com.ijaskz.lotteryeventapp.WaitingListManager} talks to this interface instead of
+ * Firestore directly, so the lottery, join and notification flows can run against
+ * {@link FirestoreWaitingListRepository} in the app and {@link InMemoryWaitingListRepository}
+ * in JVM tests and load tests.</p>
+ *
+ * <p>Field names in update maps use the Firestore document field names
+ * (e.g. "status", "updated_at", "selected_at").</p>
+ */
+public interface WaitingListRepository {
+
+    /**
+     * Loads a single entry by its document id.
+     * @param entryId waiting_list document id
+     * @param listener receives the entry, or null if it does not exist
+     */
+    void getById(String entryId, OnEntryLoadedListener listener);
+
+    /**
+     * Finds the entry for a given entrant on a given event. Entries are stored under
+     * {@link WaitingListEntry#documentId(String, String)}, so this is a single-document read.
+     * @param eventId event id
+     * @param entrantId user id of the entrant
+     * @param listener receives the entry, or null if the entrant is not on the list
+     */
+    void findEntry(String eventId, String entrantId, OnEntryLoadedListener listener);
+
+    /**
+     * Loads every entry for an event, regardless of status.
+     * @param eventId event id
+     * @param listener receives the entries
+     */
+    void findByEvent(String eventId, OnEntriesLoadedListener listener);
+
+    /**
+     * Loads every entry for an event with the given status.
+     * @param eventId event id
+     * @param status status value (e.g. "waiting", "selected")
+     * @param listener receives the entries
+     */
+    void findByEventAndStatus(String eventId, String status, OnEntriesLoadedListener listener);
+
+    /**
+     * Reads an event's entries with the given status one page at a time, in document id
+     * order, so a long list can be processed without holding all of it. The next page is
+     * read only after {@link OnPageListener#onPage} returns.
+     * @param eventId event id
+     * @param status status value (e.g. "waiting", "not_selected")
+     * @param pageSize maximum number of entries per page
+     * @param listener receives each page, then completion or an error
+     */
+    void scanByEventAndStatus(String eventId, String status, int pageSize, OnPageListener listener);
+
+    /**
+     * Loads every entry belonging to an entrant, across all events. May answer twice: first
+     * with what is stored on the device, then with the entries brought up to date.
+     * @param entrantId user id of the entrant
+     * @param listener receives the entries
+     */
+    void findByEntrant(String entrantId, OnEntriesLoadedListener listener);
+
+    /**
+     * Counts the entries for an event, regardless of status.
+     * @param eventId event id
+     * @param listener receives the count
+     */
+    void countByEvent(String eventId, OnCountListener listener);
+
+    /**
+     * Counts the entries for an event per status. Implementations keep these counts up to
+     * date on every write, so this does not read the entries themselves.
+     * @param eventId event id
+     * @param listener receives the counts
+     */
+    void countByStatus(String eventId, OnCountsListener listener);
+
+    /**
+     * Stores a new entry under {@link WaitingListEntry#documentId(String, String)}. On success
+     * the document id is set on {@code entry}. Fails if the entrant is already on the list.
+     * @param entry entry to store (event_id and entrant_id must be set)
+     * @param listener callback for completion or error
+     */
+    void add(WaitingListEntry entry, OnWriteListener listener);
+
+    /**
+     * Adds an entrant to an event's waiting list in one atomic step. The entry is stored under
+     * {@link WaitingListEntry#documentId(String, String)}, so repeating a join never creates a
+     * second entry, and the capacity check and the insert happen together, so concurrent joins
+     * never push the list past {@code capacity}. On {@link JoinResult#JOINED} the document id
+     * is set on {@code entry}.
+     * @param entry entry to store (event_id and entrant_id must be set)
+     * @param capacity maximum number of entries on the event's list; zero or less for no limit
+     * @param listener receives the outcome
+     */
+    void join(WaitingListEntry entry, int capacity, OnJoinListener listener);
+
+    /**
+     * Applies field updates to a single existing entry.
+     * @param entryId waiting_list document id
+     * @param updates field name to new value
+     * @param listener callback for completion or error; fails with
+     *                 {@link EntryNotFoundException} if the entry does not exist
+     */
+    void update(String entryId, Map<String, Object> updates, OnWriteListener listener);
+
+    /**
+     * Applies the same field updates to several existing entries. Implementations may split
+     * large updates into several atomic chunks; if only some of them fail, the listener
+     * receives a {@link BatchWriteException} describing each chunk.
+     * @param entryIds waiting_list document ids
+     * @param updates field name to new value
+     * @param listener callback for completion or error
+     */
+    void updateAll(List<String> entryIds, Map<String, Object> updates, OnWriteListener listener);
+
+    /**
+     * Like {@link #updateAll(List, Map, OnWriteListener)}, for entries the caller has already
+     * loaded. When the updates change "status", the status counters are moved using each
+     * entry's status as loaded, without reading the entries again; implementations correct
+     * counters left wrong by a status that changed since.
+     * @param entries entries to update (must have ids)
+     * @param updates field name to new value
+     * @param listener callback for completion or error
+     */
+    void updateEntries(List<WaitingListEntry> entries, Map<String, Object> updates, OnWriteListener listener);
+
+    /**
+     * Deletes an entry.
+     * @param entryId waiting_list document id
+     * @param listener callback for completion or error; fails with
+     *                 {@link EntryNotFoundException} if the entry does not exist
+     */
+    void delete(String entryId, OnWriteListener listener);
+
+    /** Callback for single-entry lookups. */
+    interface OnEntryLoadedListener {
+        void onLoaded(@Nullable WaitingListEntry entry);
+        void onError(Exception e);
+    }
+
+    /** Callback for multi-entry lookups. */
+    interface OnEntriesLoadedListener {
+        void onLoaded(List<WaitingListEntry> entries);
+        void onError(Exception e);
+    }
+
+    /** Callback for paged reads. */
+    interface OnPageListener {
+        /** Receives the next page; never empty. */
+        void onPage(List<WaitingListEntry> entries);
+        /** Called once after the last page. */
+        void onComplete();
+        void onError(Exception e);
+    }
+
+    /** Callback for count lookups. */
+    interface OnCountListener {
+        void onCount(int count);
+        void onError(Exception e);
+    }
+
+    /** Callback for per-status count lookups. */
+    interface OnCountsListener {
+        void onCounts(WaitingListCounts counts);
+        void onError(Exception e);
+    }
+
+    /** Outcome of {@link #join(WaitingListEntry, int, OnJoinListener)}. */
+    enum JoinResult {
+        /** The entrant was added. */
+        JOINED,
+        /** The entrant was already on the list; nothing was written. */
+        ALREADY_JOINED,
+        /** The list is at capacity; nothing was written. */
+        FULL
+    }
+
+    /** Callback for joins. */
+    interface OnJoinListener {
+        void onResult(JoinResult result);
+        void onError(Exception e);
+    }
+
+    /** Callback for writes. */
+    interface OnWriteListener {
+        void onSuccess();
+        void onFailure(Exception e);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+/**
+ * Reported when a join is rejected because the event's waiting list is at its limit.
+ */
+public class WaitlistFullException extends Exception {
+
+    public WaitlistFullException() {
+        super("Waitlist is full for this event.");
+    }
+}
@@ -0,0 +1,339 @@
+package com.ijaskz.lotteryeventapp.search;
+
+import com.ijaskz.lotteryeventapp.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory search index over event names and descriptions.
+ *
+ * <p>Text is split into lowercase word tokens. Each token maps to the events containing it
+ * (a sorted map, so prefix queries are a range scan), and each three-letter sequence
+ * (trigram) maps to the tokens containing it, which finds words by an inner substring or
+ * by a misspelling. Every query word must match, by one of:</p>
+ * <ul>
+ *     <li>the whole token or its start ("con" finds "concert"),</li>
+ *     <li>a substring inside the token, for words of three letters or more
+ *     ("agon" finds "dragons"), or</li>
+ *     <li>a close spelling, when nothing matched exactly
+ *     ("concrt" finds "concert").</li>
+ * </ul>
+ * <p>Results are ranked by how well each word matched, counting name matches above
+ * description matches; ties keep the order the events were given to {@link #sync}.</p>
+ *
+ * <p>Updating is incremental: {@link #sync} only re-indexes events that were added or
+ * whose content changed. Not thread-safe; {@link EventSearcher} confines it to one
+ * worker thread.</p>
+ */
+public class EventSearchIndex {
+
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 2;
+
+    private static final int EXACT = 8;
+    private static final int PREFIX = 6;
+    private static final int INFIX = 4;
+    private static final int FUZZY = 2;
+
+    /** Shortest query word that is matched inside tokens or by spelling. */
+    private static final int MIN_GRAM_TERM = 3;
+
+    private final Map<String, Integer> docByEventId = new HashMap<>();
+    private final List<Event> events = new ArrayList<>();
+    private final List<String[]> docTokens = new ArrayList<>();
+    private int[] positions = new int[16];
+    private final List<Integer> freeDocs = new ArrayList<>();
+
+    /** token -> (doc -> NAME/DESCRIPTION bits) */
+    private final TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    /** trigram -> tokens containing it */
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    /** @return number of indexed events */
+    public int size() {
+        return docByEventId.size();
+    }
+
+    /**
+     * Makes the index hold exactly {@code current}. Events without an id are skipped.
+     * An event is re-indexed only if it is new or its content changed, so syncing a
+     * snapshot where one event was edited costs one re-index plus a pass over the ids.
+     * @param current the events, in the order used to break ranking ties
+     */
+    public void sync(List<Event> current) {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < current.size(); i++) {
+            Event e = current.get(i);
+            String id = e.getEvent_id();
+            if (id == null || !seen.add(id)) continue;
+            Integer doc = docByEventId.get(id);
+            if (doc == null) {
+                doc = add(e);
+            } else if (events.get(doc) != e && !events.get(doc).hasSameContent(e)) {
+                remove(id);
+                doc = add(e);
+            } else {
+                events.set(doc, e);
+            }
+            positions[doc] = i;
+        }
+        List<String> gone = new ArrayList<>();
+        for (String id : docByEventId.keySet()) {
+            if (!seen.contains(id)) gone.add(id);
+        }
+        for (String id : gone) {
+            remove(id);
+        }
+    }
+
+    /**
+     * Removes an event from the index.
+     * @param eventId id of the event
+     */
+    public void remove(String eventId) {
+        Integer doc = docByEventId.remove(eventId);
+        if (doc == null) return;
+        for (String token : docTokens.get(doc)) {
+            Map<Integer, Integer> docs = postings.get(token);
+            docs.remove(doc);
+            if (docs.isEmpty()) {
+                postings.remove(token);
+                for (String gram : trigramsOf(token)) {
+                    Set<String> tokens = trigrams.get(gram);
+                    tokens.remove(token);
+                    if (tokens.isEmpty()) trigrams.remove(gram);
+                }
+            }
+        }
+        events.set(doc, null);
+        docTokens.set(doc, new String[0]);
+        freeDocs.add(doc);
+    }
+
+    /**
+     * @param query words to search for; blank returns no results
+     * @return matching events, best match first
+     */
+    public List<Event> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) return Collections.emptyList();
+
+        Map<Integer, Integer> scores = null;
+        for (String term : terms) {
+            Map<Integer, Integer> termScores = matchTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Integer, Integer> both = new HashMap<>();
+                for (Map.Entry<Integer, Integer> e : scores.entrySet()) {
+                    Integer s = termScores.get(e.getKey());
+                    if (s != null) both.put(e.getKey(), e.getValue() + s);
+                }
+                scores = both;
+            }
+            if (scores.isEmpty()) return Collections.emptyList();
+        }
+
+        List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        Collections.sort(ranked, (a, b) -> {
+            int byScore = Integer.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Integer.compare(positions[a.getKey()], positions[b.getKey()]);
+        });
+        List<Event> results = new ArrayList<>(ranked.size());
+        for (Map.Entry<Integer, Integer> e : ranked) {
+            results.add(events.get(e.getKey()));
+        }
+        return results;
+    }
+
+    /** Best score per doc for one query word. */
+    private Map<Integer, Integer> matchTerm(String term) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        NavigableMap<String, Map<Integer, Integer>> prefixed =
+                postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<Integer, Integer>> e : prefixed.entrySet()) {
+            addScores(scores, e.getValue(), e.getKey().equals(term) ? EXACT : PREFIX);
+        }
+        if (term.length() < MIN_GRAM_TERM) return scores;
+
+        for (String token : tokensContaining(term)) {
+            if (!token.startsWith(term)) {
+                addScores(scores, postings.get(token), INFIX);
+            }
+        }
+        if (scores.isEmpty()) {
+            for (String token : similarTokens(term)) {
+                addScores(scores, postings.get(token), FUZZY);
+            }
+        }
+        return scores;
+    }
+
+    private static void addScores(Map<Integer, Integer> scores, Map<Integer, Integer> docs, int weight) {
+        for (Map.Entry<Integer, Integer> d : docs.entrySet()) {
+            // A name match counts twice
+            int score = (d.getValue() & NAME) != 0 ? weight * 2 : weight;
+            Integer current = scores.get(d.getKey());
+            if (current == null || current < score) {
+                scores.put(d.getKey(), score);
+            }
+        }
+    }
+
+    /** Tokens that contain {@code term}, found by intersecting its trigrams' token sets. */
+    private Set<String> tokensContaining(String term) {
+        List<Set<String>> sets = new ArrayList<>();
+        for (String gram : trigramsOf(term)) {
+            Set<String> tokens = trigrams.get(gram);
+            if (tokens == null) return Collections.emptySet();
+            sets.add(tokens);
+        }
+        // Start from the rarest trigram so the intersection stays small
+        Collections.sort(sets, (x, y) -> Integer.compare(x.size(), y.size()));
+        Set<String> matches = new HashSet<>();
+        for (String token : sets.get(0)) {
+            if (token.contains(term)) matches.add(token);
+        }
+        return matches;
+    }
+
+    /**
+     * Tokens within one edit of {@code term} (two for words of seven letters or more),
+     * comparing against both the whole token and its start, so partly typed words match.
+     */
+    private List<String> similarTokens(String term) {
+        int maxEdits = term.length() >= 7 ? 2 : 1;
+        Set<String> grams = trigramsOf(term);
+        // Two strings within k edits share at least (grams - 3k) trigrams
+        int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> tokens = trigrams.get(gram);
+            if (tokens == null) continue;
+            for (String token : tokens) {
+                Integer n = shared.get(token);
+                shared.put(token, n == null ? 1 : n + 1);
+            }
+        }
+        List<String> similar = new ArrayList<>();
+        for (Map.Entry<String, Integer> e : shared.entrySet()) {
+            if (e.getValue() < minShared) continue;
+            String token = e.getKey();
+            String start = token.length() > term.length() ? token.substring(0, term.length()) : token;
+            if (editDistance(term, start, maxEdits) <= maxEdits
+                    || editDistance(term, token, maxEdits) <= maxEdits) {
+                similar.add(token);
+            }
+        }
+        return similar;
+    }
+
+    private int add(Event e) {
+        int doc;
+        if (freeDocs.isEmpty()) {
+            doc = events.size();
+            events.add(e);
+            docTokens.add(null);
+            if (doc >= positions.length) {
+                positions = Arrays.copyOf(positions, positions.length * 2);
+            }
+        } else {
+            doc = freeDocs.remove(freeDocs.size() - 1);
+            events.set(doc, e);
+        }
+        docByEventId.put(e.getEvent_id(), doc);
+
+        Map<String, Integer> fields = new HashMap<>();
+        for (String token : tokenize(e.getEvent_name())) {
+            fields.put(token, NAME);
+        }
+        for (String token : tokenize(e.getEvent_description())) {
+            Integer f = fields.get(token);
+            fields.put(token, f == null ? DESCRIPTION : f | DESCRIPTION);
+        }
+        for (Map.Entry<String, Integer> f : fields.entrySet()) {
+            Map<Integer, Integer> docs = postings.get(f.getKey());
+            if (docs == null) {
+                docs = new HashMap<>();
+                postings.put(f.getKey(), docs);
+                for (String gram : trigramsOf(f.getKey())) {
+                    Set<String> tokens = trigrams.get(gram);
+                    if (tokens == null) {
+                        tokens = new HashSet<>();
+                        trigrams.put(gram, tokens);
+                    }
+                    tokens.add(f.getKey());
+                }
+            }
+            docs.put(doc, f.getValue());
+        }
+        docTokens.set(doc, fields.keySet().toArray(new String[0]));
+        return doc;
+    }
+
+    /**
+     * Splits text into lowercase words of letters and digits.
+     * @param text text to split; may be null
+     * @return the distinct words in order
+     */
+    static List<String> tokenize(String text) {
+        if (text == null) return Collections.emptyList();
+        Set<String> tokens = new LinkedHashSet<>();
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static Set<String> trigramsOf(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            grams.add(token.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Levenshtein distance, giving up once it must exceed {@code max}.
+     * @return the distance, or {@code max + 1} if it is larger than {@code max}
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (rowMin > max) return max + 1;
+            int[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return Math.min(prev[b.length()], max + 1);
+    }
+}
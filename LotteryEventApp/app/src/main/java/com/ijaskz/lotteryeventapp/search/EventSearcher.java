@@ -0,0 +1,86 @@
+package com.ijaskz.lotteryeventapp.search;
+
+import com.ijaskz.lotteryeventapp.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs an {@link EventSearchIndex} on a background thread and debounces queries, so typing
+ * in the search box never blocks the main thread.
+ *
+ * <p>The index is only touched from the worker thread. {@link #setEvents} and
+ * {@link #search} are meant to be called from the main thread; results are delivered
+ * through the executor given to the constructor.</p>
+ */
+public class EventSearcher {
+
+    /** Delay after the last keystroke before a query runs. */
+    static final long DEBOUNCE_MS = 150;
+
+    /**
+     * Receives search results.
+     */
+    public interface Callback {
+        /**
+         * @param query the query the results are for; compare with the current text to
+         *              drop results for a query the user has already changed
+         * @param results matching events, best match first
+         */
+        void onResults(String query, List<Event> results);
+    }
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor();
+    private final EventSearchIndex index = new EventSearchIndex();
+    private final Executor callbackExecutor;
+    private final long debounceMs;
+    private ScheduledFuture<?> pending;
+
+    /**
+     * @param callbackExecutor executor results are delivered on, e.g. the main thread's
+     */
+    public EventSearcher(Executor callbackExecutor) {
+        this(callbackExecutor, DEBOUNCE_MS);
+    }
+
+    EventSearcher(Executor callbackExecutor, long debounceMs) {
+        this.callbackExecutor = callbackExecutor;
+        this.debounceMs = debounceMs;
+    }
+
+    /**
+     * Updates the index to hold exactly these events. Only new or changed events are
+     * re-indexed.
+     * @param events the events, in display order
+     */
+    public void setEvents(List<Event> events) {
+        List<Event> copy = new ArrayList<>(events);
+        worker.execute(() -> index.sync(copy));
+    }
+
+    /**
+     * Runs {@code query} once no other query has been requested for the debounce delay.
+     * A query replaced before it starts is dropped.
+     * @param query text typed by the user
+     * @param callback receives the results
+     */
+    public void search(String query, Callback callback) {
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = worker.schedule(() -> {
+            List<Event> results = index.search(query);
+            callbackExecutor.execute(() -> callback.onResults(query, results));
+        }, debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops the worker thread; the searcher cannot be used afterwards. */
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+}
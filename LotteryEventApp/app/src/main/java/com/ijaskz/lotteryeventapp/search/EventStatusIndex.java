@@ -0,0 +1,234 @@
+package com.ijaskz.lotteryeventapp.search;
+
+import androidx.annotation.Nullable;
+
+import com.ijaskz.lotteryeventapp.Event;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps every event in an Open / Upcoming / Closed / Not set bucket, so status filtering
+ * and row binding look the status up instead of comparing timestamps each time.
+ *
+ * <p>Each event's next boundary (registration start for upcoming events, the moment after
+ * registration end for open ones) is kept in a time-ordered queue. A single timer is armed
+ * for the earliest boundary; when it fires, the events that reached it move to their new
+ * bucket and the {@link Listener} is told which ones changed. There is no polling: with no
+ * boundary ahead, no timer is armed.</p>
+ *
+ * <p>Not thread-safe; use it and run the scheduler's tasks on one thread, e.g. the main
+ * thread.</p>
+ */
+public class EventStatusIndex {
+
+    /**
+     * Runs a task after a delay, e.g. by posting to a Handler.
+     */
+    public interface Scheduler {
+        /**
+         * @param task task to run
+         * @param delayMs delay in milliseconds
+         * @return cancels the task when run
+         */
+        Runnable schedule(Runnable task, long delayMs);
+    }
+
+    /**
+     * Told when events change bucket because a window boundary passed.
+     */
+    public interface Listener {
+        /**
+         * @param eventIds ids of the events whose status changed
+         */
+        void onStatusChanged(Set<String> eventIds);
+    }
+
+    private final Scheduler scheduler;
+    private final LongSupplier clock;
+    private final Listener listener;
+
+    private final Map<String, RegistrationStatus> statusById = new HashMap<>();
+    /** (start, end) in milliseconds, or null if the window is not set */
+    private final Map<String, long[]> windowById = new HashMap<>();
+    private final EnumMap<RegistrationStatus, Set<String>> buckets = new EnumMap<>(RegistrationStatus.class);
+    /** boundary time -> events whose status changes then */
+    private final TreeMap<Long, Set<String>> boundaries = new TreeMap<>();
+    private final Map<String, Long> boundaryById = new HashMap<>();
+
+    @Nullable private Runnable cancelTimer;
+    private long timerAt = Long.MAX_VALUE;
+
+    /**
+     * @param scheduler arms the timer for the next boundary
+     * @param clock current time in milliseconds
+     * @param listener told about status changes at boundaries
+     */
+    public EventStatusIndex(Scheduler scheduler, LongSupplier clock, Listener listener) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.listener = listener;
+        for (RegistrationStatus s : RegistrationStatus.values()) {
+            buckets.put(s, new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Makes the index hold exactly these events. Events whose window did not change keep
+     * their bucket; events without an id are skipped. The listener is not called for
+     * statuses set here.
+     * @param events the current events
+     */
+    public void sync(List<Event> events) {
+        long now = clock.getAsLong();
+        Set<String> seen = new HashSet<>();
+        for (Event e : events) {
+            String id = e.getEvent_id();
+            if (id == null || !seen.add(id)) continue;
+            long[] window = windowOf(e);
+            if (statusById.containsKey(id) && Arrays.equals(windowById.get(id), window)) continue;
+            windowById.put(id, window);
+            place(id, now);
+        }
+        for (String id : new HashSet<>(statusById.keySet())) {
+            if (!seen.contains(id)) remove(id);
+        }
+        arm();
+    }
+
+    /**
+     * @param e the event
+     * @return the event's current status; computed directly if the event is not indexed
+     */
+    public RegistrationStatus statusOf(Event e) {
+        RegistrationStatus status = e.getEvent_id() != null ? statusById.get(e.getEvent_id()) : null;
+        return status != null ? status : RegistrationStatus.of(e, clock.getAsLong());
+    }
+
+    /**
+     * @param status a status
+     * @return ids of the events with that status
+     */
+    public Set<String> bucket(RegistrationStatus status) {
+        return Collections.unmodifiableSet(buckets.get(status));
+    }
+
+    /**
+     * Moves every event whose boundary has passed, e.g. after the device slept through the
+     * timer. Calls the listener if any status changed.
+     */
+    public void refresh() {
+        advance();
+    }
+
+    /** Cancels the timer and empties the index. */
+    public void clear() {
+        disarm();
+        statusById.clear();
+        windowById.clear();
+        boundaries.clear();
+        boundaryById.clear();
+        for (Set<String> bucket : buckets.values()) {
+            bucket.clear();
+        }
+    }
+
+    private void advance() {
+        disarm();
+        long now = clock.getAsLong();
+        Set<String> changed = new LinkedHashSet<>();
+        while (!boundaries.isEmpty() && boundaries.firstKey() <= now) {
+            for (String id : boundaries.pollFirstEntry().getValue()) {
+                boundaryById.remove(id);
+                RegistrationStatus before = statusById.get(id);
+                if (place(id, now) != before) changed.add(id);
+            }
+        }
+        arm();
+        if (!changed.isEmpty()) {
+            listener.onStatusChanged(changed);
+        }
+    }
+
+    /** Puts an event in the bucket for {@code now} and queues its next boundary. */
+    private RegistrationStatus place(String id, long now) {
+        long[] window = windowById.get(id);
+        RegistrationStatus status = window == null
+                ? RegistrationStatus.NOT_SET
+                : RegistrationStatus.of(window[0], window[1], now);
+        RegistrationStatus before = statusById.put(id, status);
+        if (before != null) buckets.get(before).remove(id);
+        buckets.get(status).add(id);
+
+        unqueue(id);
+        long next = status == RegistrationStatus.UPCOMING ? window[0]
+                : status == RegistrationStatus.OPEN ? window[1] + 1
+                : Long.MAX_VALUE;
+        if (next != Long.MAX_VALUE) {
+            Set<String> ids = boundaries.get(next);
+            if (ids == null) {
+                ids = new HashSet<>();
+                boundaries.put(next, ids);
+            }
+            ids.add(id);
+            boundaryById.put(id, next);
+        }
+        return status;
+    }
+
+    private void remove(String id) {
+        RegistrationStatus status = statusById.remove(id);
+        if (status != null) buckets.get(status).remove(id);
+        windowById.remove(id);
+        unqueue(id);
+    }
+
+    private void unqueue(String id) {
+        Long at = boundaryById.remove(id);
+        if (at == null) return;
+        Set<String> ids = boundaries.get(at);
+        ids.remove(id);
+        if (ids.isEmpty()) boundaries.remove(at);
+    }
+
+    /** Arms the timer for the earliest boundary, unless it is already armed for it. */
+    private void arm() {
+        if (boundaries.isEmpty()) {
+            disarm();
+            return;
+        }
+        long next = boundaries.firstKey();
+        if (cancelTimer != null && timerAt == next) return;
+        disarm();
+        timerAt = next;
+        cancelTimer = scheduler.schedule(() -> {
+            cancelTimer = null;
+            advance();
+        }, Math.max(0, next - clock.getAsLong()));
+    }
+
+    private void disarm() {
+        if (cancelTimer != null) {
+            cancelTimer.run();
+            cancelTimer = null;
+        }
+        timerAt = Long.MAX_VALUE;
+    }
+
+    @Nullable
+    private static long[] windowOf(Event e) {
+        if (e.getRegistrationStart() == null || e.getRegistrationEnd() == null) return null;
+        return new long[]{
+                RegistrationStatus.millis(e.getRegistrationStart()),
+                RegistrationStatus.millis(e.getRegistrationEnd())};
+    }
+}
@@ -0,0 +1,72 @@
+package com.ijaskz.lotteryeventapp.search;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.Timestamp;
+import com.ijaskz.lotteryeventapp.Event;
+
+/**
+ * Where an event's registration window stands at a given time.
+ *
+ * <ul>
+ *     <li>not set: start or end is missing</li>
+ *     <li>upcoming: now &lt; start</li>
+ *     <li>open: start &lt;= now &lt;= end</li>
+ *     <li>closed: now &gt; end</li>
+ * </ul>
+ */
+public enum RegistrationStatus {
+    OPEN("Open"),
+    UPCOMING("Upcoming"),
+    CLOSED("Closed"),
+    NOT_SET("Not set");
+
+    private final String label;
+
+    RegistrationStatus(String label) {
+        this.label = label;
+    }
+
+    /** @return the name shown in the status filter */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @param label a status filter name, e.g. "Open"
+     * @return the matching status, or null for "Any" or an unknown name
+     */
+    @Nullable
+    public static RegistrationStatus fromLabel(String label) {
+        for (RegistrationStatus s : values()) {
+            if (s.label.equals(label)) return s;
+        }
+        return null;
+    }
+
+    /**
+     * @param e the event
+     * @param nowMs current time in milliseconds
+     * @return the event's status at {@code nowMs}
+     */
+    public static RegistrationStatus of(Event e, long nowMs) {
+        Timestamp rs = e.getRegistrationStart();
+        Timestamp re = e.getRegistrationEnd();
+        if (rs == null || re == null) return NOT_SET;
+        return of(millis(rs), millis(re), nowMs);
+    }
+
+    static RegistrationStatus of(long startMs, long endMs, long nowMs) {
+        if (nowMs < startMs) return UPCOMING;
+        if (nowMs > endMs) return CLOSED;
+        return OPEN;
+    }
+
+    /**
+     * @param ts a timestamp
+     * @return the timestamp in epoch milliseconds, without allocating a Date
+     */
+    public static long millis(Timestamp ts) {
+        return ts.getSeconds() * 1000L + ts.getNanoseconds() / 1_000_000;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ijaskz.lotteryeventapp.service;
+
+/**
+ * Where seeded draws are committed before they run and revealed before their winners are
+ * promoted; see {@link SeededDraw}. {@link com.ijaskz.lotteryeventapp.repository.DrawReceiptStore}
+ * keeps them in Firestore.
+ */
+public interface DrawLedger {
+
+    /**
+     * Claims the event's next draw round and records the hash of its seed. Rounds are never
+     * reused, so a draw that is committed but never revealed stays visible.
+     * @param eventId event the draw belongs to
+     * @param seedHash {@link SeededDraw#seedHash(String)} of the round's seed
+     * @param listener receives the round and the salt fixed by the commitment
+     */
+    void commit(String eventId, String seedHash, OnCommittedListener listener);
+
+    /**
+     * Publishes a draw's receipt, including its seed, on the committed round.
+     * @param receipt receipt returned by {@link SeededDraw#draw}
+     * @param listener callback for completion or error
+     */
+    void reveal(DrawReceipt receipt, OnRevealedListener listener);
+
+    /** Callback for {@link #commit}. */
+    interface OnCommittedListener {
+        /**
+         * @param round the claimed round
+         * @param salt server time of the commitment
+         */
+        void onCommitted(int round, String salt);
+        void onError(Exception e);
+    }
+
+    /** Callback for {@link #reveal}. */
+    interface OnRevealedListener {
+        void onRevealed();
+        void onError(Exception e);
+    }
+}
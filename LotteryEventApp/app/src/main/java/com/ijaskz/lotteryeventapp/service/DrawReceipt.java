@@ -0,0 +1,120 @@
+package com.ijaskz.lotteryeventapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact, verifiable record of one seeded lottery draw.
+ *
+ * <p>Stored in Firestore under {@code events/{event_id}/draw_receipts/{round}}. The document
+ * is created with only the seed hash and the commit time before the draw, and the rest is
+ * written before any winner is promoted. Given the ids of the pool that was drawn from,
+ * {@link SeededDraw#verify} checks the seed against its hash and recomputes the pool hash
+ * and winner indices; if all match, the draw was not tampered with.</p>
+ *
+ * <p>Indices refer to the pool sorted by waiting_list document id (see
+ * {@link SeededDraw#canonicalPool}).</p>
+ */
+public class DrawReceipt {
+    private String event_id;
+    private String algorithm;
+    private String seed;                  // hex
+    private String seed_hash;             // hex SHA-256 of the seed, committed before the draw
+    private String salt;                  // server time of the commitment
+    private int round;                    // 0 = initial draw, 1.. = replacement draws
+    private int pool_size;
+    private String pool_hash;             // hex SHA-256 of the sorted pool ids
+    private List<Integer> winner_indices; // positions in the sorted pool, in draw order
+    private long drawn_at;
+
+    public DrawReceipt() {}
+
+    public DrawReceipt(String event_id, String algorithm, String seed, String seed_hash, String salt,
+                       int round, int pool_size, String pool_hash, List<Integer> winner_indices) {
+        this.event_id = event_id;
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.seed_hash = seed_hash;
+        this.salt = salt;
+        this.round = round;
+        this.pool_size = pool_size;
+        this.pool_hash = pool_hash;
+        this.winner_indices = winner_indices;
+        this.drawn_at = System.currentTimeMillis();
+    }
+
+    public String getEvent_id() { return event_id; }
+    public void setEvent_id(String event_id) { this.event_id = event_id; }
+
+    public String getAlgorithm() { return algorithm; }
+    public void setAlgorithm(String algorithm) { this.algorithm = algorithm; }
+
+    public String getSeed() { return seed; }
+    public void setSeed(String seed) { this.seed = seed; }
+
+    public String getSeed_hash() { return seed_hash; }
+    public void setSeed_hash(String seed_hash) { this.seed_hash = seed_hash; }
+
+    public String getSalt() { return salt; }
+    public void setSalt(String salt) { this.salt = salt; }
+
+    public int getRound() { return round; }
+    public void setRound(int round) { this.round = round; }
+
+    public int getPool_size() { return pool_size; }
+    public void setPool_size(int pool_size) { this.pool_size = pool_size; }
+
+    public String getPool_hash() { return pool_hash; }
+    public void setPool_hash(String pool_hash) { this.pool_hash = pool_hash; }
+
+    public List<Integer> getWinner_indices() { return winner_indices; }
+    public void setWinner_indices(List<Integer> winner_indices) { this.winner_indices = winner_indices; }
+
+    public long getDrawn_at() { return drawn_at; }
+    public void setDrawn_at(long drawn_at) { this.drawn_at = drawn_at; }
+
+    /**
+     * Encodes the fields needed for verification as a single line, e.g. for sharing
+     * with an entrant who disputes a draw:
+     * {@code algorithm;round;seed;seed_hash;salt;pool_size;pool_hash;i1,i2,...}
+     * @return the encoded receipt
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(algorithm).append(';').append(round).append(';').append(seed).append(';')
+                .append(seed_hash).append(';').append(salt).append(';')
+                .append(pool_size).append(';').append(pool_hash).append(';');
+        for (int i = 0; i < winner_indices.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(winner_indices.get(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses a receipt produced by {@link #encode()}.
+     * @param encoded encoded receipt
+     * @return the receipt (without event id or timestamp)
+     * @throws IllegalArgumentException if the text is malformed
+     */
+    public static DrawReceipt decode(String encoded) {
+        String[] parts = encoded.split(";", -1);
+        if (parts.length != 8) {
+            throw new IllegalArgumentException("Malformed draw receipt");
+        }
+        try {
+            List<Integer> indices = new ArrayList<>();
+            if (!parts[7].isEmpty()) {
+                for (String s : parts[7].split(",")) {
+                    indices.add(Integer.parseInt(s));
+                }
+            }
+            DrawReceipt r = new DrawReceipt(null, parts[0], parts[2], parts[3], parts[4],
+                    Integer.parseInt(parts[1]), Integer.parseInt(parts[5]), parts[6], indices);
+            r.setDrawn_at(0L);
+            return r;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed draw receipt", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ijaskz.lotteryeventapp.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Chooses which positions of a waiting pool win a lottery draw.
+ *
+ * <p>Implementations must pick every k-subset of the pool with equal probability and
+ * return the winners in uniformly random order, so that the first winner is as likely to be
+ * any entrant as the last. Neither implementation copies or shuffles the whole pool.</p>
+ */
+public interface DrawStrategy {
+
+    /**
+     * Draws {@code min(k, poolSize)} distinct positions from {@code [0, poolSize)}.
+     * @param poolSize number of eligible entrants
+     * @param k number of winners wanted
+     * @param random source of randomness
+     * @return winning positions, in draw order
+     */
+    int[] drawIndices(int poolSize, int k, Random random);
+
+    /**
+     * Draws winners from a pool by position. The pool itself is not modified.
+     * @param pool eligible entrants; should support fast random access
+     * @param k number of winners wanted
+     * @param random source of randomness
+     * @return the winners, in draw order
+     */
+    default <T> List<T> draw(List<T> pool, int k, Random random) {
+        int[] indices = drawIndices(pool.size(), k, random);
+        List<T> winners = new ArrayList<>(indices.length);
+        for (int i : indices) {
+            winners.add(pool.get(i));
+        }
+        return winners;
+    }
+
+    /**
+     * Starts a draw over a pool that is offered one item at a time, e.g. page by page from
+     * a query. By default the items are collected and drawn with {@link #draw} at the end;
+     * strategies that can sample a stream directly hold less.
+     * @param k number of winners wanted
+     * @param random source of randomness
+     * @return a sampler to offer the pool to
+     */
+    default <T> Sampler<T> sampler(int k, Random random) {
+        return new Sampler<T>() {
+            private final List<T> pool = new ArrayList<>();
+
+            @Override
+            public void offer(T item) {
+                pool.add(item);
+            }
+
+            @Override
+            public long getSeen() {
+                return pool.size();
+            }
+
+            @Override
+            public List<T> result() {
+                return draw(pool, k, random);
+            }
+        };
+    }
+
+    /**
+     * A draw in progress over a streamed pool.
+     * @param <T> item type
+     */
+    interface Sampler<T> {
+        /** Offers the next item of the pool. */
+        void offer(T item);
+
+        /** @return number of items offered so far */
+        long getSeen();
+
+        /** @return the winners among the items offered, in draw order */
+        List<T> result();
+    }
+}
@@ -14,8 +14,9 @@ import java.util.Random;
  * LotteryService encapsulates the core lottery selection workflow.
  *
  * <p>Responsibilities:</p>
- * - Load eligible waiting-list entries for an event
- * - Randomly select up to a requested number of entries
+ * - Read eligible waiting-list entries for an event page by page
+ * - Randomly select up to a requested number of entries using a {@link DrawStrategy}, offering
+ *   each page to its sampler so unseeded draws never hold the whole pool
  * - Persist selection by updating status/timestamps in batch via {@link WaitingListManager}
  * - Optionally apply a configurable per-draw response deadline (hours)
  *
@@ -25,16 +26,29 @@ import java.util.Random;
 public class LotteryService {
 
     private final WaitingListManager waitingListManager;
+    private final DrawStrategy drawStrategy;
     private final Random random;
     private static final int DEFAULT_RESPONSE_WINDOW_HOURS = 48;
 
     /**
-     * Creates a LotteryService.
+     * Creates a LotteryService that draws with {@link ReservoirDraw}, which keeps only the
+     * winners while the pool is read.
      * @param waitingListManager data access manager for waiting list operations
      */
     public LotteryService(WaitingListManager waitingListManager) {
+        this(waitingListManager, new ReservoirDraw(), new Random());
+    }
+
+    /**
+     * Creates a LotteryService with an explicit draw algorithm and randomness source.
+     * @param waitingListManager data access manager for waiting list operations
+     * @param drawStrategy algorithm used to pick winners from the waiting pool
+     * @param random source of randomness passed to the draw strategy
+     */
+    public LotteryService(WaitingListManager waitingListManager, DrawStrategy drawStrategy, Random random) {
         this.waitingListManager = waitingListManager;
-        this.random = new Random();
+        this.drawStrategy = drawStrategy;
+        this.random = random;
     }
 
     /**
@@ -59,58 +73,18 @@ public class LotteryService {
             return;
         }
 
-        waitingListManager.getEntriesByStatus(eventId, "waiting", new WaitingListManager.OnEntriesLoadedListener() {
+        sample(eventId, "waiting", slots, new OnSampled() {
             @Override
-            public void onEntriesLoaded(List<WaitingListEntry> entries) {
-                if (entries == null || entries.isEmpty()) {
+            public void onSampled(DrawStrategy.Sampler<WaitingListEntry> sampler) {
+                if (sampler.getSeen() == 0) {
                     callback.onSuccess(Collections.emptyList());
                     return;
                 }
-
-                // Shuffle and take up to 'slots'
-                List<WaitingListEntry> pool = new ArrayList<>(entries);
-                Collections.shuffle(pool, random);
-                List<WaitingListEntry> winners = pool.subList(0, Math.min(slots, pool.size()));
-
-                List<String> winnerIds = new ArrayList<>(winners.size());
-                for (WaitingListEntry e : winners) {
-                    if (e.getId() != null) {
-                        winnerIds.add(e.getId());
-                    }
-                }
-
-                Integer hoursToApply = (responseWindowHoursOverride != null)
-                        ? responseWindowHoursOverride
-                        : DEFAULT_RESPONSE_WINDOW_HOURS;
-
-                waitingListManager.updateEntriesStatus(
-                        winnerIds,
-                        "selected",
-                        hoursToApply,
-                        new WaitingListManager.OnCompleteListener() {
-                            @Override
-                            public void onSuccess() {
-                                // Reflect in-memory status/fields for immediate return
-                                long now = System.currentTimeMillis();
-                                for (WaitingListEntry e : winners) {
-                                    e.setStatus("selected");
-                                    e.setSelected_at(now);
-                                    e.setResponse_window_hours(hoursToApply);
-                                }
-                                callback.onSuccess(new ArrayList<>(winners));
-
-                            }
-
-                            @Override
-                            public void onFailure(Exception e) {
-                                callback.onFailure(e);
-                            }
-                        }
-                );
+                promote(sampler.result(), responseWindowHoursOverride, false, callback);
             }
 
             @Override
-            public void onError(Exception e) {
+            public void onFailure(Exception e) {
                 callback.onFailure(e);
             }
         });
@@ -134,22 +108,125 @@ public class LotteryService {
             return;
         }
 
-        waitingListManager.getEntriesByStatus(eventId, "waiting", new WaitingListManager.OnEntriesLoadedListener() {
+        sample(eventId, "waiting", slots, new OnSampled() {
             @Override
-            public void onEntriesLoaded(List<WaitingListEntry> entries) {
-                if (entries != null && !entries.isEmpty()) {
-                    selectAndPromote(entries, slots, responseWindowHoursOverride, callback);
+            public void onSampled(DrawStrategy.Sampler<WaitingListEntry> sampler) {
+                if (sampler.getSeen() > 0) {
+                    promote(sampler.result(), responseWindowHoursOverride, true, callback);
                     return;
                 }
 
-                waitingListManager.getEntriesByStatus(eventId, "not_selected", new WaitingListManager.OnEntriesLoadedListener() {
+                sample(eventId, "not_selected", slots, new OnSampled() {
                     @Override
-                    public void onEntriesLoaded(List<WaitingListEntry> fallbackEntries) {
-                        if (fallbackEntries == null || fallbackEntries.isEmpty()) {
+                    public void onSampled(DrawStrategy.Sampler<WaitingListEntry> fallback) {
+                        if (fallback.getSeen() == 0) {
                             callback.onSuccess(Collections.emptyList());
                             return;
                         }
-                        selectAndPromote(fallbackEntries, slots, responseWindowHoursOverride, callback);
+                        promote(fallback.result(), responseWindowHoursOverride, true, callback);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        callback.onFailure(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Runs a reproducible, auditable lottery. Behaves like
+     * {@link #runLottery(String, int, Integer, OnLotteryComplete)} but commits the seed's hash
+     * to the ledger first, draws with {@link SeededDraw} and reveals the receipt before any
+     * winner is promoted; if the commitment or the reveal cannot be written, the draw fails
+     * and nobody is selected. Unlike an unseeded draw this loads the whole pool, because the
+     * receipt records every pool id.
+     *
+     * @param eventId the target event id
+     * @param slots maximum number of entrants to select
+     * @param responseWindowHoursOverride optional per-draw response window in hours; may be null
+     * @param seed fresh hex seed from {@link SeededDraw#newSeed()}, used for this draw only
+     * @param ledger where the draw is committed and revealed
+     * @param callback completion callback returning the winners and the receipt
+     */
+    public void runSeededLottery(String eventId,
+                                 int slots,
+                                 @Nullable Integer responseWindowHoursOverride,
+                                 String seed,
+                                 DrawLedger ledger,
+                                 OnSeededLotteryComplete callback) {
+        if (slots <= 0) {
+            callback.onFailure(new IllegalArgumentException("slots must be > 0"));
+            return;
+        }
+        seededDraw(eventId, slots, responseWindowHoursOverride, seed, ledger, false, callback);
+    }
+
+    /**
+     * Draws replacement winners the same way as
+     * {@link #runSeededLottery(String, int, Integer, String, DrawLedger, OnSeededLotteryComplete)},
+     * on the event's next round with a fresh seed. Falls back to "not_selected" entries when
+     * nobody is "waiting", like
+     * {@link #replenishFromWaitlistOnDecline(String, int, Integer, OnLotteryComplete)}.
+     *
+     * @param eventId the target event id
+     * @param slots number of replacements to draw
+     * @param responseWindowHoursOverride optional per-draw response window in hours; may be null
+     * @param seed fresh hex seed from {@link SeededDraw#newSeed()}, used for this draw only
+     * @param ledger where the draw is committed and revealed
+     * @param callback completion callback returning the replacements and the receipt
+     */
+    public void replenishSeeded(String eventId,
+                                int slots,
+                                @Nullable Integer responseWindowHoursOverride,
+                                String seed,
+                                DrawLedger ledger,
+                                OnSeededLotteryComplete callback) {
+        if (slots <= 0) {
+            callback.onFailure(new IllegalArgumentException("slots must be > 0"));
+            return;
+        }
+        seededDraw(eventId, slots, responseWindowHoursOverride, seed, ledger, true, callback);
+    }
+
+    /** Commits the seed, then loads the pool; the pool is read after the salt is fixed. */
+    private void seededDraw(String eventId,
+                            int slots,
+                            @Nullable Integer responseWindowHoursOverride,
+                            String seed,
+                            DrawLedger ledger,
+                            boolean replacement,
+                            OnSeededLotteryComplete callback) {
+        ledger.commit(eventId, SeededDraw.seedHash(seed), new DrawLedger.OnCommittedListener() {
+            @Override
+            public void onCommitted(int round, String salt) {
+                waitingListManager.getEntriesByStatus(eventId, "waiting", new WaitingListManager.OnEntriesLoadedListener() {
+                    @Override
+                    public void onEntriesLoaded(List<WaitingListEntry> entries) {
+                        if (!replacement || (entries != null && !entries.isEmpty())) {
+                            seededSelectAndPromote(eventId, entries, slots, responseWindowHoursOverride,
+                                    seed, salt, round, ledger, replacement, callback);
+                            return;
+                        }
+
+                        waitingListManager.getEntriesByStatus(eventId, "not_selected", new WaitingListManager.OnEntriesLoadedListener() {
+                            @Override
+                            public void onEntriesLoaded(List<WaitingListEntry> fallbackEntries) {
+                                seededSelectAndPromote(eventId, fallbackEntries, slots, responseWindowHoursOverride,
+                                        seed, salt, round, ledger, true, callback);
+                            }
+
+                            @Override
+                            public void onError(Exception e) {
+                                callback.onFailure(e);
+                            }
+                        });
                     }
 
                     @Override
@@ -166,47 +243,132 @@ public class LotteryService {
         });
     }
 
-    private void selectAndPromote(List<WaitingListEntry> source,
-                                  int slots,
-                                  @Nullable Integer responseWindowHoursOverride,
-                                  OnLotteryComplete callback) {
-        List<WaitingListEntry> pool = new ArrayList<>(source);
-        Collections.shuffle(pool, random);
-        List<WaitingListEntry> winners = pool.subList(0, Math.min(slots, pool.size()));
-
-        List<String> winnerIds = new ArrayList<>(winners.size());
-        for (WaitingListEntry e : winners) {
-            if (e.getId() != null) {
-                winnerIds.add(e.getId());
+    /** Receives a sampler once every entry of a status has been offered to it. */
+    private interface OnSampled {
+        void onSampled(DrawStrategy.Sampler<WaitingListEntry> sampler);
+        void onFailure(Exception e);
+    }
+
+    /**
+     * Offers every entry with the given status to a new sampler of the draw strategy, one
+     * page at a time, so only the sampler's state and one page are held.
+     */
+    private void sample(String eventId, String status, int slots, OnSampled callback) {
+        DrawStrategy.Sampler<WaitingListEntry> sampler = drawStrategy.sampler(slots, random);
+        waitingListManager.scanEntriesByStatus(eventId, status, new WaitingListManager.OnEntriesPageListener() {
+            @Override
+            public void onPage(List<WaitingListEntry> entries) {
+                for (WaitingListEntry entry : entries) {
+                    sampler.offer(entry);
+                }
+            }
+
+            @Override
+            public void onComplete() {
+                callback.onSampled(sampler);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callback.onFailure(e);
             }
+        });
+    }
+
+    private void seededSelectAndPromote(String eventId,
+                                        @Nullable List<WaitingListEntry> source,
+                                        int slots,
+                                        @Nullable Integer responseWindowHoursOverride,
+                                        String seed,
+                                        String salt,
+                                        int round,
+                                        DrawLedger ledger,
+                                        boolean replacement,
+                                        OnSeededLotteryComplete callback) {
+        List<WaitingListEntry> pool = SeededDraw.canonicalPool(
+                source != null ? source : Collections.<WaitingListEntry>emptyList());
+        List<String> poolIds = new ArrayList<>(pool.size());
+        for (WaitingListEntry e : pool) {
+            poolIds.add(e.getId());
         }
 
-        Integer hoursToApply = (responseWindowHoursOverride != null)
-                ? responseWindowHoursOverride
-                : DEFAULT_RESPONSE_WINDOW_HOURS;
+        final DrawReceipt receipt;
+        try {
+            receipt = SeededDraw.draw(eventId, seed, salt, round, poolIds, slots);
+        } catch (IllegalArgumentException e) {
+            callback.onFailure(e);
+            return;
+        }
 
-        waitingListManager.updateEntriesStatusForReplacements(
-                winnerIds,
-                "selected",
-                hoursToApply,
-                new WaitingListManager.OnCompleteListener() {
+        // Reveal first: winners are only promoted once the draw can be audited
+        ledger.reveal(receipt, new DrawLedger.OnRevealedListener() {
+            @Override
+            public void onRevealed() {
+                if (pool.isEmpty()) {
+                    callback.onSuccess(Collections.emptyList(), receipt);
+                    return;
+                }
+                List<WaitingListEntry> winners = new ArrayList<>(receipt.getWinner_indices().size());
+                for (int i : receipt.getWinner_indices()) {
+                    winners.add(pool.get(i));
+                }
+                promote(winners, responseWindowHoursOverride, replacement, new OnLotteryComplete() {
                     @Override
-                    public void onSuccess() {
-                        long now = System.currentTimeMillis();
-                        for (WaitingListEntry e : winners) {
-                            e.setStatus("selected");
-                            e.setSelected_at(now);
-                            e.setResponse_window_hours(hoursToApply);
-                        }
-                        callback.onSuccess(new ArrayList<>(winners));
+                    public void onSuccess(List<WaitingListEntry> promoted) {
+                        callback.onSuccess(promoted, receipt);
                     }
 
                     @Override
                     public void onFailure(Exception e) {
                         callback.onFailure(e);
                     }
+                });
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Persists the selection of already-drawn winners and reflects it on the in-memory entries.
+     * @param replacement true to use the replacement write path (different notifications)
+     */
+    private void promote(List<WaitingListEntry> winners,
+                         @Nullable Integer responseWindowHoursOverride,
+                         boolean replacement,
+                         OnLotteryComplete callback) {
+        Integer hoursToApply = (responseWindowHoursOverride != null)
+                ? responseWindowHoursOverride
+                : DEFAULT_RESPONSE_WINDOW_HOURS;
+
+        WaitingListManager.OnCompleteListener done = new WaitingListManager.OnCompleteListener() {
+            @Override
+            public void onSuccess() {
+                // Reflect in-memory status/fields for immediate return
+                long now = System.currentTimeMillis();
+                for (WaitingListEntry e : winners) {
+                    e.setStatus("selected");
+                    e.setSelected_at(now);
+                    e.setResponse_window_hours(hoursToApply);
                 }
-        );
+                callback.onSuccess(new ArrayList<>(winners));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        };
+
+        // Hand over the loaded entries so notifications need no re-reads
+        if (replacement) {
+            waitingListManager.updateEntriesForReplacements(winners, "selected", hoursToApply, done);
+        } else {
+            waitingListManager.updateEntries(winners, "selected", hoursToApply, done);
+        }
     }
 
     /**
@@ -225,4 +387,22 @@ public class LotteryService {
          */
         void onFailure(Exception e);
     }
+
+    /**
+     * Callback interface for seeded lottery results.
+     */
+    public interface OnSeededLotteryComplete {
+        /**
+         * Invoked when the draw completes successfully.
+         * @param winners the list of selected waiting-list entries
+         * @param receipt the receipt describing the draw, already revealed in the ledger
+         */
+        void onSuccess(List<WaitingListEntry> winners, DrawReceipt receipt);
+
+        /**
+         * Invoked when the draw fails for any reason.
+         * @param e the error that occurred
+         */
+        void onFailure(Exception e);
+    }
 }
@@ -0,0 +1,52 @@
+package com.ijaskz.lotteryeventapp.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * {@link DrawStrategy} that runs only the first k steps of a Fisher–Yates shuffle.
+ *
+ * <p>When k is small compared to the pool, the index array is kept virtual: only the
+ * positions that have been swapped are stored, so a draw costs O(k) time and memory no
+ * matter how large the pool is. When k is a large fraction of the pool a plain int array
+ * is cheaper and is used instead.</p>
+ */
+public class PartialFisherYatesDraw implements DrawStrategy {
+
+    @Override
+    public int[] drawIndices(int poolSize, int k, Random random) {
+        int count = Math.max(0, Math.min(k, poolSize));
+        if (count > poolSize / 4) {
+            return denseDraw(poolSize, count, random);
+        }
+        int[] winners = new int[count];
+        // Virtual index array: a missing key means position j still holds j.
+        Map<Integer, Integer> swapped = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(poolSize - i);
+            Integer atJ = swapped.get(j);
+            Integer atI = swapped.get(i);
+            winners[i] = atJ != null ? atJ : j;
+            // Position i is never visited again, so only j needs to remember the swap.
+            swapped.put(j, atI != null ? atI : i);
+        }
+        return winners;
+    }
+
+    private static int[] denseDraw(int poolSize, int count, Random random) {
+        int[] positions = new int[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            positions[i] = i;
+        }
+        int[] winners = new int[count];
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(poolSize - i);
+            int tmp = positions[j];
+            positions[j] = positions[i];
+            positions[i] = tmp;
+            winners[i] = tmp;
+        }
+        return winners;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ijaskz.lotteryeventapp.service;
+
+import java.util.Random;
+
+/**
+ * {@link DrawStrategy} based on reservoir sampling (see {@link ReservoirSampler}).
+ *
+ * <p>Holds only k positions and jumps over the rest of the pool, which makes it the right
+ * choice when entrants arrive as a stream or in pages: {@link #sampler} keeps at most k
+ * entrants however long the pool is. For an in-memory pool it gives the same distribution
+ * as {@link PartialFisherYatesDraw}.</p>
+ */
+public class ReservoirDraw implements DrawStrategy {
+
+    @Override
+    public int[] drawIndices(int poolSize, int k, Random random) {
+        return ReservoirSampler.sampleIndices(poolSize, k, random);
+    }
+
+    @Override
+    public <T> Sampler<T> sampler(int k, Random random) {
+        return new ReservoirSampler<>(k, random);
+    }
+}
@@ -0,0 +1,140 @@
+package com.ijaskz.lotteryeventapp.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Streaming uniform sample of k items from a sequence of unknown length.
+ *
+ * <p>Uses Li's "Algorithm L": after the reservoir is full it computes how many items to
+ * skip before the next replacement, so only O(k (1 + log(n / k))) random numbers are drawn
+ * and at most k items are ever held. Items can be offered one page at a time as they
+ * arrive from a query, without materialising the whole waiting list.</p>
+ *
+ * <p>Not thread-safe.</p>
+ *
+ * @param <T> item type
+ */
+public class ReservoirSampler<T> implements DrawStrategy.Sampler<T> {
+
+    private static final long MAX_SKIP = Long.MAX_VALUE / 2;
+
+    private final int k;
+    private final Random random;
+    private final List<T> reservoir;
+    private double w;
+    private long skip;
+    private long seen;
+
+    /**
+     * @param k sample size
+     * @param random source of randomness
+     */
+    public ReservoirSampler(int k, Random random) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be >= 0");
+        }
+        this.k = k;
+        this.random = random;
+        this.reservoir = new ArrayList<>(Math.min(k, 1024));
+    }
+
+    /**
+     * Offers the next item of the stream.
+     * @param item next item
+     */
+    @Override
+    public void offer(T item) {
+        seen++;
+        if (k == 0) {
+            return;
+        }
+        if (reservoir.size() < k) {
+            reservoir.add(item);
+            if (reservoir.size() == k) {
+                w = nextWeight(1.0, k, random);
+                skip = nextSkip(w, random);
+            }
+            return;
+        }
+        if (skip > 0) {
+            skip--;
+            return;
+        }
+        reservoir.set(random.nextInt(k), item);
+        w = nextWeight(w, k, random);
+        skip = nextSkip(w, random);
+    }
+
+    /** @return number of items offered so far */
+    @Override
+    public long getSeen() {
+        return seen;
+    }
+
+    /**
+     * Returns the sample in uniformly random order. Reservoir slots are not ordered
+     * fairly on their own, so the (at most k) kept items are shuffled first.
+     * @return a new list with {@code min(k, seen)} items
+     */
+    @Override
+    public List<T> result() {
+        List<T> out = new ArrayList<>(reservoir);
+        Collections.shuffle(out, random);
+        return out;
+    }
+
+    /**
+     * Draws {@code min(k, n)} distinct positions of {@code [0, n)} with the same skip
+     * sequence as {@link #offer(Object)}, jumping straight over skipped positions.
+     */
+    static int[] sampleIndices(int n, int k, Random random) {
+        int count = Math.max(0, Math.min(k, n));
+        int[] sample = new int[count];
+        for (int i = 0; i < count; i++) {
+            sample[i] = i;
+        }
+        if (count == 0 || count == n) {
+            shuffle(sample, random);
+            return sample;
+        }
+        double w = nextWeight(1.0, count, random);
+        long i = count - 1L + nextSkip(w, random) + 1;
+        while (i < n) {
+            sample[random.nextInt(count)] = (int) i;
+            w = nextWeight(w, count, random);
+            i += nextSkip(w, random) + 1;
+        }
+        shuffle(sample, random);
+        return sample;
+    }
+
+    private static double nextWeight(double w, int k, Random random) {
+        return w * Math.exp(Math.log(uniform(random)) / k);
+    }
+
+    private static long nextSkip(double w, Random random) {
+        double skip = Math.floor(Math.log(uniform(random)) / Math.log1p(-w));
+        if (!(skip >= 0)) {
+            return 0; // NaN when w rounds to 1
+        }
+        // Capped so that position + skip cannot overflow once w underflows to 0.
+        return skip >= MAX_SKIP ? MAX_SKIP : (long) skip;
+    }
+
+    /** @return a uniform value in (0, 1] so that log() is always finite */
+    private static double uniform(Random random) {
+        return 1.0 - random.nextDouble();
+    }
+
+    private static void shuffle(int[] a, Random random) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.ijaskz.lotteryeventapp.service;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reproducible lottery draws from a committed seed.
+ *
+ * <p>A draw is fully determined by (seed, salt, round, pool): the pool is put in canonical
+ * order (sorted by waiting_list document id), and winners are the first k steps of a
+ * partial Fisher–Yates shuffle driven by {@link Sha256CounterRandom}, keyed with
+ * {@link #drawKey(String, String)}, on stream {@code round}.</p>
+ *
+ * <p>Every round, initial or replacement, uses a fresh seed. Before drawing, only
+ * {@link #seedHash(String)} is committed, and the salt is the server time of that commit,
+ * which nobody knows when picking the seed. So the drawer can neither try seeds until one
+ * gives the winners they want, nor change the seed after seeing the salt. The seed is
+ * revealed in the round's receipt, which lets anyone check it against the commitment.</p>
+ */
+public final class SeededDraw {
+
+    /** Identifies the exact procedure; bump it if anything above changes. */
+    public static final String ALGORITHM = "sha256-ctr+partial-fisher-yates/v2";
+
+    private static final DrawStrategy STRATEGY = new PartialFisherYatesDraw();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private SeededDraw() { }
+
+    /** @return a fresh 256-bit seed, hex encoded */
+    public static String newSeed() {
+        byte[] seed = new byte[32];
+        new SecureRandom().nextBytes(seed);
+        return toHex(seed);
+    }
+
+    /**
+     * @param seed hex seed
+     * @return hex SHA-256 of the seed bytes, the commitment recorded before a draw
+     */
+    public static String seedHash(String seed) {
+        return toHex(sha256().digest(fromHex(seed)));
+    }
+
+    /**
+     * Mixes a seed with the salt fixed when it was committed.
+     * @param seed hex seed
+     * @param salt server time of the commitment, as recorded in the receipt
+     * @return SHA-256 of the seed bytes followed by the salt's UTF-8 bytes
+     */
+    static byte[] drawKey(String seed, String salt) {
+        MessageDigest sha256 = sha256();
+        sha256.update(fromHex(seed));
+        sha256.update(salt.getBytes(StandardCharsets.UTF_8));
+        return sha256.digest();
+    }
+
+    /**
+     * Returns the entries sorted by document id, which is the order receipt indices refer to.
+     * Entries without an id cannot be referenced by a receipt and are dropped.
+     * @param entries eligible entries in any order
+     * @return a new sorted list
+     */
+    public static List<WaitingListEntry> canonicalPool(List<WaitingListEntry> entries) {
+        List<WaitingListEntry> pool = new ArrayList<>(entries.size());
+        for (WaitingListEntry e : entries) {
+            if (e.getId() != null) {
+                pool.add(e);
+            }
+        }
+        Collections.sort(pool, (a, b) -> a.getId().compareTo(b.getId()));
+        return pool;
+    }
+
+    /**
+     * Hashes pool ids in the given order: hex SHA-256 of the ids joined by '\n'.
+     * @param poolIds ids in canonical order
+     * @return hex digest
+     */
+    public static String poolHash(List<String> poolIds) {
+        MessageDigest sha256 = sha256();
+        for (int i = 0; i < poolIds.size(); i++) {
+            if (i > 0) sha256.update((byte) '\n');
+            sha256.update(poolIds.get(i).getBytes(StandardCharsets.UTF_8));
+        }
+        return toHex(sha256.digest());
+    }
+
+    /**
+     * Draws up to k winners and describes the draw in a receipt.
+     * @param eventId event the draw belongs to
+     * @param seed hex seed whose hash was committed for this round
+     * @param salt salt returned by the commitment
+     * @param round the committed round: 0 for the first draw of an event, then 1, 2, ...
+     * @param poolIds pool ids in canonical order
+     * @param k number of winners wanted
+     * @return receipt whose winner indices refer to {@code poolIds}
+     */
+    public static DrawReceipt draw(String eventId, String seed, String salt, int round,
+                                   List<String> poolIds, int k) {
+        int[] indices = STRATEGY.drawIndices(poolIds.size(), k,
+                new Sha256CounterRandom(drawKey(seed, salt), round));
+        List<Integer> winners = new ArrayList<>(indices.length);
+        for (int i : indices) {
+            winners.add(i);
+        }
+        return new DrawReceipt(eventId, ALGORITHM, seed, seedHash(seed), salt, round,
+                poolIds.size(), poolHash(poolIds), winners);
+    }
+
+    /**
+     * Re-runs a draw from its receipt and checks it against the claimed pool.
+     * @param receipt receipt to check
+     * @param poolIds ids of the pool the draw was made from, in canonical order
+     * @return true if the seed matches its commitment and the pool hash and every winner
+     *         index match
+     */
+    public static boolean verify(DrawReceipt receipt, List<String> poolIds) {
+        if (!ALGORITHM.equals(receipt.getAlgorithm())
+                || receipt.getSeed() == null || receipt.getSalt() == null
+                || !seedHash(receipt.getSeed()).equals(receipt.getSeed_hash())
+                || receipt.getPool_size() != poolIds.size()
+                || !poolHash(poolIds).equals(receipt.getPool_hash())) {
+            return false;
+        }
+        List<Integer> claimed = receipt.getWinner_indices();
+        DrawReceipt again = draw(receipt.getEvent_id(), receipt.getSeed(), receipt.getSalt(),
+                receipt.getRound(), poolIds, claimed == null ? 0 : claimed.size());
+        return again.getWinner_indices().equals(claimed);
+    }
+
+    static byte[] fromHex(String hex) {
+        if (hex == null || hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Seed must be an even-length hex string");
+        }
+        byte[] out = new byte[hex.length() / 2];
+        for (int i = 0; i < out.length; i++) {
+            int hi = Character.digit(hex.charAt(2 * i), 16);
+            int lo = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (hi < 0 || lo < 0) {
+                throw new IllegalArgumentException("Seed must be an even-length hex string");
+            }
+            out[i] = (byte) ((hi << 4) | lo);
+        }
+        return out;
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[2 * i] = HEX[(bytes[i] >> 4) & 0xF];
+            out[2 * i + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(out);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.ijaskz.lotteryeventapp.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+
+/**
+ * Deterministic random stream built from SHA-256 in counter mode.
+ *
+ * <p>Block {@code j} of stream {@code s} is {@code SHA-256(seed || s || j)}, with {@code s}
+ * and {@code j} as 8-byte big-endian integers; 32-bit words are read from each block in
+ * big-endian order. The output depends only on the seed and stream number, never on the
+ * platform's {@link Random} implementation, so anyone can reproduce a draw offline from a
+ * published seed. Different stream numbers give independent sequences from the same seed.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+public class Sha256CounterRandom extends Random {
+
+    private static final long UNSIGNED_INT_RANGE = 1L << 32;
+
+    private final MessageDigest sha256;
+    private final byte[] prefix;
+    private final byte[] block = new byte[32];
+    private int offset = block.length;
+    private long counter;
+
+    /**
+     * @param seed secret seed bytes (32 bytes recommended)
+     * @param stream stream number, e.g. the draw round
+     */
+    public Sha256CounterRandom(byte[] seed, long stream) {
+        super(0L);
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        prefix = new byte[seed.length + 8];
+        System.arraycopy(seed, 0, prefix, 0, seed.length);
+        putLong(prefix, seed.length, stream);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return nextWord() >>> (32 - bits);
+    }
+
+    /**
+     * Unbiased bounded integer by rejection sampling on unsigned 32-bit words. Overridden
+     * so the mapping is part of this class rather than of the platform's Random.
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        long limit = UNSIGNED_INT_RANGE - (UNSIGNED_INT_RANGE % bound);
+        long r;
+        do {
+            r = nextWord() & 0xFFFFFFFFL;
+        } while (r >= limit);
+        return (int) (r % bound);
+    }
+
+    /** The stream is fully defined by the constructor arguments, so reseeding is ignored. */
+    @Override
+    public void setSeed(long seed) {
+        // Called by Random's constructor before this class is initialised.
+    }
+
+    private int nextWord() {
+        if (offset == block.length) {
+            byte[] ctr = new byte[8];
+            putLong(ctr, 0, counter++);
+            sha256.update(prefix);
+            sha256.update(ctr);
+            try {
+                sha256.digest(block, 0, block.length);
+            } catch (java.security.DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            offset = 0;
+        }
+        int word = ((block[offset] & 0xFF) << 24)
+                | ((block[offset + 1] & 0xFF) << 16)
+                | ((block[offset + 2] & 0xFF) << 8)
+                | (block[offset + 3] & 0xFF);
+        offset += 4;
+        return word;
+    }
+
+    private static void putLong(byte[] out, int at, long v) {
+        for (int i = 7; i >= 0; i--) {
+            out[at + i] = (byte) v;
+            v >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ijaskz.lotteryeventapp.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Shared date formatting for the app's screens.
+ *
+ * <p>Formatters are {@link DateTimeFormatter}s, which are immutable and thread-safe, so one
+ * set is built per default locale and time zone and reused by every caller instead of
+ * creating a {@code SimpleDateFormat} per call. If the user changes the device's language
+ * or time zone, the next call builds a new set.</p>
+ */
+public final class DateFormats {
+
+    /** "Nov 7, 3:30 PM": registration windows in lists and on the event page. */
+    public static final String SHORT_DATE_TIME = "MMM d, h:mm a";
+    /** "Nov 7, 2025 • 3:30 PM": date pickers when creating or editing an event. */
+    public static final String LONG_DATE_TIME = "MMM d, yyyy • h:mm a";
+    /** "Nov 07, 2025": waiting list join dates. */
+    public static final String DATE = "MMM dd, yyyy";
+    /** "2025-11-07 15:30": exported files. */
+    public static final String EXPORT_DATE_TIME = "yyyy-MM-dd HH:mm";
+
+    private static volatile Formatters current;
+
+    private DateFormats() { }
+
+    /**
+     * @param date the time to format
+     * @return e.g. "Nov 7, 3:30 PM"
+     */
+    public static String shortDateTime(Date date) {
+        return formatters().shortDateTime.format(date.toInstant());
+    }
+
+    /**
+     * @param epochMillis the time to format
+     * @return e.g. "Nov 7, 3:30 PM"
+     */
+    public static String shortDateTime(long epochMillis) {
+        return formatters().shortDateTime.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    /**
+     * @param date the time to format
+     * @return e.g. "Nov 7, 2025 • 3:30 PM"
+     */
+    public static String longDateTime(Date date) {
+        return formatters().longDateTime.format(date.toInstant());
+    }
+
+    /**
+     * @param epochMillis the time to format
+     * @return e.g. "Nov 07, 2025"
+     */
+    public static String date(long epochMillis) {
+        return formatters().date.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    /**
+     * @param epochMillis the time to format
+     * @return e.g. "2025-11-07 15:30"
+     */
+    public static String exportDateTime(long epochMillis) {
+        return formatters().exportDateTime.format(Instant.ofEpochMilli(epochMillis));
+    }
+
+    private static Formatters formatters() {
+        Locale locale = Locale.getDefault();
+        TimeZone zone = TimeZone.getDefault();
+        Formatters f = current;
+        if (f == null || !f.locale.equals(locale) || !f.timeZoneId.equals(zone.getID())) {
+            f = new Formatters(locale, zone);
+            current = f;
+        }
+        return f;
+    }
+
+    /** One immutable set of formatters for a locale and time zone. */
+    private static final class Formatters {
+        final Locale locale;
+        final String timeZoneId;
+        final DateTimeFormatter shortDateTime;
+        final DateTimeFormatter longDateTime;
+        final DateTimeFormatter date;
+        final DateTimeFormatter exportDateTime;
+
+        Formatters(Locale locale, TimeZone zone) {
+            this.locale = locale;
+            this.timeZoneId = zone.getID();
+            ZoneId zoneId = zone.toZoneId();
+            shortDateTime = DateTimeFormatter.ofPattern(SHORT_DATE_TIME, locale).withZone(zoneId);
+            longDateTime = DateTimeFormatter.ofPattern(LONG_DATE_TIME, locale).withZone(zoneId);
+            date = DateTimeFormatter.ofPattern(DATE, locale).withZone(zoneId);
+            exportDateTime = DateTimeFormatter.ofPattern(EXPORT_DATE_TIME, locale).withZone(zoneId);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.ijaskz.lotteryeventapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geohash encoding, and the geohash cells covering a map view.
+ *
+ * <p>A geohash names a latitude/longitude cell with base-32 characters, each one splitting
+ * the cell into 32. Locations in a cell share its geohash as a prefix, so in Firestore a
+ * cell's entrants are a range query on a stored geohash field: {@code >= prefix} and
+ * {@code < prefix + "~"}. All methods are pure Java for easy unit testing.</p>
+ */
+public final class Geohash {
+
+    /** Characters stored on waiting list entries: cells of about 5 m. */
+    public static final int STORED_PRECISION = 9;
+    /** Sorts after every geohash character, to end a prefix range. */
+    public static final String RANGE_END = "~";
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final int MAX_PRECISION = 12;
+
+    private Geohash() { }
+
+    /**
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @param precision number of characters, 1 to 12
+     * @return geohash of the cell holding the location
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        checkPrecision(precision);
+        return encodeCell(column(longitude, precision), row(latitude, precision), precision);
+    }
+
+    /**
+     * Returns the cells of a precision that cover a map view, west to east and south to
+     * north. A view crossing the antimeridian ({@code west > east}) wraps around it.
+     * @param north northern edge, in degrees
+     * @param south southern edge, in degrees
+     * @param east eastern edge, in degrees
+     * @param west western edge, in degrees
+     * @param precision cell size in characters, 1 to 12; 0 for one empty prefix covering
+     *                  the world
+     * @return geohash prefixes, at least one
+     */
+    public static List<String> cover(double north, double south, double east, double west, int precision) {
+        List<String> cells = new ArrayList<>();
+        if (precision == 0) {
+            cells.add("");
+            return cells;
+        }
+        checkPrecision(precision);
+        long columns = 1L << lonBits(precision);
+        long minX = column(west, precision);
+        long maxX = column(east, precision);
+        if (maxX < minX) maxX += columns;
+        long minY = row(south, precision);
+        long maxY = row(north, precision);
+        for (long x = minX; x <= maxX; x++) {
+            for (long y = minY; y <= maxY; y++) {
+                cells.add(encodeCell(x % columns, y, precision));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * @return how many cells of {@code precision} {@link #cover} would return for the view
+     */
+    public static long coverSize(double north, double south, double east, double west, int precision) {
+        if (precision == 0) return 1;
+        checkPrecision(precision);
+        long minX = column(west, precision);
+        long maxX = column(east, precision);
+        if (maxX < minX) maxX += 1L << lonBits(precision);
+        return (maxX - minX + 1) * (row(north, precision) - row(south, precision) + 1);
+    }
+
+    /**
+     * Finds the finest precision whose cover of the view has at most {@code maxCells}
+     * cells.
+     * @param maxCells largest acceptable cover
+     * @return precision from 0 (the whole world as one cell) to 12
+     */
+    public static int precisionFor(double north, double south, double east, double west, int maxCells) {
+        int precision = 0;
+        while (precision < MAX_PRECISION
+                && coverSize(north, south, east, west, precision + 1) <= maxCells) {
+            precision++;
+        }
+        return precision;
+    }
+
+    private static String encodeCell(long x, long y, int precision) {
+        int lonBits = lonBits(precision);
+        int latBits = latBits(precision);
+        char[] hash = new char[precision];
+        int bit = 0;
+        for (int c = 0; c < precision; c++) {
+            int value = 0;
+            for (int i = 0; i < 5; i++, bit++) {
+                // Bits alternate longitude, latitude, longitude..., most significant first
+                long b = bit % 2 == 0 ? (x >> (lonBits - 1 - bit / 2)) & 1 : (y >> (latBits - 1 - bit / 2)) & 1;
+                value = (value << 1) | (int) b;
+            }
+            hash[c] = BASE32[value];
+        }
+        return new String(hash);
+    }
+
+    private static long column(double longitude, int precision) {
+        return cellIndex((longitude + 180.0) / 360.0, lonBits(precision));
+    }
+
+    private static long row(double latitude, int precision) {
+        return cellIndex((latitude + 90.0) / 180.0, latBits(precision));
+    }
+
+    private static long cellIndex(double fraction, int bits) {
+        long cells = 1L << bits;
+        return Math.max(0, Math.min(cells - 1, (long) Math.floor(fraction * cells)));
+    }
+
+    private static int lonBits(int precision) {
+        return (5 * precision + 1) / 2;
+    }
+
+    private static int latBits(int precision) {
+        return 5 * precision / 2;
+    }
+
+    private static void checkPrecision(int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be 1 to " + MAX_PRECISION);
+        }
+    }
+}
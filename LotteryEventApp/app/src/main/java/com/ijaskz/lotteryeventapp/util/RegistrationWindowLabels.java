@@ -0,0 +1,87 @@
+package com.ijaskz.lotteryeventapp.util;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Remembers each event's formatted "Opens: … • Closes: …" line, so list rows that scroll
+ * back into view reuse the string instead of formatting two dates again.
+ *
+ * <p>Entries are keyed by event id and hold the window they were formatted for; an event
+ * whose registration window was edited is formatted again, and all labels are dropped
+ * when the default locale or time zone changes. At most {@code maxEntries} events are kept, dropping
+ * the least recently shown. Not thread-safe; meant for an adapter's bind calls on the
+ * main thread.</p>
+ */
+public class RegistrationWindowLabels {
+
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final LinkedHashMap<String, Label> labels;
+    private Locale locale = Locale.getDefault();
+    private String timeZoneId = TimeZone.getDefault().getID();
+
+    public RegistrationWindowLabels() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries maximum number of events remembered
+     */
+    public RegistrationWindowLabels(int maxEntries) {
+        final int capacity = Math.max(1, maxEntries);
+        this.labels = new LinkedHashMap<String, Label>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Label> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param eventId id of the event; null skips the cache
+     * @param startMs registration start in epoch milliseconds
+     * @param endMs registration end in epoch milliseconds
+     * @return e.g. "Opens: Nov 7, 9:00 AM  •  Closes: Nov 14, 5:00 PM"
+     */
+    public String label(String eventId, long startMs, long endMs) {
+        if (eventId == null) return format(startMs, endMs);
+        Locale currentLocale = Locale.getDefault();
+        String currentZone = TimeZone.getDefault().getID();
+        if (!currentLocale.equals(locale) || !currentZone.equals(timeZoneId)) {
+            locale = currentLocale;
+            timeZoneId = currentZone;
+            labels.clear();
+        }
+        Label label = labels.get(eventId);
+        if (label == null || label.startMs != startMs || label.endMs != endMs) {
+            label = new Label(startMs, endMs, format(startMs, endMs));
+            labels.put(eventId, label);
+        }
+        return label.text;
+    }
+
+    /** Forgets every label, e.g. after the device's locale or time zone changed. */
+    public void clear() {
+        labels.clear();
+    }
+
+    private static String format(long startMs, long endMs) {
+        return "Opens: " + DateFormats.shortDateTime(startMs)
+                + "  •  Closes: " + DateFormats.shortDateTime(endMs);
+    }
+
+    private static final class Label {
+        final long startMs;
+        final long endMs;
+        final String text;
+
+        Label(long startMs, long endMs, String text) {
+            this.startMs = startMs;
+            this.endMs = endMs;
+            this.text = text;
+        }
+    }
+}
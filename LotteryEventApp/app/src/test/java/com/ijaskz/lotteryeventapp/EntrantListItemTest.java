@@ -0,0 +1,104 @@
+package com.ijaskz.lotteryeventapp;
+
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore;
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore.Change;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for laying out the organizer's entrant list in sections.
+ */
+public class EntrantListItemTest {
+
+    private static Change entrant(String id, String status, long joinedAt) {
+        return Change.put(id, "Name " + id, id + "@x.com", status, null, null, joinedAt);
+    }
+
+    private static List<String> titlesAndIds(List<EntrantListItem> items) {
+        List<String> out = new ArrayList<>();
+        for (EntrantListItem item : items) {
+            out.add(item.isHeader() ? item.getSectionTitle() : item.getDocId());
+        }
+        return out;
+    }
+
+    /**
+     * Before the lottery there is one section, earliest to join first.
+     */
+    @Test
+    public void fromStore_beforeLotteryIsOneWaitingSection() {
+        EntrantSnapshotStore store = new EntrantSnapshotStore();
+        store.apply(Arrays.asList(entrant("b", "waiting", 2), entrant("a", "waiting", 1)));
+
+        List<EntrantListItem> items = EntrantListItem.fromStore(store);
+        assertEquals(Arrays.asList("Waiting list entrants", "a", "b"), titlesAndIds(items));
+        assertEquals(0, items.get(2).getHeaderPosition());
+    }
+
+    /**
+     * After the lottery, chosen entrants appear in the "all chosen" section and in their
+     * response's section; empty sections are left out.
+     */
+    @Test
+    public void fromStore_afterLotteryGroupsByResponse() {
+        EntrantSnapshotStore store = new EntrantSnapshotStore();
+        store.apply(Arrays.asList(entrant("w", "waiting", 1), entrant("s", "selected", 2),
+                entrant("c", "cancelled", 3), entrant("n", "not_selected", 4)));
+
+        List<EntrantListItem> items = EntrantListItem.fromStore(store);
+        assertEquals(Arrays.asList(
+                "All entrants chosen in lottery", "s", "c",
+                "Chosen entrants invited to apply", "s",
+                "Cancelled entrants", "c",
+                "Other waiting list entrants", "w", "n"), titlesAndIds(items));
+        assertEquals(5, items.get(6).getHeaderPosition());
+        assertEquals(7, items.get(9).getHeaderPosition());
+    }
+
+    /**
+     * Ids survive a rebuild, and differ for the same entrant in two sections.
+     */
+    @Test
+    public void ids_stableAcrossRebuildsAndUniquePerSection() {
+        EntrantSnapshotStore store = new EntrantSnapshotStore();
+        store.apply(Arrays.asList(entrant("s", "selected", 1), entrant("w", "waiting", 2)));
+        List<EntrantListItem> before = EntrantListItem.fromStore(store);
+
+        store.apply(Collections.singletonList(entrant("x", "waiting", 3)));
+        List<EntrantListItem> after = EntrantListItem.fromStore(store);
+
+        assertEquals(before.get(1).getId(), after.get(1).getId());
+        assertTrue(before.get(1).isSameRow(after.get(1)));
+        assertNotEquals(before.get(1).getId(), before.get(3).getId());
+        assertFalse(before.get(1).isSameRow(before.get(3)));
+        assertEquals(before.size() + 1, after.size());
+    }
+
+    @Test
+    public void fromStore_emptyStoreHasNoRows() {
+        assertTrue(EntrantListItem.fromStore(new EntrantSnapshotStore()).isEmpty());
+    }
+
+    /**
+     * Rows built from a snapshot on another thread show the list as it was when the
+     * snapshot was taken, whatever the store applies meanwhile.
+     */
+    @Test
+    public void fromColumns_readsSnapshotNotLaterChanges() {
+        EntrantSnapshotStore store = new EntrantSnapshotStore();
+        store.apply(Arrays.asList(entrant("a", "waiting", 1), entrant("b", "waiting", 2)));
+        List<EntrantSnapshotStore.StatusColumns> snapshot = store.snapshot();
+
+        store.apply(Arrays.asList(EntrantSnapshotStore.Change.removed("a"), entrant("b", "selected", 2)));
+
+        assertEquals(Arrays.asList("Waiting list entrants", "a", "b"),
+                titlesAndIds(EntrantListItem.fromColumns(snapshot)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.ijaskz.lotteryeventapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the window of feed pages kept in memory.
+ */
+public class EventPageWindowTest {
+
+    private static List<Event> page(int index, int size) {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Event e = new Event();
+            e.setEvent_id("p" + index + "_" + i);
+            events.add(e);
+        }
+        return events;
+    }
+
+    /**
+     * Scrolling down 100 pages with a window of 3 only ever holds 3 pages; scrolling back
+     * up re-adds the previous page and evicts the last.
+     */
+    @Test
+    public void appendAndPrepend_keepWindowBounded() {
+        EventPageWindow window = new EventPageWindow(3);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, window.append(page(i, 10)));
+            assertTrue(window.events().size() <= 30);
+        }
+        assertEquals(97, window.first());
+        assertEquals(99, window.last());
+
+        assertEquals(96, window.prepend(page(96, 10)));
+        assertEquals(96, window.first());
+        assertEquals(98, window.last());
+        assertEquals("p96_0", window.events().get(0).getEvent_id());
+    }
+
+    /**
+     * An event pushed from one page into the next is listed once, and replacing a page
+     * that is not loaded does nothing.
+     */
+    @Test
+    public void events_dedupeAcrossPages() {
+        EventPageWindow window = new EventPageWindow(4);
+        List<Event> first = page(0, 2);
+        List<Event> second = page(1, 2);
+        second.add(0, first.get(1));
+        window.append(first);
+        window.append(second);
+        assertEquals(4, window.events().size());
+
+        window.replace(7, page(7, 5));
+        assertEquals(4, window.events().size());
+        assertFalse(window.contains(7));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void prepend_beforeFirstPage_fails() {
+        EventPageWindow window = new EventPageWindow(2);
+        window.append(page(0, 1));
+        window.prepend(page(-1, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsTinyWindow() {
+        new EventPageWindow(1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.ijaskz.lotteryeventapp;
+
+import com.google.firebase.firestore.DocumentChange;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for applying Firestore document changes to an ordered event list, and for the
+ * content comparison used to decide which rows re-bind.
+ */
+public class EventSnapshotListTest {
+
+    private static Event event(String id, String name) {
+        Event e = new Event("desc", "org", "loc", name, 10, "time", null);
+        e.setEvent_id(id);
+        return e;
+    }
+
+    /**
+     * A sequence of adds, an in-place edit, a move and a removal leaves the list in the
+     * same order a full re-query would.
+     */
+    @Test
+    public void applyChange_followsFirestoreIndexes() {
+        List<String> list = new ArrayList<>();
+        EventSnapshotList.applyChange(list, DocumentChange.Type.ADDED, -1, 0, "a");
+        EventSnapshotList.applyChange(list, DocumentChange.Type.ADDED, -1, 0, "b");
+        EventSnapshotList.applyChange(list, DocumentChange.Type.ADDED, -1, 2, "c");
+        assertEquals(Arrays.asList("b", "a", "c"), list);
+
+        EventSnapshotList.applyChange(list, DocumentChange.Type.MODIFIED, 1, 1, "a2");
+        assertEquals(Arrays.asList("b", "a2", "c"), list);
+
+        EventSnapshotList.applyChange(list, DocumentChange.Type.MODIFIED, 2, 0, "c2");
+        assertEquals(Arrays.asList("c2", "b", "a2"), list);
+
+        EventSnapshotList.applyChange(list, DocumentChange.Type.REMOVED, 1, -1, null);
+        assertEquals(Arrays.asList("c2", "a2"), list);
+    }
+
+    /**
+     * Events with the same data compare equal by content; any edited field does not.
+     */
+    @Test
+    public void hasSameContent_comparesFields() {
+        Event a = event("e1", "Swim");
+        Event b = event("e1", "Swim");
+        assertTrue(a.hasSameContent(b));
+        assertNotEquals("equals stays identity", a, b);
+
+        b.setWaitlistLimit(50);
+        assertFalse(a.hasSameContent(b));
+        assertFalse(a.hasSameContent(event("e2", "Swim")));
+        assertFalse(a.hasSameContent(null));
+    }
+}
@@ -0,0 +1,135 @@
+package com.ijaskz.lotteryeventapp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for sharing one first-page listener between screens.
+ */
+public class EventStreamTest {
+
+    /** Upstream that records how often it was started and stopped. */
+    private static class FakeUpstream implements EventStream.Upstream {
+        int starts;
+        int stops;
+        EventStream.Observer downstream;
+
+        @Override
+        public Runnable start(EventStream.Observer downstream) {
+            starts++;
+            this.downstream = downstream;
+            return () -> stops++;
+        }
+
+        void emit(String... ids) {
+            List<Event> events = new ArrayList<>();
+            for (String id : ids) {
+                Event e = new Event();
+                e.setEvent_id(id);
+                events.add(e);
+            }
+            downstream.onPage(new EventStream.Page(events, null, false));
+        }
+    }
+
+    /** Records the pages an observer received. */
+    private static class Recorder implements EventStream.Observer {
+        final List<EventStream.Page> pages = new ArrayList<>();
+        Exception error;
+
+        @Override public void onPage(EventStream.Page page) { pages.add(page); }
+        @Override public void onError(Exception e) { error = e; }
+    }
+
+    /**
+     * Two screens share one upstream listener, a late subscriber gets the latest page
+     * straight away, and the listener stops when the last screen leaves.
+     */
+    @Test
+    public void subscribers_shareOneUpstream() {
+        FakeUpstream upstream = new FakeUpstream();
+        int[] idle = {0};
+        EventStream stream = new EventStream(upstream, () -> idle[0]++);
+
+        Recorder home = new Recorder();
+        EventStream.Subscription homeSub = stream.subscribe(home);
+        upstream.emit("a", "b");
+
+        Recorder all = new Recorder();
+        EventStream.Subscription allSub = stream.subscribe(all);
+        assertEquals(1, upstream.starts);
+        assertEquals(1, all.pages.size());
+        assertEquals(2, all.pages.get(0).getEvents().size());
+
+        upstream.emit("c", "a", "b");
+        assertEquals(2, home.pages.size());
+        assertEquals(2, all.pages.size());
+        assertSame(home.pages.get(1), all.pages.get(1));
+
+        homeSub.unsubscribe();
+        assertEquals(0, upstream.stops);
+        allSub.unsubscribe();
+        assertEquals(1, upstream.stops);
+        assertEquals(1, idle[0]);
+        assertEquals(0, stream.observerCount());
+    }
+
+    /**
+     * With a scheduler, the listener outlives the last screen for a while, so a screen
+     * that replaces it reuses the listener and its latest page.
+     */
+    @Test
+    public void lastUnsubscribe_lingersBeforeStopping() {
+        FakeUpstream upstream = new FakeUpstream();
+        List<Runnable> scheduled = new ArrayList<>();
+        List<Long> delays = new ArrayList<>();
+        int[] idle = {0};
+        EventStream stream = new EventStream(upstream, () -> idle[0]++, (task, delayMs) -> {
+            scheduled.add(task);
+            delays.add(delayMs);
+            return () -> scheduled.remove(task);
+        });
+
+        stream.subscribe(new Recorder()).unsubscribe();
+        assertEquals(0, upstream.stops);
+        assertEquals(Collections.singletonList(EventStream.LINGER_MS), delays);
+
+        // Home is replaced by All Events before the delay runs out
+        upstream.emit("a");
+        Recorder all = new Recorder();
+        EventStream.Subscription allSub = stream.subscribe(all);
+        assertTrue(scheduled.isEmpty());
+        assertEquals(1, upstream.starts);
+        assertEquals(1, all.pages.size());
+
+        allSub.unsubscribe();
+        scheduled.get(0).run();
+        assertEquals(1, upstream.stops);
+        assertEquals(1, idle[0]);
+    }
+
+    /**
+     * After the upstream fails, every observer hears about it and the next subscriber
+     * starts a new listener.
+     */
+    @Test
+    public void error_isForwardedAndNextSubscriberRestarts() {
+        FakeUpstream upstream = new FakeUpstream();
+        EventStream stream = new EventStream(upstream, null);
+        Recorder first = new Recorder();
+        stream.subscribe(first);
+
+        upstream.downstream.onError(new Exception("permission denied"));
+        assertNotNull(first.error);
+
+        Recorder second = new Recorder();
+        stream.subscribe(second);
+        assertEquals(2, upstream.starts);
+        assertEquals(Collections.emptyList(), second.pages);
+    }
+}
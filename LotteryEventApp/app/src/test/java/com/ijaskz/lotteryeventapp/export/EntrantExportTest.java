@@ -0,0 +1,265 @@
+package com.ijaskz.lotteryeventapp.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Tests for the streaming export: CSV, gzip and JSON Lines output and column selection,
+ * paging through the source, including the entrant store, and progress and error reporting.
+ */
+public class EntrantExportTest {
+
+    private Locale savedLocale;
+    private TimeZone savedZone;
+
+    @Before
+    public void setUp() {
+        savedLocale = Locale.getDefault();
+        savedZone = TimeZone.getDefault();
+        Locale.setDefault(Locale.US);
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(savedLocale);
+        TimeZone.setDefault(savedZone);
+    }
+
+    /** Serves {@code total} generated entries, recording the pages asked for. */
+    private static class GeneratedSource implements EntrantSource {
+        final int total;
+        final List<Integer> requested = new ArrayList<>();
+
+        GeneratedSource(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public Page next(Object cursor, int limit) {
+            int from = cursor == null ? 0 : (Integer) cursor;
+            requested.add(from);
+            int to = Math.min(total, from + limit);
+            List<WaitingListEntry> entries = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                entries.add(entry("Entrant " + i, "e" + i + "@test.com", "waiting", 1_762_529_400_000L));
+            }
+            return new Page(entries, to);
+        }
+    }
+
+    /** Counts bytes and lines without keeping them. */
+    private static class CountingStream extends OutputStream {
+        long bytes;
+        long lines;
+        boolean closed;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') lines++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') lines++;
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static class RecordingListener implements EntrantExport.Listener {
+        final List<Integer> progress = new ArrayList<>();
+        Integer completed;
+        Exception error;
+
+        @Override
+        public void onProgress(int rows) {
+            progress.add(rows);
+        }
+
+        @Override
+        public void onComplete(int rows) {
+            completed = rows;
+        }
+
+        @Override
+        public void onError(Exception e) {
+            error = e;
+        }
+    }
+
+    private static WaitingListEntry entry(String name, String email, String status, long joinedAt) {
+        WaitingListEntry e = new WaitingListEntry("event", email, name, email);
+        e.setStatus(status);
+        e.setJoined_at(joinedAt);
+        return e;
+    }
+
+    private static EntrantExport csvExport(EntrantSource source) {
+        return new EntrantExport(source, ExportFormat.CSV, EntrantColumn.DEFAULTS, Runnable::run, Runnable::run);
+    }
+
+    @Test
+    public void writer_escapesFieldsAndFormatsDate() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvEntrantWriter csv = new CsvEntrantWriter(out, EntrantColumn.DEFAULTS);
+        csv.writeHeader();
+        csv.write(entry("Lee, \"Sam\"", "sam@test.com", "selected", 1_762_529_400_000L));
+        csv.write(entry("Zoë\nSmith", null, "waiting", 0));
+
+        assertEquals("Name,Email,Status,Joined Date\n"
+                + "\"Lee, \"\"Sam\"\"\",sam@test.com,selected,2025-11-07 15:30\n"
+                + "\"Zoë\nSmith\",,waiting,\n", out.toString());
+    }
+
+    @Test
+    public void export_writesUtf8AndClosesStream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EntrantSource source = (cursor, limit) -> new EntrantSource.Page(
+                Collections.singletonList(entry("Zoë", "z@test.com", "waiting", 0)), null);
+        RecordingListener listener = new RecordingListener();
+
+        csvExport(source).start(out, listener);
+
+        assertEquals(Integer.valueOf(1), listener.completed);
+        assertEquals("Name,Email,Status,Joined Date\nZoë,z@test.com,waiting,\n",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void jsonLines_writesSelectedColumnsWithRawValues() throws IOException {
+        WaitingListEntry declined = entry("Ana \"A\"\\B", null, "declined", 1_762_529_400_000L);
+        declined.setDecline_reason("busy\tthat day\u0001");
+        declined.setLatitude(53.5);
+        StringWriter out = new StringWriter();
+        JsonLinesEntrantWriter jsonl = new JsonLinesEntrantWriter(out, Arrays.asList(
+                EntrantColumn.NAME, EntrantColumn.EMAIL, EntrantColumn.JOINED_AT,
+                EntrantColumn.DECLINE_REASON, EntrantColumn.LATITUDE, EntrantColumn.SELECTED_AT));
+        jsonl.write(declined);
+
+        assertEquals("{\"entrant_name\":\"Ana \\\"A\\\"\\\\B\",\"entrant_email\":null,"
+                + "\"joined_at\":1762529400000,\"decline_reason\":\"busy\\tthat day\\u0001\","
+                + "\"latitude\":53.5,\"selected_at\":null}\n", out.toString());
+    }
+
+    @Test
+    public void csvGzip_decompressesToCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RecordingListener listener = new RecordingListener();
+        GeneratedSource source = new GeneratedSource(1200);
+
+        new EntrantExport(source, ExportFormat.CSV_GZIP, Arrays.asList(EntrantColumn.NAME, EntrantColumn.STATUS),
+                Runnable::run, Runnable::run).start(out, listener);
+
+        assertEquals(Integer.valueOf(1200), listener.completed);
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())), StandardCharsets.UTF_8));
+        assertEquals("Name,Status", in.readLine());
+        assertEquals("Entrant 0,waiting", in.readLine());
+        int rows = 1;
+        while (in.readLine() != null) rows++;
+        assertEquals(1200, rows);
+    }
+
+    /**
+     * Half a million entrants are streamed page by page; nothing but the current page is
+     * held, and progress is reported after every full page.
+     */
+    @Test
+    public void export_streamsLargeListInPages() {
+        GeneratedSource source = new GeneratedSource(500_000);
+        CountingStream out = new CountingStream();
+        RecordingListener listener = new RecordingListener();
+
+        csvExport(source).start(out, listener);
+
+        assertNull(listener.error);
+        assertEquals(Integer.valueOf(500_000), listener.completed);
+        assertEquals(500_001, out.lines);
+        assertTrue(out.closed);
+        // 1000 full pages, then an empty one to find the end
+        assertEquals(1001, source.requested.size());
+        assertEquals(1000, listener.progress.size());
+        assertEquals(Integer.valueOf(EntrantExport.PAGE_SIZE), listener.progress.get(0));
+    }
+
+    @Test
+    public void export_reportsFailedPageAndClosesStream() {
+        CountingStream out = new CountingStream();
+        RecordingListener listener = new RecordingListener();
+        EntrantSource failing = (cursor, limit) -> {
+            if (cursor != null) throw new IOException("offline");
+            List<WaitingListEntry> page = new ArrayList<>();
+            for (int i = 0; i < limit; i++) page.add(entry("E" + i, null, "waiting", 0));
+            return new EntrantSource.Page(page, limit);
+        };
+
+        csvExport(failing).start(out, listener);
+
+        assertEquals("offline", listener.error.getMessage());
+        assertNull(listener.completed);
+        assertTrue(out.closed);
+    }
+
+    /**
+     * The store's snapshot is read page by page across statuses, each entrant once.
+     */
+    @Test
+    public void storeSource_pagesAcrossStatuses() {
+        EntrantSnapshotStore store = new EntrantSnapshotStore();
+        List<EntrantSnapshotStore.Change> changes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            changes.add(EntrantSnapshotStore.Change.put("w" + i, "W" + i, null, "waiting", null, null, i));
+        }
+        for (int i = 0; i < 3; i++) {
+            changes.add(EntrantSnapshotStore.Change.put("s" + i, "S" + i, null, "selected", null, null, i));
+        }
+        store.apply(changes);
+        StoreEntrantSource source = new StoreEntrantSource(store.snapshot());
+
+        List<String> ids = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        Object cursor = null;
+        EntrantSource.Page page;
+        do {
+            page = source.next(cursor, 3);
+            sizes.add(page.getEntries().size());
+            for (WaitingListEntry e : page.getEntries()) ids.add(e.getId());
+            cursor = page.getCursor();
+        } while (page.getEntries().size() == 3);
+
+        assertEquals(Arrays.asList(3, 3, 2), sizes);
+        assertEquals(Arrays.asList("w0", "w1", "w2", "w3", "w4", "s0", "s1", "s2"), ids);
+    }
+}
@@ -0,0 +1,168 @@
+package com.ijaskz.lotteryeventapp.map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests for EntrantClusterIndex: clusters at low and high zoom, viewport filtering,
+ * incremental adds, moves and removals, and dropping loaded regions.
+ */
+public class EntrantClusterIndexTest {
+
+    // Edmonton and Calgary, about 280 km apart
+    private static final double EDM_LAT = 53.5461, EDM_LON = -113.4938;
+    private static final double YYC_LAT = 51.0447, YYC_LON = -114.0719;
+
+    private static List<EntrantClusterIndex.Cluster> world(EntrantClusterIndex index, double zoom) {
+        return index.clusters(zoom, 85, -85, 180, -180);
+    }
+
+    private static int total(List<EntrantClusterIndex.Cluster> clusters) {
+        int sum = 0;
+        for (EntrantClusterIndex.Cluster c : clusters) sum += c.getCount();
+        return sum;
+    }
+
+    @Test
+    public void lowZoom_mergesNearbyEntrants_highZoom_splitsThem() {
+        EntrantClusterIndex index = new EntrantClusterIndex();
+        for (int i = 0; i < 10; i++) {
+            index.put("edm" + i, EDM_LAT + i * 0.005, EDM_LON, "Edm " + i);
+            index.put("yyc" + i, YYC_LAT, YYC_LON + i * 0.005, "Yyc " + i);
+        }
+
+        List<EntrantClusterIndex.Cluster> far = world(index, 3);
+        assertEquals(1, far.size());
+        assertEquals(20, far.get(0).getCount());
+
+        List<EntrantClusterIndex.Cluster> province = world(index, 8);
+        assertEquals(2, province.size());
+        assertEquals(10, province.get(0).getCount());
+        assertEquals(20, total(province));
+
+        List<EntrantClusterIndex.Cluster> street = world(index, 16);
+        assertEquals(20, street.size());
+    }
+
+    @Test
+    public void singleEntrant_keepsExactPositionAndName() {
+        EntrantClusterIndex index = new EntrantClusterIndex();
+        index.put("a", EDM_LAT, EDM_LON, "Ana");
+
+        EntrantClusterIndex.Cluster c = world(index, 12).get(0);
+        assertEquals(1, c.getCount());
+        assertEquals("a", c.getEntrantId());
+        assertEquals("Ana", c.getName());
+        assertEquals(EDM_LAT, c.getLatitude(), 1e-9);
+        assertEquals(EDM_LON, c.getLongitude(), 1e-9);
+    }
+
+    @Test
+    public void cluster_isAtCentroid() {
+        EntrantClusterIndex index = new EntrantClusterIndex();
+        index.put("a", 10, 20, null);
+        index.put("b", 10, 22, null);
+
+        EntrantClusterIndex.Cluster c = world(index, 0).get(0);
+        assertEquals(2, c.getCount());
+        assertNull(c.getEntrantId());
+        assertEquals(21, c.getLongitude(), 1e-9);
+        assertEquals(10, c.getLatitude(), 1e-6);
+    }
+
+    @Test
+    public void clusters_onlyReturnsCellsInView() {
+        EntrantClusterIndex index = new EntrantClusterIndex();
+        index.put("edm", EDM_LAT, EDM_LON, null);
+        index.put("yyc", YYC_LAT, YYC_LON, null);
+
+        // A view around Edmonton at street zoom: only a few cells, looked up one by one
+        List<EntrantClusterIndex.Cluster> view = index.clusters(16,
+                EDM_LAT + 0.01, EDM_LAT - 0.01, EDM_LON + 0.01, EDM_LON - 0.01);
+        assertEquals(1, view.size());
+        assertEquals("edm", view.get(0).getEntrantId());
+
+        // A view wider than the index's cells: scanned
+        view = index.clusters(10, 52.5, 50, -113, -115);
+        assertEquals(1, view.size());
+        assertEquals("yyc", view.get(0).getEntrantId());
+    }
+
+    @Test
+    public void putAndRemove_updateEveryLevel() {
+        EntrantClusterIndex index = new EntrantClusterIndex();
+        index.put("a", EDM_LAT, EDM_LON, "Ana");
+        index.put("b", EDM_LAT, EDM_LON + 0.0001, "Ben");
+        assertEquals(1, world(index, 10).size());
+
+        // Moving b to Calgary splits the cluster
+        index.put("b", YYC_LAT, YYC_LON, "Ben");
+        assertEquals(2, index.size());
+        assertEquals(2, world(index, 10).size());
+
+        // Removing a leaves b, whose single-entrant cluster still knows its name
+        assertTrue(index.remove("a"));
+        assertFalse(index.remove("a"));
+        for (int z = 0; z <= EntrantClusterIndex.MAX_ZOOM; z++) {
+            List<EntrantClusterIndex.Cluster> clusters = world(index, z);
+            assertEquals(1, clusters.size());
+            assertEquals("Ben", clusters.get(0).getName());
+        }
+
+        // A new entrant reuses a's slot without inheriting anything
+        index.put("c", YYC_LAT, YYC_LON + 0.0001, "Cy");
+        assertEquals(2, world(index, 0).get(0).getCount());
+        index.remove("b");
+        assertEquals("c", world(index, 0).get(0).getEntrantId());
+
+        index.remove("c");
+        assertEquals(0, index.size());
+        assertNull(index.all());
+        assertTrue(world(index, 5).isEmpty());
+    }
+
+    @Test
+    public void manyRandomChanges_countsMatchAtEveryLevel() {
+        EntrantClusterIndex index = new EntrantClusterIndex();
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            String id = "e" + random.nextInt(2000);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+            } else {
+                index.put(id, 53 + random.nextDouble(), -114 + random.nextDouble(), id);
+            }
+        }
+        for (int z = 0; z <= EntrantClusterIndex.MAX_ZOOM; z++) {
+            assertEquals(index.size(), total(world(index, z)));
+        }
+        assertEquals(index.size(), index.all().getCount());
+    }
+
+    @Test
+    public void regions_lateRemovalFromOldRegionIsIgnored_andRegionsDropWhole() {
+        EntrantClusterIndex index = new EntrantClusterIndex();
+        index.put("a", EDM_LAT, EDM_LON, "Ana", "c3x29");
+        index.put("b", EDM_LAT, EDM_LON + 0.01, "Ben", "c3x29");
+        index.put("c", YYC_LAT, YYC_LON, "Cy", "c3nf");
+
+        // a moves to Calgary: its new region reports it before the old one drops it
+        index.put("a", YYC_LAT, YYC_LON + 0.01, "Ana", "c3nf");
+        assertFalse(index.remove("a", "c3x29"));
+        assertEquals(3, index.size());
+
+        // Unloading the Calgary region drops a and c, keeps b
+        assertEquals(2, index.removeRegion("c3nf"));
+        assertEquals(1, index.size());
+        assertEquals("b", world(index, 0).get(0).getEntrantId());
+        assertTrue(index.remove("b", "c3x29"));
+        assertEquals(0, index.size());
+    }
+}
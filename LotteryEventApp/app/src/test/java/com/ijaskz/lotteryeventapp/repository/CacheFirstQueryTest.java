@@ -0,0 +1,49 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for when a cache-first load reads its whole query from the server.
+ */
+public class CacheFirstQueryTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    /**
+     * With nothing cached there is no watermark to read from.
+     */
+    @Test
+    public void needsFullSync_whenNothingCached() {
+        assertTrue(CacheFirstQuery.needsFullSync(0, NOW - 1000, NOW));
+    }
+
+    /**
+     * The first load in a process reads everything, so deletions made elsewhere are seen.
+     */
+    @Test
+    public void needsFullSync_firstLoadInProcess() {
+        assertTrue(CacheFirstQuery.needsFullSync(NOW - 5000, null, NOW));
+    }
+
+    @Test
+    public void needsFullSync_onlyAfterInterval() {
+        long watermark = NOW - 5000;
+        assertFalse(CacheFirstQuery.needsFullSync(watermark,
+                NOW - CacheFirstQuery.FULL_SYNC_INTERVAL_MS + 1, NOW));
+        assertTrue(CacheFirstQuery.needsFullSync(watermark,
+                NOW - CacheFirstQuery.FULL_SYNC_INTERVAL_MS, NOW));
+    }
+
+    /**
+     * Times are read as longs whatever number type Firestore returns; anything else is no time.
+     */
+    @Test
+    public void toMillis_readsNumbersOnly() {
+        assertEquals(NOW, CacheFirstQuery.toMillis(NOW));
+        assertEquals(42, CacheFirstQuery.toMillis(42));
+        assertEquals(0, CacheFirstQuery.toMillis(null));
+        assertEquals(0, CacheFirstQuery.toMillis("1700000000000"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for ChunkedBatchWriter using fake committers instead of Firestore.
+ */
+@RunWith(JUnit4.class)
+public class ChunkedBatchWriterTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private final ExecutorService commitThreads = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+        commitThreads.shutdownNow();
+    }
+
+    private static List<Integer> items(int n) {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < n; i++) items.add(i);
+        return items;
+    }
+
+    /** Runs a write and waits for onComplete. */
+    private static <T> ChunkedBatchWriter.BatchResult<T> writeAndWait(ChunkedBatchWriter<T> writer, List<T> items)
+            throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        List<ChunkedBatchWriter.BatchResult<T>> box = new ArrayList<>();
+        writer.write(items, new ChunkedBatchWriter.OnBatchListener<T>() {
+            @Override
+            public void onComplete(ChunkedBatchWriter.BatchResult<T> result) {
+                box.add(result);
+                done.countDown();
+            }
+        });
+        assertTrue("write did not complete", done.await(10, TimeUnit.SECONDS));
+        return box.get(0);
+    }
+
+    /**
+     * Items are split into chunks of at most 500 and every item is committed exactly once.
+     */
+    @Test
+    public void write_splitsIntoChunksOfAtMost500() throws Exception {
+        List<Integer> committed = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<>());
+        ChunkedBatchWriter<Integer> writer = new ChunkedBatchWriter<>((chunk, l) -> {
+            chunkSizes.add(chunk.size());
+            committed.addAll(chunk);
+            l.onSuccess();
+        }, 10_000, 4, 3, 1, scheduler);
+
+        ChunkedBatchWriter.BatchResult<Integer> result = writeAndWait(writer, items(12_345));
+
+        assertTrue(result.isSuccess());
+        assertEquals(25, result.getChunks().size());
+        for (int size : chunkSizes) assertTrue(size <= ChunkedBatchWriter.MAX_CHUNK_SIZE);
+        assertEquals(12_345, new HashSet<>(committed).size());
+        assertEquals(12_345, committed.size());
+    }
+
+    /**
+     * No more than the configured number of chunks are in flight at once.
+     */
+    @Test
+    public void write_respectsParallelism() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        ChunkedBatchWriter<Integer> writer = new ChunkedBatchWriter<>((chunk, l) -> {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            commitThreads.execute(() -> {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException ignored) { }
+                inFlight.decrementAndGet();
+                l.onSuccess();
+            });
+        }, 100, 3, 1, 1, scheduler);
+
+        assertTrue(writeAndWait(writer, items(2_000)).isSuccess());
+        assertTrue("max in flight " + maxInFlight.get(), maxInFlight.get() <= 3);
+        assertTrue(maxInFlight.get() > 1);
+    }
+
+    /**
+     * A chunk that fails transiently is retried until it succeeds.
+     */
+    @Test
+    public void write_retriesTransientFailures() throws Exception {
+        Map<Integer, AtomicInteger> attemptsByFirstItem = new ConcurrentHashMap<>();
+        ChunkedBatchWriter<Integer> writer = new ChunkedBatchWriter<>((chunk, l) -> {
+            int attempt = attemptsByFirstItem.computeIfAbsent(chunk.get(0), k -> new AtomicInteger()).incrementAndGet();
+            if (chunk.get(0) == 500 && attempt < 3) {
+                l.onFailure(new RuntimeException("unavailable"));
+            } else {
+                l.onSuccess();
+            }
+        }, 500, 2, 4, 1, scheduler);
+
+        ChunkedBatchWriter.BatchResult<Integer> result = writeAndWait(writer, items(1_500));
+
+        assertTrue(result.isSuccess());
+        assertEquals(3, result.getChunks().get(1).getAttempts());
+        assertEquals(1, result.getChunks().get(0).getAttempts());
+    }
+
+    /**
+     * Permanent errors are not retried, and the result lists exactly the items that failed.
+     */
+    @Test
+    public void write_reportsFailedChunks() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ChunkedBatchWriter<Integer> writer = new ChunkedBatchWriter<Integer>(new ChunkedBatchWriter.ChunkCommitter<Integer>() {
+            @Override
+            public void commit(List<Integer> chunk, WaitingListRepository.OnWriteListener l) {
+                calls.incrementAndGet();
+                if (chunk.contains(250)) {
+                    l.onFailure(new IllegalArgumentException("permission denied"));
+                } else {
+                    l.onSuccess();
+                }
+            }
+
+            @Override
+            public boolean isRetryable(Exception e) {
+                return !(e instanceof IllegalArgumentException);
+            }
+        }, 100, 2, 5, 1, scheduler);
+
+        ChunkedBatchWriter.BatchResult<Integer> result = writeAndWait(writer, items(1_000));
+
+        assertFalse(result.isSuccess());
+        assertEquals(10, calls.get());
+        Set<Integer> failed = new HashSet<>(result.getFailedItems());
+        assertEquals(100, failed.size());
+        assertTrue(failed.contains(200) && failed.contains(299));
+        assertTrue(result.getFirstError() instanceof IllegalArgumentException);
+        assertTrue(new BatchWriteException(result).getMessage().startsWith("100"));
+    }
+
+    /**
+     * An empty write completes immediately with no chunks.
+     */
+    @Test
+    public void write_emptyCompletesImmediately() throws Exception {
+        ChunkedBatchWriter<Integer> writer = new ChunkedBatchWriter<>((chunk, l) -> fail("no commit expected"),
+                500, 4, 1, 1, scheduler);
+        ChunkedBatchWriter.BatchResult<Integer> result = writeAndWait(writer, new ArrayList<>());
+        assertTrue(result.isSuccess());
+        assertTrue(result.getChunks().isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore.Change;
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore.StatusColumns;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for EntrantSnapshotStore: changes land in the right status's columns, rows
+ * move when an entrant's status changes, and removal keeps the columns packed.
+ */
+@RunWith(JUnit4.class)
+public class EntrantSnapshotStoreTest {
+
+    private EntrantSnapshotStore store;
+    private final List<List<Change>> told = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        store = new EntrantSnapshotStore();
+        store.addListener(told::add);
+    }
+
+    @Test
+    public void apply_groupsEntrantsByStatus() {
+        store.apply(Arrays.asList(
+                waiting("a", 30), waiting("b", 10),
+                Change.put("c", "C", "c@x.com", "selected", 53.5, -113.5, 20),
+                Change.put("d", "D", "d@x.com", null, null, null, 40)));
+
+        assertTrue(store.isLoaded());
+        assertEquals(4, store.size());
+        StatusColumns waiting = store.columns("waiting");
+        assertEquals(3, waiting.size());
+        int[] order = waiting.rowsByJoinTime();
+        assertEquals("b", waiting.id(order[0]));
+        assertEquals("a", waiting.id(order[1]));
+        assertEquals("d", waiting.id(order[2]));
+        assertFalse(waiting.hasLocation(order[2]));
+
+        StatusColumns selected = store.columns("selected");
+        assertEquals(1, selected.size());
+        assertEquals("c@x.com", selected.email(0));
+        assertEquals(53.5, selected.latitude(0), 0.0);
+        assertEquals(0, store.columns("cancelled").size());
+        assertEquals(1, told.size());
+    }
+
+    @Test
+    public void apply_movesEntrantWhenStatusChanges() {
+        store.apply(Arrays.asList(waiting("a", 1), waiting("b", 2)));
+        store.apply(Collections.singletonList(
+                Change.put("a", "A", "a@x.com", "selected", null, null, 1)));
+
+        assertEquals(2, store.size());
+        assertEquals(1, store.columns("waiting").size());
+        assertEquals("b", store.columns("waiting").id(0));
+        assertEquals("a", store.columns("selected").id(0));
+    }
+
+    @Test
+    public void apply_removalMovesLastRowIntoGap() {
+        store.apply(Arrays.asList(waiting("a", 1), waiting("b", 2), waiting("c", 3)));
+        store.apply(Arrays.asList(Change.removed("a"), Change.removed("missing")));
+
+        StatusColumns waiting = store.columns("waiting");
+        assertEquals(2, waiting.size());
+        assertEquals("c", waiting.id(0));
+        assertEquals("C", waiting.name(0));
+        assertEquals("b", waiting.id(1));
+
+        // The moved row is still found by id
+        store.apply(Collections.singletonList(Change.removed("c")));
+        assertEquals(1, waiting.size());
+        assertEquals("b", waiting.id(0));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void apply_emptySnapshotTellsListenersOnlyOnFirstLoad() {
+        store.apply(Collections.emptyList());
+        store.apply(Collections.emptyList());
+
+        assertTrue(store.isLoaded());
+        assertEquals(1, told.size());
+    }
+
+    /**
+     * A snapshot holds the stored fields and is not changed by later snapshots.
+     */
+    @Test
+    public void snapshot_copiesStoredFields() {
+        store.apply(Arrays.asList(waiting("a", 5),
+                Change.put("b", "B", "b@x.com", "accepted", 51.0, -114.0, 6)));
+
+        List<StatusColumns> copy = store.snapshot();
+        store.apply(Arrays.asList(Change.removed("b"), waiting("c", 7)));
+
+        assertEquals(2, copy.size());
+        assertEquals(1, copy.get(0).size());
+        WaitingListEntry b = copy.get(1).toEntry(0);
+        assertEquals("b", b.getId());
+        assertEquals("B", b.getEntrant_name());
+        assertEquals("accepted", b.getStatus());
+        assertEquals(6, b.getJoined_at());
+        assertEquals(51.0, b.getLatitude(), 0.0);
+        assertNull(copy.get(0).toEntry(0).getLatitude());
+        assertEquals(0, store.columns("accepted").size());
+    }
+
+    private static Change waiting(String id, long joinedAt) {
+        return Change.put(id, id.toUpperCase(), id + "@x.com", "waiting", null, null, joinedAt);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for EventMetadataCache using a manually completed loader and a fake clock.
+ */
+@RunWith(JUnit4.class)
+public class EventMetadataCacheTest {
+
+    /** Loader whose requests stay pending until the test completes them. */
+    static class PendingLoader implements EventMetadataCache.Loader {
+        final Map<String, List<EventMetadataCache.OnMetadataListener>> pending = new HashMap<>();
+        int loads;
+
+        @Override
+        public void load(String eventId, EventMetadataCache.OnMetadataListener listener) {
+            loads++;
+            pending.computeIfAbsent(eventId, k -> new ArrayList<>()).add(listener);
+        }
+
+        void complete(String eventId, String name) {
+            for (EventMetadataCache.OnMetadataListener l : pending.remove(eventId)) {
+                l.onLoaded(new EventMetadata(eventId, true, name, null, null, null, null));
+            }
+        }
+
+        void fail(String eventId) {
+            for (EventMetadataCache.OnMetadataListener l : pending.remove(eventId)) {
+                l.onError(new Exception("offline"));
+            }
+        }
+    }
+
+    /** Records what a lookup returned. */
+    static class Result implements EventMetadataCache.OnMetadataListener {
+        EventMetadata metadata;
+        Exception error;
+
+        @Override public void onLoaded(EventMetadata m) { metadata = m; }
+        @Override public void onError(Exception e) { error = e; }
+    }
+
+    private final long[] now = {0};
+
+    private EventMetadataCache cache(PendingLoader loader, int maxEntries) {
+        return new EventMetadataCache(loader, 1_000, maxEntries, () -> now[0]);
+    }
+
+    private static Result get(EventMetadataCache cache, String eventId) {
+        Result r = new Result();
+        cache.get(eventId, r);
+        return r;
+    }
+
+    /**
+     * Thousands of concurrent lookups for the same event share one load.
+     */
+    @Test
+    public void concurrentRequests_shareOneLoad() {
+        PendingLoader loader = new PendingLoader();
+        EventMetadataCache cache = cache(loader, 10);
+
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            results.add(get(cache, "ev"));
+        }
+        assertEquals(1, loader.loads);
+
+        loader.complete("ev", "Swim Lessons");
+        for (Result r : results) {
+            assertEquals("Swim Lessons", r.metadata.getName());
+        }
+        assertEquals("Swim Lessons", get(cache, "ev").metadata.getName());
+        assertEquals(1, loader.loads);
+    }
+
+    /**
+     * Entries are reloaded once the TTL has passed.
+     */
+    @Test
+    public void expiredEntry_isReloaded() {
+        PendingLoader loader = new PendingLoader();
+        EventMetadataCache cache = cache(loader, 10);
+        get(cache, "ev");
+        loader.complete("ev", "v1");
+
+        now[0] = 999;
+        assertEquals("v1", get(cache, "ev").metadata.getName());
+        assertEquals(1, loader.loads);
+
+        now[0] = 1_000;
+        Result r = get(cache, "ev");
+        assertNull(r.metadata);
+        assertEquals(2, loader.loads);
+        loader.complete("ev", "v2");
+        assertEquals("v2", r.metadata.getName());
+    }
+
+    /**
+     * The least recently used event is evicted when the cache is full.
+     */
+    @Test
+    public void full_evictsLeastRecentlyUsed() {
+        PendingLoader loader = new PendingLoader();
+        EventMetadataCache cache = cache(loader, 2);
+        for (String id : new String[]{"a", "b"}) {
+            get(cache, id);
+            loader.complete(id, id);
+        }
+        get(cache, "a");            // "b" is now least recently used
+        get(cache, "c");
+        loader.complete("c", "c");
+
+        assertEquals(2, cache.size());
+        assertEquals(3, loader.loads);
+        assertNotNull(get(cache, "a").metadata);
+        assertNull(get(cache, "b").metadata);
+        assertEquals(4, loader.loads);
+    }
+
+    /**
+     * Invalidating during a load answers the waiting callers but does not cache the old value.
+     */
+    @Test
+    public void invalidateDuringLoad_doesNotCacheStaleValue() {
+        PendingLoader loader = new PendingLoader();
+        EventMetadataCache cache = cache(loader, 10);
+        Result before = get(cache, "ev");
+        cache.invalidate("ev");
+        loader.complete("ev", "old name");
+
+        assertEquals("old name", before.metadata.getName());
+        assertEquals(0, cache.size());
+        get(cache, "ev");
+        assertEquals(2, loader.loads);
+    }
+
+    /**
+     * Errors reach every waiting caller and are not cached.
+     */
+    @Test
+    public void loadError_isDeliveredAndNotCached() {
+        PendingLoader loader = new PendingLoader();
+        EventMetadataCache cache = cache(loader, 10);
+        Result a = get(cache, "ev");
+        Result b = get(cache, "ev");
+        loader.fail("ev");
+
+        assertNotNull(a.error);
+        assertNotNull(b.error);
+        get(cache, "ev");
+        assertEquals(2, loader.loads);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.FirebaseFirestoreException.Code;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for which commit errors FirestoreChunkCommitter retries.
+ */
+@RunWith(JUnit4.class)
+public class FirestoreChunkCommitterTest {
+
+    private static FirestoreChunkCommitter<String> committer(boolean idempotent) {
+        return new FirestoreChunkCommitter<String>(null) {
+            @Override
+            protected void addWrites(Writes writes, String item) { }
+
+            @Override
+            protected boolean isIdempotent() {
+                return idempotent;
+            }
+        };
+    }
+
+    private static FirebaseFirestoreException error(Code code) {
+        return new FirebaseFirestoreException(code.name(), code);
+    }
+
+    /**
+     * Rejected commits are retried whatever the writes are.
+     */
+    @Test
+    public void rejectedCommits_alwaysRetried() {
+        for (boolean idempotent : new boolean[] {true, false}) {
+            assertTrue(committer(idempotent).isRetryable(error(Code.ABORTED)));
+            assertTrue(committer(idempotent).isRetryable(error(Code.RESOURCE_EXHAUSTED)));
+        }
+    }
+
+    /**
+     * A commit that timed out or lost its connection may have been applied, so it is only
+     * retried when applying it twice is harmless.
+     */
+    @Test
+    public void ambiguousCommits_retriedOnlyWhenIdempotent() {
+        assertTrue(committer(true).isRetryable(error(Code.UNAVAILABLE)));
+        assertTrue(committer(true).isRetryable(error(Code.DEADLINE_EXCEEDED)));
+        assertFalse(committer(false).isRetryable(error(Code.UNAVAILABLE)));
+        assertFalse(committer(false).isRetryable(error(Code.DEADLINE_EXCEEDED)));
+    }
+
+    @Test
+    public void otherErrors_neverRetried() {
+        FirestoreChunkCommitter<String> committer = committer(true);
+        assertFalse(committer.isRetryable(error(Code.PERMISSION_DENIED)));
+        assertFalse(committer.isRetryable(error(Code.INTERNAL)));
+        assertFalse(committer.isRetryable(error(Code.UNKNOWN)));
+        assertFalse(committer.isRetryable(new IllegalStateException("not from Firestore")));
+    }
+}
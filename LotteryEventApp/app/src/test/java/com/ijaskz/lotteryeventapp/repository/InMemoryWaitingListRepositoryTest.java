@@ -0,0 +1,463 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import com.ijaskz.lotteryeventapp.NotificationManager;
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.WaitingListManager;
+import com.ijaskz.lotteryeventapp.service.LotteryService;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for InMemoryWaitingListRepository and for WaitingListManager running on top of it.
+ */
+@RunWith(JUnit4.class)
+public class InMemoryWaitingListRepositoryTest {
+
+    /** Captures the result of a repository or manager callback. */
+    static class Box<T> implements WaitingListRepository.OnEntriesLoadedListener,
+            WaitingListRepository.OnWriteListener, WaitingListManager.OnCompleteListener {
+        T value;
+        Exception error;
+        boolean done;
+
+        @SuppressWarnings("unchecked")
+        @Override public void onLoaded(List<WaitingListEntry> entries) { value = (T) entries; done = true; }
+        @Override public void onError(Exception e) { error = e; done = true; }
+        @Override public void onSuccess() { done = true; }
+        @Override public void onFailure(Exception e) { error = e; done = true; }
+    }
+
+    /** Counts notifications instead of writing them to Firestore. */
+    static class CountingNotificationManager extends NotificationManager {
+        int selected;
+        int notSelected;
+        int organizerFailures;
+
+        CountingNotificationManager() { super(true); }
+
+        @Override
+        public void sendSelectionNotifications(String eventId, List<String> userIds, OnBulkSendListener listener) {
+            selected += userIds.size();
+        }
+
+        @Override
+        public void sendNotSelectedNotifications(String eventId, List<String> userIds, OnBulkSendListener listener) {
+            notSelected += userIds.size();
+        }
+
+        @Override
+        public void sendOrganizerNotifications(List<String> userIds, String eventId, String title,
+                                               String message, OnBulkSendListener listener) {
+            int failed = Math.min(organizerFailures, userIds.size());
+            listener.onComplete(userIds.size() - failed, failed, failed > 0 ? new Exception("write failed") : null);
+        }
+    }
+
+    private static WaitingListEntry entry(String eventId, String userId) {
+        return new WaitingListEntry(eventId, userId, "Name " + userId, userId + "@t.com");
+    }
+
+    private static void add(WaitingListRepository repo, WaitingListEntry e) {
+        Box<Void> box = new Box<>();
+        repo.add(e, box);
+        assertNull(box.error);
+    }
+
+    /**
+     * Queries only return entries matching the indexed fields.
+     */
+    @Test
+    public void queries_useEventEntrantAndStatusIndexes() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        add(repo, entry("ev1", "u1"));
+        add(repo, entry("ev1", "u2"));
+        add(repo, entry("ev2", "u1"));
+
+        Box<List<WaitingListEntry>> byEvent = new Box<>();
+        repo.findByEvent("ev1", byEvent);
+        assertEquals(2, byEvent.value.size());
+
+        Box<List<WaitingListEntry>> byEntrant = new Box<>();
+        repo.findByEntrant("u1", byEntrant);
+        assertEquals(2, byEntrant.value.size());
+
+        Box<List<WaitingListEntry>> byStatus = new Box<>();
+        repo.findByEventAndStatus("ev2", "waiting", byStatus);
+        assertEquals(1, byStatus.value.size());
+        assertEquals("u1", byStatus.value.get(0).getEntrant_id());
+        assertNotNull(byStatus.value.get(0).getId());
+    }
+
+    /**
+     * A status update moves entries between status buckets and is visible to later reads.
+     */
+    @Test
+    public void updateAll_movesEntriesBetweenStatusBuckets() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        WaitingListEntry a = entry("ev", "a");
+        WaitingListEntry b = entry("ev", "b");
+        add(repo, a);
+        add(repo, b);
+
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("status", "selected");
+        updates.put("selected_at", 123L);
+        updates.put("updated_at", 456L);
+        Box<Void> write = new Box<>();
+        repo.updateAll(Arrays.asList(a.getId()), updates, write);
+        assertNull(write.error);
+
+        Box<List<WaitingListEntry>> selected = new Box<>();
+        repo.findByEventAndStatus("ev", "selected", selected);
+        assertEquals(1, selected.value.size());
+        assertEquals(Long.valueOf(123L), selected.value.get(0).getSelected_at());
+        assertEquals(456L, selected.value.get(0).getUpdated_at());
+
+        Box<List<WaitingListEntry>> waiting = new Box<>();
+        repo.findByEventAndStatus("ev", "waiting", waiting);
+        assertEquals(1, waiting.value.size());
+        assertEquals(b.getId(), waiting.value.get(0).getId());
+    }
+
+    /**
+     * A batch that references a missing entry fails without applying any update.
+     */
+    @Test
+    public void updateAll_missingEntry_failsAtomically() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        WaitingListEntry a = entry("ev", "a");
+        add(repo, a);
+
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("status", "selected");
+        Box<Void> write = new Box<>();
+        repo.updateAll(Arrays.asList(a.getId(), "missing"), updates, write);
+        assertNotNull(write.error);
+
+        Box<List<WaitingListEntry>> waiting = new Box<>();
+        repo.findByEventAndStatus("ev", "waiting", waiting);
+        assertEquals(1, waiting.value.size());
+    }
+
+    /**
+     * Entries handed out by the store are copies; mutating them does not change stored state.
+     */
+    @Test
+    public void reads_returnCopies() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        add(repo, entry("ev", "a"));
+
+        Box<List<WaitingListEntry>> first = new Box<>();
+        repo.findByEvent("ev", first);
+        first.value.get(0).setStatus("accepted");
+
+        Box<List<WaitingListEntry>> second = new Box<>();
+        repo.findByEvent("ev", second);
+        assertEquals("waiting", second.value.get(0).getStatus());
+    }
+
+    /**
+     * Concurrent adds from several threads are all indexed.
+     */
+    @Test
+    public void concurrentAdds_areAllIndexed() throws Exception {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    add(repo, entry("ev" + (i % 4), "u" + thread + "_" + i));
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, repo.size());
+        final int[] count = {-1};
+        repo.countByEvent("ev0", new WaitingListRepository.OnCountListener() {
+            @Override public void onCount(int c) { count[0] = c; }
+            @Override public void onError(Exception e) { fail("should not fail"); }
+        });
+        assertEquals(threads * perThread / 4, count[0]);
+    }
+
+    /**
+     * WaitingListManager join/accept/leave run end to end on the in-memory backend.
+     */
+    @Test
+    public void manager_joinAcceptLeave_roundTrip() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        WaitingListManager mgr = new WaitingListManager(repo, null);
+
+        Box<Void> join = new Box<>();
+        mgr.joinWaitingList("ev", "u1", "User", "u1@t.com", 53.5, -113.5, join);
+        assertTrue(join.done);
+        assertNull(join.error);
+        final WaitingListEntry[] joined = new WaitingListEntry[1];
+        repo.findEntry("ev", "u1", new WaitingListRepository.OnEntryLoadedListener() {
+            @Override public void onLoaded(WaitingListEntry entry) { joined[0] = entry; }
+            @Override public void onError(Exception e) { fail("should not fail"); }
+        });
+        assertEquals("c3x2", joined[0].getGeohash().substring(0, 4));
+
+        Box<Void> again = new Box<>();
+        mgr.joinWaitingList("ev", "u1", "User", "u1@t.com", null, null, again);
+        assertNotNull("duplicate join should fail", again.error);
+
+        Box<Void> accept = new Box<>();
+        mgr.acceptInvitation("ev", "u1", accept);
+        assertNull(accept.error);
+
+        final List<String> status = new ArrayList<>();
+        mgr.getWaitingListStatus("ev", "u1", status::add);
+        assertEquals("accepted", status.get(0));
+
+        Box<Void> leave = new Box<>();
+        mgr.leaveWaitingList("ev", "u1", leave);
+        assertNull(leave.error);
+        assertEquals(0, repo.size());
+    }
+
+    /**
+     * Pairs whose ids concatenate to the same string get different entries, so one
+     * entrant's join or leave never lands on another entrant's entry.
+     */
+    @Test
+    public void documentId_isUniquePerPair() {
+        assertNotEquals(WaitingListEntry.documentId("a_b", "c"), WaitingListEntry.documentId("a", "b_c"));
+
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        add(repo, entry("a_b", "c"));
+        add(repo, entry("a", "b_c"));
+        assertEquals(2, repo.size());
+
+        Box<Void> leave = new Box<>();
+        new WaitingListManager(repo, null).leaveWaitingList("a", "b_c", leave);
+        assertNull(leave.error);
+        final WaitingListEntry[] kept = new WaitingListEntry[1];
+        repo.findEntry("a_b", "c", new WaitingListRepository.OnEntryLoadedListener() {
+            @Override public void onLoaded(WaitingListEntry entry) { kept[0] = entry; }
+            @Override public void onError(Exception e) { fail("should not fail"); }
+        });
+        assertNotNull(kept[0]);
+    }
+
+    /**
+     * Status lookups address the entry by its (event, entrant) id with one read, and
+     * accepting or leaving without an entry fails with "Not on waiting list".
+     */
+    @Test
+    public void manager_entrantLookups_arePointReads() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        WaitingListManager mgr = new WaitingListManager(repo, null);
+        for (int i = 0; i < 50; i++) {
+            add(repo, entry("ev", "u" + i));
+        }
+        repo.resetCounters();
+
+        final List<String> status = new ArrayList<>();
+        mgr.getWaitingListStatus("ev", "u7", status::add);
+        assertEquals("waiting", status.get(0));
+        assertEquals(1, repo.getDocumentReads());
+
+        Box<Void> accept = new Box<>();
+        mgr.acceptInvitation("ev", "nobody", accept);
+        assertEquals("Not on waiting list", accept.error.getMessage());
+
+        Box<Void> leave = new Box<>();
+        mgr.leaveWaitingList("other", "u7", leave);
+        assertEquals("Not on waiting list", leave.error.getMessage());
+        assertEquals(50, repo.size());
+    }
+
+    /**
+     * A lottery reads each entry once for the draw and once to notify the rest of the list;
+     * winners are not re-read after the commit.
+     */
+    @Test
+    public void lottery_doesNotReReadWinners() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        int poolSize = 200;
+        int slots = 20;
+        for (int i = 0; i < poolSize; i++) {
+            add(repo, entry("ev", "u" + i));
+        }
+        CountingNotificationManager notifications = new CountingNotificationManager();
+        LotteryService lottery = new LotteryService(new WaitingListManager(repo, notifications));
+        repo.resetCounters();
+
+        final List<WaitingListEntry> winners = new ArrayList<>();
+        lottery.runLottery("ev", slots, null, new LotteryService.OnLotteryComplete() {
+            @Override public void onSuccess(List<WaitingListEntry> w) { winners.addAll(w); }
+            @Override public void onFailure(Exception e) { fail("should not fail: " + e); }
+        });
+
+        assertEquals(slots, winners.size());
+        // One query for the "waiting" pool plus one for the not-selected notifications
+        assertEquals(2L * poolSize, repo.getDocumentReads());
+        assertEquals(poolSize, repo.getDocumentWrites());
+        assertEquals(slots, notifications.selected);
+        assertEquals(poolSize - slots, notifications.notSelected);
+
+        Box<List<WaitingListEntry>> selected = new Box<>();
+        repo.findByEventAndStatus("ev", "selected", selected);
+        assertEquals(slots, selected.value.size());
+    }
+
+    /**
+     * A scan returns every entry with the status exactly once, in document id order, in
+     * pages of at most the requested size; a lottery over it draws from every page.
+     */
+    @Test
+    public void scan_pagesInIdOrderAndFeedsLottery() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        for (int i = 0; i < 1_200; i++) {
+            add(repo, entry("ev", "u" + i));
+        }
+        add(repo, entry("other", "u0"));
+
+        final List<Integer> pageSizes = new ArrayList<>();
+        final List<String> ids = new ArrayList<>();
+        final boolean[] complete = {false};
+        repo.scanByEventAndStatus("ev", "waiting", 500, new WaitingListRepository.OnPageListener() {
+            @Override public void onPage(List<WaitingListEntry> entries) {
+                pageSizes.add(entries.size());
+                for (WaitingListEntry e : entries) ids.add(e.getId());
+            }
+            @Override public void onComplete() { complete[0] = true; }
+            @Override public void onError(Exception e) { fail("should not fail: " + e); }
+        });
+
+        assertTrue(complete[0]);
+        assertEquals(Arrays.asList(500, 500, 200), pageSizes);
+        List<String> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+        assertEquals(sorted, ids);
+        assertEquals(1_200, new HashSet<>(ids).size());
+
+        LotteryService lottery = new LotteryService(new WaitingListManager(repo, new CountingNotificationManager()));
+        final List<WaitingListEntry> winners = new ArrayList<>();
+        lottery.runLottery("ev", 1_100, null, new LotteryService.OnLotteryComplete() {
+            @Override public void onSuccess(List<WaitingListEntry> w) { winners.addAll(w); }
+            @Override public void onFailure(Exception e) { fail("should not fail: " + e); }
+        });
+        // More winners than two pages hold, so the last page was drawn from too
+        assertEquals(1_100, winners.size());
+    }
+
+    /**
+     * Organizer messages go to every entrant with the requested status, and partial
+     * failures are reported as counts (and as an error to the legacy callback).
+     */
+    @Test
+    public void organizerNotify_reportsSentAndFailed() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        for (int i = 0; i < 5; i++) {
+            add(repo, entry("ev", "u" + i));
+        }
+        CountingNotificationManager notifications = new CountingNotificationManager();
+        WaitingListManager mgr = new WaitingListManager(repo, notifications);
+
+        final int[] result = {-1, -1};
+        WaitingListManager.OnNotifyResultListener counts = new WaitingListManager.OnNotifyResultListener() {
+            @Override public void onResult(int sent, int failed) { result[0] = sent; result[1] = failed; }
+            @Override public void onFailure(Exception e) { fail("should not fail: " + e); }
+        };
+
+        mgr.notifyAllWaitingListEntrants("ev", "Title", "Body", counts);
+        assertArrayEquals(new int[]{5, 0}, result);
+
+        mgr.notifySelectedEntrants("ev", "Title", "Body", counts);
+        assertArrayEquals(new int[]{0, 0}, result);
+
+        notifications.organizerFailures = 2;
+        mgr.notifyAllWaitingListEntrants("ev", "Title", "Body", counts);
+        assertArrayEquals(new int[]{3, 2}, result);
+
+        Box<Void> legacy = new Box<>();
+        mgr.notifyAllWaitingListEntrants("ev", "Title", "Body", legacy);
+        assertNotNull(legacy.error);
+        assertTrue(legacy.error.getMessage().startsWith("2 of 5"));
+    }
+
+    /**
+     * Per-status counters follow joins, status changes, lotteries and removals, and a
+     * count costs the same number of reads however long the list is.
+     */
+    @Test
+    public void counters_trackJoinStatusChangesAndLeave() {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        WaitingListManager mgr = new WaitingListManager(repo, new CountingNotificationManager());
+        for (int i = 0; i < 50; i++) {
+            Box<Void> join = new Box<>();
+            mgr.joinWaitingList("ev", "u" + i, "User", "u@t.com", null, null, join);
+            assertNull(join.error);
+        }
+        LotteryService lottery = new LotteryService(mgr);
+        lottery.runLottery("ev", 10, null, new LotteryService.OnLotteryComplete() {
+            @Override public void onSuccess(List<WaitingListEntry> w) { }
+            @Override public void onFailure(Exception e) { fail("should not fail: " + e); }
+        });
+
+        Box<List<WaitingListEntry>> selected = new Box<>();
+        repo.findByEventAndStatus("ev", "selected", selected);
+        WaitingListEntry winner = selected.value.get(0);
+        assertNull(failureOf(listener -> mgr.acceptInvitation("ev", winner.getEntrant_id(), listener)));
+        assertNull(failureOf(listener -> mgr.leaveWaitingList("ev", selected.value.get(1).getEntrant_id(), listener)));
+
+        final WaitingListCounts[] counts = new WaitingListCounts[1];
+        repo.resetCounters();
+        mgr.getWaitingListCounts("ev", new WaitingListManager.OnStatusCountsListener() {
+            @Override public void onCounts(WaitingListCounts c) { counts[0] = c; }
+            @Override public void onError(Exception e) { fail("should not fail: " + e); }
+        });
+        assertEquals(WaitingListCounters.NUM_SHARDS + 1, repo.getDocumentReads());
+
+        assertEquals(49, counts[0].getTotal());
+        assertEquals(8, counts[0].get("selected"));
+        assertEquals(1, counts[0].get("accepted"));
+        assertEquals(40, counts[0].get("not_selected"));
+        assertEquals(0, counts[0].get("waiting"));
+        for (String status : WaitingListCounts.STATUSES) {
+            Box<List<WaitingListEntry>> byStatus = new Box<>();
+            repo.findByEventAndStatus("ev", status, byStatus);
+            assertEquals(status, byStatus.value.size(), counts[0].get(status));
+        }
+    }
+
+    /** Runs a manager call and returns the error it reported, if any. */
+    private static Exception failureOf(Consumer<WaitingListManager.OnCompleteListener> call) {
+        Box<Void> box = new Box<>();
+        call.accept(box);
+        assertTrue(box.done);
+        return box.error;
+    }
+}
@@ -0,0 +1,55 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for how WaitingListCounters corrects counters that drifted from the entries.
+ */
+@RunWith(JUnit4.class)
+public class WaitingListCountersTest {
+
+    /**
+     * An entry moved from a status it no longer had leaves one counter high and another
+     * low; the correction moves it back and leaves matching counters alone.
+     */
+    @Test
+    public void corrections_bringCountersToCounts() {
+        Map<String, Integer> counted = new HashMap<>();
+        counted.put("waiting", 3);
+        counted.put("selected", 2);
+        counted.put("declined", 1);
+        Map<String, Long> kept = new HashMap<>();
+        kept.put("waiting", 3L);
+        kept.put("selected", 2L);
+        kept.put("declined", 0L);
+        kept.put("cancelled", 1L);
+
+        Map<String, Integer> deltas = WaitingListCounters.corrections(
+                WaitingListCounts.fromStatusCounts(counted), kept);
+
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("declined", 1);
+        expected.put("cancelled", -1);
+        assertEquals(expected, deltas);
+    }
+
+    /**
+     * Counters that match the counts need no write.
+     */
+    @Test
+    public void corrections_emptyWhenCountersMatch() {
+        Map<String, Integer> counted = new HashMap<>();
+        counted.put("waiting", 4);
+        Map<String, Long> kept = new HashMap<>();
+        kept.put("waiting", 4L);
+
+        assertTrue(WaitingListCounters.corrections(WaitingListCounts.fromStatusCounts(counted), kept).isEmpty());
+    }
+}
@@ -0,0 +1,150 @@
+package com.ijaskz.lotteryeventapp.repository;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.WaitingListManager;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs thousands of simultaneous joins against the in-memory backend to check that joins
+ * are idempotent and never exceed the waiting list limit.
+ */
+@RunWith(JUnit4.class)
+public class WaitingListJoinStressTest {
+
+    private static final int THREADS = 16;
+
+    /**
+     * 4000 joins from 1000 entrants (each joining four times) against a limit of 300:
+     * exactly 300 entrants get in, each once, and everyone else is told the list is full
+     * or that they are already on it.
+     */
+    @Test
+    public void concurrentJoins_areIdempotentAndCapacityBounded() throws Exception {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        WaitingListManager mgr = new WaitingListManager(repo, null);
+        int entrants = 1000;
+        int attemptsPerEntrant = 4;
+        int capacity = 300;
+
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        AtomicInteger duplicate = new AtomicInteger();
+        ConcurrentLinkedQueue<Exception> unexpected = new ConcurrentLinkedQueue<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(entrants * attemptsPerEntrant);
+        for (int attempt = 0; attempt < attemptsPerEntrant; attempt++) {
+            for (int i = 0; i < entrants; i++) {
+                final String userId = "u" + i;
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    mgr.joinWaitingList("ev", userId, "User", userId + "@t.com", null, null, capacity,
+                            new WaitingListManager.OnCompleteListener() {
+                                @Override
+                                public void onSuccess() {
+                                    joined.incrementAndGet();
+                                    done.countDown();
+                                }
+
+                                @Override
+                                public void onFailure(Exception e) {
+                                    if (e instanceof WaitlistFullException) {
+                                        full.incrementAndGet();
+                                    } else if ("Already on waiting list".equals(e.getMessage())) {
+                                        duplicate.incrementAndGet();
+                                    } else {
+                                        unexpected.add(e);
+                                    }
+                                    done.countDown();
+                                }
+                            });
+                });
+            }
+        }
+        start.countDown();
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        pool.shutdown();
+
+        assertTrue("unexpected failures: " + unexpected, unexpected.isEmpty());
+        assertEquals(capacity, joined.get());
+        assertEquals(entrants * attemptsPerEntrant, joined.get() + full.get() + duplicate.get());
+        assertEquals(capacity, repo.size());
+
+        InMemoryWaitingListRepositoryTest.Box<List<WaitingListEntry>> all = new InMemoryWaitingListRepositoryTest.Box<>();
+        repo.findByEvent("ev", all);
+        Set<String> ids = new HashSet<>();
+        for (WaitingListEntry e : all.value) {
+            assertTrue("one entry per entrant", ids.add(e.getEntrant_id()));
+            assertEquals(WaitingListEntry.documentId("ev", e.getEntrant_id()), e.getId());
+        }
+
+        final int[] count = {-1};
+        repo.countByEvent("ev", new WaitingListRepository.OnCountListener() {
+            @Override public void onCount(int c) { count[0] = c; }
+            @Override public void onError(Exception e) { fail("should not fail"); }
+        });
+        assertEquals(capacity, count[0]);
+    }
+
+    /**
+     * Without a limit, repeated joins by the same entrants still create one entry each.
+     */
+    @Test
+    public void concurrentJoins_withoutLimit_createOneEntryPerEntrant() throws Exception {
+        InMemoryWaitingListRepository repo = new InMemoryWaitingListRepository();
+        int entrants = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+        for (int attempt = 0; attempt < 2; attempt++) {
+            for (int i = 0; i < entrants; i++) {
+                final String userId = "u" + i;
+                pool.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    repo.join(new WaitingListEntry("ev", userId, "User", "u@t.com"), 0,
+                            new WaitingListRepository.OnJoinListener() {
+                                @Override
+                                public void onResult(WaitingListRepository.JoinResult result) {
+                                    if (result == WaitingListRepository.JoinResult.JOINED) {
+                                        joined.incrementAndGet();
+                                    }
+                                }
+
+                                @Override
+                                public void onError(Exception e) { }
+                            });
+                });
+            }
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(entrants, joined.get());
+        assertEquals(entrants, repo.size());
+    }
+}
@@ -0,0 +1,118 @@
+package com.ijaskz.lotteryeventapp.search;
+
+import com.ijaskz.lotteryeventapp.Event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the event search index: the matching rules of the old linear scan (see
+ * SearchFilterLogicTest), plus ranking, spelling tolerance and incremental updates.
+ */
+public class EventSearchIndexTest {
+
+    private static Event event(String id, String name, String desc) {
+        Event e = new Event(desc, "org", "loc", name, 10, "time", null);
+        e.setEvent_id(id);
+        return e;
+    }
+
+    private static List<String> ids(List<Event> events) {
+        List<String> ids = new ArrayList<>();
+        for (Event e : events) ids.add(e.getEvent_id());
+        return ids;
+    }
+
+    private static EventSearchIndex indexOf(Event... events) {
+        EventSearchIndex index = new EventSearchIndex();
+        index.sync(Arrays.asList(events));
+        return index;
+    }
+
+    /** Case-insensitive prefix, inner-substring and description matches, null-safe. */
+    @Test
+    public void search_matchesLikeLinearScan() {
+        EventSearchIndex index = indexOf(
+                event("1", "Concert", "music"),
+                event("2", "Imagine Dragons Concert", "live show"),
+                event("3", "Hot dog eating competition", "food"),
+                event("4", "Anything", "Live MUSIC and food"),
+                event("5", null, "great vibes"),
+                event("6", "Yoga", null));
+
+        assertEquals(Arrays.asList("1", "2"), ids(index.search("con")));
+        assertEquals(Arrays.asList("2"), ids(index.search("DRAG")));
+        assertEquals(Arrays.asList("2"), ids(index.search("agon")));
+        // "eat" is also inside "great", as with contains(); the word start ranks first
+        assertEquals(Arrays.asList("3", "5"), ids(index.search("  eat  ")));
+        assertEquals(Arrays.asList("5"), ids(index.search("great")));
+        assertEquals(Arrays.asList("6"), ids(index.search("yoga")));
+        assertTrue(index.search("hackathon").isEmpty());
+        assertTrue(index.search("   ").isEmpty());
+    }
+
+    /** Name matches rank above description matches; every word must match. */
+    @Test
+    public void search_ranksNameAboveDescriptionAndAndsWords() {
+        EventSearchIndex index = indexOf(
+                event("desc", "Picnic", "bring music"),
+                event("name", "Music night", "fun"));
+        assertEquals(Arrays.asList("name", "desc"), ids(index.search("music")));
+        assertEquals(Arrays.asList("desc"), ids(index.search("music picnic")));
+        assertTrue(index.search("music yoga").isEmpty());
+    }
+
+    /** A misspelled or partly misspelled word still finds the event. */
+    @Test
+    public void search_toleratesTypos() {
+        EventSearchIndex index = indexOf(
+                event("1", "Winter Concert", "orchestra"),
+                event("2", "Hackathon", "coding"));
+        assertEquals(Arrays.asList("1"), ids(index.search("concrt")));
+        assertEquals(Arrays.asList("2"), ids(index.search("hakathon")));
+        assertEquals(Arrays.asList("1"), ids(index.search("orchestar")));
+        assertTrue(index.search("zzzzzz").isEmpty());
+    }
+
+    /** Syncing re-indexes edited events and drops removed ones. */
+    @Test
+    public void sync_updatesIncrementally() {
+        Event yoga = event("1", "Yoga", "wellness");
+        EventSearchIndex index = indexOf(yoga, event("2", "Chess", "club"));
+
+        index.sync(Arrays.asList(event("1", "Pilates", "wellness")));
+        assertEquals(1, index.size());
+        assertTrue(index.search("yoga").isEmpty());
+        assertTrue(index.search("chess").isEmpty());
+        assertEquals(Arrays.asList("1"), ids(index.search("pilates")));
+
+        index.sync(Arrays.asList(event("1", "Pilates", "wellness"), event("3", "Yoga", "again")));
+        assertEquals(Arrays.asList("3"), ids(index.search("yoga")));
+        assertEquals(Arrays.asList("1"), ids(index.search("wellness")));
+    }
+
+    /** Only the last of several quick queries runs. */
+    @Test
+    public void searcher_debouncesQueries() throws Exception {
+        EventSearcher searcher = new EventSearcher(Runnable::run, 50);
+        searcher.setEvents(Arrays.asList(event("1", "Concert", "music")));
+        List<String> queries = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        for (String q : new String[]{"c", "co", "con"}) {
+            searcher.search(q, (query, results) -> {
+                queries.add(query + ":" + results.size());
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        searcher.shutdown();
+        assertEquals(Arrays.asList("con:1"), queries);
+    }
+}
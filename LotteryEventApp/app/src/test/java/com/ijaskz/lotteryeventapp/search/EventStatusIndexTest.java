@@ -0,0 +1,157 @@
+package com.ijaskz.lotteryeventapp.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.firebase.Timestamp;
+import com.ijaskz.lotteryeventapp.Event;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests for {@link EventStatusIndex}: bucketing, and moving events at window boundaries
+ * using a fake clock and scheduler.
+ */
+public class EventStatusIndexTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final long HOUR = 3_600_000L;
+
+    private long now;
+    /** Armed timer: {due time, task}; null if none */
+    private Object[] timer;
+    private int timersArmed;
+    private final List<Set<String>> changes = new ArrayList<>();
+    private EventStatusIndex index;
+
+    @Before
+    public void setUp() {
+        now = T0;
+        index = new EventStatusIndex(
+                (task, delayMs) -> {
+                    Object[] armed = {now + delayMs, task};
+                    timer = armed;
+                    timersArmed++;
+                    return () -> {
+                        if (timer == armed) timer = null;
+                    };
+                },
+                () -> now,
+                changes::add);
+    }
+
+    /** Advances the fake clock, running the timer whenever it falls due. */
+    private void advanceTo(long t) {
+        while (timer != null && (long) timer[0] <= t) {
+            now = (long) timer[0];
+            Runnable task = (Runnable) timer[1];
+            timer = null;
+            task.run();
+        }
+        now = t;
+    }
+
+    private static Event event(String id, Long startMs, Long endMs) {
+        Event e = new Event("desc", "Org", "Here", id, 10, "2025-12-01", null);
+        e.setEvent_id(id);
+        if (startMs != null) e.setRegistrationStart(new Timestamp(new Date(startMs)));
+        if (endMs != null) e.setRegistrationEnd(new Timestamp(new Date(endMs)));
+        return e;
+    }
+
+    @Test
+    public void sync_bucketsByCurrentStatus() {
+        index.sync(Arrays.asList(
+                event("open", T0 - HOUR, T0 + HOUR),
+                event("upcoming", T0 + HOUR, T0 + 2 * HOUR),
+                event("closed", T0 - 2 * HOUR, T0 - HOUR),
+                event("unset", null, T0)));
+
+        assertEquals(Collections.singleton("open"), index.bucket(RegistrationStatus.OPEN));
+        assertEquals(Collections.singleton("upcoming"), index.bucket(RegistrationStatus.UPCOMING));
+        assertEquals(Collections.singleton("closed"), index.bucket(RegistrationStatus.CLOSED));
+        assertEquals(Collections.singleton("unset"), index.bucket(RegistrationStatus.NOT_SET));
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void timer_movesEventsExactlyAtBoundaries() {
+        Event e = event("a", T0 + HOUR, T0 + 2 * HOUR);
+        index.sync(Collections.singletonList(e));
+
+        advanceTo(T0 + HOUR - 1);
+        assertEquals(RegistrationStatus.UPCOMING, index.statusOf(e));
+        assertTrue(changes.isEmpty());
+
+        // Open from the start instant, inclusive of the end instant
+        advanceTo(T0 + HOUR);
+        assertEquals(RegistrationStatus.OPEN, index.statusOf(e));
+        advanceTo(T0 + 2 * HOUR);
+        assertEquals(RegistrationStatus.OPEN, index.statusOf(e));
+
+        advanceTo(T0 + 2 * HOUR + 1);
+        assertEquals(RegistrationStatus.CLOSED, index.statusOf(e));
+        assertEquals(Arrays.asList(Collections.singleton("a"), Collections.singleton("a")), changes);
+
+        // Nothing left to wait for
+        assertNull(timer);
+    }
+
+    @Test
+    public void timer_armedOnlyForEarliestBoundary() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            events.add(event("e" + i, T0 + (i + 1) * HOUR, T0 + 200 * HOUR));
+        }
+        index.sync(events);
+        assertEquals(1, timersArmed);
+        assertEquals(T0 + HOUR, (long) timer[0]);
+
+        // Re-syncing unchanged events keeps the armed timer
+        index.sync(events);
+        assertEquals(1, timersArmed);
+
+        advanceTo(T0 + 10 * HOUR);
+        assertEquals(10, index.bucket(RegistrationStatus.OPEN).size());
+        assertEquals(90, index.bucket(RegistrationStatus.UPCOMING).size());
+    }
+
+    @Test
+    public void sync_editedOrRemovedEventsLeaveTheirBoundary() {
+        index.sync(Arrays.asList(
+                event("a", T0 + HOUR, T0 + 2 * HOUR),
+                event("b", T0 + HOUR, T0 + 2 * HOUR)));
+
+        // a's registration is pushed back, b is deleted
+        index.sync(Collections.singletonList(event("a", T0 + 5 * HOUR, T0 + 6 * HOUR)));
+        assertEquals(T0 + 5 * HOUR, (long) timer[0]);
+
+        advanceTo(T0 + 3 * HOUR);
+        assertTrue(changes.isEmpty());
+        assertEquals(new HashSet<>(Collections.singleton("a")), index.bucket(RegistrationStatus.UPCOMING));
+        assertTrue(index.bucket(RegistrationStatus.OPEN).isEmpty());
+    }
+
+    @Test
+    public void refresh_catchesUpAfterMissedTimer() {
+        Event e = event("a", T0 + HOUR, T0 + 2 * HOUR);
+        index.sync(Collections.singletonList(e));
+
+        // Slept through both boundaries without the timer running
+        now = T0 + 3 * HOUR;
+        index.refresh();
+
+        assertEquals(RegistrationStatus.CLOSED, index.statusOf(e));
+        assertEquals(Collections.singletonList(Collections.singleton("a")), changes);
+    }
+}
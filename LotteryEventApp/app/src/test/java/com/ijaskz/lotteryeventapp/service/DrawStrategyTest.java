@@ -0,0 +1,135 @@
+package com.ijaskz.lotteryeventapp.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Correctness and fairness tests for the lottery draw strategies.
+ *
+ * <p>Fairness is checked with a chi-square goodness-of-fit test against the uniform
+ * distribution. Seeds are fixed so the tests are deterministic; the thresholds are the
+ * 0.001 critical values, so a correct implementation passes for practically any seed.</p>
+ */
+@RunWith(JUnit4.class)
+public class DrawStrategyTest {
+
+    private static final int POOL = 20;
+    private static final int SLOTS = 5;
+    private static final int TRIALS = 40_000;
+    /** Chi-square critical value for 19 degrees of freedom at p = 0.001. */
+    private static final double CHI2_19DF = 43.82;
+
+    private static final DrawStrategy[] STRATEGIES = {
+            new PartialFisherYatesDraw(), new ReservoirDraw()
+    };
+
+    /**
+     * Every strategy returns min(k, n) distinct, in-range positions, including edge cases.
+     */
+    @Test
+    public void drawIndices_returnsDistinctInRangePositions() {
+        Random random = new Random(1);
+        int[][] cases = {{0, 3}, {5, 0}, {5, 5}, {5, 9}, {1000, 1}, {1000, 250}, {1000, 999}, {1_000_000, 50}};
+        for (DrawStrategy strategy : STRATEGIES) {
+            for (int[] c : cases) {
+                int[] drawn = strategy.drawIndices(c[0], c[1], random);
+                assertEquals(Math.min(c[0], c[1]), drawn.length);
+                Set<Integer> seen = new HashSet<>();
+                for (int i : drawn) {
+                    assertTrue(i >= 0 && i < c[0]);
+                    assertTrue("duplicate position " + i, seen.add(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Each entrant is selected with probability k/n, for both the sparse and dense
+     * Fisher–Yates paths and for reservoir sampling.
+     */
+    @Test
+    public void inclusion_isUniform() {
+        for (DrawStrategy strategy : STRATEGIES) {
+            for (int slots : new int[]{SLOTS, 15}) {
+                Random random = new Random(42);
+                long[] hits = new long[POOL];
+                for (int t = 0; t < TRIALS; t++) {
+                    for (int i : strategy.drawIndices(POOL, slots, random)) {
+                        hits[i]++;
+                    }
+                }
+                double chi2 = chiSquare(hits, (double) TRIALS * slots / POOL);
+                assertTrue(strategy.getClass().getSimpleName() + " k=" + slots + " chi2=" + chi2,
+                        chi2 < CHI2_19DF);
+            }
+        }
+    }
+
+    /**
+     * The first winner is uniformly distributed, i.e. draw order is fair as well as membership.
+     */
+    @Test
+    public void firstWinner_isUniform() {
+        for (DrawStrategy strategy : STRATEGIES) {
+            Random random = new Random(7);
+            long[] first = new long[POOL];
+            for (int t = 0; t < TRIALS; t++) {
+                first[strategy.drawIndices(POOL, SLOTS, random)[0]]++;
+            }
+            double chi2 = chiSquare(first, (double) TRIALS / POOL);
+            assertTrue(strategy.getClass().getSimpleName() + " chi2=" + chi2, chi2 < CHI2_19DF);
+        }
+    }
+
+    /**
+     * Feeding a stream through ReservoirSampler selects each item with probability k/n.
+     */
+    @Test
+    public void reservoirSampler_streamIsUniform() {
+        Random random = new Random(3);
+        long[] hits = new long[POOL];
+        for (int t = 0; t < TRIALS; t++) {
+            ReservoirSampler<Integer> sampler = new ReservoirSampler<>(SLOTS, random);
+            for (int i = 0; i < POOL; i++) {
+                sampler.offer(i);
+            }
+            List<Integer> sample = sampler.result();
+            assertEquals(SLOTS, new HashSet<>(sample).size());
+            for (int i : sample) {
+                hits[i]++;
+            }
+        }
+        double chi2 = chiSquare(hits, (double) TRIALS * SLOTS / POOL);
+        assertTrue("chi2=" + chi2, chi2 < CHI2_19DF);
+    }
+
+    /**
+     * draw() maps positions back to pool items and leaves the pool untouched.
+     */
+    @Test
+    public void draw_mapsPositionsAndDoesNotModifyPool() {
+        List<String> pool = Arrays.asList("a", "b", "c", "d", "e");
+        List<String> winners = new PartialFisherYatesDraw().draw(pool, 3, new Random(5));
+        assertEquals(3, new HashSet<>(winners).size());
+        assertTrue(pool.containsAll(winners));
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), pool);
+    }
+
+    private static double chiSquare(long[] observed, double expected) {
+        double chi2 = 0;
+        for (long o : observed) {
+            double d = o - expected;
+            chi2 += d * d / expected;
+        }
+        return chi2;
+    }
+}
@@ -37,8 +37,18 @@ public class LotteryServiceTest {
         }
 
         @Override
-        public void updateEntriesStatus(List<String> entryIds, String newStatus, Integer hours, OnCompleteListener listener) {
-            lastUpdatedIds = new ArrayList<>(entryIds);
+        public void scanEntriesByStatus(String eventId, String status, OnEntriesPageListener listener) {
+            // Two pages, to exercise offering the pool in parts
+            int half = pool.size() / 2;
+            if (half > 0) listener.onPage(new ArrayList<>(pool.subList(0, half)));
+            if (pool.size() > half) listener.onPage(new ArrayList<>(pool.subList(half, pool.size())));
+            listener.onComplete();
+        }
+
+        @Override
+        public void updateEntries(List<WaitingListEntry> entries, String newStatus, Integer hours, OnCompleteListener listener) {
+            lastUpdatedIds = new ArrayList<>();
+            for (WaitingListEntry e : entries) lastUpdatedIds.add(e.getId());
             lastStatus = newStatus;
             lastHours = hours;
             listener.onSuccess();
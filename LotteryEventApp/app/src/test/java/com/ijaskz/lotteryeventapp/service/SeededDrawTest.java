@@ -0,0 +1,237 @@
+package com.ijaskz.lotteryeventapp.service;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.testdata.TestDataFactory;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for seeded, reproducible lottery draws and their receipts.
+ */
+@RunWith(JUnit4.class)
+public class SeededDrawTest {
+
+    private static final String SEED = "00112233445566778899aabbccddeeff00112233445566778899aabbccddeeff";
+    private static final String SALT = "1700000000.000000001";
+
+    /** Ledger that records what it is given and can be made to fail. */
+    private static class FakeLedger implements DrawLedger {
+        String committedHash;
+        DrawReceipt revealed;
+        Exception commitError;
+        Exception revealError;
+
+        @Override
+        public void commit(String eventId, String seedHash, OnCommittedListener listener) {
+            if (commitError != null) {
+                listener.onError(commitError);
+                return;
+            }
+            committedHash = seedHash;
+            listener.onCommitted(0, SALT);
+        }
+
+        @Override
+        public void reveal(DrawReceipt receipt, OnRevealedListener listener) {
+            if (revealError != null) {
+                listener.onError(revealError);
+                return;
+            }
+            revealed = receipt;
+            listener.onRevealed();
+        }
+    }
+
+    private static List<String> ids(int n) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ids.add(String.format("id%05d", i));
+        }
+        return ids;
+    }
+
+    /**
+     * The same seed, round and pool always give the same winners, and the receipt verifies.
+     */
+    @Test
+    public void draw_isReproducibleAndVerifies() {
+        List<String> pool = ids(1000);
+        DrawReceipt first = SeededDraw.draw("ev", SEED, SALT, 0, pool, 10);
+        DrawReceipt again = SeededDraw.draw("ev", SEED, SALT, 0, pool, 10);
+
+        assertEquals(first.getWinner_indices(), again.getWinner_indices());
+        assertEquals(10, new HashSet<>(first.getWinner_indices()).size());
+        assertEquals(1000, first.getPool_size());
+        assertTrue(SeededDraw.verify(first, pool));
+    }
+
+    /**
+     * Verification fails if the pool or the winners are changed after the fact.
+     */
+    @Test
+    public void verify_detectsTampering() {
+        List<String> pool = ids(50);
+        DrawReceipt receipt = SeededDraw.draw("ev", SEED, SALT, 0, pool, 5);
+
+        List<String> otherPool = new ArrayList<>(pool);
+        otherPool.set(3, "intruder");
+        assertFalse(SeededDraw.verify(receipt, otherPool));
+
+        List<Integer> forged = new ArrayList<>(receipt.getWinner_indices());
+        Collections.reverse(forged);
+        receipt.setWinner_indices(forged);
+        assertFalse(SeededDraw.verify(receipt, pool));
+    }
+
+    /**
+     * A receipt whose seed does not match the committed hash does not verify, even if its
+     * winners were drawn from that seed.
+     */
+    @Test
+    public void verify_rejectsSeedNotCommitted() {
+        List<String> pool = ids(50);
+        String otherSeed = "ff" + SEED.substring(2);
+        DrawReceipt receipt = SeededDraw.draw("ev", otherSeed, SALT, 0, pool, 5);
+        receipt.setSeed_hash(SeededDraw.seedHash(SEED));
+        assertFalse(SeededDraw.verify(receipt, pool));
+    }
+
+    /**
+     * The salt fixed by the commitment changes the winners, so a seed cannot be picked
+     * for its outcome before it is committed.
+     */
+    @Test
+    public void salt_changesWinners() {
+        List<String> pool = ids(10_000);
+        DrawReceipt first = SeededDraw.draw("ev", SEED, SALT, 0, pool, 20);
+        DrawReceipt second = SeededDraw.draw("ev", SEED, "1700000000.000000002", 0, pool, 20);
+        assertNotEquals(first.getWinner_indices(), second.getWinner_indices());
+    }
+
+    /**
+     * Each round of the same seed is a different part of the stream.
+     */
+    @Test
+    public void rounds_useDifferentStreams() {
+        List<String> pool = ids(10_000);
+        DrawReceipt round0 = SeededDraw.draw("ev", SEED, SALT, 0, pool, 20);
+        DrawReceipt round1 = SeededDraw.draw("ev", SEED, SALT, 1, pool, 20);
+        assertNotEquals(round0.getWinner_indices(), round1.getWinner_indices());
+    }
+
+    /**
+     * encode/decode round-trips every field needed for offline verification.
+     */
+    @Test
+    public void receipt_encodeDecode_roundTrip() {
+        List<String> pool = ids(200);
+        DrawReceipt receipt = SeededDraw.draw("ev", SEED, SALT, 2, pool, 7);
+        DrawReceipt decoded = DrawReceipt.decode(receipt.encode());
+
+        assertEquals(receipt.getSeed(), decoded.getSeed());
+        assertEquals(2, decoded.getRound());
+        assertEquals(receipt.getPool_hash(), decoded.getPool_hash());
+        assertEquals(receipt.getWinner_indices(), decoded.getWinner_indices());
+        assertTrue(SeededDraw.verify(decoded, pool));
+    }
+
+    /**
+     * runSeededLottery selects the entries named by the receipt, regardless of the order
+     * the store returned them in.
+     */
+    @Test
+    public void runSeededLottery_winnersMatchReceipt() {
+        LotteryServiceTest.FakeWaitingListManager fake = new LotteryServiceTest.FakeWaitingListManager();
+        fake.pool = TestDataFactory.waitingEntries("ev1", 30);
+        Collections.reverse(fake.pool);
+
+        FakeLedger ledger = new FakeLedger();
+        final List<WaitingListEntry> winners = new ArrayList<>();
+        final DrawReceipt[] receipt = new DrawReceipt[1];
+        new LotteryService(fake).runSeededLottery("ev1", 4, null, SEED, ledger, new LotteryService.OnSeededLotteryComplete() {
+            @Override public void onSuccess(List<WaitingListEntry> w, DrawReceipt r) { winners.addAll(w); receipt[0] = r; }
+            @Override public void onFailure(Exception e) { fail("should not fail: " + e); }
+        });
+
+        List<WaitingListEntry> canonical = SeededDraw.canonicalPool(fake.pool);
+        List<String> poolIds = new ArrayList<>();
+        for (WaitingListEntry e : canonical) poolIds.add(e.getId());
+        assertTrue(SeededDraw.verify(receipt[0], poolIds));
+
+        Set<String> expected = new HashSet<>();
+        for (int i : receipt[0].getWinner_indices()) expected.add(poolIds.get(i));
+        Set<String> actual = new HashSet<>();
+        for (WaitingListEntry e : winners) actual.add(e.getId());
+        assertEquals(expected, actual);
+        assertEquals(expected, new HashSet<>(fake.lastUpdatedIds));
+        assertEquals(SeededDraw.seedHash(SEED), ledger.committedHash);
+        assertSame(receipt[0], ledger.revealed);
+    }
+
+    /**
+     * Nobody is selected if the seed's hash cannot be committed.
+     */
+    @Test
+    public void runSeededLottery_commitFails_selectsNobody() {
+        LotteryServiceTest.FakeWaitingListManager fake = new LotteryServiceTest.FakeWaitingListManager();
+        fake.pool = TestDataFactory.waitingEntries("ev1", 10);
+        FakeLedger ledger = new FakeLedger();
+        ledger.commitError = new RuntimeException("offline");
+
+        final Exception[] error = new Exception[1];
+        new LotteryService(fake).runSeededLottery("ev1", 4, null, SEED, ledger, new LotteryService.OnSeededLotteryComplete() {
+            @Override public void onSuccess(List<WaitingListEntry> w, DrawReceipt r) { fail("should not succeed"); }
+            @Override public void onFailure(Exception e) { error[0] = e; }
+        });
+
+        assertSame(ledger.commitError, error[0]);
+        assertTrue(fake.lastUpdatedIds.isEmpty());
+    }
+
+    /**
+     * Nobody is selected if the receipt cannot be revealed.
+     */
+    @Test
+    public void runSeededLottery_revealFails_selectsNobody() {
+        LotteryServiceTest.FakeWaitingListManager fake = new LotteryServiceTest.FakeWaitingListManager();
+        fake.pool = TestDataFactory.waitingEntries("ev1", 10);
+        FakeLedger ledger = new FakeLedger();
+        ledger.revealError = new RuntimeException("offline");
+
+        final Exception[] error = new Exception[1];
+        new LotteryService(fake).runSeededLottery("ev1", 4, null, SEED, ledger, new LotteryService.OnSeededLotteryComplete() {
+            @Override public void onSuccess(List<WaitingListEntry> w, DrawReceipt r) { fail("should not succeed"); }
+            @Override public void onFailure(Exception e) { error[0] = e; }
+        });
+
+        assertSame(ledger.revealError, error[0]);
+        assertTrue(fake.lastUpdatedIds.isEmpty());
+    }
+
+    /**
+     * Bounded draws from the SHA-256 stream are uniform (chi-square, 9 df, p = 0.001).
+     */
+    @Test
+    public void sha256CounterRandom_nextIntIsUniform() {
+        Sha256CounterRandom random = new Sha256CounterRandom(SeededDraw.fromHex(SEED), 0);
+        long[] counts = new long[10];
+        int n = 100_000;
+        for (int i = 0; i < n; i++) {
+            counts[random.nextInt(10)]++;
+        }
+        double expected = n / 10.0;
+        double chi2 = 0;
+        for (long c : counts) chi2 += (c - expected) * (c - expected) / expected;
+        assertTrue("chi2=" + chi2, chi2 < 27.88);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ijaskz.lotteryeventapp.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for DateFormats and RegistrationWindowLabels: output matches the
+ * SimpleDateFormat patterns they replace, and labels are reused until the window, locale or
+ * time zone changes.
+ */
+@RunWith(JUnit4.class)
+public class DateFormatsTest {
+
+    private static final long T = 1_762_529_400_000L; // Nov 7, 2025 15:30 UTC
+
+    private Locale savedLocale;
+    private TimeZone savedZone;
+
+    @Before
+    public void setUp() {
+        savedLocale = Locale.getDefault();
+        savedZone = TimeZone.getDefault();
+        Locale.setDefault(Locale.US);
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(savedLocale);
+        TimeZone.setDefault(savedZone);
+    }
+
+    private static String legacy(String pattern, long ms) {
+        return new SimpleDateFormat(pattern, Locale.getDefault()).format(new Date(ms));
+    }
+
+    /**
+     * Each formatter gives the same text as the SimpleDateFormat it replaced.
+     */
+    @Test
+    public void formats_matchLegacyPatterns() {
+        assertEquals(legacy(DateFormats.SHORT_DATE_TIME, T), DateFormats.shortDateTime(T));
+        assertEquals(legacy(DateFormats.SHORT_DATE_TIME, T), DateFormats.shortDateTime(new Date(T)));
+        assertEquals(legacy(DateFormats.LONG_DATE_TIME, T), DateFormats.longDateTime(new Date(T)));
+        assertEquals(legacy(DateFormats.DATE, T), DateFormats.date(T));
+        assertEquals("2025-11-07 15:30", DateFormats.exportDateTime(T));
+    }
+
+    /**
+     * Changing the default time zone is picked up by the next call.
+     */
+    @Test
+    public void timeZoneChange_isPickedUp() {
+        assertEquals("2025-11-07 15:30", DateFormats.exportDateTime(T));
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Edmonton"));
+        assertEquals("2025-11-07 08:30", DateFormats.exportDateTime(T));
+    }
+
+    /**
+     * A label is formatted once per event and window, and again when the window changes.
+     */
+    @Test
+    public void windowLabels_reusedUntilWindowChanges() {
+        RegistrationWindowLabels labels = new RegistrationWindowLabels();
+        String first = labels.label("e1", T, T + 3_600_000);
+        assertEquals("Opens: Nov 7, 3:30 PM  •  Closes: Nov 7, 4:30 PM", first);
+        assertSame(first, labels.label("e1", T, T + 3_600_000));
+
+        String edited = labels.label("e1", T, T + 7_200_000);
+        assertEquals("Opens: Nov 7, 3:30 PM  •  Closes: Nov 7, 5:30 PM", edited);
+    }
+
+    /**
+     * A time zone change drops the cached labels, so they show the new zone's times.
+     */
+    @Test
+    public void windowLabels_reformattedAfterTimeZoneChange() {
+        RegistrationWindowLabels labels = new RegistrationWindowLabels();
+        assertEquals("Opens: Nov 7, 3:30 PM  •  Closes: Nov 7, 4:30 PM",
+                labels.label("e1", T, T + 3_600_000));
+
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Edmonton"));
+        assertEquals("Opens: Nov 7, 8:30 AM  •  Closes: Nov 7, 9:30 AM",
+                labels.label("e1", T, T + 3_600_000));
+    }
+
+    /**
+     * Only the most recently shown events are kept.
+     */
+    @Test
+    public void windowLabels_evictLeastRecentlyShown() {
+        RegistrationWindowLabels labels = new RegistrationWindowLabels(2);
+        String a = labels.label("a", T, T + 1);
+        String b = labels.label("b", T, T + 1);
+        assertSame(a, labels.label("a", T, T + 1));
+        labels.label("c", T, T + 1); // evicts b
+        assertSame(a, labels.label("a", T, T + 1));
+        assertNotSame(b, labels.label("b", T, T + 1));
+    }
+}
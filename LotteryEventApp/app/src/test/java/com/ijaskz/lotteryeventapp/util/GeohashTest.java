@@ -0,0 +1,67 @@
+package com.ijaskz.lotteryeventapp.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for Geohash: encoding against published values, and the cells covering a
+ * map view.
+ */
+@RunWith(JUnit4.class)
+public class GeohashTest {
+
+    @Test
+    public void encode_matchesKnownGeohashes() {
+        assertEquals("ezs42", Geohash.encode(42.6, -5.6, 5));
+        assertEquals("u4pruydqqvj", Geohash.encode(57.64911, 10.40744, 11));
+        assertEquals("c3x29", Geohash.encode(53.5461, -113.4938, 5));
+    }
+
+    @Test
+    public void encode_prefixIsCoarserCell() {
+        String fine = Geohash.encode(53.5461, -113.4938, Geohash.STORED_PRECISION);
+        for (int p = 1; p < Geohash.STORED_PRECISION; p++) {
+            assertEquals(Geohash.encode(53.5461, -113.4938, p), fine.substring(0, p));
+        }
+    }
+
+    @Test
+    public void cover_includesEveryCornerOfTheView() {
+        double north = 53.60, south = 53.50, east = -113.40, west = -113.60;
+        List<String> cells = Geohash.cover(north, south, east, west, 5);
+        assertEquals(Geohash.coverSize(north, south, east, west, 5), cells.size());
+        for (double[] corner : new double[][] {
+                {north, east}, {north, west}, {south, east}, {south, west}, {53.55, -113.5}}) {
+            assertTrue(cells.contains(Geohash.encode(corner[0], corner[1], 5)));
+        }
+    }
+
+    @Test
+    public void cover_wrapsAcrossAntimeridian() {
+        List<String> cells = Geohash.cover(10, -10, -170, 170, 1);
+        assertEquals(Arrays.asList("r", "2", "x", "8"), Arrays.asList(
+                Geohash.encode(-5, 175, 1), Geohash.encode(-5, -175, 1),
+                Geohash.encode(5, 175, 1), Geohash.encode(5, -175, 1)));
+        assertEquals(4, cells.size());
+        assertTrue(cells.containsAll(Arrays.asList("r", "2", "x", "8")));
+    }
+
+    @Test
+    public void precisionFor_picksFinestCoverWithinLimit() {
+        // A city view: about 20 km by 20 km
+        int city = Geohash.precisionFor(53.65, 53.45, -113.35, -113.65, 16);
+        assertEquals(4, city);
+        assertTrue(Geohash.coverSize(53.65, 53.45, -113.35, -113.65, city) <= 16);
+        assertTrue(Geohash.coverSize(53.65, 53.45, -113.35, -113.65, city + 1) > 16);
+
+        // The whole world fits only the empty prefix
+        assertEquals(0, Geohash.precisionFor(85, -85, 180, -180, 16));
+        assertEquals(Arrays.asList(""), Geohash.cover(85, -85, 180, -180, 0));
+    }
+}
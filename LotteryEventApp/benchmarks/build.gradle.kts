@@ -0,0 +1,91 @@
+import java.util.Properties
+
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+// :app is an Android application module, so a plain JVM project cannot depend on it.
+// Instead the lottery sources are compiled straight from app/src/main/java into their own
+// source set. Only pure-Java code runs in the benchmarks; Firebase and android.jar are
+// compile-only so that WaitingListManager and its collaborators type-check.
+val appSources = project(":app").file("src/main/java")
+
+sourceSets {
+    create("lottery") {
+        java {
+            srcDir(appSources)
+            include(
+                "com/ijaskz/lotteryeventapp/AppNotification.java",
+                "com/ijaskz/lotteryeventapp/EntrantListItem.java",
+                "com/ijaskz/lotteryeventapp/Event.java",
+                "com/ijaskz/lotteryeventapp/NotificationManager.java",
+                "com/ijaskz/lotteryeventapp/WaitingListEntry.java",
+                "com/ijaskz/lotteryeventapp/WaitingListManager.java",
+                "com/ijaskz/lotteryeventapp/export/**",
+                "com/ijaskz/lotteryeventapp/map/CellTable.java",
+                "com/ijaskz/lotteryeventapp/map/EntrantClusterIndex.java",
+                "com/ijaskz/lotteryeventapp/repository/**",
+                "com/ijaskz/lotteryeventapp/search/**",
+                "com/ijaskz/lotteryeventapp/service/**",
+                "com/ijaskz/lotteryeventapp/util/**",
+            )
+        }
+    }
+}
+
+val sdkDir: String? = rootProject.file("local.properties")
+    .takeIf { it.isFile }
+    ?.let { f -> Properties().apply { f.inputStream().use { load(it) } }.getProperty("sdk.dir") }
+    ?: System.getenv("ANDROID_HOME")
+
+// Firebase ships as AARs; unpack classes.jar so the JVM compiler can read them.
+val artifactType = Attribute.of("artifactType", String::class.java)
+
+abstract class AarClassesJar : TransformAction<TransformParameters.None> {
+    @get:InputArtifact
+    abstract val inputArtifact: Provider<FileSystemLocation>
+
+    override fun transform(outputs: TransformOutputs) {
+        val aar = inputArtifact.get().asFile
+        java.util.zip.ZipFile(aar).use { zip ->
+            val classes = zip.getEntry("classes.jar") ?: return
+            val out = outputs.file(aar.nameWithoutExtension + ".jar")
+            zip.getInputStream(classes).use { input -> out.outputStream().use { input.copyTo(it) } }
+        }
+    }
+}
+
+configurations.named("lotteryCompileClasspath") {
+    attributes.attribute(artifactType, "jar")
+}
+
+dependencies {
+    registerTransform(AarClassesJar::class) {
+        from.attribute(artifactType, "aar")
+        to.attribute(artifactType, "jar")
+    }
+
+    "lotteryCompileOnly"(files("$sdkDir/platforms/android-36/android.jar"))
+    "lotteryCompileOnly"(platform("com.google.firebase:firebase-bom:34.4.0"))
+    "lotteryCompileOnly"("com.google.firebase:firebase-firestore")
+
+    jmhImplementation(sourceSets["lottery"].output)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // Throughput plus allocation rate (gc.alloc.rate.norm) for every benchmark.
+    benchmarkMode.add("thrpt")
+    profilers.add("gc")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    jvmArgs.add("-Xmx4g")
+    resultFormat.set("JSON")
+}
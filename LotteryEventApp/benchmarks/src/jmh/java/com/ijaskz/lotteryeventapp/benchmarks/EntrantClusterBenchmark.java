@@ -0,0 +1,90 @@
+package com.ijaskz.lotteryeventapp.benchmarks;
+
+import com.ijaskz.lotteryeventapp.map.EntrantClusterIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the entrant map's cluster index: building it from a whole waiting list, applying
+ * one entrant joining and leaving, and reading the clusters for a phone-sized view.
+ *
+ * <p>Entrants are spread over a metro area about 100 km across. Run with
+ * {@code ./gradlew :benchmarks:jmh -Pjmh.includes=EntrantClusterBenchmark}; {@code build}
+ * is in milliseconds per build, the others in operations per second.</p>
+ */
+@State(Scope.Benchmark)
+public class EntrantClusterBenchmark {
+
+    @Param({"100000"})
+    public int entrants;
+
+    private String[] ids;
+    private double[] lats;
+    private double[] lons;
+    private EntrantClusterIndex built;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        ids = new String[entrants];
+        lats = new double[entrants];
+        lons = new double[entrants];
+        for (int i = 0; i < entrants; i++) {
+            ids[i] = "entry_" + i;
+            lats[i] = 53.5461 + random.nextGaussian() * 0.2;
+            lons[i] = -113.4938 + random.nextGaussian() * 0.3;
+        }
+        built = build();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public EntrantClusterIndex build() {
+        EntrantClusterIndex index = new EntrantClusterIndex();
+        for (int i = 0; i < entrants; i++) {
+            index.put(ids[i], lats[i], lons[i], null);
+        }
+        return index;
+    }
+
+    /** One entrant joins and another leaves, as a snapshot listener would apply them. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int joinAndLeave() {
+        int i = next;
+        next = i + 1 == entrants ? 0 : i + 1;
+        built.remove(ids[i]);
+        built.put(ids[i], lats[i], lons[i], null);
+        return built.size();
+    }
+
+    /** A city-wide view at zoom 11, as first shown. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<EntrantClusterIndex.Cluster> cityView() {
+        return built.clusters(11, 53.75, 53.35, -113.1, -113.9);
+    }
+
+    /** A neighborhood view at zoom 16, the deepest grid. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public List<EntrantClusterIndex.Cluster> streetView() {
+        return built.clusters(16, 53.551, 53.541, -113.485, -113.502);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ijaskz.lotteryeventapp.benchmarks;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.export.EntrantColumn;
+import com.ijaskz.lotteryeventapp.export.EntrantExporter;
+import com.ijaskz.lotteryeventapp.export.ExportFormat;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export throughput for each {@link ExportFormat}, in rows per second.
+ *
+ * <p>Writes {@link #ROWS} generated entries to a stream that discards its bytes, so the
+ * score is the cost of formatting (and for CSV_GZIP, compressing) alone. {@code columns}
+ * is either the default four or every column. Run with
+ * {@code ./gradlew :benchmarks:jmh -Pjmh.includes=EntrantExportBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EntrantExportBenchmark {
+
+    /** Rows written per invocation: twenty EntrantExport pages. */
+    static final int ROWS = 10_000;
+
+    @Param({"CSV", "CSV_GZIP", "JSON_LINES"})
+    public ExportFormat format;
+
+    @Param({"default", "all"})
+    public String columns;
+
+    private WaitingListEntry[] entries;
+    private List<EntrantColumn> selected;
+
+    @Setup
+    public void setUp() {
+        selected = "all".equals(columns)
+                ? Arrays.asList(EntrantColumn.values()) : EntrantColumn.DEFAULTS;
+        entries = new WaitingListEntry[ROWS];
+        long joined = 1_762_529_400_000L;
+        for (int i = 0; i < ROWS; i++) {
+            WaitingListEntry entry = new WaitingListEntry("event_1", "entrant_" + i,
+                    "Entrant " + i, "entrant" + i + "@example.com");
+            entry.setJoined_at(joined + i * 1000L);
+            if (i % 3 == 0) {
+                entry.setStatus("declined");
+                entry.setSelected_at(joined + 86_400_000L);
+                entry.setResponded_at(joined + 90_000_000L);
+                entry.setDecline_reason("Can't make it, sorry");
+            }
+            if (i % 2 == 0) {
+                entry.setLatitude(53.5 + i * 1e-6);
+                entry.setLongitude(-113.5 - i * 1e-6);
+            }
+            entries[i] = entry;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long export() throws IOException {
+        NullOutputStream out = new NullOutputStream();
+        try (EntrantExporter.RowWriter writer = format.open(out, selected)) {
+            for (WaitingListEntry entry : entries) {
+                writer.write(entry);
+            }
+        }
+        return out.bytes;
+    }
+
+    /** Counts bytes and drops them. */
+    private static final class NullOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ijaskz.lotteryeventapp.benchmarks;
+
+import com.ijaskz.lotteryeventapp.EntrantListItem;
+import com.ijaskz.lotteryeventapp.repository.EntrantSnapshotStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of laying out the organizer's entrant list from the entrant store, which runs on
+ * the main thread for every snapshot before the adapter diffs the rows in the background.
+ *
+ * <p>Half the entrants have been chosen in the lottery, so most sections are populated.
+ * Run with {@code ./gradlew :benchmarks:jmh -Pjmh.includes=EntrantListBenchmark} and add
+ * {@code -prof gc} for the bytes one layout allocates ({@code gc.alloc.rate.norm}), which
+ * is what the rows hold on to.</p>
+ */
+@State(Scope.Benchmark)
+public class EntrantListBenchmark {
+
+    private static final String[] STATUSES = {"waiting", "waiting", "selected", "accepted", "declined"};
+
+    @Param({"10000", "100000"})
+    public int entrants;
+
+    private EntrantSnapshotStore store;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        store = new EntrantSnapshotStore();
+        List<EntrantSnapshotStore.Change> changes = new ArrayList<>(entrants);
+        for (int i = 0; i < entrants; i++) {
+            changes.add(EntrantSnapshotStore.Change.put("entry_" + i, "Entrant " + i,
+                    "entrant" + i + "@example.com", STATUSES[i % STATUSES.length], null, null, i));
+        }
+        store.apply(changes);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<EntrantListItem> layout() {
+        return EntrantListItem.fromStore(store);
+    }
+
+    /** One entrant accepts an invitation, then the list is laid out again. */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<EntrantListItem> oneChange() {
+        int i = next;
+        next = i + 1 == entrants ? 0 : i + 1;
+        store.apply(Collections.singletonList(EntrantSnapshotStore.Change.put("entry_" + i,
+                "Entrant " + i, "entrant" + i + "@example.com", next % 2 == 0 ? "accepted" : "selected",
+                null, null, i)));
+        return EntrantListItem.fromStore(store);
+    }
+}
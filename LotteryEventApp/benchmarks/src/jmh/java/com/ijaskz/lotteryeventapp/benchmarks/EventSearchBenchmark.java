@@ -0,0 +1,102 @@
+package com.ijaskz.lotteryeventapp.benchmarks;
+
+import com.ijaskz.lotteryeventapp.Event;
+import com.ijaskz.lotteryeventapp.search.EventSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per search keystroke: the indexed search against the linear scan AllEventsFragment
+ * used to run (lowercase name and description, then contains(), as in
+ * SearchFilterLogicTest).
+ *
+ * <p>Run with {@code ./gradlew :benchmarks:jmh -Pjmh.includes=EventSearchBenchmark}.
+ * {@code resync} measures re-indexing after one event in the list was edited.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EventSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "concert", "yoga", "hackathon", "swim", "lessons", "dragon", "boat", "festival",
+            "chess", "club", "food", "truck", "rally", "piano", "recital", "soccer", "camp",
+            "pottery", "workshop", "farmers", "market", "winter", "summer", "night", "live",
+            "music", "coding", "challenge", "family", "outdoor", "indoor", "science", "fair"};
+
+    @Param({"50000"})
+    public int events;
+
+    /** A word start, a full word, a two-word query, and a typo. */
+    @Param({"con", "festival", "swim lessons", "hakathon"})
+    public String query;
+
+    private List<Event> list;
+    private EventSearchIndex index;
+    private int edits;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        list = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            list.add(event(i, random));
+        }
+        index = new EventSearchIndex();
+        index.sync(list);
+    }
+
+    @Benchmark
+    public List<Event> indexed() {
+        return index.search(query);
+    }
+
+    @Benchmark
+    public List<Event> linearScan() {
+        String q = query.trim().toLowerCase();
+        List<Event> matches = new ArrayList<>();
+        for (Event e : list) {
+            String name = e.getEvent_name() != null ? e.getEvent_name().toLowerCase() : "";
+            String desc = e.getEvent_description() != null ? e.getEvent_description().toLowerCase() : "";
+            if (name.contains(q) || desc.contains(q)) matches.add(e);
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int resync() {
+        int i = edits++ % events;
+        List<Event> next = new ArrayList<>(list);
+        Event edited = event(i, new Random(i + edits));
+        next.set(i, edited);
+        index.sync(next);
+        return index.size();
+    }
+
+    private static Event event(int i, Random random) {
+        String name = cap(WORDS[random.nextInt(WORDS.length)]) + " " + cap(WORDS[random.nextInt(WORDS.length)]) + " " + i;
+        StringBuilder desc = new StringBuilder();
+        for (int w = 0; w < 12; w++) {
+            desc.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        Event e = new Event(desc.toString(), "Organizer", "Edmonton", name, 50, "2025-12-01", null);
+        e.setEvent_id("event_" + i);
+        return e;
+    }
+
+    private static String cap(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
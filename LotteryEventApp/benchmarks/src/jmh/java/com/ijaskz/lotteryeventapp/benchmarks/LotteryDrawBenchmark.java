@@ -0,0 +1,80 @@
+package com.ijaskz.lotteryeventapp.benchmarks;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.service.DrawStrategy;
+import com.ijaskz.lotteryeventapp.service.LotteryService;
+import com.ijaskz.lotteryeventapp.service.PartialFisherYatesDraw;
+import com.ijaskz.lotteryeventapp.service.ReservoirDraw;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and allocation of a single lottery draw for different waiting-list sizes.
+ *
+ * <p>Run with {@code ./gradlew :benchmarks:jmh}; the gc profiler adds the allocation rate
+ * per draw (gc.alloc.rate.norm) next to the throughput. Results are written to
+ * benchmarks/build/results/jmh/results.json.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LotteryDrawBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int poolSize;
+
+    @Param({"50"})
+    public int slots;
+
+    @Param({"fisherYates", "reservoir"})
+    public String strategy;
+
+    private LotteryService service;
+
+    @Setup
+    public void setUp() {
+        DrawStrategy draw = "reservoir".equals(strategy) ? new ReservoirDraw() : new PartialFisherYatesDraw();
+        service = new LotteryService(new StubWaitingListManager(poolSize), draw, new Random());
+    }
+
+    @Benchmark
+    public void runLottery(Blackhole bh) {
+        service.runLottery("bench", slots, null, new Sink(bh));
+    }
+
+    @Benchmark
+    public void replenishFromWaitlistOnDecline(Blackhole bh) {
+        service.replenishFromWaitlistOnDecline("bench", slots, null, new Sink(bh));
+    }
+
+    /** Hands the winners to the blackhole so the draw cannot be optimised away. */
+    private static final class Sink implements LotteryService.OnLotteryComplete {
+        private final Blackhole bh;
+
+        Sink(Blackhole bh) {
+            this.bh = bh;
+        }
+
+        @Override
+        public void onSuccess(List<WaitingListEntry> winners) {
+            bh.consume(winners);
+        }
+
+        @Override
+        public void onFailure(Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.ijaskz.lotteryeventapp.benchmarks;
+
+import com.ijaskz.lotteryeventapp.util.DateFormats;
+import com.ijaskz.lotteryeventapp.util.RegistrationWindowLabels;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the "Opens: … • Closes: …" text for one row bind in the events list, while
+ * scrolling back and forth over the loaded events.
+ *
+ * <p>{@code simpleDateFormatPerBind} is the old EventsAdapter.fmt, creating two
+ * SimpleDateFormats per bind; {@code sharedFormatter} formats with DateFormats' cached
+ * formatters; {@code memoizedLabel} is what the adapter does now. Run with
+ * {@code ./gradlew :benchmarks:jmh -Pjmh.includes=RowDateFormatBenchmark} and compare
+ * gc.alloc.rate.norm (bytes per bind): the memoized label should allocate nothing once
+ * every row has been seen.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RowDateFormatBenchmark {
+
+    /** Events loaded in the list: PagedEventFeed.MAX_PAGES * PAGE_SIZE. */
+    @Param({"150"})
+    public int rows;
+
+    private String[] ids;
+    private long[] starts;
+    private long[] ends;
+    private RegistrationWindowLabels labels;
+    private int row;
+
+    @Setup
+    public void setUp() {
+        ids = new String[rows];
+        starts = new long[rows];
+        ends = new long[rows];
+        long t = 1_762_529_400_000L;
+        for (int i = 0; i < rows; i++) {
+            ids[i] = "event_" + i;
+            starts[i] = t + i * 3_600_000L;
+            ends[i] = starts[i] + 7 * 24 * 3_600_000L;
+        }
+        labels = new RegistrationWindowLabels();
+        for (int i = 0; i < rows; i++) {
+            labels.label(ids[i], starts[i], ends[i]);
+        }
+    }
+
+    private int nextRow() {
+        int r = row;
+        row = r + 1 == rows ? 0 : r + 1;
+        return r;
+    }
+
+    @Benchmark
+    public String simpleDateFormatPerBind() {
+        int r = nextRow();
+        return "Opens: " + new SimpleDateFormat(DateFormats.SHORT_DATE_TIME, Locale.getDefault()).format(new Date(starts[r]))
+                + "  •  Closes: " + new SimpleDateFormat(DateFormats.SHORT_DATE_TIME, Locale.getDefault()).format(new Date(ends[r]));
+    }
+
+    @Benchmark
+    public String sharedFormatter() {
+        int r = nextRow();
+        return "Opens: " + DateFormats.shortDateTime(starts[r])
+                + "  •  Closes: " + DateFormats.shortDateTime(ends[r]);
+    }
+
+    @Benchmark
+    public String memoizedLabel() {
+        int r = nextRow();
+        return labels.label(ids[r], starts[r], ends[r]);
+    }
+}
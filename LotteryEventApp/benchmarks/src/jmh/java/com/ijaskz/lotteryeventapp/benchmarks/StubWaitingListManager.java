@@ -0,0 +1,49 @@
+package com.ijaskz.lotteryeventapp.benchmarks;
+
+import com.ijaskz.lotteryeventapp.WaitingListEntry;
+import com.ijaskz.lotteryeventapp.WaitingListManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WaitingListManager that serves a preloaded pool and acknowledges every write immediately,
+ * so benchmarks measure only the selection work done by LotteryService.
+ */
+class StubWaitingListManager extends WaitingListManager {
+
+    private final List<WaitingListEntry> pool;
+
+    StubWaitingListManager(int poolSize) {
+        super(true);
+        pool = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            WaitingListEntry e = new WaitingListEntry("bench", "u" + i, "User " + i, "u" + i + "@example.com");
+            e.setId("wl" + i);
+            pool.add(e);
+        }
+    }
+
+    @Override
+    public void getEntriesByStatus(String eventId, String status, OnEntriesLoadedListener listener) {
+        listener.onEntriesLoaded(pool);
+    }
+
+    @Override
+    public void scanEntriesByStatus(String eventId, String status, OnEntriesPageListener listener) {
+        for (int from = 0; from < pool.size(); from += SCAN_PAGE_SIZE) {
+            listener.onPage(pool.subList(from, Math.min(pool.size(), from + SCAN_PAGE_SIZE)));
+        }
+        listener.onComplete();
+    }
+
+    @Override
+    public void updateEntries(List<WaitingListEntry> entries, String newStatus, Integer hours, OnCompleteListener listener) {
+        listener.onSuccess();
+    }
+
+    @Override
+    public void updateEntriesForReplacements(List<WaitingListEntry> entries, String newStatus, Integer hours, OnCompleteListener listener) {
+        listener.onSuccess();
+    }
+}
@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "LotteryEventApp"
 include(":app")
+include(":benchmarks")